@@ -0,0 +1,14 @@
+import type { Asset } from './types';
+
+// Scene assets worth showing for a beat: drafts drop out once a final render has replaced them.
+export function visibleSceneAssets(assets: Asset[] | undefined): Asset[] {
+    const scenes = (assets ?? []).filter((asset) => asset.assetType === 'IMAGE' || asset.assetType === 'VIDEO');
+    const promoted = new Set(scenes.map((asset) => asset.draftAssetId).filter((id) => id != null));
+    return scenes.filter((asset) => !promoted.has(asset.id));
+}
+
+// The best scene asset available for a beat: the selected variant, preferring a final render over a draft.
+export function pickSceneAsset(assets: Asset[] | undefined): Asset | undefined {
+    const candidates = visibleSceneAssets(assets).filter((asset) => asset.selected !== false);
+    return candidates.find((asset) => asset.quality !== 'DRAFT') ?? candidates[0];
+}
@@ -2,20 +2,40 @@ interface AssetsFooterProps {
     projectLoaded: boolean;
     hasAssets: boolean;
     projectId: number | null;
+    hasDrafts: boolean;
+    quality: 'draft' | 'final';
     isGeneratingAssets: boolean;
+    onQualityChange: (quality: 'draft' | 'final') => void;
     onGenerateAssets: () => void;
+    onPromoteDrafts: () => void;
+    onCancelGeneration: () => void;
 }
 
 export function AssetsFooter({
     projectLoaded,
     hasAssets,
     projectId,
+    hasDrafts,
+    quality,
     isGeneratingAssets,
+    onQualityChange,
     onGenerateAssets,
+    onPromoteDrafts,
+    onCancelGeneration,
 }: AssetsFooterProps) {
     return (
         <div className="mt-auto pt-10 flex flex-col items-center gap-4" data-oid="9alignl">
             <div className="flex items-center gap-4">
+                <select
+                    value={quality}
+                    onChange={(e) => onQualityChange(e.target.value as 'draft' | 'final')}
+                    disabled={isGeneratingAssets}
+                    className="text-sm bg-white/10 text-gray-100 border border-white/20 rounded-full px-4 py-3 focus:outline-none focus:ring-2 focus:ring-purple-500/60 disabled:opacity-50"
+                    data-oid="asset-quality"
+                >
+                    <option value="draft">Draft preview</option>
+                    <option value="final">Final quality</option>
+                </select>
                 <button
                     onClick={onGenerateAssets}
                     disabled={!projectLoaded || isGeneratingAssets}
@@ -31,6 +51,25 @@ export function AssetsFooter({
                     )}
                     {isGeneratingAssets ? 'Generating...' : 'Generate Assets'}
                 </button>
+                {!isGeneratingAssets && hasDrafts && (
+                    <button
+                        onClick={onPromoteDrafts}
+                        disabled={!projectLoaded}
+                        className="bg-white/10 border border-white/20 text-white px-6 py-3 rounded-full text-sm hover:bg-white/20 transition-all duration-300 backdrop-blur-sm disabled:opacity-50"
+                        data-oid="promote-drafts"
+                    >
+                        Promote Drafts
+                    </button>
+                )}
+                {isGeneratingAssets && (
+                    <button
+                        onClick={onCancelGeneration}
+                        className="bg-white/10 border border-white/20 text-white px-6 py-3 rounded-full text-sm hover:bg-white/20 transition-all duration-300 backdrop-blur-sm"
+                        data-oid="cancel-generation"
+                    >
+                        Cancel
+                    </button>
+                )}
                 {projectLoaded && hasAssets && projectId && (
                     <a
                         className="bg-white/10 border border-white/20 text-white px-6 py-3 rounded-full text-sm hover:bg-white/20 transition-all duration-300 backdrop-blur-sm hover:scale-105"
@@ -1,3 +1,4 @@
+import { visibleSceneAssets } from '../assets';
 import type { Beat } from '../types';
 
 interface BeatRowProps {
@@ -9,6 +10,7 @@ interface BeatRowProps {
     onDeleteBeatAt: (beatId: number) => void;
     onUpdateBeatLocal: (beatId: number, updates: Partial<Beat>) => void;
     onUpdateBeat: (beatId: number, updates: Partial<Beat>) => void;
+    onSelectVariant: (assetId: number) => void;
     setBeatRef: (beatId: number, node: HTMLDivElement | null) => void;
 }
 
@@ -21,6 +23,7 @@ export function BeatRow({
     onDeleteBeatAt,
     onUpdateBeatLocal,
     onUpdateBeat,
+    onSelectVariant,
     setBeatRef,
 }: BeatRowProps) {
     const videoModel = beat.videoModel ?? 'VEO3_FAST';
@@ -195,6 +198,25 @@ export function BeatRow({
                             </div>
 
                             <div className="flex items-center gap-4">
+                                {beat.sceneType === 'IMAGE' && (
+                                    <select
+                                        value={beat.imageVariants ?? 1}
+                                        onChange={(e) => {
+                                            const nextUpdates: Partial<Beat> = {
+                                                imageVariants: Number.parseInt(e.target.value, 10),
+                                            };
+                                            onUpdateBeatLocal(beat.id, nextUpdates);
+                                            void onUpdateBeat(beat.id, nextUpdates);
+                                        }}
+                                        className="text-xs bg-white/10 text-gray-100 border border-white/20 rounded-md px-2 py-1 focus:outline-none focus:ring-2 focus:ring-purple-500/60"
+                                    >
+                                        {[1, 2, 3, 4].map((count) => (
+                                            <option key={count} value={count}>
+                                                {count === 1 ? '1 image' : `${count} variants`}
+                                            </option>
+                                        ))}
+                                    </select>
+                                )}
                                 {beat.sceneType === 'VIDEO' && (
                                     <div className="flex items-center gap-3">
                                         <select
@@ -237,18 +259,22 @@ export function BeatRow({
 
                 {beat.assets && beat.assets.length > 0 && (
                     <div className="mt-3 space-y-2 max-w-full lg:max-w-[320px]">
-                        {beat.assets
-                            .filter((asset) => asset.assetType === 'IMAGE' || asset.assetType === 'VIDEO')
+                        {visibleSceneAssets(beat.assets)
                             .map((asset) => {
                                 if (asset.assetType === 'IMAGE') {
+                                    const isAlternative = asset.selected === false;
                                     return (
                                         <img
                                             key={asset.id}
-                                            src={asset.url}
-                                            alt="Generated scene"
+                                            src={asset.thumbnailUrl ?? asset.url}
+                                            alt={isAlternative ? 'Scene variant' : 'Generated scene'}
                                             loading="lazy"
                                             decoding="async"
-                                            className="w-full rounded media-hover"
+                                            title={isAlternative ? 'Use this variant' : undefined}
+                                            onClick={isAlternative ? () => onSelectVariant(asset.id) : undefined}
+                                            className={`w-full rounded media-hover ${
+                                                isAlternative ? 'opacity-50 hover:opacity-100 cursor-pointer' : ''
+                                            } ${asset.quality === 'DRAFT' ? 'border border-dashed border-white/40' : ''}`}
                                         />
                                     );
                                 }
@@ -257,7 +283,8 @@ export function BeatRow({
                                         <video
                                             key={asset.id}
                                             controls
-                                            preload="metadata"
+                                            preload={asset.posterUrl ? 'none' : 'metadata'}
+                                            poster={asset.posterUrl ?? undefined}
                                             src={asset.url}
                                             className="w-full rounded media-hover"
                                         />
@@ -1,3 +1,4 @@
+import { pickSceneAsset } from '../assets';
 import type { Beat } from '../types';
 
 interface PreviewModalProps {
@@ -53,9 +54,7 @@ export function PreviewModal({
                 >
                     {(() => {
                         const beat = beats[previewIndex];
-                        const asset = beat?.assets?.find(
-                            (item) => item.assetType === 'IMAGE' || item.assetType === 'VIDEO',
-                        );
+                        const asset = pickSceneAsset(beat?.assets);
                         if (!asset) {
                             return <div className="text-white/70">No asset</div>;
                         }
@@ -64,6 +63,7 @@ export function PreviewModal({
                                 <video
                                     key={asset.id}
                                     src={asset.url}
+                                    poster={asset.posterUrl ?? undefined}
                                     className="max-h-full max-w-full rounded-lg"
                                     autoPlay
                                     muted
@@ -23,6 +23,7 @@ interface TimelinePanelProps {
     onDeleteBeatAt: (beatId: number) => void;
     onUpdateBeatLocal: (beatId: number, updates: Partial<Beat>) => void;
     onUpdateBeat: (beatId: number, updates: Partial<Beat>) => void;
+    onSelectVariant: (assetId: number) => void;
     setBeatRef: (beatId: number, node: HTMLDivElement | null) => void;
     onProjectNameChange: (value: string) => void;
     onSelectProjectId: (value: number | null) => void;
@@ -54,6 +55,7 @@ export function TimelinePanel({
     onDeleteBeatAt,
     onUpdateBeatLocal,
     onUpdateBeat,
+    onSelectVariant,
     setBeatRef,
     onProjectNameChange,
     onSelectProjectId,
@@ -197,6 +199,7 @@ export function TimelinePanel({
                                     onDeleteBeatAt={onDeleteBeatAt}
                                     onUpdateBeatLocal={onUpdateBeatLocal}
                                     onUpdateBeat={onUpdateBeat}
+                                    onSelectVariant={onSelectVariant}
                                     setBeatRef={setBeatRef}
                                 />
                             ))}
@@ -14,6 +14,9 @@ type GalleryAsset = {
     mimeType?: string;
     durationSeconds?: number;
     originalPrompt?: string | null;
+    posterUrl?: string | null;
+    spritesheetUrl?: string | null;
+    thumbnailUrl?: string | null;
     createdAt?: string;
 };
 
@@ -78,9 +81,24 @@ export default function ProjectGalleryClient({ projectId }: { projectId: string
             return <audio controls className="w-full" src={asset.url} />;
         }
         if (asset.assetType === 'VIDEO') {
-            return <video controls className="w-full rounded-xl" src={asset.url} />;
+            return (
+                <video
+                    controls
+                    preload={asset.posterUrl ? 'none' : 'metadata'}
+                    poster={asset.posterUrl ?? undefined}
+                    className="w-full rounded-xl"
+                    src={asset.url}
+                />
+            );
         }
-        return <img src={asset.url} alt="Generated" className="w-full rounded-xl object-cover" />;
+        return (
+            <img
+                src={asset.thumbnailUrl ?? asset.url}
+                alt="Generated"
+                loading="lazy"
+                className="w-full rounded-xl object-cover"
+            />
+        );
     };
 
     const handleDeleteAsset = async (assetId: number) => {
@@ -12,6 +12,7 @@ type GalleryProject = {
     assetCount: number;
     previewUrl?: string | null;
     previewAssetType?: 'IMAGE' | 'VIDEO' | null;
+    previewThumbnailUrl?: string | null;
 };
 
 const fetchJson = async <T,>(url: string, options?: RequestInit): Promise<T> => {
@@ -71,7 +72,14 @@ export default function GalleryPage() {
                                 </span>
                             </div>
                             <div className="mt-4 rounded-2xl border border-white/10 bg-white/5 p-4">
-                                {project.previewUrl ? (
+                                {project.previewThumbnailUrl ? (
+                                    <img
+                                        src={project.previewThumbnailUrl}
+                                        alt={`${project.name} preview`}
+                                        loading="lazy"
+                                        className="h-40 w-full rounded-xl object-cover"
+                                    />
+                                ) : project.previewUrl ? (
                                     project.previewAssetType === 'VIDEO' ? (
                                         <video
                                             className="h-40 w-full rounded-xl object-cover"
@@ -1,13 +1,14 @@
 'use client';
 
 import { useEffect, useMemo, useRef, useState } from 'react';
+import { pickSceneAsset } from './assets';
 import { NARRATION_PRESETS, VOICE_OPTIONS } from './constants';
 import { AssetsFooter } from './components/AssetsFooter';
 import { PreviewControls } from './components/PreviewControls';
 import { PreviewModal } from './components/PreviewModal';
 import { ProjectSidebar } from './components/ProjectSidebar';
 import { TimelinePanel } from './components/TimelinePanel';
-import type { Beat, NarrationPreset, ProjectDetail, ProjectSummary } from './types';
+import type { Beat, GenerationJob, NarrationPreset, ProjectDetail, ProjectSummary } from './types';
 
 const fetchJson = async <T,>(url: string, options?: RequestInit): Promise<T> => {
     const response = await fetch(url, {
@@ -24,6 +25,66 @@ const fetchJson = async <T,>(url: string, options?: RequestInit): Promise<T> =>
     return response.json() as Promise<T>;
 };
 
+// POSTs a request answered with server-sent events and hands each event to onEvent as it arrives.
+const streamEvents = async (url: string, body: unknown, onEvent: (name: string, data: string) => void) => {
+    const response = await fetch(url, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json', Accept: 'text/event-stream' },
+        body: JSON.stringify(body),
+    });
+    if (!response.ok || !response.body) {
+        const message = await response.text();
+        throw new Error(message || `Request failed: ${response.status}`);
+    }
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += value;
+        let boundary = buffer.indexOf('\n\n');
+        while (boundary >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            let name = 'message';
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith('event:')) {
+                    name = line.slice(6).trim();
+                } else if (line.startsWith('data:')) {
+                    data.push(line.slice(5).replace(/^ /, ''));
+                }
+            }
+            onEvent(name, data.join('\n'));
+            boundary = buffer.indexOf('\n\n');
+        }
+    }
+};
+
+const isJobFinished = (job: GenerationJob) =>
+    job.status === 'COMPLETED' || job.status === 'FAILED' || job.status === 'CANCELLED';
+
+const waitForJob = (jobId: number, onBeat: (beat: Beat) => void) =>
+    new Promise<GenerationJob>((resolve, reject) => {
+        const source = new EventSource(`/api/jobs/${jobId}/events`);
+        source.addEventListener('beat', (event) => {
+            onBeat(JSON.parse((event as MessageEvent<string>).data) as Beat);
+        });
+        source.addEventListener('job', (event) => {
+            const job = JSON.parse((event as MessageEvent<string>).data) as GenerationJob;
+            if (isJobFinished(job)) {
+                source.close();
+                resolve(job);
+            }
+        });
+        source.onerror = () => {
+            source.close();
+            reject(new Error('Lost connection to generation progress.'));
+        };
+    });
+
 export default function Page() {
     const [prompt, setPrompt] = useState('');
     const [tone, setTone] = useState('professional');
@@ -35,6 +96,7 @@ export default function Page() {
     const [duration, setDuration] = useState('30s');
     const [ctaStyle, setCtaStyle] = useState('soft');
     const [generateNarration, setGenerateNarration] = useState(true);
+    const [quality, setQuality] = useState<'draft' | 'final'>('final');
     const [projectId, setProjectId] = useState<number | null>(null);
     const [projectName, setProjectName] = useState('');
     const [projectStatus, setProjectStatus] = useState<ProjectDetail['status']>('DRAFT');
@@ -213,10 +275,21 @@ export default function Page() {
                 selectedForGeneration: updates.selectedForGeneration,
                 videoGenerateAudio: updates.videoGenerateAudio,
                 videoModel: updates.videoModel,
+                imageVariants: updates.imageVariants,
             }),
         });
     };
 
+    const selectVariant = async (assetId: number) => {
+        setError(null);
+        try {
+            const beat = await fetchJson<Beat>(`/api/assets/${assetId}/select`, { method: 'POST' });
+            updateBeatLocal(beat.id, { assets: beat.assets });
+        } catch (err) {
+            setError(err instanceof Error ? err.message : 'Failed to select variant.');
+        }
+    };
+
     const updateBeatLocal = (beatId: number, updates: Partial<Beat>) => {
         setBeats((items) =>
             items.map((item) => (item.id === beatId ? { ...item, ...updates } : item)),
@@ -231,19 +304,38 @@ export default function Page() {
         setError(null);
         try {
             const durationSeconds = Number.parseInt(duration, 10);
-            const result = await fetchJson<Beat[]>(`/api/projects/${projectId}/generate-script`, {
-                method: 'POST',
-                body: JSON.stringify({
+            let received = 0;
+            await streamEvents(
+                `/api/projects/${projectId}/generate-script/stream`,
+                {
                     generalPrompt: prompt,
                     tone,
                     narratorVoice: narrator,
                     narratorVoicePrompt: narratorPrompt,
                     visualStylePrompt,
                     durationSeconds: Number.isFinite(durationSeconds) ? durationSeconds : null,
-                }),
-            });
-            setBeats(result);
-            setAnimationKey((prev) => prev + 1);
+                },
+                (name, data) => {
+                    if (name === 'beat') {
+                        const beat = JSON.parse(data) as Beat;
+                        const first = received === 0;
+                        received += 1;
+                        setBeats((items) => (first ? [beat] : [...items, beat]));
+                        if (first) {
+                            setAnimationKey((prev) => prev + 1);
+                        }
+                    } else if (name === 'reset') {
+                        received = 0;
+                    } else if (name === 'done') {
+                        setBeats(JSON.parse(data) as Beat[]);
+                        if (received === 0) {
+                            setAnimationKey((prev) => prev + 1);
+                        }
+                    } else if (name === 'error') {
+                        throw new Error((JSON.parse(data) as { message: string }).message);
+                    }
+                },
+            );
         } catch (err) {
             setError(err instanceof Error ? err.message : 'Failed to generate script.');
         } finally {
@@ -256,17 +348,37 @@ export default function Page() {
     };
 
     const handleGenerateAssets = async () => {
+        await runAssetJob(`/api/projects/${projectId}/generate-assets`, {
+            aspectRatio: format,
+            generateNarration,
+            quality,
+        });
+    };
+
+    const handlePromoteDrafts = async () => {
+        await runAssetJob(`/api/projects/${projectId}/generate-assets/promote`, { aspectRatio: format });
+    };
+
+    const runAssetJob = async (path: string, body: Record<string, unknown>) => {
         if (!projectLoaded) {
             return;
         }
         setIsGeneratingAssets(true);
         setError(null);
         try {
-            const result = await fetchJson<Beat[]>(`/api/projects/${projectId}/generate-assets`, {
+            const job = await fetchJson<GenerationJob>(path, {
                 method: 'POST',
-                body: JSON.stringify({ aspectRatio: format, generateNarration }),
+                body: JSON.stringify(body),
             });
-            setBeats(result);
+            const finished = isJobFinished(job)
+                ? job
+                : await waitForJob(job.id, (beat) => updateBeatLocal(beat.id, { assets: beat.assets }));
+            await loadProject(job.projectId);
+            if (finished.status === 'FAILED') {
+                setError(finished.errorMessage || 'Failed to generate assets.');
+            } else if (finished.timedOutTasks > 0) {
+                setError(`${finished.timedOutTasks} asset(s) did not finish in time. Try generating them again.`);
+            }
         } catch (err) {
             setError(err instanceof Error ? err.message : 'Failed to generate assets.');
         } finally {
@@ -274,6 +386,17 @@ export default function Page() {
         }
     };
 
+    const handleCancelGeneration = async () => {
+        if (projectId === null) {
+            return;
+        }
+        try {
+            await fetchJson<GenerationJob[]>(`/api/projects/${projectId}/generate-assets/cancel`, { method: 'POST' });
+        } catch (err) {
+            setError(err instanceof Error ? err.message : 'Failed to cancel generation.');
+        }
+    };
+
     const insertBeatAt = async (targetOrderIndex: number) => {
         const activeProjectId = projectId;
         if (activeProjectId === null) {
@@ -322,9 +445,7 @@ export default function Page() {
         const stepMs = previewStepMsRef.current ?? 2500;
         previewStepMsRef.current = stepMs;
         const beat = beats[currentIndex];
-        const asset = beat?.assets?.find(
-            (item) => item.assetType === 'IMAGE' || item.assetType === 'VIDEO',
-        );
+        const asset = pickSceneAsset(beat?.assets);
         previewIndexRef.current = currentIndex + 1;
         if (asset?.assetType !== 'VIDEO') {
             schedulePreviewStep(stepMs);
@@ -458,9 +579,7 @@ export default function Page() {
                 setPreviewIndex(0);
                 previewIndexRef.current = 1;
                 const beat = beats[0];
-                const asset = beat?.assets?.find(
-                    (item) => item.assetType === 'IMAGE' || item.assetType === 'VIDEO',
-                );
+                const asset = pickSceneAsset(beat?.assets);
                 if (asset?.assetType !== 'VIDEO') {
                     schedulePreviewStep(stepMs);
                 }
@@ -479,9 +598,7 @@ export default function Page() {
             return;
         }
         const beat = beats[previewIndex];
-        const asset = beat?.assets?.find(
-            (item) => item.assetType === 'IMAGE' || item.assetType === 'VIDEO',
-        );
+        const asset = pickSceneAsset(beat?.assets);
         if (asset?.assetType === 'VIDEO') {
             clearPreviewTimer();
             return;
@@ -567,6 +684,7 @@ export default function Page() {
 
     const shouldAnimate = animationKey > 0;
     const hasAssets = beats.some((beat) => beat.assets && beat.assets.length > 0);
+    const hasDrafts = beats.some((beat) => pickSceneAsset(beat.assets)?.quality === 'DRAFT');
     const showGenerateNarration = beats.some(
         (beat) => beat.scriptSentence && beat.scriptSentence.trim().length > 0,
     );
@@ -636,6 +754,7 @@ export default function Page() {
                     onDeleteBeatAt={deleteBeatAt}
                     onUpdateBeatLocal={updateBeatLocal}
                     onUpdateBeat={updateBeat}
+                    onSelectVariant={(assetId) => void selectVariant(assetId)}
                     setBeatRef={setBeatRef}
                     onProjectNameChange={setProjectName}
                     onSelectProjectId={setSelectedProjectId}
@@ -649,8 +768,13 @@ export default function Page() {
                             projectLoaded={projectLoaded}
                             hasAssets={hasAssets}
                             projectId={projectId}
+                            hasDrafts={hasDrafts}
+                            quality={quality}
                             isGeneratingAssets={isGeneratingAssets}
+                            onQualityChange={setQuality}
                             onGenerateAssets={handleGenerateAssets}
+                            onPromoteDrafts={() => void handlePromoteDrafts()}
+                            onCancelGeneration={() => void handleCancelGeneration()}
                         />
                     )}
                 />
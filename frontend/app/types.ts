@@ -5,6 +5,14 @@ export type Asset = {
     provider?: string;
     mimeType?: string;
     durationSeconds?: number;
+    variantSetId?: string | null;
+    variantIndex?: number | null;
+    selected?: boolean;
+    quality?: 'DRAFT' | 'FINAL';
+    draftAssetId?: number | null;
+    posterUrl?: string | null;
+    spritesheetUrl?: string | null;
+    thumbnailUrl?: string | null;
     createdAt?: string;
 };
 
@@ -17,9 +25,37 @@ export type Beat = {
     selectedForGeneration: boolean;
     videoGenerateAudio: boolean;
     videoModel?: 'VEO3_FAST' | 'SORA';
+    imageVariants?: number;
     assets: Asset[];
 };
 
+export type GenerationTask = {
+    id: number;
+    beatId?: number | null;
+    taskType: 'NARRATION' | 'SCENE';
+    assetType: 'AUDIO' | 'IMAGE' | 'VIDEO';
+    status: 'PENDING' | 'RUNNING' | 'SUCCEEDED' | 'FAILED' | 'CANCELLED' | 'TIMED_OUT';
+    assetId?: number | null;
+    errorMessage?: string | null;
+    startedAt?: string | null;
+    finishedAt?: string | null;
+};
+
+export type GenerationJob = {
+    id: number;
+    projectId: number;
+    status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+    totalTasks: number;
+    completedTasks: number;
+    failedTasks: number;
+    timedOutTasks: number;
+    errorMessage?: string | null;
+    createdAt?: string;
+    startedAt?: string | null;
+    finishedAt?: string | null;
+    tasks: GenerationTask[];
+};
+
 export type ProjectSummary = {
     id: number;
     name: string;
@@ -1,13 +1,20 @@
 package com.gosu.firsttake;
 
+import com.gosu.firsttake.config.AiProviderProperties;
 import com.gosu.firsttake.config.SecurityProperties;
 import com.gosu.firsttake.config.SendGridProperties;
+import com.gosu.firsttake.config.StorageProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties({SecurityProperties.class, SendGridProperties.class})
+@EnableConfigurationProperties({
+	SecurityProperties.class,
+	SendGridProperties.class,
+	AiProviderProperties.class,
+	StorageProperties.class
+})
 public class FirsttakeApplication {
 
 	public static void main(String[] args) {
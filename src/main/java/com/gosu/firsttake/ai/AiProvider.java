@@ -0,0 +1,25 @@
+package com.gosu.firsttake.ai;
+
+public enum AiProvider {
+    SORA("sora", 4),
+    VEO3_FAST("veo3-fast", 4),
+    NANO_BANANA("nano-banana", 16),
+    OPENAI_TTS("openai-tts", 8),
+    OPENROUTER("openrouter", 8);
+
+    private final String id;
+    private final int defaultMaxConcurrency;
+
+    AiProvider(String id, int defaultMaxConcurrency) {
+        this.id = id;
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public int defaultMaxConcurrency() {
+        return defaultMaxConcurrency;
+    }
+}
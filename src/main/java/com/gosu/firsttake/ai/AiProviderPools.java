@@ -0,0 +1,183 @@
+package com.gosu.firsttake.ai;
+
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.InstantSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class AiProviderPools {
+    private final Map<AiProvider, ProviderPool> pools = new EnumMap<>(AiProvider.class);
+    private final AiProviderProperties.Retry retry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Sleeper sleeper;
+
+    @Autowired
+    public AiProviderPools(
+        AiProviderProperties properties,
+        ApplicationEventPublisher eventPublisher,
+        ProviderMetrics metrics
+    ) {
+        this(properties, eventPublisher, metrics, Thread::sleep, InstantSource.system());
+    }
+
+    AiProviderPools(
+        AiProviderProperties properties,
+        ApplicationEventPublisher eventPublisher,
+        ProviderMetrics metrics,
+        Sleeper sleeper,
+        InstantSource clock
+    ) {
+        this.retry = properties.getRetry();
+        this.eventPublisher = eventPublisher;
+        this.sleeper = sleeper;
+        if (retry.getMaxAttempts() < 1) {
+            throw new IllegalStateException("AI retry max attempts must be at least 1.");
+        }
+        AiProviderProperties.CircuitBreaker circuit = properties.getCircuitBreaker();
+        double maxProjectShare = properties.getScheduler().getMaxProjectShare();
+        for (AiProvider provider : AiProvider.values()) {
+            AiProviderProperties.Pool configured = properties.getPools().get(provider.id());
+            int maxConcurrency = configured != null && configured.getMaxConcurrency() != null
+                ? configured.getMaxConcurrency()
+                : provider.defaultMaxConcurrency();
+            if (maxConcurrency < 1) {
+                throw new IllegalStateException("Pool size for " + provider.id() + " must be at least 1.");
+            }
+            ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(
+                provider,
+                circuit.getFailureThreshold(),
+                circuit.getOpenDuration(),
+                clock,
+                this::onCircuitStateChanged
+            );
+            int maxPerProject = (int) Math.ceil(maxConcurrency * maxProjectShare);
+            pools.put(provider, new ProviderPool(provider, maxConcurrency, maxPerProject, breaker, metrics));
+            log.info("AI provider pool '{}' allows {} concurrent calls, {} per project",
+                provider.id(), maxConcurrency, Math.max(1, Math.min(maxConcurrency, maxPerProject)));
+        }
+    }
+
+    public <T> T call(AiProvider provider, Supplier<T> call) {
+        return call(provider, ProviderTenant.SYSTEM, Deadline.none(), call);
+    }
+
+    public <T> T call(AiProvider provider, ProviderTenant tenant, Supplier<T> call) {
+        return call(provider, tenant, Deadline.none(), call);
+    }
+
+    public <T> T call(AiProvider provider, ProviderTenant tenant, Deadline deadline, Supplier<T> call) {
+        return call(provider, null, tenant, deadline, call);
+    }
+
+    public <T> T call(AiProvider provider, String model, ProviderTenant tenant, Deadline deadline, Supplier<T> call) {
+        ProviderPool pool = pools.get(provider);
+        for (int attempt = 1; ; attempt++) {
+            if (deadline.isExpired()) {
+                throw new ProviderTimeoutException(provider.id() + " call ran out of time after " + (attempt - 1) + " attempt(s).");
+            }
+            try {
+                return pool.call(model, tenant, deadline, call);
+            } catch (RuntimeException ex) {
+                Duration delay = attempt < retry.getMaxAttempts() && isRetryable(ex) ? backoff(attempt, ex) : null;
+                if (delay != null && delay.compareTo(deadline.remaining()) >= 0) {
+                    delay = null;
+                }
+                if (delay == null) {
+                    throw ex;
+                }
+                pool.recordRetry();
+                log.warn("{} call failed (attempt {} of {}), retrying in {} ms: {}",
+                    provider.id(), attempt, retry.getMaxAttempts(), delay.toMillis(), ex.getMessage());
+                eventPublisher.publishEvent(new ProviderCallRetriedEvent(provider, attempt, delay, ex.getMessage()));
+                pause(provider, delay);
+            }
+        }
+    }
+
+    public List<ProviderPoolStats> stats() {
+        return Arrays.stream(AiProvider.values())
+            .map(provider -> pools.get(provider).stats())
+            .toList();
+    }
+
+    public ProviderPoolStats stats(AiProvider provider) {
+        return pools.get(provider).stats();
+    }
+
+    static boolean isRetryable(RuntimeException ex) {
+        if (ex instanceof ProviderTimeoutException) {
+            return false;
+        }
+        if (ex instanceof ProviderCallException callException) {
+            return callException.isRetryable();
+        }
+        return hasTransportCause(ex);
+    }
+
+    static boolean isOutage(RuntimeException ex) {
+        if (ex instanceof ProviderCallException callException) {
+            return callException.isProviderFailure();
+        }
+        return hasTransportCause(ex);
+    }
+
+    private Duration backoff(int attempt, RuntimeException ex) {
+        long ceilingMillis = Math.min(
+            retry.getMaxBackoff().toMillis(),
+            retry.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20)
+        );
+        Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceilingMillis + 1));
+        if (ex instanceof ProviderCallException callException && callException.getRetryAfter().isPresent()) {
+            Duration retryAfter = callException.getRetryAfter().get();
+            if (retryAfter.compareTo(retry.getMaxBackoff()) > 0) {
+                return null;
+            }
+            return retryAfter.compareTo(delay) > 0 ? retryAfter : delay;
+        }
+        return delay;
+    }
+
+    private void pause(AiProvider provider, Duration delay) {
+        try {
+            sleeper.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(provider.id() + " call interrupted while backing off.", ex);
+        }
+    }
+
+    private void onCircuitStateChanged(ProviderCircuitStateChangedEvent event) {
+        if (event.to() == CircuitState.OPEN) {
+            log.error("Circuit for {} opened ({}); failing calls fast", event.provider().id(), event.reason());
+        } else {
+            log.info("Circuit for {} moved {} -> {} ({})", event.provider().id(), event.from(), event.to(), event.reason());
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    private static boolean hasTransportCause(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(Duration duration) throws InterruptedException;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gosu.firsttake.ai;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
@@ -0,0 +1,30 @@
+package com.gosu.firsttake.ai;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record Deadline(Instant at) {
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+    public static Deadline none() {
+        return new Deadline(Instant.MAX);
+    }
+
+    public static Deadline in(Duration timeout) {
+        return new Deadline(Instant.now().plus(timeout));
+    }
+
+    public Deadline min(Duration timeout) {
+        Instant candidate = Instant.now().plus(timeout);
+        return candidate.isBefore(at) ? new Deadline(candidate) : this;
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(at);
+    }
+
+    public Duration remaining() {
+        Duration remaining = Duration.between(Instant.now(), at);
+        return remaining.compareTo(MIN_TIMEOUT) < 0 ? MIN_TIMEOUT : remaining;
+    }
+}
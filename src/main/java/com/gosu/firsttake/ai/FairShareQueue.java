@@ -0,0 +1,193 @@
+package com.gosu.firsttake.ai;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class FairShareQueue {
+    private final int slots;
+    private final int maxPerProject;
+    private final Map<Long, UserQueue> users = new HashMap<>();
+    private final Map<Long, Integer> activeByProject = new HashMap<>();
+    private int active;
+    private int waiting;
+    private double virtualTime;
+    private long sequence;
+
+    FairShareQueue(int slots, int maxPerProject) {
+        this.slots = slots;
+        this.maxPerProject = Math.max(1, Math.min(slots, maxPerProject));
+    }
+
+    Grant acquire(ProviderTenant tenant) throws InterruptedException {
+        return acquire(tenant, null);
+    }
+
+    Grant acquire(ProviderTenant tenant, Duration timeout) throws InterruptedException {
+        Waiter waiter;
+        synchronized (this) {
+            waiter = enqueue(tenant);
+            dispatch();
+        }
+        try {
+            if (timeout == null) {
+                waiter.latch.await();
+            } else if (!waiter.latch.await(TimeUnit.NANOSECONDS.convert(timeout), TimeUnit.NANOSECONDS)) {
+                synchronized (this) {
+                    if (waiter.grant == null) {
+                        remove(waiter);
+                        return null;
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            synchronized (this) {
+                if (waiter.grant == null) {
+                    remove(waiter);
+                    throw ex;
+                }
+            }
+            // Granted while being interrupted: give the slot back rather than leak it.
+            release(waiter.grant);
+            throw ex;
+        }
+        return waiter.grant;
+    }
+
+    void release(Grant grant) {
+        synchronized (this) {
+            active--;
+            activeByProject.computeIfPresent(grant.projectKey(), (key, count) -> count > 1 ? count - 1 : null);
+            dispatch();
+        }
+    }
+
+    synchronized int active() {
+        return active;
+    }
+
+    synchronized int waiting() {
+        return waiting;
+    }
+
+    private Waiter enqueue(ProviderTenant tenant) {
+        long userKey = Objects.requireNonNullElse(tenant.userId(), 0L);
+        long projectKey = Objects.requireNonNullElse(tenant.projectId(), 0L);
+        UserQueue user = users.computeIfAbsent(userKey, key -> new UserQueue(virtualTime));
+        user.weight = tenant.weight();
+        ProjectQueue project = user.projects.computeIfAbsent(projectKey, key -> new ProjectQueue(user.projectVirtualTime));
+        Waiter waiter = new Waiter(userKey, projectKey, sequence++);
+        project.waiters.addLast(waiter);
+        waiting++;
+        return waiter;
+    }
+
+    private void dispatch() {
+        while (active < slots) {
+            UserQueue user = null;
+            ProjectQueue project = null;
+            for (UserQueue candidateUser : users.values()) {
+                ProjectQueue candidateProject = nextProject(candidateUser);
+                if (candidateProject != null && (user == null || earlier(candidateUser.virtualTime,
+                    candidateProject.waiters.peekFirst(), user.virtualTime, project.waiters.peekFirst()))) {
+                    user = candidateUser;
+                    project = candidateProject;
+                }
+            }
+            if (user == null) {
+                return;
+            }
+            Waiter waiter = project.waiters.removeFirst();
+            waiting--;
+            active++;
+            activeByProject.merge(waiter.projectKey, 1, Integer::sum);
+            virtualTime = Math.max(virtualTime, user.virtualTime);
+            user.virtualTime += 1.0 / user.weight;
+            user.projectVirtualTime = Math.max(user.projectVirtualTime, project.virtualTime);
+            project.virtualTime += 1.0;
+            if (project.waiters.isEmpty()) {
+                user.projects.remove(waiter.projectKey);
+            }
+            if (user.projects.isEmpty()) {
+                users.remove(waiter.userKey);
+            }
+            waiter.grant = new Grant(waiter.projectKey);
+            waiter.latch.countDown();
+        }
+    }
+
+    private ProjectQueue nextProject(UserQueue user) {
+        ProjectQueue next = null;
+        for (Map.Entry<Long, ProjectQueue> entry : user.projects.entrySet()) {
+            ProjectQueue candidate = entry.getValue();
+            if (activeByProject.getOrDefault(entry.getKey(), 0) >= maxPerProject) {
+                continue;
+            }
+            if (next == null || earlier(candidate.virtualTime, candidate.waiters.peekFirst(),
+                next.virtualTime, next.waiters.peekFirst())) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+
+    private static boolean earlier(double time, Waiter head, double otherTime, Waiter otherHead) {
+        return time < otherTime || (time == otherTime && head.sequence < otherHead.sequence);
+    }
+
+    private void remove(Waiter waiter) {
+        UserQueue user = users.get(waiter.userKey);
+        ProjectQueue project = user == null ? null : user.projects.get(waiter.projectKey);
+        if (project != null && project.waiters.remove(waiter)) {
+            waiting--;
+            if (project.waiters.isEmpty()) {
+                user.projects.remove(waiter.projectKey);
+            }
+            if (user.projects.isEmpty()) {
+                users.remove(waiter.userKey);
+            }
+        }
+    }
+
+    record Grant(long projectKey) {
+    }
+
+    private static final class UserQueue {
+        private final Map<Long, ProjectQueue> projects = new HashMap<>();
+        private double virtualTime;
+        private double projectVirtualTime;
+        private int weight = 1;
+
+        private UserQueue(double virtualTime) {
+            this.virtualTime = virtualTime;
+        }
+    }
+
+    private static final class ProjectQueue {
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private double virtualTime;
+
+        private ProjectQueue(double virtualTime) {
+            this.virtualTime = virtualTime;
+        }
+    }
+
+    private static final class Waiter {
+        private final long userKey;
+        private final long projectKey;
+        private final long sequence;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private Grant grant;
+
+        private Waiter(long userKey, long projectKey, long sequence) {
+            this.userKey = userKey;
+            this.projectKey = projectKey;
+            this.sequence = sequence;
+        }
+    }
+}
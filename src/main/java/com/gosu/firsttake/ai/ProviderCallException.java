@@ -0,0 +1,68 @@
+package com.gosu.firsttake.ai;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+
+public class ProviderCallException extends IllegalStateException {
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(408, 425, 429, 500, 502, 503, 504);
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    private ProviderCallException(String message, int statusCode, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public static ProviderCallException forStatus(String message, int statusCode, Optional<String> retryAfterHeader) {
+        return new ProviderCallException(message, statusCode, retryAfterHeader.map(ProviderCallException::parseRetryAfter)
+            .orElse(null), null);
+    }
+
+    public static ProviderCallException forTransport(String message, IOException cause) {
+        return new ProviderCallException(message, 0, null, cause);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 0 || RETRYABLE_STATUSES.contains(statusCode);
+    }
+
+    // Throttling says nothing about provider health, so 429s are retried without tripping the breaker.
+    public boolean isProviderFailure() {
+        return statusCode == 0 || (isRetryable() && statusCode != 429);
+    }
+
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // fall through to the date form
+        }
+        try {
+            Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(Instant.now(), at);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.gosu.firsttake.ai;
+
+import java.time.Duration;
+
+public record ProviderCallRetriedEvent(AiProvider provider, int attempt, Duration delay, String reason) {
+}
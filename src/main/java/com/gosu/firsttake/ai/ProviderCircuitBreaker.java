@@ -0,0 +1,101 @@
+package com.gosu.firsttake.ai;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.function.Consumer;
+
+class ProviderCircuitBreaker {
+    private final AiProvider provider;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final InstantSource clock;
+    private final Consumer<ProviderCircuitStateChangedEvent> listener;
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    ProviderCircuitBreaker(
+        AiProvider provider,
+        int failureThreshold,
+        Duration openDuration,
+        InstantSource clock,
+        Consumer<ProviderCircuitStateChangedEvent> listener
+    ) {
+        this.provider = provider;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    void acquire() {
+        ProviderCircuitStateChangedEvent event;
+        synchronized (this) {
+            if (state == CircuitState.CLOSED) {
+                return;
+            }
+            if (state == CircuitState.OPEN) {
+                Duration elapsed = Duration.between(openedAt, clock.instant());
+                if (elapsed.compareTo(openDuration) < 0) {
+                    throw new ProviderCircuitOpenException(provider, openDuration.minus(elapsed));
+                }
+                event = transition(CircuitState.HALF_OPEN, "open interval elapsed");
+            } else {
+                event = null;
+            }
+            if (trialInFlight) {
+                throw new ProviderCircuitOpenException(provider, Duration.ZERO);
+            }
+            trialInFlight = true;
+        }
+        notify(event);
+    }
+
+    void onSuccess() {
+        ProviderCircuitStateChangedEvent event = null;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state != CircuitState.CLOSED) {
+                event = transition(CircuitState.CLOSED, "trial call succeeded");
+            }
+        }
+        notify(event);
+    }
+
+    void onFailure(String reason) {
+        ProviderCircuitStateChangedEvent event = null;
+        synchronized (this) {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN
+                || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+                openedAt = clock.instant();
+                event = transition(CircuitState.OPEN, reason);
+            }
+        }
+        notify(event);
+    }
+
+    synchronized void abandon() {
+        trialInFlight = false;
+    }
+
+    synchronized CircuitState state() {
+        return state;
+    }
+
+    private ProviderCircuitStateChangedEvent transition(CircuitState next, String reason) {
+        ProviderCircuitStateChangedEvent event = new ProviderCircuitStateChangedEvent(provider, state, next, reason);
+        state = next;
+        return event;
+    }
+
+    private void notify(ProviderCircuitStateChangedEvent event) {
+        if (event != null) {
+            listener.accept(event);
+        }
+    }
+}
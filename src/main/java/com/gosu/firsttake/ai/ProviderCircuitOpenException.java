@@ -0,0 +1,9 @@
+package com.gosu.firsttake.ai;
+
+import java.time.Duration;
+
+public class ProviderCircuitOpenException extends IllegalStateException {
+    public ProviderCircuitOpenException(AiProvider provider, Duration remaining) {
+        super(provider.id() + " is failing; calls are paused for another " + Math.max(1, remaining.toSeconds()) + "s.");
+    }
+}
@@ -0,0 +1,4 @@
+package com.gosu.firsttake.ai;
+
+public record ProviderCircuitStateChangedEvent(AiProvider provider, CircuitState from, CircuitState to, String reason) {
+}
@@ -0,0 +1,39 @@
+package com.gosu.firsttake.ai;
+
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.time.Duration;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProviderDeadlines {
+    private final AiProviderProperties.Deadlines properties;
+
+    public ProviderDeadlines(AiProviderProperties properties) {
+        this.properties = properties.getDeadlines();
+    }
+
+    public Duration forCall(AiProvider provider, String modelId) {
+        Duration model = modelId == null ? null : properties.getModels().get(modelId);
+        if (model != null) {
+            return model;
+        }
+        Duration configured = properties.getProviders().get(provider.id());
+        return configured != null ? configured : properties.getRequestTimeout();
+    }
+
+    public Duration connectTimeout() {
+        return properties.getConnectTimeout();
+    }
+
+    public Duration requestTimeout() {
+        return properties.getRequestTimeout();
+    }
+
+    public Duration downloadTimeout() {
+        return properties.getDownloadTimeout();
+    }
+
+    public Duration jobBudget() {
+        return properties.getJobBudget();
+    }
+}
@@ -0,0 +1,88 @@
+package com.gosu.firsttake.ai;
+
+import com.gosu.firsttake.ai.openrouter.OpenRouterUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProviderMetrics {
+    static final String CALLS = "firsttake.ai.provider.calls";
+    static final String RENDERS = "firsttake.ai.provider.renders";
+    static final String DOWNLOADED = "firsttake.ai.downloaded";
+    static final String TOKENS = "firsttake.ai.tokens";
+    static final String COST = "firsttake.ai.cost";
+    private static final String DEFAULT_MODEL = "default";
+
+    private final MeterRegistry registry;
+
+    public ProviderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void recordCall(AiProvider provider, String model, String outcome, long nanos) {
+        Timer.builder(CALLS)
+            .description("Provider call latency per attempt, excluding the wait for a pool slot")
+            .tag("provider", provider.id())
+            .tag("model", model == null ? DEFAULT_MODEL : model)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRender(String model, String outcome, Duration elapsed) {
+        Timer.builder(RENDERS)
+            .description("Time from queue submission until the provider request settled")
+            .tag("model", model == null ? DEFAULT_MODEL : model)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(elapsed.isNegative() ? Duration.ZERO : elapsed);
+    }
+
+    public void recordDownload(String source, long bytes) {
+        DistributionSummary.builder(DOWNLOADED)
+            .description("Bytes downloaded from providers and asset hosts")
+            .baseUnit("bytes")
+            .tag("source", source)
+            .register(registry)
+            .record(bytes);
+    }
+
+    public void recordUsage(AiProvider provider, String model, OpenRouterUsage usage) {
+        if (usage == null) {
+            return;
+        }
+        String modelTag = model == null || model.isBlank() ? DEFAULT_MODEL : model;
+        if (usage.promptTokens() != null) {
+            tokens(provider, modelTag, "prompt").increment(usage.promptTokens());
+        }
+        if (usage.completionTokens() != null) {
+            tokens(provider, modelTag, "completion").increment(usage.completionTokens());
+        }
+        if (usage.cost() != null) {
+            Counter.builder(COST)
+                .description("Provider-reported cost of completed calls")
+                .baseUnit("usd")
+                .tag("provider", provider.id())
+                .tag("model", modelTag)
+                .register(registry)
+                .increment(usage.cost());
+        }
+    }
+
+    private Counter tokens(AiProvider provider, String model, String type) {
+        return Counter.builder(TOKENS)
+            .description("Tokens consumed by completed calls")
+            .baseUnit("tokens")
+            .tag("provider", provider.id())
+            .tag("model", model)
+            .tag("type", type)
+            .register(registry);
+    }
+}
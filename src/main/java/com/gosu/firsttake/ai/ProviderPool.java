@@ -0,0 +1,114 @@
+package com.gosu.firsttake.ai;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+class ProviderPool {
+    private final AiProvider provider;
+    private final int maxConcurrency;
+    private final FairShareQueue slots;
+    private final ProviderCircuitBreaker breaker;
+    private final ProviderMetrics metrics;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    ProviderPool(
+        AiProvider provider,
+        int maxConcurrency,
+        int maxPerProject,
+        ProviderCircuitBreaker breaker,
+        ProviderMetrics metrics
+    ) {
+        this.provider = provider;
+        this.maxConcurrency = maxConcurrency;
+        this.slots = new FairShareQueue(maxConcurrency, maxPerProject);
+        this.breaker = breaker;
+        this.metrics = metrics;
+    }
+
+    <T> T call(String model, ProviderTenant tenant, Deadline deadline, Supplier<T> call) {
+        try {
+            breaker.acquire();
+        } catch (ProviderCircuitOpenException ex) {
+            rejected.increment();
+            throw ex;
+        }
+        FairShareQueue.Grant grant;
+        try {
+            grant = acquire(tenant, deadline);
+        } catch (RuntimeException ex) {
+            breaker.abandon();
+            throw ex;
+        }
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            return result;
+        } catch (RuntimeException ex) {
+            if (ex instanceof ProviderTimeoutException) {
+                timedOut.increment();
+            }
+            if (AiProviderPools.isOutage(ex)) {
+                failures.increment();
+                breaker.onFailure(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            } else {
+                breaker.onSuccess();
+            }
+            outcome = ex instanceof ProviderTimeoutException ? "timeout" : AiProviderPools.isOutage(ex) ? "failure" : "rejected";
+            throw ex;
+        } finally {
+            slots.release(grant);
+            metrics.recordCall(provider, model, outcome, System.nanoTime() - start);
+        }
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    private FairShareQueue.Grant acquire(ProviderTenant tenant, Deadline deadline) {
+        long start = System.nanoTime();
+        FairShareQueue.Grant grant;
+        try {
+            grant = slots.acquire(tenant, deadline.remaining());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(provider.id() + " call interrupted while waiting for a slot.", ex);
+        }
+        if (grant == null) {
+            timedOut.increment();
+            throw new ProviderTimeoutException(provider.id() + " call ran out of time waiting for a slot.");
+        }
+        long waited = System.nanoTime() - start;
+        acquired.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return grant;
+    }
+
+    ProviderPoolStats stats() {
+        long count = acquired.sum();
+        return new ProviderPoolStats(
+            provider.id(),
+            maxConcurrency,
+            slots.active(),
+            slots.waiting(),
+            count,
+            count == 0 ? 0.0 : totalWaitNanos.sum() / (double) count / 1_000_000.0,
+            maxWaitNanos.get() / 1_000_000.0,
+            breaker.state().name(),
+            failures.sum(),
+            retries.sum(),
+            rejected.sum(),
+            timedOut.sum()
+        );
+    }
+}
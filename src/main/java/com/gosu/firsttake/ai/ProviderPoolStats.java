@@ -0,0 +1,17 @@
+package com.gosu.firsttake.ai;
+
+public record ProviderPoolStats(
+    String provider,
+    int maxConcurrency,
+    int active,
+    int queued,
+    long acquired,
+    double averageWaitMillis,
+    double maxWaitMillis,
+    String circuitState,
+    long failures,
+    long retries,
+    long rejected,
+    long timedOut
+) {
+}
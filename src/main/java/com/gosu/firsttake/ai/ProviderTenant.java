@@ -0,0 +1,11 @@
+package com.gosu.firsttake.ai;
+
+public record ProviderTenant(Long userId, Long projectId, int weight) {
+    public static final ProviderTenant SYSTEM = new ProviderTenant(null, null, 1);
+
+    public ProviderTenant {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Tenant weight must be at least 1.");
+        }
+    }
+}
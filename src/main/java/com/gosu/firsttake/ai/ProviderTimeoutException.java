@@ -0,0 +1,11 @@
+package com.gosu.firsttake.ai;
+
+public class ProviderTimeoutException extends IllegalStateException {
+    public ProviderTimeoutException(String message) {
+        super(message);
+    }
+
+    public ProviderTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
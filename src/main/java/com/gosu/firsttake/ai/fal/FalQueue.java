@@ -0,0 +1,140 @@
+package com.gosu.firsttake.ai.fal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.ProviderCallException;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTimeoutException;
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FalQueue {
+    public static final String WEBHOOK_PATH = "/api/webhooks/fal";
+
+    private static final Gson GSON = new Gson();
+
+    private final HttpClient httpClient;
+    private final AiProviderProperties.Fal properties;
+    private final Duration requestTimeout;
+
+    public FalQueue(AiProviderProperties properties, ProviderDeadlines deadlines) {
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .build();
+        this.properties = properties.getFal();
+        this.requestTimeout = deadlines.requestTimeout();
+    }
+
+    public boolean webhooksEnabled() {
+        return notBlank(properties.getWebhookBaseUrl());
+    }
+
+    public String submit(String modelId, Map<String, Object> input) {
+        String uri = queueUrl() + "/" + modelId;
+        if (webhooksEnabled()) {
+            uri += "?fal_webhook=" + URLEncoder.encode(webhookUrl(), StandardCharsets.UTF_8);
+        }
+        JsonObject response = send(HttpRequest.newBuilder(URI.create(uri))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(input))), modelId);
+        String requestId = response.has("request_id") && response.get("request_id").isJsonPrimitive()
+            ? response.get("request_id").getAsString()
+            : null;
+        if (requestId == null || requestId.isBlank()) {
+            throw new IllegalStateException("fal did not return a requestId for " + modelId + ".");
+        }
+        return requestId;
+    }
+
+    public FalRequestStatus status(String modelId, String requestId) {
+        JsonObject response = send(HttpRequest.newBuilder(URI.create(requestUrl(modelId, requestId) + "/status")).GET(), modelId);
+        if (!response.has("status") || !response.get("status").isJsonPrimitive()) {
+            throw new IllegalStateException("fal returned no status for request " + requestId + ".");
+        }
+        return FalRequestStatus.valueOf(response.get("status").getAsString());
+    }
+
+    public JsonObject result(String modelId, String requestId) {
+        return send(HttpRequest.newBuilder(URI.create(requestUrl(modelId, requestId))).GET(), modelId);
+    }
+
+    public void cancel(String modelId, String requestId) {
+        send(HttpRequest.newBuilder(URI.create(requestUrl(modelId, requestId) + "/cancel"))
+            .PUT(HttpRequest.BodyPublishers.noBody()), modelId);
+    }
+
+    public void deletePayloads(String modelId, String requestId) {
+        String uri = stripTrailingSlash(properties.getPlatformUrl()) + "/models/requests/"
+            + URLEncoder.encode(requestId, StandardCharsets.UTF_8) + "/payloads";
+        send(HttpRequest.newBuilder(URI.create(uri)).DELETE(), modelId);
+    }
+
+    static String appId(String modelId) {
+        String[] parts = modelId.split("/");
+        return parts.length <= 2 ? modelId : parts[0] + "/" + parts[1];
+    }
+
+    private String requestUrl(String modelId, String requestId) {
+        return queueUrl() + "/" + appId(modelId) + "/requests/" + URLEncoder.encode(requestId, StandardCharsets.UTF_8);
+    }
+
+    private String queueUrl() {
+        return stripTrailingSlash(properties.getQueueUrl());
+    }
+
+    private String webhookUrl() {
+        return stripTrailingSlash(properties.getWebhookBaseUrl()) + WEBHOOK_PATH;
+    }
+
+    private JsonObject send(HttpRequest.Builder builder, String modelId) {
+        String apiKey = properties.getApiKey();
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("FAL_KEY is not set.");
+        }
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(
+                builder.header("Authorization", "Key " + apiKey).timeout(requestTimeout).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("fal queue request interrupted.", ex);
+        } catch (HttpTimeoutException ex) {
+            throw new ProviderTimeoutException("fal queue request for " + modelId + " timed out.", ex);
+        } catch (IOException ex) {
+            throw ProviderCallException.forTransport("fal queue request failed.", ex);
+        }
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw ProviderCallException.forStatus(
+                "fal queue error (" + response.statusCode() + ") for " + modelId + ": " + response.body(),
+                response.statusCode(),
+                response.headers().firstValue("Retry-After")
+            );
+        }
+        if (response.body() == null || response.body().isBlank()) {
+            return new JsonObject();
+        }
+        return JsonParser.parseString(response.body()).getAsJsonObject();
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String stripTrailingSlash(String value) {
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.gosu.firsttake.ai.fal;
+
+import com.google.gson.JsonObject;
+import java.util.List;
+import java.util.Optional;
+
+public interface FalQueuedModel {
+    String modelId();
+
+    String mediaUrl(JsonObject result);
+
+    default List<String> mediaUrls(JsonObject result) {
+        String url = mediaUrl(result);
+        return url == null || url.isBlank() ? List.of() : List.of(url);
+    }
+
+    default Optional<String> posterUrl(JsonObject result) {
+        return Optional.empty();
+    }
+
+    default Optional<String> spritesheetUrl(JsonObject result) {
+        return Optional.empty();
+    }
+}
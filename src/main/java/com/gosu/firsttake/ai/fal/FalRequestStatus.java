@@ -0,0 +1,7 @@
+package com.gosu.firsttake.ai.fal;
+
+public enum FalRequestStatus {
+    IN_QUEUE,
+    IN_PROGRESS,
+    COMPLETED
+}
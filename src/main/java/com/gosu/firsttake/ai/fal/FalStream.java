@@ -0,0 +1,142 @@
+package com.gosu.firsttake.ai.fal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderCallException;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTimeoutException;
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FalStream {
+    private static final Gson GSON = new Gson();
+    private static final String DATA_PREFIX = "data:";
+    private static final ScheduledThreadPoolExecutor DEADLINE_TIMER = deadlineTimer();
+
+    private final HttpClient httpClient;
+    private final AiProviderProperties.Fal properties;
+
+    public FalStream(AiProviderProperties properties, ProviderDeadlines deadlines) {
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .build();
+        this.properties = properties.getFal();
+    }
+
+    public JsonObject stream(String modelId, Map<String, Object> input, Deadline deadline, Consumer<JsonObject> onEvent) {
+        String apiKey = properties.getApiKey();
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("FAL_KEY is not set.");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(runUrl() + "/" + modelId + "/stream"))
+            .header("Authorization", "Key " + apiKey)
+            .header("Content-Type", "application/json")
+            .header("Accept", "text/event-stream")
+            .timeout(deadline.remaining())
+            .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(input)))
+            .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("fal stream request interrupted.", ex);
+        } catch (HttpTimeoutException ex) {
+            throw new ProviderTimeoutException("fal stream request for " + modelId + " timed out.", ex);
+        } catch (IOException ex) {
+            throw ProviderCallException.forTransport("fal stream request failed.", ex);
+        }
+        InputStream body = response.body();
+        AtomicBoolean stalled = new AtomicBoolean();
+        ScheduledFuture<?> timer = Instant.MAX.equals(deadline.at()) ? null : DEADLINE_TIMER.schedule(() -> {
+            stalled.set(true);
+            closeQuietly(body);
+        }, deadline.remaining().toMillis(), TimeUnit.MILLISECONDS);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw ProviderCallException.forStatus(
+                    "fal stream error (" + response.statusCode() + ") for " + modelId + ": "
+                        + lines.lines().collect(Collectors.joining("\n")),
+                    response.statusCode(),
+                    response.headers().firstValue("Retry-After")
+                );
+            }
+            JsonObject last = null;
+            StringBuilder data = new StringBuilder();
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (deadline.isExpired()) {
+                    throw new ProviderTimeoutException("fal stream for " + modelId + " ran past its deadline.");
+                }
+                if (line.startsWith(DATA_PREFIX)) {
+                    data.append(line.substring(DATA_PREFIX.length()).strip());
+                } else if (line.isEmpty() && !data.isEmpty()) {
+                    JsonElement event = JsonParser.parseString(data.toString());
+                    data.setLength(0);
+                    if (event.isJsonObject()) {
+                        last = event.getAsJsonObject();
+                        onEvent.accept(last);
+                    }
+                }
+            }
+            if (last == null) {
+                throw new IllegalStateException("fal stream for " + modelId + " ended without a result.");
+            }
+            return last;
+        } catch (IOException | UncheckedIOException ex) {
+            if (stalled.get()) {
+                throw new ProviderTimeoutException("fal stream for " + modelId + " stalled past its deadline.", ex);
+            }
+            IOException cause = ex instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) ex;
+            throw ProviderCallException.forTransport("fal stream for " + modelId + " broke off.", cause);
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // The reader fails on the closed stream either way.
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor deadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(
+            1,
+            Thread.ofPlatform().name("fal-stream-deadline").daemon().factory()
+        );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private String runUrl() {
+        String url = properties.getRunUrl();
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
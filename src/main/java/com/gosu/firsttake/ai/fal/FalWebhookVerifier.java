@@ -0,0 +1,154 @@
+package com.gosu.firsttake.ai.fal;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class FalWebhookVerifier {
+    // DER header of an X.509 SubjectPublicKeyInfo for a raw 32-byte Ed25519 key.
+    private static final byte[] ED25519_KEY_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+    private static final Duration KEYS_TTL = Duration.ofHours(24);
+    private static final Duration MIN_REFRESH = Duration.ofMinutes(1);
+
+    private final HttpClient httpClient;
+    private final String jwksUrl;
+    private final Duration tolerance;
+    private final Duration requestTimeout;
+    private volatile CachedKeys cachedKeys = new CachedKeys(List.of(), Instant.EPOCH, Instant.EPOCH);
+
+    public FalWebhookVerifier(AiProviderProperties properties, ProviderDeadlines deadlines) {
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .build();
+        this.jwksUrl = properties.getFal().getWebhookJwksUrl();
+        this.tolerance = properties.getFal().getWebhookTolerance();
+        this.requestTimeout = deadlines.requestTimeout();
+    }
+
+    public boolean verify(String requestId, String userId, String timestamp, String signature, byte[] body) {
+        if (isBlank(requestId) || isBlank(userId) || isBlank(timestamp) || isBlank(signature)) {
+            return false;
+        }
+        byte[] signatureBytes;
+        try {
+            long sentAt = Long.parseLong(timestamp.trim());
+            if (Math.abs(Instant.now().getEpochSecond() - sentAt) > tolerance.toSeconds()) {
+                return false;
+            }
+            signatureBytes = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        byte[] message = String.join("\n", requestId, userId, timestamp, sha256Hex(body))
+            .getBytes(StandardCharsets.UTF_8);
+        CachedKeys keys = keys(false);
+        if (matchesAny(keys.keys(), message, signatureBytes)) {
+            return true;
+        }
+        CachedKeys refreshed = keys(true);
+        return refreshed != keys && matchesAny(refreshed.keys(), message, signatureBytes);
+    }
+
+    private CachedKeys keys(boolean refresh) {
+        CachedKeys current = cachedKeys;
+        Instant now = Instant.now();
+        boolean stale = refresh || now.isAfter(current.fetchedAt().plus(KEYS_TTL));
+        if (!stale || now.isBefore(current.attemptedAt().plus(MIN_REFRESH))) {
+            return current;
+        }
+        synchronized (this) {
+            if (cachedKeys != current) {
+                return cachedKeys;
+            }
+            try {
+                cachedKeys = new CachedKeys(fetchKeys(), now, now);
+            } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+                log.warn("Could not load fal webhook keys from {}", jwksUrl, ex);
+                cachedKeys = new CachedKeys(current.keys(), current.fetchedAt(), now);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return cachedKeys;
+        }
+    }
+
+    private List<PublicKey> fetchKeys() throws IOException, InterruptedException, GeneralSecurityException {
+        HttpResponse<String> response = httpClient.send(
+            HttpRequest.newBuilder(URI.create(jwksUrl)).timeout(requestTimeout).GET().build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IOException("fal JWKS request failed with status " + response.statusCode());
+        }
+        JsonObject jwks = JsonParser.parseString(response.body()).getAsJsonObject();
+        KeyFactory keyFactory = KeyFactory.getInstance("Ed25519");
+        List<PublicKey> keys = new ArrayList<>();
+        for (JsonElement element : jwks.getAsJsonArray("keys")) {
+            JsonObject jwk = element.getAsJsonObject();
+            if (!jwk.has("x") || !"Ed25519".equals(jwk.has("crv") ? jwk.get("crv").getAsString() : null)) {
+                continue;
+            }
+            byte[] raw = Base64.getUrlDecoder().decode(jwk.get("x").getAsString());
+            byte[] encoded = new byte[ED25519_KEY_PREFIX.length + raw.length];
+            System.arraycopy(ED25519_KEY_PREFIX, 0, encoded, 0, ED25519_KEY_PREFIX.length);
+            System.arraycopy(raw, 0, encoded, ED25519_KEY_PREFIX.length, raw.length);
+            keys.add(keyFactory.generatePublic(new X509EncodedKeySpec(encoded)));
+        }
+        return List.copyOf(keys);
+    }
+
+    private static boolean matchesAny(List<PublicKey> keys, byte[] message, byte[] signature) {
+        for (PublicKey key : keys) {
+            try {
+                Signature verifier = Signature.getInstance("Ed25519");
+                verifier.initVerify(key);
+                verifier.update(message);
+                if (verifier.verify(signature)) {
+                    return true;
+                }
+            } catch (GeneralSecurityException ex) {
+                // A malformed signature simply does not match this key.
+            }
+        }
+        return false;
+    }
+
+    private static String sha256Hex(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record CachedKeys(List<PublicKey> keys, Instant fetchedAt, Instant attemptedAt) {
+    }
+}
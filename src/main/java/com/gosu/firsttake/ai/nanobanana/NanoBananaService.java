@@ -1,10 +1,9 @@
 package com.gosu.firsttake.ai.nanobanana;
 
-import ai.fal.client.FalClient;
-import ai.fal.client.Output;
-import ai.fal.client.SubscribeOptions;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.ai.fal.FalQueuedModel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -15,16 +14,31 @@ import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-public class NanoBananaService {
+public class NanoBananaService implements FalQueuedModel {
     private static final String MODEL_ID = "fal-ai/nano-banana";
 
-    private final FalClient falClient;
+    private final FalQueue falQueue;
 
-    public NanoBananaService() {
-        this.falClient = FalClient.withEnvCredentials();
+    public NanoBananaService(FalQueue falQueue) {
+        this.falQueue = falQueue;
     }
 
-    public NanoBananaResult generate(NanoBananaForm form) {
+    @Override
+    public String modelId() {
+        return MODEL_ID;
+    }
+
+    @Override
+    public String mediaUrl(JsonObject result) {
+        return parseResult(result).imageUrls().stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<String> mediaUrls(JsonObject result) {
+        return parseResult(result).imageUrls().stream().filter(url -> !url.isBlank()).toList();
+    }
+
+    public String submit(NanoBananaForm form) {
         Map<String, Object> input = new HashMap<>();
         input.put("prompt", form.getPrompt());
         if (form.getNumImages() != null) {
@@ -44,15 +58,12 @@ public class NanoBananaService {
             form.getNumImages()
         );
 
-        Output<JsonObject> output = falClient.subscribe(
-            MODEL_ID,
-            SubscribeOptions.<JsonObject>builder()
-                .input(input)
-                .resultType(JsonObject.class)
-                .build()
-        );
+        String requestId = falQueue.submit(MODEL_ID, input);
+        log.info("Nano Banana request queued: requestId='{}'", requestId);
+        return requestId;
+    }
 
-        JsonObject result = output == null ? null : output.getData();
+    public NanoBananaResult parseResult(JsonObject result) {
         List<String> imageUrls = new ArrayList<>();
         String description = "";
         if (result != null) {
@@ -1,11 +1,13 @@
 package com.gosu.firsttake.ai.openrouter;
 
-import ai.fal.client.FalClient;
-import ai.fal.client.Output;
-import ai.fal.client.SubscribeOptions;
 import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.ai.fal.FalStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +16,55 @@ import org.springframework.stereotype.Service;
 public class OpenRouterService {
     private static final String MODEL_ID = "openrouter/router";
 
-    private final FalClient falClient;
+    private final FalStream falStream;
+    private final ProviderMetrics metrics;
 
-    public OpenRouterService() {
-        this.falClient = FalClient.withEnvCredentials();
+    public OpenRouterService(FalStream falStream, ProviderMetrics metrics) {
+        this.falStream = falStream;
+        this.metrics = metrics;
     }
 
-    public OpenRouterResult generate(OpenRouterRequest request) {
+    public OpenRouterResult generate(OpenRouterRequest request, Deadline deadline) {
+        Map<String, Object> input = toInput(request);
+        log.info("Submitting OpenRouter request: model='{}', temperature='{}', maxTokens='{}'",
+            request.getModel(),
+            request.getTemperature(),
+            request.getMaxTokens()
+        );
+
+        JsonObject output = falStream.stream(MODEL_ID, input, deadline, event -> {
+        });
+
+        OpenRouterResult result = toResult(output);
+        metrics.recordUsage(AiProvider.OPENROUTER, request.getModel(), result.usage());
+        log.info("OpenRouter response length: {}, error: {}", result.output() == null ? 0 : result.output().length(), result.error());
+        return result;
+    }
+
+    public OpenRouterResult stream(OpenRouterRequest request, Deadline deadline, Consumer<String> onText) {
+        log.info("Streaming OpenRouter request: model='{}', temperature='{}', maxTokens='{}'",
+            request.getModel(),
+            request.getTemperature(),
+            request.getMaxTokens()
+        );
+        StringBuilder seen = new StringBuilder();
+        JsonObject last = falStream.stream(MODEL_ID, toInput(request), deadline, event -> {
+            String output = event.has("output") && event.get("output").isJsonPrimitive()
+                ? event.get("output").getAsString()
+                : null;
+            if (output != null && output.length() > seen.length() && output.startsWith(seen)) {
+                String delta = output.substring(seen.length());
+                seen.append(delta);
+                onText.accept(delta);
+            }
+        });
+        OpenRouterResult result = toResult(last);
+        metrics.recordUsage(AiProvider.OPENROUTER, request.getModel(), result.usage());
+        log.info("OpenRouter streamed response length: {}, error: {}", seen.length(), result.error());
+        return result;
+    }
+
+    private static Map<String, Object> toInput(OpenRouterRequest request) {
         Map<String, Object> input = new HashMap<>();
         input.put("prompt", request.getPrompt());
         if (request.getSystemPrompt() != null && !request.getSystemPrompt().isBlank()) {
@@ -38,22 +82,10 @@ public class OpenRouterService {
         if (request.getMaxTokens() != null) {
             input.put("max_tokens", request.getMaxTokens());
         }
+        return input;
+    }
 
-        log.info("Submitting OpenRouter request: model='{}', temperature='{}', maxTokens='{}'",
-            request.getModel(),
-            request.getTemperature(),
-            request.getMaxTokens()
-        );
-
-        Output<JsonObject> output = falClient.subscribe(
-            MODEL_ID,
-            SubscribeOptions.<JsonObject>builder()
-                .input(input)
-                .resultType(JsonObject.class)
-                .build()
-        );
-
-        JsonObject result = output == null ? null : output.getData();
+    private static OpenRouterResult toResult(JsonObject result) {
         String text = null;
         String reasoning = null;
         Boolean partial = null;
@@ -82,8 +114,6 @@ public class OpenRouterService {
                 usage = new OpenRouterUsage(promptTokens, completionTokens, totalTokens, cost);
             }
         }
-
-        log.info("OpenRouter response length: {}, error: {}", text == null ? 0 : text.length(), error);
         return new OpenRouterResult(text, reasoning, partial, error, usage);
     }
 }
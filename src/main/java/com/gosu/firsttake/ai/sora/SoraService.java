@@ -1,29 +1,46 @@
 package com.gosu.firsttake.ai.sora;
 
-import ai.fal.client.FalClient;
-import ai.fal.client.Output;
-import ai.fal.client.queue.QueueResultOptions;
-import ai.fal.client.queue.QueueStatus;
-import ai.fal.client.queue.QueueSubmitOptions;
-import ai.fal.client.queue.QueueSubscribeOptions;
 import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.ai.fal.FalQueuedModel;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-public class SoraService {
+public class SoraService implements FalQueuedModel {
     private static final String MODEL_ID = "fal-ai/sora-2/text-to-video";
 
-    private final FalClient falClient;
+    private final FalQueue falQueue;
 
-    public SoraService() {
-        this.falClient = FalClient.withEnvCredentials();
+    public SoraService(FalQueue falQueue) {
+        this.falQueue = falQueue;
     }
 
-    public SoraResult generate(SoraRequest request) {
+    @Override
+    public String modelId() {
+        return MODEL_ID;
+    }
+
+    @Override
+    public String mediaUrl(JsonObject result) {
+        return parseResult(result).videoUrl();
+    }
+
+    @Override
+    public Optional<String> posterUrl(JsonObject result) {
+        return Optional.ofNullable(parseResult(result).thumbnailUrl()).filter(url -> !url.isBlank());
+    }
+
+    @Override
+    public Optional<String> spritesheetUrl(JsonObject result) {
+        return Optional.ofNullable(parseResult(result).spritesheetUrl()).filter(url -> !url.isBlank());
+    }
+
+    public String submit(SoraRequest request) {
         Map<String, Object> input = new HashMap<>();
         input.put("prompt", request.getPrompt());
         if (request.getResolution() != null && !request.getResolution().isBlank()) {
@@ -50,35 +67,12 @@ public class SoraService {
             request.getModel()
         );
 
-        QueueStatus.InQueue queued = falClient.queue().submit(
-            MODEL_ID,
-            QueueSubmitOptions.builder()
-                .input(input)
-                .build()
-        );
-
-        if (queued == null || queued.getRequestId() == null || queued.getRequestId().isBlank()) {
-            log.warn("Sora request did not return a requestId.");
-            return new SoraResult(null, null, null, null);
-        }
-
-        String requestId = queued.getRequestId();
-        falClient.queue().subscribeToStatus(
-            MODEL_ID,
-            QueueSubscribeOptions.builder()
-                .requestId(requestId)
-                .build()
-        );
-
-        Output<JsonObject> output = falClient.queue().result(
-            MODEL_ID,
-            QueueResultOptions.<JsonObject>builder()
-                .requestId(requestId)
-                .resultType(JsonObject.class)
-                .build()
-        );
+        String requestId = falQueue.submit(MODEL_ID, input);
+        log.info("Sora request queued: requestId='{}'", requestId);
+        return requestId;
+    }
 
-        JsonObject result = output == null ? null : output.getData();
+    public SoraResult parseResult(JsonObject result) {
         String videoUrl = null;
         String videoId = null;
         String thumbnailUrl = null;
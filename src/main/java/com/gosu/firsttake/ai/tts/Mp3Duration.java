@@ -0,0 +1,46 @@
+package com.gosu.firsttake.ai.tts;
+
+import java.util.Optional;
+
+public final class Mp3Duration {
+    private static final int[] MPEG1_LAYER3_KBPS = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 0};
+    private static final int[] MPEG2_LAYER3_KBPS = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160, 0};
+
+    private Mp3Duration() {
+    }
+
+    // Constant bitrate estimate from the first Layer III frame header, which is what OpenAI TTS returns.
+    public static Optional<Double> estimateSeconds(byte[] data) {
+        if (data == null || data.length < 4) {
+            return Optional.empty();
+        }
+        int offset = skipId3Tag(data);
+        for (int i = offset; i < data.length - 3; i++) {
+            if ((data[i] & 0xFF) != 0xFF || (data[i + 1] & 0xE0) != 0xE0) {
+                continue;
+            }
+            int version = (data[i + 1] >> 3) & 0x03;
+            int layer = (data[i + 1] >> 1) & 0x03;
+            int bitrateIndex = (data[i + 2] >> 4) & 0x0F;
+            if (version == 1 || layer != 1) {
+                continue;
+            }
+            int kbps = version == 3 ? MPEG1_LAYER3_KBPS[bitrateIndex] : MPEG2_LAYER3_KBPS[bitrateIndex];
+            if (kbps == 0) {
+                continue;
+            }
+            long audioBytes = data.length - i;
+            return Optional.of(audioBytes * 8.0 / (kbps * 1000.0));
+        }
+        return Optional.empty();
+    }
+
+    private static int skipId3Tag(byte[] data) {
+        if (data.length < 10 || data[0] != 'I' || data[1] != 'D' || data[2] != '3') {
+            return 0;
+        }
+        int size = ((data[6] & 0x7F) << 21) | ((data[7] & 0x7F) << 14) | ((data[8] & 0x7F) << 7) | (data[9] & 0x7F);
+        boolean hasFooter = (data[5] & 0x10) != 0;
+        return Math.min(data.length, 10 + size + (hasFooter ? 10 : 0));
+    }
+}
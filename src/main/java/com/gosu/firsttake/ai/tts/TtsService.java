@@ -2,12 +2,17 @@ package com.gosu.firsttake.ai.tts;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.ProviderCallException;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTimeoutException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -21,13 +26,19 @@ public class TtsService {
     private final String apiKey;
     private final String defaultModel;
 
-    public TtsService(@Value("${openai.tts.model:gpt-4o-mini-tts}") String defaultModel) {
-        this.httpClient = HttpClient.newHttpClient();
+    public TtsService(@Value("${openai.tts.model:gpt-4o-mini-tts}") String defaultModel, ProviderDeadlines deadlines) {
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .build();
         this.apiKey = System.getenv("OPENAI_API_KEY");
         this.defaultModel = defaultModel;
     }
 
-    public TtsResult generate(TtsRequest request) {
+    public String defaultModel() {
+        return defaultModel;
+    }
+
+    public TtsResult generate(TtsRequest request, Duration timeout) {
         if (request == null || request.getInput() == null || request.getInput().isBlank()) {
             throw new IllegalArgumentException("TTS input must not be blank.");
         }
@@ -66,6 +77,7 @@ public class TtsService {
             .header("Authorization", "Bearer " + apiKey)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(payload.toString()))
+            .timeout(timeout)
             .build();
 
         HttpResponse<byte[]> response;
@@ -74,14 +86,20 @@ public class TtsService {
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("OpenAI TTS request interrupted.", ex);
+        } catch (HttpTimeoutException ex) {
+            throw new ProviderTimeoutException("OpenAI TTS request timed out after " + timeout.toSeconds() + "s.", ex);
         } catch (IOException ex) {
-            throw new IllegalStateException("OpenAI TTS request failed.", ex);
+            throw ProviderCallException.forTransport("OpenAI TTS request failed.", ex);
         }
 
         if (response.statusCode() < 200 || response.statusCode() >= 300) {
             String errorBody = new String(response.body(), StandardCharsets.UTF_8);
             String errorMessage = extractErrorMessage(errorBody);
-            throw new IllegalStateException("OpenAI TTS error (" + response.statusCode() + "): " + errorMessage);
+            throw ProviderCallException.forStatus(
+                "OpenAI TTS error (" + response.statusCode() + "): " + errorMessage,
+                response.statusCode(),
+                response.headers().firstValue("Retry-After")
+            );
         }
 
         log.info("OpenAI TTS response size: {} bytes", response.body().length);
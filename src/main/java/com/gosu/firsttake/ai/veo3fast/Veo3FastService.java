@@ -1,9 +1,8 @@
 package com.gosu.firsttake.ai.veo3fast;
 
-import ai.fal.client.FalClient;
-import ai.fal.client.Output;
-import ai.fal.client.SubscribeOptions;
 import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.ai.fal.FalQueuedModel;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
@@ -11,16 +10,26 @@ import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-public class Veo3FastService {
+public class Veo3FastService implements FalQueuedModel {
     private static final String MODEL_ID = "fal-ai/veo3/fast";
 
-    private final FalClient falClient;
+    private final FalQueue falQueue;
 
-    public Veo3FastService() {
-        this.falClient = FalClient.withEnvCredentials();
+    public Veo3FastService(FalQueue falQueue) {
+        this.falQueue = falQueue;
     }
 
-    public Veo3FastResult generate(Veo3FastRequest request) {
+    @Override
+    public String modelId() {
+        return MODEL_ID;
+    }
+
+    @Override
+    public String mediaUrl(JsonObject result) {
+        return parseResult(result).videoUrl();
+    }
+
+    public String submit(Veo3FastRequest request) {
         Map<String, Object> input = new HashMap<>();
         input.put("prompt", request.getPrompt());
         if (request.getAspectRatio() != null && !request.getAspectRatio().isBlank()) {
@@ -55,15 +64,12 @@ public class Veo3FastService {
             request.getSeed()
         );
 
-        Output<JsonObject> output = falClient.subscribe(
-            MODEL_ID,
-            SubscribeOptions.<JsonObject>builder()
-                .input(input)
-                .resultType(JsonObject.class)
-                .build()
-        );
+        String requestId = falQueue.submit(MODEL_ID, input);
+        log.info("Veo3 Fast request queued: requestId='{}'", requestId);
+        return requestId;
+    }
 
-        JsonObject result = output == null ? null : output.getData();
+    public Veo3FastResult parseResult(JsonObject result) {
         String videoUrl = null;
         if (result != null && result.has("video") && result.get("video").isJsonObject()) {
             JsonObject video = result.getAsJsonObject("video");
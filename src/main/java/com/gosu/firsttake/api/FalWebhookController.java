@@ -0,0 +1,63 @@
+package com.gosu.firsttake.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.fal.FalWebhookVerifier;
+import com.gosu.firsttake.service.FalQueuePoller;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/webhooks/fal")
+public class FalWebhookController {
+    private final FalQueuePoller falQueuePoller;
+    private final FalWebhookVerifier webhookVerifier;
+
+    public FalWebhookController(FalQueuePoller falQueuePoller, FalWebhookVerifier webhookVerifier) {
+        this.falQueuePoller = falQueuePoller;
+        this.webhookVerifier = webhookVerifier;
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> complete(
+        @RequestHeader(name = "X-Fal-Webhook-Request-Id", required = false) String webhookRequestId,
+        @RequestHeader(name = "X-Fal-Webhook-User-Id", required = false) String webhookUserId,
+        @RequestHeader(name = "X-Fal-Webhook-Timestamp", required = false) String webhookTimestamp,
+        @RequestHeader(name = "X-Fal-Webhook-Signature", required = false) String webhookSignature,
+        @RequestBody byte[] body
+    ) {
+        if (!webhookVerifier.verify(webhookRequestId, webhookUserId, webhookTimestamp, webhookSignature, body)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        JsonObject json;
+        try {
+            json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        String requestId = readString(json, "request_id");
+        if (requestId == null || requestId.isBlank()) {
+            throw new IllegalArgumentException("Webhook is missing request_id.");
+        }
+        JsonElement payload = json.get("payload");
+        boolean accepted = falQueuePoller.handleWebhook(
+            requestId,
+            "OK".equalsIgnoreCase(readString(json, "status")),
+            payload != null && payload.isJsonObject() ? payload.getAsJsonObject() : null,
+            readString(json, "error")
+        );
+        return accepted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private String readString(JsonObject json, String field) {
+        return json.has(field) && json.get(field).isJsonPrimitive() ? json.get(field).getAsString() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.gosu.firsttake.api;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.service.GenerationJobEvents;
+import com.gosu.firsttake.service.GenerationJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class GenerationJobController {
+    private final GenerationJobService jobService;
+    private final GenerationJobEvents jobEvents;
+
+    public GenerationJobController(GenerationJobService jobService, GenerationJobEvents jobEvents) {
+        this.jobService = jobService;
+        this.jobEvents = jobEvents;
+    }
+
+    @GetMapping("/{jobId}")
+    public GenerationJobDtos.JobDetail getJob(@PathVariable Long jobId) {
+        return jobService.getJob(jobId).orElseThrow(GenerationJobController::jobNotFound);
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public GenerationJobDtos.JobDetail cancelJob(@PathVariable Long jobId) {
+        return jobService.cancelJob(jobId).orElseThrow(GenerationJobController::jobNotFound);
+    }
+
+    @GetMapping(path = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable Long jobId) {
+        GenerationJobDtos.JobDetail job = jobService.getJob(jobId).orElseThrow(GenerationJobController::jobNotFound);
+        SseEmitter emitter = jobEvents.subscribe(jobId);
+        jobEvents.sendSnapshot(emitter, job);
+        return emitter;
+    }
+
+    private static ResponseStatusException jobNotFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found.");
+    }
+}
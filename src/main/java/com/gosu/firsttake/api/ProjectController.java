@@ -1,13 +1,20 @@
 package com.gosu.firsttake.api;
 
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
 import com.gosu.firsttake.api.dto.ProjectDtos;
 import com.gosu.firsttake.api.dto.ProjectRequests;
+import com.gosu.firsttake.service.AssetContentService;
+import com.gosu.firsttake.service.DraftPromotionService;
 import com.gosu.firsttake.service.ExportService;
+import com.gosu.firsttake.service.GenerationJobService;
 import com.gosu.firsttake.service.ProjectService;
+import com.gosu.firsttake.service.ScriptStreamer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,16 +24,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
 public class ProjectController {
     private final ProjectService projectService;
     private final ExportService exportService;
-
-    public ProjectController(ProjectService projectService, ExportService exportService) {
+    private final GenerationJobService generationJobService;
+    private final DraftPromotionService draftPromotionService;
+    private final ScriptStreamer scriptStreamer;
+    private final AssetContentService assetContentService;
+
+    public ProjectController(
+        ProjectService projectService,
+        ExportService exportService,
+        GenerationJobService generationJobService,
+        DraftPromotionService draftPromotionService,
+        ScriptStreamer scriptStreamer,
+        AssetContentService assetContentService
+    ) {
         this.projectService = projectService;
         this.exportService = exportService;
+        this.generationJobService = generationJobService;
+        this.draftPromotionService = draftPromotionService;
+        this.scriptStreamer = scriptStreamer;
+        this.assetContentService = assetContentService;
     }
 
     @GetMapping("/projects")
@@ -95,12 +118,35 @@ public class ProjectController {
         return projectService.generateScript(projectId, request);
     }
 
+    @PostMapping(path = "/projects/{projectId}/generate-script/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamScript(
+        @PathVariable Long projectId,
+        @RequestBody ProjectRequests.GenerateScript request
+    ) {
+        return scriptStreamer.stream(projectId, request);
+    }
+
     @PostMapping("/projects/{projectId}/generate-assets")
-    public List<ProjectDtos.BeatDetail> generateAssets(
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public GenerationJobDtos.JobDetail generateAssets(
         @PathVariable Long projectId,
         @RequestBody(required = false) ProjectRequests.GenerateAssets request
     ) {
-        return projectService.generateAssets(projectId, request);
+        return generationJobService.createAssetJob(projectId, request);
+    }
+
+    @PostMapping("/projects/{projectId}/generate-assets/promote")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public GenerationJobDtos.JobDetail promoteDrafts(
+        @PathVariable Long projectId,
+        @RequestBody(required = false) ProjectRequests.PromoteDrafts request
+    ) {
+        return draftPromotionService.promoteDrafts(projectId, request);
+    }
+
+    @PostMapping("/projects/{projectId}/generate-assets/cancel")
+    public List<GenerationJobDtos.JobDetail> cancelAssetGeneration(@PathVariable Long projectId) {
+        return generationJobService.cancelProjectJobs(projectId);
     }
 
     @GetMapping("/projects/{projectId}/export.zip")
@@ -121,4 +167,28 @@ public class ProjectController {
     ) {
         return projectService.updateBeat(beatId, request);
     }
+
+    @PostMapping("/assets/{assetId}/select")
+    public ProjectDtos.BeatDetail selectVariant(@PathVariable Long assetId) {
+        return projectService.selectVariant(assetId);
+    }
+
+    @GetMapping("/assets/{assetId}/content")
+    public void getAssetContent(
+        @PathVariable Long assetId,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        assetContentService.streamContent(assetId, request, response);
+    }
+
+    @GetMapping("/assets/{assetId}/renditions/{kind}")
+    public void getAssetRendition(
+        @PathVariable Long assetId,
+        @PathVariable String kind,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        assetContentService.streamRendition(assetId, kind, request, response);
+    }
 }
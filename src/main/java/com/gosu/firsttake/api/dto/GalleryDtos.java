@@ -14,7 +14,8 @@ public final class GalleryDtos {
         Instant updatedAt,
         long assetCount,
         String previewUrl,
-        String previewAssetType
+        String previewAssetType,
+        String previewThumbnailUrl
     ) {
     }
 
@@ -29,6 +30,9 @@ public final class GalleryDtos {
         String mimeType,
         Double durationSeconds,
         String originalPrompt,
+        String posterUrl,
+        String spritesheetUrl,
+        String thumbnailUrl,
         Instant createdAt
     ) {
     }
@@ -0,0 +1,38 @@
+package com.gosu.firsttake.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public final class GenerationJobDtos {
+    private GenerationJobDtos() {
+    }
+
+    public record JobDetail(
+        Long id,
+        Long projectId,
+        String status,
+        int totalTasks,
+        int completedTasks,
+        int failedTasks,
+        int timedOutTasks,
+        String errorMessage,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        List<TaskDetail> tasks
+    ) {
+    }
+
+    public record TaskDetail(
+        Long id,
+        Long beatId,
+        String taskType,
+        String assetType,
+        String status,
+        Long assetId,
+        String errorMessage,
+        Instant startedAt,
+        Instant finishedAt
+    ) {
+    }
+}
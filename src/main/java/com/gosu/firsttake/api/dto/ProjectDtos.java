@@ -47,6 +47,7 @@ public final class ProjectDtos {
         boolean selectedForGeneration,
         boolean videoGenerateAudio,
         String videoModel,
+        int imageVariants,
         Instant createdAt,
         Instant updatedAt,
         List<AssetDetail> assets
@@ -60,6 +61,14 @@ public final class ProjectDtos {
         String provider,
         String mimeType,
         Double durationSeconds,
+        String variantSetId,
+        Integer variantIndex,
+        boolean selected,
+        String quality,
+        Long draftAssetId,
+        String posterUrl,
+        String spritesheetUrl,
+        String thumbnailUrl,
         Instant createdAt
     ) {
     }
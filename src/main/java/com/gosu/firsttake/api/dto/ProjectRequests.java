@@ -1,5 +1,7 @@
 package com.gosu.firsttake.api.dto;
 
+import java.util.List;
+
 public final class ProjectRequests {
     private ProjectRequests() {
     }
@@ -36,7 +38,8 @@ public final class ProjectRequests {
         String sceneType,
         Boolean selectedForGeneration,
         Boolean videoGenerateAudio,
-        String videoModel
+        String videoModel,
+        Integer imageVariants
     ) {
     }
 
@@ -47,7 +50,8 @@ public final class ProjectRequests {
         String sceneType,
         Boolean selectedForGeneration,
         Boolean videoGenerateAudio,
-        String videoModel
+        String videoModel,
+        Integer imageVariants
     ) {
     }
 
@@ -64,7 +68,17 @@ public final class ProjectRequests {
 
     public record GenerateAssets(
         String aspectRatio,
-        Boolean generateNarration
+        Boolean generateNarration,
+        Boolean useCache,
+        String mode,
+        String quality
+    ) {
+    }
+
+    public record PromoteDrafts(
+        List<Long> beatIds,
+        String aspectRatio,
+        Boolean useCache
     ) {
     }
 }
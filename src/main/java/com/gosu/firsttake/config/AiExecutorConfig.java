@@ -1,14 +1,43 @@
 package com.gosu.firsttake.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 public class AiExecutorConfig {
     @Bean(destroyMethod = "shutdown")
-    public ExecutorService aiExecutor() {
-        return Executors.newFixedThreadPool(10);
+    public ExecutorService aiExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger running = new AtomicInteger();
+        Gauge.builder("firsttake.ai.executor.active", running, AtomicInteger::get)
+            .description("Tasks running on the AI executor")
+            .register(meterRegistry);
+        ThreadFactory virtualThreads = Thread.ofVirtual().name("ai-", 0).factory();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(task -> virtualThreads.newThread(() -> {
+            running.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                running.decrementAndGet();
+            }
+        }));
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "aiExecutor");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService falPollExecutor(AiProviderProperties properties, MeterRegistry meterRegistry) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+            properties.getFal().getPollThreads(),
+            Thread.ofPlatform().name("fal-poll-", 0).daemon(true).factory()
+        );
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "falPollExecutor");
     }
 }
@@ -0,0 +1,421 @@
+package com.gosu.firsttake.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "firsttake.ai")
+public class AiProviderProperties {
+    private Map<String, Pool> pools = new HashMap<>();
+    private Fal fal = new Fal();
+    private Cache cache = new Cache();
+    private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Scheduler scheduler = new Scheduler();
+    private Deadlines deadlines = new Deadlines();
+    private Worker worker = new Worker();
+
+    public Map<String, Pool> getPools() {
+        return pools;
+    }
+
+    public void setPools(Map<String, Pool> pools) {
+        this.pools = pools;
+    }
+
+    public Fal getFal() {
+        return fal;
+    }
+
+    public void setFal(Fal fal) {
+        this.fal = fal;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Deadlines getDeadlines() {
+        return deadlines;
+    }
+
+    public void setDeadlines(Deadlines deadlines) {
+        this.deadlines = deadlines;
+    }
+
+    public Worker getWorker() {
+        return worker;
+    }
+
+    public void setWorker(Worker worker) {
+        this.worker = worker;
+    }
+
+    public static class Pool {
+        private Integer maxConcurrency;
+
+        public Integer getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    public static class Fal {
+        private String queueUrl = "https://queue.fal.run";
+        private String runUrl = "https://fal.run";
+        private String platformUrl = "https://api.fal.ai/v1";
+        private String apiKey;
+        private Duration pollInterval = Duration.ofSeconds(2);
+        private int pollThreads = 4;
+        private String webhookBaseUrl;
+        private String webhookJwksUrl = "https://rest.alpha.fal.ai/.well-known/jwks.json";
+        private Duration webhookTolerance = Duration.ofMinutes(5);
+        private Duration webhookSweepAfter = Duration.ofMinutes(5);
+
+        public String getQueueUrl() {
+            return queueUrl;
+        }
+
+        public void setQueueUrl(String queueUrl) {
+            this.queueUrl = queueUrl;
+        }
+
+        public String getRunUrl() {
+            return runUrl;
+        }
+
+        public void setRunUrl(String runUrl) {
+            this.runUrl = runUrl;
+        }
+
+        public String getPlatformUrl() {
+            return platformUrl;
+        }
+
+        public void setPlatformUrl(String platformUrl) {
+            this.platformUrl = platformUrl;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getPollThreads() {
+            return pollThreads;
+        }
+
+        public void setPollThreads(int pollThreads) {
+            this.pollThreads = pollThreads;
+        }
+
+        public String getWebhookBaseUrl() {
+            return webhookBaseUrl;
+        }
+
+        public void setWebhookBaseUrl(String webhookBaseUrl) {
+            this.webhookBaseUrl = webhookBaseUrl;
+        }
+
+        public String getWebhookJwksUrl() {
+            return webhookJwksUrl;
+        }
+
+        public void setWebhookJwksUrl(String webhookJwksUrl) {
+            this.webhookJwksUrl = webhookJwksUrl;
+        }
+
+        public Duration getWebhookTolerance() {
+            return webhookTolerance;
+        }
+
+        public void setWebhookTolerance(Duration webhookTolerance) {
+            this.webhookTolerance = webhookTolerance;
+        }
+
+        public Duration getWebhookSweepAfter() {
+            return webhookSweepAfter;
+        }
+
+        public void setWebhookSweepAfter(Duration webhookSweepAfter) {
+            this.webhookSweepAfter = webhookSweepAfter;
+        }
+    }
+
+    public static class Cache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofDays(7);
+        private Duration evictionInterval = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+    }
+
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+    }
+
+    public static class Scheduler {
+        private double maxProjectShare = 0.75;
+        private int defaultWeight = 1;
+        private Map<String, Integer> planWeights = new HashMap<>();
+
+        public double getMaxProjectShare() {
+            return maxProjectShare;
+        }
+
+        public void setMaxProjectShare(double maxProjectShare) {
+            this.maxProjectShare = maxProjectShare;
+        }
+
+        public int getDefaultWeight() {
+            return defaultWeight;
+        }
+
+        public void setDefaultWeight(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        public Map<String, Integer> getPlanWeights() {
+            return planWeights;
+        }
+
+        public void setPlanWeights(Map<String, Integer> planWeights) {
+            this.planWeights = planWeights;
+        }
+    }
+
+    public static class Deadlines {
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofSeconds(60);
+        private Duration downloadTimeout = Duration.ofMinutes(2);
+        private Duration jobBudget = Duration.ofMinutes(30);
+        private Map<String, Duration> providers = new HashMap<>();
+        private Map<String, Duration> models = new HashMap<>();
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Duration getDownloadTimeout() {
+            return downloadTimeout;
+        }
+
+        public void setDownloadTimeout(Duration downloadTimeout) {
+            this.downloadTimeout = downloadTimeout;
+        }
+
+        public Duration getJobBudget() {
+            return jobBudget;
+        }
+
+        public void setJobBudget(Duration jobBudget) {
+            this.jobBudget = jobBudget;
+        }
+
+        public Map<String, Duration> getProviders() {
+            return providers;
+        }
+
+        public void setProviders(Map<String, Duration> providers) {
+            this.providers = providers;
+        }
+
+        public Map<String, Duration> getModels() {
+            return models;
+        }
+
+        public void setModels(Map<String, Duration> models) {
+            this.models = models;
+        }
+    }
+
+    public static class Worker {
+        private boolean enabled = true;
+        private String nodeId;
+        private int maxJobs = 8;
+        private Duration leaseDuration = Duration.ofSeconds(60);
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        private Duration claimInterval = Duration.ofSeconds(2);
+        private Duration eventRelayInterval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public void setMaxJobs(int maxJobs) {
+            this.maxJobs = maxJobs;
+        }
+
+        public Duration getLeaseDuration() {
+            return leaseDuration;
+        }
+
+        public void setLeaseDuration(Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getClaimInterval() {
+            return claimInterval;
+        }
+
+        public void setClaimInterval(Duration claimInterval) {
+            this.claimInterval = claimInterval;
+        }
+
+        public Duration getEventRelayInterval() {
+            return eventRelayInterval;
+        }
+
+        public void setEventRelayInterval(Duration eventRelayInterval) {
+            this.eventRelayInterval = eventRelayInterval;
+        }
+    }
+}
@@ -6,14 +6,19 @@ import com.gosu.firsttake.security.DevDefaultUserFilter;
 import com.gosu.firsttake.service.DefaultUserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
@@ -21,6 +26,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 public class SecurityConfig {
+    private static final String METRICS_ROLE = "METRICS";
+
     private final SecurityProperties securityProperties;
     private final DefaultUserService defaultUserService;
     private final AppOAuth2UserService appOAuth2UserService;
@@ -35,6 +42,32 @@ public class SecurityConfig {
         this.appOAuth2UserService = appOAuth2UserService;
     }
 
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
+        SecurityProperties.Metrics metrics = securityProperties.getMetrics();
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (metrics.getPassword() != null && !metrics.getPassword().isBlank()) {
+            scrapeUsers.createUser(User.withUsername(metrics.getUsername())
+                .password(passwordEncoder.encode(metrics.getPassword()))
+                .roles(METRICS_ROLE)
+                .build());
+        }
+        DaoAuthenticationProvider scrapeAuthentication = new DaoAuthenticationProvider(scrapeUsers);
+        scrapeAuthentication.setPasswordEncoder(passwordEncoder);
+
+        http.securityMatcher("/actuator/**");
+        http.authorizeHttpRequests(authorize -> authorize
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .anyRequest().hasRole(METRICS_ROLE)
+        );
+        http.authenticationManager(new ProviderManager(scrapeAuthentication));
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        http.httpBasic(Customizer.withDefaults());
+        http.formLogin(form -> form.disable());
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/**"));
@@ -66,6 +99,7 @@ public class SecurityConfig {
                 "/**/*.ico",
                 "/**/*.woff2",
                 "/api/auth/**",
+                "/api/webhooks/fal",
                 "/oauth2/**"
             ).permitAll()
             .requestMatchers("/api/**").authenticated()
@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "firsttake.security")
 public class SecurityProperties {
     private SecurityMode mode = SecurityMode.DEV_DEFAULT_USER;
+    private Metrics metrics = new Metrics();
 
     public SecurityMode getMode() {
         return mode;
@@ -13,4 +14,33 @@ public class SecurityProperties {
     public void setMode(SecurityMode mode) {
         this.mode = mode;
     }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public static class Metrics {
+        private String username = "prometheus";
+        private String password = "";
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
 }
@@ -0,0 +1,396 @@
+package com.gosu.firsttake.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "firsttake.storage")
+public class StorageProperties {
+    private String root = "uploads";
+    private String backend = "filesystem";
+    private S3 s3 = new S3();
+    private Migration migration = new Migration();
+    private Mirror mirror = new Mirror();
+    private Renditions renditions = new Renditions();
+    private Gc gc = new Gc();
+    private Export export = new Export();
+
+    public String getRoot() {
+        return root;
+    }
+
+    public void setRoot(String root) {
+        this.root = root;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public S3 getS3() {
+        return s3;
+    }
+
+    public void setS3(S3 s3) {
+        this.s3 = s3;
+    }
+
+    public Migration getMigration() {
+        return migration;
+    }
+
+    public void setMigration(Migration migration) {
+        this.migration = migration;
+    }
+
+    public Mirror getMirror() {
+        return mirror;
+    }
+
+    public void setMirror(Mirror mirror) {
+        this.mirror = mirror;
+    }
+
+    public Renditions getRenditions() {
+        return renditions;
+    }
+
+    public void setRenditions(Renditions renditions) {
+        this.renditions = renditions;
+    }
+
+    public Gc getGc() {
+        return gc;
+    }
+
+    public void setGc(Gc gc) {
+        this.gc = gc;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public void setExport(Export export) {
+        this.export = export;
+    }
+
+    public static class Migration {
+        private boolean enabled = true;
+        private int batchSize = 20;
+        private Duration interval = Duration.ofSeconds(30);
+        private Duration claimTimeout = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+    }
+
+    public static class Mirror {
+        private boolean enabled = true;
+        private int batchSize = 20;
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration sweepAfter = Duration.ofMinutes(10);
+        private boolean releaseRemote = false;
+        private int concurrency = 4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getSweepAfter() {
+            return sweepAfter;
+        }
+
+        public void setSweepAfter(Duration sweepAfter) {
+            this.sweepAfter = sweepAfter;
+        }
+
+        public boolean isReleaseRemote() {
+            return releaseRemote;
+        }
+
+        public void setReleaseRemote(boolean releaseRemote) {
+            this.releaseRemote = releaseRemote;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+
+    public static class Renditions {
+        private boolean enabled = true;
+        private String ffmpegPath = "ffmpeg";
+        private int thumbnailWidth = 320;
+        private int spritesheetFrames = 10;
+        private int spritesheetFrameWidth = 160;
+        private Duration timeout = Duration.ofSeconds(60);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFfmpegPath() {
+            return ffmpegPath;
+        }
+
+        public void setFfmpegPath(String ffmpegPath) {
+            this.ffmpegPath = ffmpegPath;
+        }
+
+        public int getThumbnailWidth() {
+            return thumbnailWidth;
+        }
+
+        public void setThumbnailWidth(int thumbnailWidth) {
+            this.thumbnailWidth = thumbnailWidth;
+        }
+
+        public int getSpritesheetFrames() {
+            return spritesheetFrames;
+        }
+
+        public void setSpritesheetFrames(int spritesheetFrames) {
+            this.spritesheetFrames = spritesheetFrames;
+        }
+
+        public int getSpritesheetFrameWidth() {
+            return spritesheetFrameWidth;
+        }
+
+        public void setSpritesheetFrameWidth(int spritesheetFrameWidth) {
+            this.spritesheetFrameWidth = spritesheetFrameWidth;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Gc {
+        private boolean enabled = true;
+        private int batchSize = 100;
+        private int batchesPerRun = 10;
+        private Duration interval = Duration.ofMinutes(10);
+        private Duration orphanGrace = Duration.ofDays(7);
+        private Duration blobGrace = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getBatchesPerRun() {
+            return batchesPerRun;
+        }
+
+        public void setBatchesPerRun(int batchesPerRun) {
+            this.batchesPerRun = batchesPerRun;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getOrphanGrace() {
+            return orphanGrace;
+        }
+
+        public void setOrphanGrace(Duration orphanGrace) {
+            this.orphanGrace = orphanGrace;
+        }
+
+        public Duration getBlobGrace() {
+            return blobGrace;
+        }
+
+        public void setBlobGrace(Duration blobGrace) {
+            this.blobGrace = blobGrace;
+        }
+    }
+
+    public static class Export {
+        private int prefetchConcurrency = 6;
+        private DataSize prefetchMemory = DataSize.ofMegabytes(64);
+
+        public int getPrefetchConcurrency() {
+            return prefetchConcurrency;
+        }
+
+        public void setPrefetchConcurrency(int prefetchConcurrency) {
+            this.prefetchConcurrency = prefetchConcurrency;
+        }
+
+        public DataSize getPrefetchMemory() {
+            return prefetchMemory;
+        }
+
+        public void setPrefetchMemory(DataSize prefetchMemory) {
+            this.prefetchMemory = prefetchMemory;
+        }
+    }
+
+    public static class S3 {
+        private String endpoint = "";
+        private String region = "us-east-1";
+        private String bucket = "firsttake";
+        private String accessKey = "";
+        private String secretKey = "";
+        private boolean pathStyleAccess = false;
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+        private DataSize partSize = DataSize.ofMegabytes(8);
+        private Duration presignTtl = Duration.ofMinutes(15);
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public String getAccessKey() {
+            return accessKey;
+        }
+
+        public void setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+        }
+
+        public String getSecretKey() {
+            return secretKey;
+        }
+
+        public void setSecretKey(String secretKey) {
+            this.secretKey = secretKey;
+        }
+
+        public boolean isPathStyleAccess() {
+            return pathStyleAccess;
+        }
+
+        public void setPathStyleAccess(boolean pathStyleAccess) {
+            this.pathStyleAccess = pathStyleAccess;
+        }
+
+        public DataSize getMultipartThreshold() {
+            return multipartThreshold;
+        }
+
+        public void setMultipartThreshold(DataSize multipartThreshold) {
+            this.multipartThreshold = multipartThreshold;
+        }
+
+        public DataSize getPartSize() {
+            return partSize;
+        }
+
+        public void setPartSize(DataSize partSize) {
+            this.partSize = partSize;
+        }
+
+        public Duration getPresignTtl() {
+            return presignTtl;
+        }
+
+        public void setPresignTtl(Duration presignTtl) {
+            this.presignTtl = presignTtl;
+        }
+    }
+}
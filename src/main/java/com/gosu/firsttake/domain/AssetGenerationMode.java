@@ -0,0 +1,30 @@
+package com.gosu.firsttake.domain;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public enum AssetGenerationMode {
+    ALL("all"),
+    CHANGED_ONLY("changed-only");
+
+    private final String id;
+
+    AssetGenerationMode(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public static AssetGenerationMode fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return ALL;
+        }
+        String normalized = id.trim().toLowerCase(Locale.US);
+        return Arrays.stream(values())
+            .filter(mode -> mode.id.equals(normalized))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown generation mode: " + id));
+    }
+}
@@ -37,21 +37,63 @@ public class GeneratedAsset {
     @Column(nullable = false)
     private AssetType assetType;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GeneratedAssetStatus status = GeneratedAssetStatus.READY;
+
+    @Column(columnDefinition = "TEXT")
     private String url;
 
     private String provider;
 
+    private String providerModel;
+
+    private String providerRequestId;
+
+    private String cacheKey;
+
+    private String inputFingerprint;
+
     private String mimeType;
 
+    private String storageKey;
+
+    private Long sizeBytes;
+
+    private String contentSha256;
+
+    @Column(columnDefinition = "TEXT")
+    private String remoteUrl;
+
     private Double durationSeconds;
 
+    private String variantSetId;
+
+    private Integer variantIndex;
+
+    @Column(nullable = false)
+    private boolean selected = true;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private QualityTier quality = QualityTier.FINAL;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "draft_asset_id")
+    private GeneratedAsset draftAsset;
+
     @Column(columnDefinition = "TEXT")
     private String originalPrompt;
 
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    private Instant migrationClaimedAt;
+
+    private Instant migrationFailedAt;
+
+    private Instant orphanedAt;
+
     @PrePersist
     void onCreate() {
         if (createdAt == null) {
@@ -99,6 +141,14 @@ public class GeneratedAsset {
         this.assetType = assetType;
     }
 
+    public GeneratedAssetStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GeneratedAssetStatus status) {
+        this.status = status;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -115,6 +165,38 @@ public class GeneratedAsset {
         this.provider = provider;
     }
 
+    public String getProviderModel() {
+        return providerModel;
+    }
+
+    public void setProviderModel(String providerModel) {
+        this.providerModel = providerModel;
+    }
+
+    public String getProviderRequestId() {
+        return providerRequestId;
+    }
+
+    public void setProviderRequestId(String providerRequestId) {
+        this.providerRequestId = providerRequestId;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getInputFingerprint() {
+        return inputFingerprint;
+    }
+
+    public void setInputFingerprint(String inputFingerprint) {
+        this.inputFingerprint = inputFingerprint;
+    }
+
     public String getMimeType() {
         return mimeType;
     }
@@ -123,6 +205,38 @@ public class GeneratedAsset {
         this.mimeType = mimeType;
     }
 
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    public void setRemoteUrl(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
     public Double getDurationSeconds() {
         return durationSeconds;
     }
@@ -131,6 +245,46 @@ public class GeneratedAsset {
         this.durationSeconds = durationSeconds;
     }
 
+    public String getVariantSetId() {
+        return variantSetId;
+    }
+
+    public void setVariantSetId(String variantSetId) {
+        this.variantSetId = variantSetId;
+    }
+
+    public Integer getVariantIndex() {
+        return variantIndex;
+    }
+
+    public void setVariantIndex(Integer variantIndex) {
+        this.variantIndex = variantIndex;
+    }
+
+    public boolean isSelected() {
+        return selected;
+    }
+
+    public void setSelected(boolean selected) {
+        this.selected = selected;
+    }
+
+    public QualityTier getQuality() {
+        return quality;
+    }
+
+    public void setQuality(QualityTier quality) {
+        this.quality = quality;
+    }
+
+    public GeneratedAsset getDraftAsset() {
+        return draftAsset;
+    }
+
+    public void setDraftAsset(GeneratedAsset draftAsset) {
+        this.draftAsset = draftAsset;
+    }
+
     public String getOriginalPrompt() {
         return originalPrompt;
     }
@@ -146,4 +300,28 @@ public class GeneratedAsset {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Instant getMigrationClaimedAt() {
+        return migrationClaimedAt;
+    }
+
+    public void setMigrationClaimedAt(Instant migrationClaimedAt) {
+        this.migrationClaimedAt = migrationClaimedAt;
+    }
+
+    public Instant getMigrationFailedAt() {
+        return migrationFailedAt;
+    }
+
+    public void setMigrationFailedAt(Instant migrationFailedAt) {
+        this.migrationFailedAt = migrationFailedAt;
+    }
+
+    public Instant getOrphanedAt() {
+        return orphanedAt;
+    }
+
+    public void setOrphanedAt(Instant orphanedAt) {
+        this.orphanedAt = orphanedAt;
+    }
 }
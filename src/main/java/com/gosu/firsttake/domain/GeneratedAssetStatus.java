@@ -0,0 +1,8 @@
+package com.gosu.firsttake.domain;
+
+public enum GeneratedAssetStatus {
+    PENDING,
+    READY,
+    FAILED,
+    CANCELLED
+}
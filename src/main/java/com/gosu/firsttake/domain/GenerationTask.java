@@ -0,0 +1,226 @@
+package com.gosu.firsttake.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "generation_task")
+public class GenerationTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private GenerationJob job;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "beat_id")
+    private TimelineBeat beat;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id")
+    private GeneratedAsset asset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GenerationTaskType taskType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssetType assetType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GenerationTaskStatus status = GenerationTaskStatus.PENDING;
+
+    @Column(columnDefinition = "TEXT")
+    private String prompt;
+
+    private String videoModel;
+
+    private String inputFingerprint;
+
+    @Column(nullable = false)
+    private boolean generateAudio = false;
+
+    @Column(nullable = false)
+    private int variants = 1;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @PrePersist
+    void onCreate() {
+        Instant now = Instant.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (updatedAt == null) {
+            updatedAt = now;
+        }
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public GenerationJob getJob() {
+        return job;
+    }
+
+    public void setJob(GenerationJob job) {
+        this.job = job;
+    }
+
+    public TimelineBeat getBeat() {
+        return beat;
+    }
+
+    public void setBeat(TimelineBeat beat) {
+        this.beat = beat;
+    }
+
+    public GeneratedAsset getAsset() {
+        return asset;
+    }
+
+    public void setAsset(GeneratedAsset asset) {
+        this.asset = asset;
+    }
+
+    public GenerationTaskType getTaskType() {
+        return taskType;
+    }
+
+    public void setTaskType(GenerationTaskType taskType) {
+        this.taskType = taskType;
+    }
+
+    public AssetType getAssetType() {
+        return assetType;
+    }
+
+    public void setAssetType(AssetType assetType) {
+        this.assetType = assetType;
+    }
+
+    public GenerationTaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GenerationTaskStatus status) {
+        this.status = status;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public void setPrompt(String prompt) {
+        this.prompt = prompt;
+    }
+
+    public String getVideoModel() {
+        return videoModel;
+    }
+
+    public void setVideoModel(String videoModel) {
+        this.videoModel = videoModel;
+    }
+
+    public String getInputFingerprint() {
+        return inputFingerprint;
+    }
+
+    public void setInputFingerprint(String inputFingerprint) {
+        this.inputFingerprint = inputFingerprint;
+    }
+
+    public boolean isGenerateAudio() {
+        return generateAudio;
+    }
+
+    public void setGenerateAudio(boolean generateAudio) {
+        this.generateAudio = generateAudio;
+    }
+
+    public int getVariants() {
+        return variants;
+    }
+
+    public void setVariants(int variants) {
+        this.variants = variants;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,14 @@
+package com.gosu.firsttake.domain;
+
+public enum GenerationTaskStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED,
+    TIMED_OUT;
+
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED || this == TIMED_OUT;
+    }
+}
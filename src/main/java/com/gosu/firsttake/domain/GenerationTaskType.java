@@ -0,0 +1,6 @@
+package com.gosu.firsttake.domain;
+
+public enum GenerationTaskType {
+    NARRATION,
+    SCENE
+}
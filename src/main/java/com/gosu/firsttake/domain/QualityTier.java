@@ -0,0 +1,30 @@
+package com.gosu.firsttake.domain;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public enum QualityTier {
+    DRAFT("draft"),
+    FINAL("final");
+
+    private final String id;
+
+    QualityTier(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public static QualityTier fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return FINAL;
+        }
+        String normalized = id.trim().toLowerCase(Locale.US);
+        return Arrays.stream(values())
+            .filter(tier -> tier.id.equals(normalized))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown quality tier: " + id));
+    }
+}
@@ -0,0 +1,7 @@
+package com.gosu.firsttake.domain;
+
+public enum RenditionKind {
+    POSTER,
+    SPRITESHEET,
+    THUMBNAIL
+}
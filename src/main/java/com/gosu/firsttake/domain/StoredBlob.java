@@ -0,0 +1,44 @@
+package com.gosu.firsttake.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stored_blob")
+public class StoredBlob {
+    @Id
+    private String storageKey;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private Instant storedAt;
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Instant storedAt) {
+        this.storedAt = storedAt;
+    }
+}
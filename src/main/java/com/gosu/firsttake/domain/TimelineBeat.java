@@ -48,6 +48,12 @@ public class TimelineBeat {
     @Column
     private String videoModel = "VEO3_FAST";
 
+    @Column(nullable = false)
+    private int imageVariants = 1;
+
+    @Column
+    private String inputFingerprint;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -142,6 +148,22 @@ public class TimelineBeat {
         this.videoModel = videoModel;
     }
 
+    public int getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(int imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
+    public String getInputFingerprint() {
+        return inputFingerprint;
+    }
+
+    public void setInputFingerprint(String inputFingerprint) {
+        this.inputFingerprint = inputFingerprint;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
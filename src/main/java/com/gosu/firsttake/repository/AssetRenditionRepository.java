@@ -0,0 +1,18 @@
+package com.gosu.firsttake.repository;
+
+import com.gosu.firsttake.domain.AssetRendition;
+import com.gosu.firsttake.domain.RenditionKind;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AssetRenditionRepository extends JpaRepository<AssetRendition, Long> {
+    List<AssetRendition> findByAssetId(Long assetId);
+    List<AssetRendition> findByAssetIdIn(Collection<Long> assetIds);
+    Optional<GeneratedAssetContent> findContentByAssetIdAndKindAndAssetProjectUserId(
+        Long assetId,
+        RenditionKind kind,
+        Long userId
+    );
+}
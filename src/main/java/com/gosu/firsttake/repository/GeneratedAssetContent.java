@@ -0,0 +1,9 @@
+package com.gosu.firsttake.repository;
+
+public interface GeneratedAssetContent {
+    String getStorageKey();
+
+    String getMimeType();
+
+    String getContentSha256();
+}
@@ -2,6 +2,9 @@ package com.gosu.firsttake.repository;
 
 import com.gosu.firsttake.domain.AssetType;
 import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.QualityTier;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -9,24 +12,115 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface GeneratedAssetRepository extends JpaRepository<GeneratedAsset, Long> {
-    List<GeneratedAsset> findByBeatIdIn(Collection<Long> beatIds);
-    List<GeneratedAsset> findByProjectIdAndAssetTypeOrderByCreatedAtDesc(Long projectId, AssetType assetType);
-    List<GeneratedAsset> findByProjectIdOrderByCreatedAtDesc(Long projectId);
-    List<GeneratedAsset> findByCreatedByUserIdAndAssetTypeOrderByCreatedAtDesc(Long userId, AssetType assetType);
-    List<GeneratedAsset> findByCreatedByUserIdOrderByCreatedAtDesc(Long userId);
+    List<GeneratedAsset> findByBeatIdInAndStatus(Collection<Long> beatIds, GeneratedAssetStatus status);
+    List<GeneratedAsset> findByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+        Long projectId,
+        AssetType assetType,
+        GeneratedAssetStatus status
+    );
+    List<GeneratedAsset> findByProjectIdAndStatusOrderByCreatedAtDesc(Long projectId, GeneratedAssetStatus status);
+    List<GeneratedAsset> findByCreatedByUserIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+        Long userId,
+        AssetType assetType,
+        GeneratedAssetStatus status
+    );
+    List<GeneratedAsset> findByCreatedByUserIdAndStatusOrderByCreatedAtDesc(Long userId, GeneratedAssetStatus status);
+    List<GeneratedAsset> findByStatusAndProviderRequestIdIsNotNullOrderByIdAsc(GeneratedAssetStatus status);
+    List<GeneratedAsset> findByProviderRequestIdAndStatusOrderByIdAsc(String providerRequestId, GeneratedAssetStatus status);
+    List<GeneratedAsset> findByVariantSetIdOrderByVariantIndexAsc(String variantSetId);
+    boolean existsByProviderRequestId(String providerRequestId);
+    boolean existsByProviderRequestIdAndStatusAndStorageKeyIsNull(String providerRequestId, GeneratedAssetStatus status);
+    boolean existsByProviderRequestIdAndStatusAndIdNotIn(
+        String providerRequestId,
+        GeneratedAssetStatus status,
+        Collection<Long> excludedIds
+    );
     void deleteByBeatId(Long beatId);
     void deleteByBeatIdAndAssetType(Long beatId, AssetType assetType);
     void deleteByProjectId(Long projectId);
     Optional<GeneratedAsset> findTop1ByProjectIdOrderByCreatedAtDesc(Long projectId);
-    Optional<GeneratedAsset> findTop1ByProjectIdAndAssetTypeOrderByCreatedAtDesc(Long projectId, AssetType assetType);
+    Optional<GeneratedAsset> findTop1ByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+        Long projectId,
+        AssetType assetType,
+        GeneratedAssetStatus status
+    );
     Optional<GeneratedAsset> findByIdAndProjectUserId(Long id, Long userId);
+    Optional<GeneratedAssetContent> findContentByIdAndProjectUserId(Long id, Long userId);
+    Optional<GeneratedAsset> findTop1ByBeatIdAndQualityAndStatusOrderByCreatedAtDesc(
+        Long beatId,
+        QualityTier quality,
+        GeneratedAssetStatus status
+    );
+    Optional<GeneratedAsset> findTop1ByCreatedByUserIdAndCacheKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+        Long userId,
+        String cacheKey,
+        Collection<GeneratedAssetStatus> statuses,
+        Instant createdAfter
+    );
+
+    @Modifying
+    @Query("update GeneratedAsset asset set asset.cacheKey = null where asset.cacheKey is not null and asset.createdAt < :cutoff")
+    int clearCacheKeysCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    // Locked rows are skipped so migration runs on several nodes split the backlog instead of repeating it.
+    @Query(value = "select id from generated_asset where url like 'data:%' and migration_failed_at is null "
+        + "and (migration_claimed_at is null or migration_claimed_at < :claimableBefore) "
+        + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<Long> lockInlineDataIds(@Param("claimableBefore") Instant claimableBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "update generated_asset set migration_claimed_at = :claimedAt where id in (:ids)", nativeQuery = true)
+    int claimInlineData(@Param("ids") Collection<Long> ids, @Param("claimedAt") Instant claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update generated_asset set storage_key = :storageKey, size_bytes = :sizeBytes, "
+        + "content_sha256 = :sha256, mime_type = :mimeType, url = :url, migration_claimed_at = null "
+        + "where id = :id and url like 'data:%'", nativeQuery = true)
+    int completeInlineMigration(
+        @Param("id") Long id,
+        @Param("storageKey") String storageKey,
+        @Param("sizeBytes") long sizeBytes,
+        @Param("sha256") String sha256,
+        @Param("mimeType") String mimeType,
+        @Param("url") String url
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = "update generated_asset set migration_failed_at = :failedAt, migration_claimed_at = null "
+        + "where id = :id", nativeQuery = true)
+    int markInlineMigrationFailed(@Param("id") Long id, @Param("failedAt") Instant failedAt);
+
+    @Query(value = "select id from generated_asset where storage_key is null and remote_url is null and status = 'READY' "
+        + "and url like 'http%' and created_at < :createdBefore order by id limit :limit", nativeQuery = true)
+    List<Long> findUnmirroredIdsCreatedBefore(@Param("createdBefore") Instant createdBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "update generated_asset set orphaned_at = :orphanedAt where id in (select id from generated_asset "
+        + "where beat_id is null and orphaned_at is null and status not in ('PENDING', 'READY') order by id limit :limit)",
+        nativeQuery = true)
+    int markOrphans(@Param("orphanedAt") Instant orphanedAt, @Param("limit") int limit);
+
+    @Query(value = "select id from generated_asset where beat_id is null and status not in ('PENDING', 'READY') "
+        + "and orphaned_at < :orphanedBefore order by id limit :limit", nativeQuery = true)
+    List<Long> findOrphanIdsBefore(@Param("orphanedBefore") Instant orphanedBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from generated_asset where id in (:ids) and beat_id is null and status not in ('PENDING', 'READY')",
+        nativeQuery = true)
+    int deleteOrphans(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Query("update GeneratedAsset asset set asset.beat = null where asset.beat.id = :beatId")
     int clearBeatId(@Param("beatId") Long beatId);
 
-    @Query("select asset.project.id, count(asset) from GeneratedAsset asset where asset.project.id in :projectIds group by asset.project.id")
-    List<Object[]> countByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+    @Query("select asset.project.id, count(asset) from GeneratedAsset asset where asset.project.id in :projectIds and asset.status = :status group by asset.project.id")
+    List<Object[]> countByProjectIds(
+        @Param("projectIds") Collection<Long> projectIds,
+        @Param("status") GeneratedAssetStatus status
+    );
 }
@@ -0,0 +1,39 @@
+package com.gosu.firsttake.repository;
+
+import com.gosu.firsttake.domain.GenerationJob;
+import com.gosu.firsttake.domain.GenerationJobStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+    Optional<GenerationJob> findByIdAndUserId(Long id, Long userId);
+    List<GenerationJob> findByStatusInOrderByIdAsc(Collection<GenerationJobStatus> statuses);
+    List<GenerationJob> findByProjectIdAndStatusInOrderByIdAsc(Long projectId, Collection<GenerationJobStatus> statuses);
+
+    // Rows locked by another worker's claim are skipped rather than waited on, so workers never hand out the same job.
+    @Query(value = "select * from generation_job where status in ('QUEUED', 'RUNNING') and (lease_expires_at is null or lease_expires_at < :now) order by id limit :limit for update skip locked", nativeQuery = true)
+    List<GenerationJob> lockClaimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update GenerationJob job set job.leaseExpiresAt = :expiresAt where job.id in :jobIds and job.leaseOwner = :owner and job.status in :statuses")
+    int renewLeases(
+        @Param("owner") String owner,
+        @Param("jobIds") Collection<Long> jobIds,
+        @Param("statuses") Collection<GenerationJobStatus> statuses,
+        @Param("expiresAt") Instant expiresAt
+    );
+
+    @Modifying
+    @Query("update GenerationJob job set job.leaseExpiresAt = :now where job.leaseOwner = :owner and job.status in :statuses")
+    int expireLeases(
+        @Param("owner") String owner,
+        @Param("statuses") Collection<GenerationJobStatus> statuses,
+        @Param("now") Instant now
+    );
+}
@@ -0,0 +1,11 @@
+package com.gosu.firsttake.repository;
+
+import com.gosu.firsttake.domain.GenerationTask;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface GenerationTaskRepository extends JpaRepository<GenerationTask, Long> {
+    List<GenerationTask> findByJobIdOrderByIdAsc(Long jobId);
+    Optional<GenerationTask> findByAssetId(Long assetId);
+}
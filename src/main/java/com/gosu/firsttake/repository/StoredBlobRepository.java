@@ -0,0 +1,39 @@
+package com.gosu.firsttake.repository;
+
+import com.gosu.firsttake.domain.StoredBlob;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    String UNREFERENCED = "not exists (select 1 from generated_asset asset where asset.storage_key = stored.storage_key) "
+        + "and not exists (select 1 from asset_rendition rendition where rendition.storage_key = stored.storage_key)";
+
+    @Transactional
+    @Modifying
+    @Query("update StoredBlob stored set stored.storedAt = :storedAt where stored.storageKey = :storageKey")
+    int touch(@Param("storageKey") String storageKey, @Param("storedAt") Instant storedAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into stored_blob (storage_key, size_bytes, stored_at) "
+        + "values (:storageKey, :sizeBytes, :storedAt)", nativeQuery = true)
+    int insert(
+        @Param("storageKey") String storageKey,
+        @Param("sizeBytes") long sizeBytes,
+        @Param("storedAt") Instant storedAt
+    );
+
+    @Query(value = "select * from stored_blob stored where stored.stored_at < :storedBefore and " + UNREFERENCED
+        + " order by stored.stored_at limit :limit", nativeQuery = true)
+    List<StoredBlob> findUnreferencedStoredBefore(@Param("storedBefore") Instant storedBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from stored_blob stored where stored.storage_key = :storageKey "
+        + "and stored.stored_at < :storedBefore and " + UNREFERENCED, nativeQuery = true)
+    int deleteIfUnreferenced(@Param("storageKey") String storageKey, @Param("storedBefore") Instant storedBefore);
+}
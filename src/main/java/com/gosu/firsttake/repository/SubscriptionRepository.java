@@ -1,7 +1,14 @@
 package com.gosu.firsttake.repository;
 
 import com.gosu.firsttake.domain.Subscription;
+import com.gosu.firsttake.domain.SubscriptionStatus;
+import java.util.Collection;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    Optional<Subscription> findFirstByUserIdAndStatusInOrderByCreatedAtDesc(
+        Long userId,
+        Collection<SubscriptionStatus> statuses
+    );
 }
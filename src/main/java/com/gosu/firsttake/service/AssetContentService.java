@@ -0,0 +1,224 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.repository.AssetRenditionRepository;
+import com.gosu.firsttake.repository.GeneratedAssetContent;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AssetContentService {
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DefaultUserService defaultUserService;
+    private final CurrentUserService currentUserService;
+    private final GeneratedAssetRepository assetRepository;
+    private final AssetRenditionRepository renditionRepository;
+    private final AssetStorage assetStorage;
+
+    public AssetContentService(
+        DefaultUserService defaultUserService,
+        CurrentUserService currentUserService,
+        GeneratedAssetRepository assetRepository,
+        AssetRenditionRepository renditionRepository,
+        AssetStorage assetStorage
+    ) {
+        this.defaultUserService = defaultUserService;
+        this.currentUserService = currentUserService;
+        this.assetRepository = assetRepository;
+        this.renditionRepository = renditionRepository;
+        this.assetStorage = assetStorage;
+    }
+
+    public static String contentUrl(Long assetId) {
+        return "/api/assets/" + assetId + "/content";
+    }
+
+    static boolean isRemote(GeneratedAsset asset) {
+        String url = asset.getUrl();
+        return asset.getStorageKey() == null && url != null && (url.startsWith("https://") || url.startsWith("http://"));
+    }
+
+    static String folder(String mimeType) {
+        int slash = mimeType.indexOf('/');
+        return slash > 0 ? mimeType.substring(0, slash) : "other";
+    }
+
+    static String extension(String mimeType) {
+        return switch (mimeType) {
+            case "image/png" -> "png";
+            case "image/jpeg" -> "jpg";
+            case "image/webp" -> "webp";
+            case "video/mp4" -> "mp4";
+            default -> mimeType.startsWith("audio/") ? AssetGenerationService.audioExtension(mimeType) : "bin";
+        };
+    }
+
+    public void streamContent(Long assetId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        AppUser user = resolveCurrentUser();
+        GeneratedAssetContent content = assetRepository.findContentByIdAndProjectUserId(assetId, user.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Asset not found."));
+        stream(content, request, response);
+    }
+
+    public void streamRendition(
+        Long assetId,
+        String kind,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        RenditionKind renditionKind = RenditionKind.valueOf(kind.trim().toUpperCase(Locale.US));
+        AppUser user = resolveCurrentUser();
+        GeneratedAssetContent content = renditionRepository
+            .findContentByAssetIdAndKindAndAssetProjectUserId(assetId, renditionKind, user.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Rendition not found."));
+        stream(content, request, response);
+    }
+
+    private void stream(
+        GeneratedAssetContent content,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        if (content.getStorageKey() == null) {
+            throw new IllegalArgumentException("Asset has no stored content.");
+        }
+        Path file = assetStorage.localPath(content.getStorageKey()).orElse(null);
+        if (file == null) {
+            URI signed = assetStorage.presignedGet(content.getStorageKey(), content.getMimeType())
+                .orElseThrow(() -> new IllegalStateException("The storage backend cannot serve asset content."));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.sendRedirect(signed.toString());
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Asset content is missing.");
+        }
+        String etag = "\"" + (content.getContentSha256() != null ? content.getContentSha256() : fileStem(file)) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(content.getMimeType() != null ? content.getMimeType() : "application/octet-stream");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            ByteRange range = ifRange == null || ifRange.equals(etag)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+                : ByteRange.full(size);
+            if (range == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range.partial()) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + size);
+            }
+            response.setContentLengthLong(range.length());
+            if ("HEAD".equals(request.getMethod()) || range.length() == 0) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+                request.setAttribute(SENDFILE_START, range.start());
+                request.setAttribute(SENDFILE_END, range.end() + 1);
+                return;
+            }
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new IOException("Asset content ended early.");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fileStem(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private AppUser resolveCurrentUser() {
+        return currentUserService.getCurrentUser().orElseGet(defaultUserService::getOrCreateDefaultUser);
+    }
+
+    record ByteRange(long start, long end, boolean partial) {
+        static ByteRange full(long size) {
+            return new ByteRange(0, size - 1, false);
+        }
+
+        static ByteRange parse(String header, long size) {
+            if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+                return full(size);
+            }
+            String spec = header.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return full(size);
+            }
+            try {
+                if (dash == 0) {
+                    long suffix = Long.parseLong(spec.substring(1));
+                    return suffix <= 0 || size == 0 ? null : new ByteRange(Math.max(0, size - suffix), size - 1, true);
+                }
+                long start = Long.parseLong(spec.substring(0, dash));
+                String endText = spec.substring(dash + 1);
+                long end = endText.isEmpty() ? size - 1 : Long.parseLong(endText);
+                if (end < start) {
+                    return full(size);
+                }
+                return start >= size ? null : new ByteRange(start, Math.min(end, size - 1), true);
+            } catch (NumberFormatException ex) {
+                return full(size);
+            }
+        }
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.ai.AiProviderPools;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.ai.ProviderTenant;
+import com.gosu.firsttake.ai.nanobanana.NanoBananaForm;
+import com.gosu.firsttake.ai.nanobanana.NanoBananaService;
+import com.gosu.firsttake.ai.sora.SoraRequest;
+import com.gosu.firsttake.ai.sora.SoraService;
+import com.gosu.firsttake.ai.tts.Mp3Duration;
+import com.gosu.firsttake.ai.tts.TtsRequest;
+import com.gosu.firsttake.ai.tts.TtsResult;
+import com.gosu.firsttake.ai.tts.TtsService;
+import com.gosu.firsttake.ai.tts.TtsVoice;
+import com.gosu.firsttake.ai.veo3fast.Veo3FastRequest;
+import com.gosu.firsttake.ai.veo3fast.Veo3FastService;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AssetGenerationService {
+    private static final int SORA_DURATION_SECONDS = 8;
+
+    private final TtsService ttsService;
+    private final NanoBananaService nanoBananaService;
+    private final Veo3FastService veo3FastService;
+    private final SoraService soraService;
+    private final AiProviderPools providerPools;
+    private final ProviderDeadlines deadlines;
+    private final ProviderMetrics providerMetrics;
+    private final AssetStorage assetStorage;
+
+    public AssetGenerationService(
+        TtsService ttsService,
+        NanoBananaService nanoBananaService,
+        Veo3FastService veo3FastService,
+        SoraService soraService,
+        AiProviderPools providerPools,
+        ProviderDeadlines deadlines,
+        ProviderMetrics providerMetrics,
+        AssetStorage assetStorage
+    ) {
+        this.ttsService = ttsService;
+        this.nanoBananaService = nanoBananaService;
+        this.veo3FastService = veo3FastService;
+        this.soraService = soraService;
+        this.providerPools = providerPools;
+        this.deadlines = deadlines;
+        this.providerMetrics = providerMetrics;
+        this.assetStorage = assetStorage;
+    }
+
+    public GeneratedAsset generateNarration(String script, String voice, ProviderTenant tenant, Deadline jobDeadline) {
+        if (script == null || script.isBlank()) {
+            return null;
+        }
+        TtsRequest ttsRequest = new TtsRequest();
+        ttsRequest.setInput(script);
+        if (voice != null && !voice.isBlank()) {
+            ttsRequest.setVoice(voice);
+        }
+        Deadline deadline = jobDeadline.min(deadlines.forCall(AiProvider.OPENAI_TTS, ttsService.defaultModel()));
+        TtsResult ttsResult = providerPools.call(AiProvider.OPENAI_TTS, ttsService.defaultModel(), tenant, deadline,
+            () -> ttsService.generate(ttsRequest, deadline.remaining()));
+        if (ttsResult.getAudio() == null) {
+            return null;
+        }
+        providerMetrics.recordDownload(AiProvider.OPENAI_TTS.id(), ttsResult.getAudio().length);
+        String mimeType = resolveAudioMimeType(ttsResult.getResponseFormat());
+        AssetStorage.StoredFile stored;
+        try {
+            stored = assetStorage.store("audio", audioExtension(mimeType), new ByteArrayInputStream(ttsResult.getAudio()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store narration audio.", ex);
+        }
+
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setAssetType(AssetType.AUDIO);
+        asset.setStorageKey(stored.key());
+        asset.setSizeBytes(stored.sizeBytes());
+        asset.setContentSha256(stored.sha256());
+        asset.setProvider("openai");
+        asset.setMimeType(mimeType);
+        asset.setOriginalPrompt(script);
+        return asset;
+    }
+
+    public GeneratedAsset submitScene(
+        String prompt,
+        AssetType assetType,
+        String videoModel,
+        boolean generateAudio,
+        String aspectRatio,
+        int variants,
+        ProviderTenant tenant,
+        Deadline jobDeadline
+    ) {
+        if (prompt == null || prompt.isBlank()) {
+            return null;
+        }
+        if (assetType == AssetType.VIDEO) {
+            if (isSora(videoModel)) {
+                SoraRequest request = new SoraRequest();
+                request.setPrompt(prompt);
+                request.setDuration(SORA_DURATION_SECONDS);
+                if (aspectRatio != null && !aspectRatio.isBlank()) {
+                    request.setAspectRatio(aspectRatio);
+                }
+                String requestId = providerPools.call(AiProvider.SORA, soraService.modelId(), tenant, jobDeadline,
+                    () -> soraService.submit(request));
+                return toPendingAsset(AssetType.VIDEO, "video/mp4", soraService.modelId(), requestId, prompt);
+            }
+            Veo3FastRequest request = new Veo3FastRequest();
+            request.setPrompt(prompt);
+            request.setGenerateAudio(generateAudio);
+            if (aspectRatio != null && !aspectRatio.isBlank()) {
+                request.setAspectRatio(aspectRatio);
+            }
+            String requestId = providerPools.call(AiProvider.VEO3_FAST, veo3FastService.modelId(), tenant, jobDeadline,
+                () -> veo3FastService.submit(request));
+            return toPendingAsset(AssetType.VIDEO, "video/mp4", veo3FastService.modelId(), requestId, prompt);
+        }
+
+        NanoBananaForm form = new NanoBananaForm();
+        form.setPrompt(prompt);
+        if (aspectRatio != null && !aspectRatio.isBlank()) {
+            form.setAspectRatio(aspectRatio);
+        }
+        if (variants > 1) {
+            form.setNumImages(variants);
+        }
+        String requestId = providerPools.call(AiProvider.NANO_BANANA, nanoBananaService.modelId(), tenant, jobDeadline,
+            () -> nanoBananaService.submit(form));
+        GeneratedAsset asset = toPendingAsset(AssetType.IMAGE, "image/png", nanoBananaService.modelId(), requestId, prompt);
+        if (variants > 1) {
+            asset.setVariantSetId(UUID.randomUUID().toString());
+            asset.setVariantIndex(0);
+        }
+        return asset;
+    }
+
+    public Duration renderTimeout(AssetType assetType, String videoModel) {
+        if (assetType != AssetType.VIDEO) {
+            return deadlines.forCall(AiProvider.NANO_BANANA, nanoBananaService.modelId());
+        }
+        if (isSora(videoModel)) {
+            return deadlines.forCall(AiProvider.SORA, soraService.modelId());
+        }
+        return deadlines.forCall(AiProvider.VEO3_FAST, veo3FastService.modelId());
+    }
+
+    public String narrationCacheKey(String script, String voice) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("input", script);
+        params.put("voice", TtsVoice.fromId(voice).map(TtsVoice::id).orElse(TtsVoice.ALLOY.id()));
+        return GenerationCache.key(AiProvider.OPENAI_TTS, ttsService.defaultModel(), params);
+    }
+
+    public String sceneCacheKey(
+        String prompt,
+        AssetType assetType,
+        String videoModel,
+        boolean generateAudio,
+        String aspectRatio
+    ) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("prompt", prompt);
+        params.put("aspect_ratio", aspectRatio == null || aspectRatio.isBlank() ? null : aspectRatio);
+        if (assetType != AssetType.VIDEO) {
+            return GenerationCache.key(AiProvider.NANO_BANANA, nanoBananaService.modelId(), params);
+        }
+        if (isSora(videoModel)) {
+            params.put("duration", SORA_DURATION_SECONDS);
+            return GenerationCache.key(AiProvider.SORA, soraService.modelId(), params);
+        }
+        params.put("generate_audio", generateAudio);
+        return GenerationCache.key(AiProvider.VEO3_FAST, veo3FastService.modelId(), params);
+    }
+
+    public Optional<Double> measureNarrationSeconds(GeneratedAsset asset) {
+        if (asset == null || !"audio/mpeg".equals(asset.getMimeType())) {
+            return Optional.empty();
+        }
+        if (asset.getStorageKey() != null) {
+            try (InputStream audio = assetStorage.open(asset.getStorageKey())) {
+                return Mp3Duration.estimateSeconds(audio.readAllBytes());
+            } catch (IOException ex) {
+                return Optional.empty();
+            }
+        }
+        String url = asset.getUrl();
+        int comma = url == null ? -1 : url.indexOf(',');
+        if (comma < 0 || !url.startsWith("data:")) {
+            return Optional.empty();
+        }
+        return Mp3Duration.estimateSeconds(Base64.getDecoder().decode(url.substring(comma + 1)));
+    }
+
+    private GeneratedAsset toPendingAsset(
+        AssetType assetType,
+        String mimeType,
+        String modelId,
+        String requestId,
+        String prompt
+    ) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setAssetType(assetType);
+        asset.setStatus(GeneratedAssetStatus.PENDING);
+        asset.setProvider("fal");
+        asset.setProviderModel(modelId);
+        asset.setProviderRequestId(requestId);
+        asset.setMimeType(mimeType);
+        asset.setOriginalPrompt(prompt);
+        return asset;
+    }
+
+    private boolean isSora(String videoModel) {
+        return "SORA".equalsIgnoreCase(videoModel);
+    }
+
+    private String resolveAudioMimeType(String responseFormat) {
+        if (responseFormat == null || responseFormat.isBlank()) {
+            return "audio/mpeg";
+        }
+        String format = responseFormat.toLowerCase(Locale.US);
+        return switch (format) {
+            case "wav" -> "audio/wav";
+            case "mp3" -> "audio/mpeg";
+            case "aac" -> "audio/aac";
+            case "opus" -> "audio/ogg";
+            default -> "audio/mpeg";
+        };
+    }
+
+    static String audioExtension(String mimeType) {
+        return switch (mimeType) {
+            case "audio/wav" -> "wav";
+            case "audio/aac" -> "aac";
+            case "audio/ogg" -> "ogg";
+            default -> "mp3";
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+public class AssetMirror {
+    private final AssetMirrorRecords mirrorRecords;
+    private final AssetRenditionService renditionService;
+    private final RenditionGenerator renditionGenerator;
+    private final AssetStorage assetStorage;
+    private final FalQueue falQueue;
+    private final ProviderMetrics providerMetrics;
+    private final ExecutorService aiExecutor;
+    private final HttpClient httpClient;
+    private final Duration downloadTimeout;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration sweepAfter;
+    private final boolean releaseRemote;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Semaphore downloads;
+
+    public AssetMirror(
+        AssetMirrorRecords mirrorRecords,
+        AssetRenditionService renditionService,
+        RenditionGenerator renditionGenerator,
+        AssetStorage assetStorage,
+        FalQueue falQueue,
+        ProviderMetrics providerMetrics,
+        ProviderDeadlines deadlines,
+        StorageProperties properties,
+        @Qualifier("aiExecutor") ExecutorService aiExecutor
+    ) {
+        this.mirrorRecords = mirrorRecords;
+        this.renditionService = renditionService;
+        this.renditionGenerator = renditionGenerator;
+        this.assetStorage = assetStorage;
+        this.falQueue = falQueue;
+        this.providerMetrics = providerMetrics;
+        this.aiExecutor = aiExecutor;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.downloadTimeout = deadlines.downloadTimeout();
+        this.enabled = properties.getMirror().isEnabled();
+        this.batchSize = properties.getMirror().getBatchSize();
+        this.sweepAfter = properties.getMirror().getSweepAfter();
+        this.releaseRemote = properties.getMirror().isReleaseRemote();
+        this.downloads = new Semaphore(Math.max(1, properties.getMirror().getConcurrency()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAssetsReady(GeneratedAssetReadyEvent event) {
+        if (enabled) {
+            event.assetIds().forEach(this::schedule);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.storage.mirror.interval:1m}")
+    public void sweep() {
+        if (enabled) {
+            mirrorRecords.findUnmirroredAssetIds(Instant.now().minus(sweepAfter), batchSize).forEach(this::schedule);
+        }
+    }
+
+    private void schedule(Long assetId) {
+        if (!inFlight.add(assetId)) {
+            return;
+        }
+        aiExecutor.execute(() -> {
+            try {
+                downloads.acquire();
+                try {
+                    mirror(assetId);
+                } finally {
+                    downloads.release();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                log.warn("Mirroring asset {} failed; the sweep retries it later", assetId, ex);
+            } finally {
+                inFlight.remove(assetId);
+            }
+        });
+    }
+
+    private void mirror(Long assetId) throws IOException, InterruptedException {
+        AssetMirrorRecords.MirrorSource source = mirrorRecords.findMirrorSource(assetId).orElse(null);
+        Optional<AssetMirrorRecords.RemoteRequest> releasable = Optional.empty();
+        if (source != null) {
+            Download download = download(assetId, source.url(), source.mimeType());
+            if (download == null) {
+                mirrorRecords.markMirrorUnavailable(assetId, source.url());
+                return;
+            }
+            releasable = mirrorRecords.recordMirror(assetId, source.url(), download.mimeType(), download.stored());
+        }
+        for (AssetRenditionService.RemoteRendition rendition : renditionService.findRemoteRenditions(assetId)) {
+            Download download = download(assetId, rendition.url(), null);
+            if (download != null) {
+                renditionService.recordRendition(assetId, rendition.kind(), download.mimeType(), download.stored());
+            }
+        }
+        if (releaseRemote) {
+            releasable.ifPresent(this::release);
+        }
+        renditionGenerator.deriveMissing(assetId);
+    }
+
+    private Download download(Long assetId, String url, String knownMimeType) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .GET()
+            .timeout(downloadTimeout)
+            .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        String mimeType = knownMimeType != null
+            ? knownMimeType
+            : response.headers().firstValue("Content-Type")
+                .map(AssetMirror::baseMimeType)
+                .orElse("application/octet-stream");
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status >= 400 && status < 500 && status != 429) {
+                log.warn("{} for asset {} can no longer be downloaded ({})", url, assetId, status);
+                return null;
+            }
+            if (status < 200 || status >= 300) {
+                throw new IOException("Remote asset download failed with status " + status);
+            }
+            AssetStorage.StoredFile stored = assetStorage.store(
+                AssetContentService.folder(mimeType), AssetContentService.extension(mimeType), body);
+            providerMetrics.recordDownload("mirror", stored.sizeBytes());
+            return new Download(stored, mimeType);
+        }
+    }
+
+    private void release(AssetMirrorRecords.RemoteRequest remote) {
+        try {
+            falQueue.deletePayloads(remote.modelId(), remote.requestId());
+            log.debug("Released fal files of request {} ({})", remote.requestId(), remote.modelId());
+        } catch (RuntimeException ex) {
+            log.warn("Releasing fal files of request {} ({}) failed", remote.requestId(), remote.modelId(), ex);
+        }
+    }
+
+    private static String baseMimeType(String contentType) {
+        int semicolon = contentType.indexOf(';');
+        return (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase(Locale.US);
+    }
+
+    private record Download(AssetStorage.StoredFile stored, String mimeType) {
+    }
+}
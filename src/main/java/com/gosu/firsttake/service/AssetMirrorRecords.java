@@ -0,0 +1,67 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class AssetMirrorRecords {
+    private final GeneratedAssetRepository assetRepository;
+
+    public AssetMirrorRecords(GeneratedAssetRepository assetRepository) {
+        this.assetRepository = assetRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findUnmirroredAssetIds(Instant createdBefore, int limit) {
+        return assetRepository.findUnmirroredIdsCreatedBefore(createdBefore, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MirrorSource> findMirrorSource(Long assetId) {
+        return assetRepository.findById(assetId)
+            .filter(asset -> asset.getStatus() == GeneratedAssetStatus.READY && asset.getRemoteUrl() == null)
+            .filter(AssetContentService::isRemote)
+            .map(asset -> new MirrorSource(asset.getId(), asset.getUrl(), asset.getMimeType()));
+    }
+
+    @Transactional
+    public Optional<RemoteRequest> recordMirror(Long assetId, String remoteUrl, String mimeType, AssetStorage.StoredFile stored) {
+        GeneratedAsset asset = assetRepository.findById(assetId).orElse(null);
+        if (asset == null || asset.getStorageKey() != null || !remoteUrl.equals(asset.getUrl())) {
+            return Optional.empty();
+        }
+        asset.setRemoteUrl(remoteUrl);
+        asset.setUrl(AssetContentService.contentUrl(asset.getId()));
+        asset.setStorageKey(stored.key());
+        asset.setSizeBytes(stored.sizeBytes());
+        asset.setContentSha256(stored.sha256());
+        asset.setMimeType(mimeType);
+        assetRepository.save(asset);
+        String requestId = asset.getProviderRequestId();
+        if (!"fal".equals(asset.getProvider()) || requestId == null || asset.getProviderModel() == null
+            || assetRepository.existsByProviderRequestIdAndStatusAndStorageKeyIsNull(requestId, GeneratedAssetStatus.READY)) {
+            return Optional.empty();
+        }
+        return Optional.of(new RemoteRequest(asset.getProviderModel(), requestId));
+    }
+
+    @Transactional
+    public void markMirrorUnavailable(Long assetId, String remoteUrl) {
+        assetRepository.findById(assetId)
+            .filter(asset -> asset.getStorageKey() == null && remoteUrl.equals(asset.getUrl()))
+            .ifPresent(asset -> asset.setRemoteUrl(remoteUrl));
+    }
+
+    record MirrorSource(Long assetId, String url, String mimeType) {
+    }
+
+    record RemoteRequest(String modelId, String requestId) {
+    }
+}
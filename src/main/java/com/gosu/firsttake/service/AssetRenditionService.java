@@ -0,0 +1,108 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.domain.AssetRendition;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.repository.AssetRenditionRepository;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class AssetRenditionService {
+    private final GeneratedAssetRepository assetRepository;
+    private final AssetRenditionRepository renditionRepository;
+
+    public AssetRenditionService(
+        GeneratedAssetRepository assetRepository,
+        AssetRenditionRepository renditionRepository
+    ) {
+        this.assetRepository = assetRepository;
+        this.renditionRepository = renditionRepository;
+    }
+
+    public static String renditionUrl(Long assetId, RenditionKind kind) {
+        return "/api/assets/" + assetId + "/renditions/" + kind.name().toLowerCase(Locale.US);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, AssetRenditionUrls> renditionUrls(Collection<Long> assetIds) {
+        if (assetIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Map<RenditionKind, String>> byAsset = new HashMap<>();
+        for (AssetRendition rendition : renditionRepository.findByAssetIdIn(assetIds)) {
+            Long assetId = rendition.getAsset().getId();
+            String url = rendition.getStorageKey() != null
+                ? renditionUrl(assetId, rendition.getKind())
+                : rendition.getRemoteUrl();
+            if (url != null) {
+                byAsset.computeIfAbsent(assetId, id -> new EnumMap<>(RenditionKind.class)).put(rendition.getKind(), url);
+            }
+        }
+        Map<Long, AssetRenditionUrls> urls = new HashMap<>();
+        byAsset.forEach((assetId, kinds) -> urls.put(assetId, new AssetRenditionUrls(
+            kinds.get(RenditionKind.POSTER),
+            kinds.get(RenditionKind.SPRITESHEET),
+            kinds.get(RenditionKind.THUMBNAIL)
+        )));
+        return urls;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RemoteRendition> findRemoteRenditions(Long assetId) {
+        return renditionRepository.findByAssetId(assetId).stream()
+            .filter(rendition -> rendition.getStorageKey() == null && rendition.getRemoteUrl() != null)
+            .map(rendition -> new RemoteRendition(rendition.getKind(), rendition.getRemoteUrl()))
+            .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RenditionSource> findRenditionSource(Long assetId) {
+        return assetRepository.findById(assetId)
+            .filter(asset -> asset.getStatus() == GeneratedAssetStatus.READY && asset.getStorageKey() != null)
+            .filter(asset -> asset.getAssetType() == AssetType.IMAGE || asset.getAssetType() == AssetType.VIDEO)
+            .map(asset -> {
+                Map<RenditionKind, String> storedKeys = new EnumMap<>(RenditionKind.class);
+                for (AssetRendition rendition : renditionRepository.findByAssetId(assetId)) {
+                    if (rendition.getStorageKey() != null) {
+                        storedKeys.put(rendition.getKind(), rendition.getStorageKey());
+                    }
+                }
+                return new RenditionSource(asset.getAssetType(), asset.getStorageKey(), storedKeys);
+            });
+    }
+
+    @Transactional
+    public void recordRendition(Long assetId, RenditionKind kind, String mimeType, AssetStorage.StoredFile stored) {
+        AssetRendition rendition = renditionRepository.findByAssetId(assetId).stream()
+            .filter(existing -> existing.getKind() == kind)
+            .findFirst()
+            .orElseGet(() -> {
+                AssetRendition created = new AssetRendition();
+                created.setAsset(assetRepository.getReferenceById(assetId));
+                created.setKind(kind);
+                return created;
+            });
+        rendition.setStorageKey(stored.key());
+        rendition.setSizeBytes(stored.sizeBytes());
+        rendition.setContentSha256(stored.sha256());
+        rendition.setMimeType(mimeType);
+        renditionRepository.save(rendition);
+    }
+
+    record RemoteRendition(RenditionKind kind, String url) {
+    }
+
+    record RenditionSource(AssetType assetType, String storageKey, Map<RenditionKind, String> storedKeys) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.gosu.firsttake.service;
+
+public record AssetRenditionUrls(String posterUrl, String spritesheetUrl, String thumbnailUrl) {
+    public static final AssetRenditionUrls NONE = new AssetRenditionUrls(null, null, null);
+}
@@ -0,0 +1,90 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.api.dto.ProjectRequests;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.QualityTier;
+import com.gosu.firsttake.domain.TimelineBeat;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import com.gosu.firsttake.repository.TimelineBeatRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class DraftPromotionService {
+    private final DefaultUserService defaultUserService;
+    private final CurrentUserService currentUserService;
+    private final ProjectRepository projectRepository;
+    private final TimelineBeatRepository beatRepository;
+    private final GeneratedAssetRepository assetRepository;
+    private final GenerationJobService jobService;
+
+    public DraftPromotionService(
+        DefaultUserService defaultUserService,
+        CurrentUserService currentUserService,
+        ProjectRepository projectRepository,
+        TimelineBeatRepository beatRepository,
+        GeneratedAssetRepository assetRepository,
+        GenerationJobService jobService
+    ) {
+        this.defaultUserService = defaultUserService;
+        this.currentUserService = currentUserService;
+        this.projectRepository = projectRepository;
+        this.beatRepository = beatRepository;
+        this.assetRepository = assetRepository;
+        this.jobService = jobService;
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail promoteDrafts(Long projectId, ProjectRequests.PromoteDrafts request) {
+        AppUser user = resolveCurrentUser();
+        Project project = projectRepository.findByIdAndUserId(projectId, user.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Project not found."));
+        List<TimelineBeat> beats = beatRepository.findByProjectIdOrderByOrderIndexAsc(projectId);
+        Set<Long> requested = request != null && request.beatIds() != null ? Set.copyOf(request.beatIds()) : Set.of();
+        Set<Long> drafted = findDraftedBeatIds(beats);
+        List<TimelineBeat> promoted = beats.stream()
+            .filter(beat -> beat.getScenePrompt() != null && !beat.getScenePrompt().isBlank())
+            .filter(beat -> drafted.contains(beat.getId()))
+            .filter(beat -> requested.isEmpty() || requested.contains(beat.getId()))
+            .toList();
+        if (promoted.isEmpty()) {
+            throw new IllegalArgumentException("No draft beats to promote.");
+        }
+        String aspectRatio = request != null ? request.aspectRatio() : null;
+        boolean useCache = request == null || request.useCache() == null || request.useCache();
+        return jobService.createSceneJob(project, user, promoted, aspectRatio, useCache, QualityTier.FINAL);
+    }
+
+    private Set<Long> findDraftedBeatIds(List<TimelineBeat> beats) {
+        if (beats.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> beatIds = beats.stream().map(TimelineBeat::getId).toList();
+        Map<Long, GeneratedAsset> latest = new HashMap<>();
+        for (GeneratedAsset asset : assetRepository.findByBeatIdInAndStatus(beatIds, GeneratedAssetStatus.READY)) {
+            if (asset.getAssetType() != AssetType.AUDIO) {
+                latest.merge(asset.getBeat().getId(), asset,
+                    (current, candidate) -> candidate.getCreatedAt().isAfter(current.getCreatedAt()) ? candidate : current);
+            }
+        }
+        return latest.values().stream()
+            .filter(asset -> asset.getQuality() == QualityTier.DRAFT)
+            .map(asset -> asset.getBeat().getId())
+            .collect(Collectors.toSet());
+    }
+
+    private AppUser resolveCurrentUser() {
+        return currentUserService.getCurrentUser().orElseGet(defaultUserService::getOrCreateDefaultUser);
+    }
+}
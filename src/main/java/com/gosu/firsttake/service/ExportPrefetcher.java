@@ -0,0 +1,130 @@
+package com.gosu.firsttake.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+final class ExportPrefetcher implements AutoCloseable {
+    private final List<ContentSource> sources;
+    private final List<Future<ExportSpool>> downloads;
+    private final ExportSpool.MemoryBudget budget;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final Set<ExportSpool> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private int submitted;
+
+    ExportPrefetcher(
+        List<ContentSource> sources,
+        int concurrency,
+        ExportSpool.MemoryBudget budget,
+        ExecutorService executor
+    ) {
+        this.sources = sources;
+        this.downloads = new ArrayList<>(Collections.nCopies(sources.size(), null));
+        this.budget = budget;
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    boolean prefetches(int index) {
+        return sources.get(index) != null;
+    }
+
+    InputStream take(int index) throws IOException, InterruptedException {
+        advance(index);
+        Future<ExportSpool> download = downloads.set(index, null);
+        if (download == null) {
+            ContentSource source = sources.get(index);
+            if (source == null) {
+                throw new IllegalStateException("Entry " + index + " is not prefetched.");
+            }
+            return source.open();
+        }
+        try {
+            ExportSpool spool = download.get();
+            if (spool == null) {
+                return null;
+            }
+            open.remove(spool);
+            return spool.stream();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+            throw new IOException(cause.getMessage() == null ? "Download failed." : cause.getMessage(), cause);
+        } catch (CancellationException ex) {
+            throw new IOException("Download was cancelled.", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Future<ExportSpool> download : downloads) {
+            if (download != null) {
+                download.cancel(true);
+            }
+        }
+        for (ExportSpool spool : open) {
+            closeQuietly(spool);
+        }
+        open.clear();
+    }
+
+    void advance(int index) {
+        if (submitted <= index) {
+            submitted = index + 1;
+        }
+        int end = Math.min(sources.size(), index + concurrency);
+        while (submitted < end) {
+            int next = submitted++;
+            ContentSource source = sources.get(next);
+            if (source != null) {
+                downloads.set(next, executor.submit(() -> download(source)));
+            }
+        }
+    }
+
+    private ExportSpool download(ContentSource source) throws Exception {
+        InputStream content = source.open();
+        if (content == null) {
+            return null;
+        }
+        ExportSpool spool = ExportSpool.fill(content, budget);
+        open.add(spool);
+        if (closed) {
+            closeQuietly(spool);
+        }
+        return spool;
+    }
+
+    private static void closeQuietly(ExportSpool spool) {
+        try {
+            spool.close();
+        } catch (IOException ignored) {
+            // A temp file that cannot be deleted is left to the OS's temp cleanup.
+        }
+    }
+
+    @FunctionalInterface
+    interface ContentSource {
+        InputStream open() throws IOException, InterruptedException;
+    }
+}
@@ -1,33 +1,43 @@
 package com.gosu.firsttake.service;
 
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.config.StorageProperties;
 import com.gosu.firsttake.domain.AppUser;
 import com.gosu.firsttake.domain.AssetType;
 import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
 import com.gosu.firsttake.domain.Project;
 import com.gosu.firsttake.domain.TimelineBeat;
 import com.gosu.firsttake.repository.GeneratedAssetRepository;
 import com.gosu.firsttake.repository.ProjectRepository;
 import com.gosu.firsttake.repository.TimelineBeatRepository;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.gosu.firsttake.storage.AssetStorage;
+import com.google.gson.stream.JsonWriter;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,98 +49,173 @@ public class ExportService {
     private final ProjectRepository projectRepository;
     private final TimelineBeatRepository beatRepository;
     private final GeneratedAssetRepository assetRepository;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final HttpClient httpClient;
+    private final Duration downloadTimeout;
+    private final ProviderMetrics providerMetrics;
+    private final AssetStorage assetStorage;
+    private final ExecutorService aiExecutor;
+    private final int prefetchConcurrency;
+    private final ExportSpool.MemoryBudget prefetchBudget;
 
     public ExportService(
         DefaultUserService defaultUserService,
         CurrentUserService currentUserService,
         ProjectRepository projectRepository,
         TimelineBeatRepository beatRepository,
-        GeneratedAssetRepository assetRepository
+        GeneratedAssetRepository assetRepository,
+        ProviderDeadlines deadlines,
+        ProviderMetrics providerMetrics,
+        AssetStorage assetStorage,
+        StorageProperties storageProperties,
+        @Qualifier("aiExecutor") ExecutorService aiExecutor
     ) {
         this.defaultUserService = defaultUserService;
         this.currentUserService = currentUserService;
         this.projectRepository = projectRepository;
         this.beatRepository = beatRepository;
         this.assetRepository = assetRepository;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(deadlines.connectTimeout())
+            .build();
+        this.downloadTimeout = deadlines.downloadTimeout();
+        this.providerMetrics = providerMetrics;
+        this.assetStorage = assetStorage;
+        this.aiExecutor = aiExecutor;
+        this.prefetchConcurrency = storageProperties.getExport().getPrefetchConcurrency();
+        this.prefetchBudget = new ExportSpool.MemoryBudget(storageProperties.getExport().getPrefetchMemory().toBytes());
     }
 
     @Transactional(readOnly = true)
     public void exportProject(Long projectId, HttpServletResponse response) throws IOException {
         Project project = getProjectForDefaultUser(projectId);
         List<TimelineBeat> beats = beatRepository.findByProjectIdOrderByOrderIndexAsc(projectId);
-        List<GeneratedAsset> assets = assetRepository.findByProjectIdOrderByCreatedAtDesc(projectId);
-        assets = assets.stream().sorted(Comparator.comparing(GeneratedAsset::getCreatedAt)).toList();
+        List<GeneratedAsset> assets = assetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(projectId, GeneratedAssetStatus.READY);
+        Set<Long> promotedDrafts = assets.stream()
+            .filter(asset -> asset.getDraftAsset() != null)
+            .map(asset -> asset.getDraftAsset().getId())
+            .collect(Collectors.toSet());
+        assets = assets.stream()
+            .filter(asset -> !promotedDrafts.contains(asset.getId()))
+            .sorted(Comparator.comparing(GeneratedAsset::getCreatedAt))
+            .toList();
         Map<Long, TimelineBeat> beatMap = beats.stream()
             .collect(Collectors.toMap(TimelineBeat::getId, beat -> beat));
 
         response.setContentType("application/zip");
         response.setHeader("Content-Disposition", "attachment; filename=\"project-" + projectId + ".zip\"");
 
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(response.getOutputStream())) {
-            JsonArray manifestBeats = new JsonArray();
-            for (TimelineBeat beat : beats) {
-                JsonObject beatJson = new JsonObject();
-                beatJson.addProperty("id", beat.getId());
-                beatJson.addProperty("orderIndex", beat.getOrderIndex());
-                beatJson.addProperty("scriptSentence", beat.getScriptSentence());
-                beatJson.addProperty("scenePrompt", beat.getScenePrompt());
-                beatJson.addProperty("sceneType", beat.getSceneType().name());
-                manifestBeats.add(beatJson);
-            }
-
-            JsonArray manifestAssets = new JsonArray();
-            for (GeneratedAsset asset : assets) {
-                TimelineBeat beat = asset.getBeat() != null ? beatMap.get(asset.getBeat().getId()) : null;
+        List<ExportPrefetcher.ContentSource> sources = assets.stream().map(this::contentSource).toList();
+        try (
+            ZipOutputStream zipOutputStream = new ZipOutputStream(response.getOutputStream());
+            ExportPrefetcher prefetcher = new ExportPrefetcher(sources, prefetchConcurrency, prefetchBudget, aiExecutor)
+        ) {
+            List<String> filenames = new ArrayList<>(assets.size());
+            for (int index = 0; index < assets.size(); index++) {
+                GeneratedAsset asset = assets.get(index);
+                TimelineBeat beat = beatOf(asset, beatMap);
                 String filename = beat != null ? buildAssetFilename(beat, asset, true) : buildOrphanAssetFilename(asset);
-                writeAsset(zipOutputStream, beat, asset, filename);
-
-                JsonObject assetJson = new JsonObject();
-                assetJson.addProperty("id", asset.getId());
-                assetJson.addProperty("assetType", asset.getAssetType().name());
-                assetJson.addProperty("beatId", beat != null ? beat.getId() : null);
-                assetJson.addProperty("beatOrderIndex", beat != null ? beat.getOrderIndex() : null);
-                assetJson.addProperty("url", asset.getUrl());
-                assetJson.addProperty("provider", asset.getProvider());
-                assetJson.addProperty("mimeType", asset.getMimeType());
-                assetJson.addProperty("durationSeconds", asset.getDurationSeconds());
-                assetJson.addProperty("originalPrompt", asset.getOriginalPrompt());
-                assetJson.addProperty("createdAt", asset.getCreatedAt() != null ? asset.getCreatedAt().toString() : null);
-                assetJson.addProperty("filename", filename);
-                manifestAssets.add(assetJson);
+                prefetcher.advance(index);
+                writeAsset(zipOutputStream, beat, asset, filename, prefetcher, index);
+                filenames.add(filename);
             }
 
-            JsonObject manifest = new JsonObject();
-            manifest.addProperty("projectId", project.getId());
-            manifest.addProperty("projectName", project.getName());
-            manifest.add("beats", manifestBeats);
-            manifest.add("assets", manifestAssets);
-            ZipEntry manifestEntry = new ZipEntry("manifest.json");
-            zipOutputStream.putNextEntry(manifestEntry);
-            zipOutputStream.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.putNextEntry(new ZipEntry("manifest.json"));
+            // Not closed, since that would close the archive too; flushing hands the last bytes to the entry.
+            JsonWriter manifest = new JsonWriter(new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8));
+            writeManifest(manifest, project, beats, assets, beatMap, filenames);
+            manifest.flush();
             zipOutputStream.closeEntry();
             zipOutputStream.finish();
         }
     }
 
+    private void writeManifest(
+        JsonWriter manifest,
+        Project project,
+        List<TimelineBeat> beats,
+        List<GeneratedAsset> assets,
+        Map<Long, TimelineBeat> beatMap,
+        List<String> filenames
+    ) throws IOException {
+        manifest.beginObject();
+        manifest.name("projectId").value(project.getId());
+        manifest.name("projectName").value(project.getName());
+        manifest.name("beats").beginArray();
+        for (TimelineBeat beat : beats) {
+            manifest.beginObject();
+            manifest.name("id").value(beat.getId());
+            manifest.name("orderIndex").value(beat.getOrderIndex());
+            manifest.name("scriptSentence").value(beat.getScriptSentence());
+            manifest.name("scenePrompt").value(beat.getScenePrompt());
+            manifest.name("sceneType").value(beat.getSceneType().name());
+            manifest.endObject();
+        }
+        manifest.endArray();
+        manifest.name("assets").beginArray();
+        for (int index = 0; index < assets.size(); index++) {
+            GeneratedAsset asset = assets.get(index);
+            TimelineBeat beat = beatOf(asset, beatMap);
+            manifest.beginObject();
+            manifest.name("id").value(asset.getId());
+            manifest.name("assetType").value(asset.getAssetType().name());
+            manifest.name("beatId").value(beat != null ? beat.getId() : null);
+            manifest.name("beatOrderIndex").value(beat != null ? beat.getOrderIndex() : null);
+            manifest.name("url").value(asset.getUrl());
+            manifest.name("provider").value(asset.getProvider());
+            manifest.name("mimeType").value(asset.getMimeType());
+            manifest.name("durationSeconds").value(asset.getDurationSeconds());
+            manifest.name("originalPrompt").value(asset.getOriginalPrompt());
+            manifest.name("variantSetId").value(asset.getVariantSetId());
+            manifest.name("variantIndex").value(asset.getVariantIndex());
+            manifest.name("selected").value(asset.isSelected());
+            manifest.name("quality").value(asset.getQuality().name());
+            manifest.name("draftAssetId").value(asset.getDraftAsset() != null ? asset.getDraftAsset().getId() : null);
+            manifest.name("createdAt").value(asset.getCreatedAt() != null ? asset.getCreatedAt().toString() : null);
+            manifest.name("filename").value(filenames.get(index));
+            manifest.endObject();
+        }
+        manifest.endArray();
+        manifest.endObject();
+    }
+
+    private TimelineBeat beatOf(GeneratedAsset asset, Map<Long, TimelineBeat> beatMap) {
+        return asset.getBeat() != null ? beatMap.get(asset.getBeat().getId()) : null;
+    }
+
     private void writeAsset(
         ZipOutputStream zipOutputStream,
         TimelineBeat beat,
         GeneratedAsset asset,
-        String filename
+        String filename,
+        ExportPrefetcher prefetcher,
+        int index
     ) throws IOException {
         try {
-            byte[] data = fetchAssetBytes(asset);
-            if (data == null) {
-                writeErrorFile(zipOutputStream, beat, asset, "Asset download returned no data.");
+            if (!prefetcher.prefetches(index)) {
+                try (InputStream content = assetStorage.open(asset.getStorageKey())) {
+                    zipOutputStream.putNextEntry(new ZipEntry(filename));
+                    content.transferTo(zipOutputStream);
+                    zipOutputStream.closeEntry();
+                }
                 return;
             }
-            ZipEntry entry = new ZipEntry(filename);
-            zipOutputStream.putNextEntry(entry);
-            zipOutputStream.write(data);
-            zipOutputStream.closeEntry();
+            try (InputStream content = prefetcher.take(index)) {
+                if (content == null) {
+                    writeErrorFile(zipOutputStream, beat, asset, "Asset download returned no data.");
+                    return;
+                }
+                zipOutputStream.putNextEntry(new ZipEntry(filename));
+                long bytes = content.transferTo(zipOutputStream);
+                zipOutputStream.closeEntry();
+                if (AssetContentService.isRemote(asset)) {
+                    providerMetrics.recordDownload("export", bytes);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export was interrupted.");
         } catch (Exception ex) {
-            log.warn("Failed to fetch asset {} for beat {}", asset.getId(), beat.getId(), ex);
+            log.warn("Failed to fetch asset {} for beat {}", asset.getId(), beat != null ? beat.getId() : null, ex);
             writeErrorFile(zipOutputStream, beat, asset, ex.getMessage() == null ? "Download failed." : ex.getMessage());
         }
     }
@@ -146,35 +231,44 @@ public class ExportService {
         zipOutputStream.closeEntry();
     }
 
-    private byte[] fetchAssetBytes(GeneratedAsset asset) throws IOException, InterruptedException {
+    private ExportPrefetcher.ContentSource contentSource(GeneratedAsset asset) {
+        String storageKey = asset.getStorageKey();
+        if (storageKey != null) {
+            return assetStorage.localPath(storageKey).isPresent() ? null : () -> assetStorage.open(storageKey);
+        }
         String url = asset.getUrl();
+        return () -> openRemote(url);
+    }
+
+    private InputStream openRemote(String url) throws IOException, InterruptedException {
         if (url == null || url.isBlank()) {
             return null;
         }
         if (url.startsWith("data:")) {
-            return decodeDataUrl(url).orElse(null);
+            return decodeDataUrl(url);
         }
         HttpRequest request = HttpRequest.newBuilder(URI.create(url))
             .GET()
+            .timeout(downloadTimeout)
             .build();
-        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
         if (response.statusCode() >= 200 && response.statusCode() < 300) {
             return response.body();
         }
+        response.body().close();
         throw new IOException("Remote asset download failed with status " + response.statusCode());
     }
 
-    private Optional<byte[]> decodeDataUrl(String url) {
+    private InputStream decodeDataUrl(String url) {
         int comma = url.indexOf(',');
         if (comma < 0) {
-            return Optional.empty();
+            return null;
         }
         String metadata = url.substring(5, comma);
-        String data = url.substring(comma + 1);
         if (!metadata.contains("base64")) {
-            return Optional.empty();
+            return null;
         }
-        return Optional.of(Base64.getDecoder().decode(data));
+        return Base64.getDecoder().wrap(new AsciiInputStream(url, comma + 1));
     }
 
     private String buildAssetFilename(TimelineBeat beat, GeneratedAsset asset, boolean includeExtension) {
@@ -231,4 +325,34 @@ public class ExportService {
     private AppUser resolveCurrentUser() {
         return currentUserService.getCurrentUser().orElseGet(defaultUserService::getOrCreateDefaultUser);
     }
+
+    private static final class AsciiInputStream extends InputStream {
+        private final String text;
+        private int position;
+
+        AsciiInputStream(String text, int start) {
+            this.text = text;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? text.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= text.length()) {
+                return -1;
+            }
+            int count = Math.min(length, text.length() - position);
+            for (int index = 0; index < count; index++) {
+                buffer[offset + index] = (byte) text.charAt(position++);
+            }
+            return count;
+        }
+    }
 }
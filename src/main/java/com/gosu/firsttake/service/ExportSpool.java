@@ -0,0 +1,139 @@
+package com.gosu.firsttake.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class ExportSpool implements Closeable {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final MemoryBudget budget;
+    private final List<byte[]> chunks = new ArrayList<>();
+    private long reserved;
+    private long size;
+    private Path file;
+
+    private ExportSpool(MemoryBudget budget) {
+        this.budget = budget;
+    }
+
+    static ExportSpool fill(InputStream content, MemoryBudget budget) throws IOException {
+        ExportSpool spool = new ExportSpool(budget);
+        try (content) {
+            spool.copyFrom(content);
+            return spool;
+        } catch (IOException | RuntimeException ex) {
+            spool.close();
+            throw ex;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    Path spillFile() {
+        return file;
+    }
+
+    InputStream stream() throws IOException {
+        InputStream content = file != null
+            ? Files.newInputStream(file)
+            : new SequenceInputStream(Collections.enumeration(chunks.stream().map(ByteArrayInputStream::new).toList()));
+        return new FilterInputStream(content) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    ExportSpool.this.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunks.clear();
+        budget.release(reserved);
+        reserved = 0;
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void copyFrom(InputStream content) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        OutputStream spill = null;
+        try {
+            int read;
+            while ((read = content.readNBytes(buffer, 0, CHUNK_SIZE)) > 0) {
+                if (spill == null && budget.tryReserve(read)) {
+                    reserved += read;
+                    chunks.add(Arrays.copyOf(buffer, read));
+                } else {
+                    if (spill == null) {
+                        spill = spill();
+                    }
+                    spill.write(buffer, 0, read);
+                }
+                size += read;
+            }
+        } finally {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
+
+    private OutputStream spill() throws IOException {
+        file = Files.createTempFile("export-", ".part");
+        OutputStream output = new BufferedOutputStream(Files.newOutputStream(file), CHUNK_SIZE);
+        for (byte[] chunk : chunks) {
+            output.write(chunk);
+        }
+        chunks.clear();
+        budget.release(reserved);
+        reserved = 0;
+        return output;
+    }
+
+    static final class MemoryBudget {
+        private final AtomicLong remaining;
+
+        MemoryBudget(long bytes) {
+            this.remaining = new AtomicLong(bytes);
+        }
+
+        boolean tryReserve(long bytes) {
+            long current;
+            do {
+                current = remaining.get();
+                if (current < bytes) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - bytes));
+            return true;
+        }
+
+        void release(long bytes) {
+            remaining.addAndGet(bytes);
+        }
+
+        long remaining() {
+            return remaining.get();
+        }
+    }
+}
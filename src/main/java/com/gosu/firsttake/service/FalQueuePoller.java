@@ -0,0 +1,197 @@
+package com.gosu.firsttake.service;
+
+import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.ProviderCallException;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.ai.fal.FalQueuedModel;
+import com.gosu.firsttake.ai.fal.FalRequestStatus;
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.RenditionKind;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class FalQueuePoller {
+    private final GenerationJobService jobService;
+    private final FalQueue falQueue;
+    private final Map<String, FalQueuedModel> models;
+    private final ExecutorService pollExecutor;
+    private final Duration webhookSweepAfter;
+    private final ProviderMetrics providerMetrics;
+    private final Map<Long, Waiter> waiters = new ConcurrentHashMap<>();
+
+    public FalQueuePoller(
+        GenerationJobService jobService,
+        FalQueue falQueue,
+        List<FalQueuedModel> models,
+        AiProviderProperties properties,
+        ProviderMetrics providerMetrics,
+        @Qualifier("falPollExecutor") ExecutorService pollExecutor
+    ) {
+        this.jobService = jobService;
+        this.falQueue = falQueue;
+        this.models = models.stream().collect(Collectors.toMap(FalQueuedModel::modelId, Function.identity()));
+        this.webhookSweepAfter = properties.getFal().getWebhookSweepAfter();
+        this.providerMetrics = providerMetrics;
+        this.pollExecutor = pollExecutor;
+    }
+
+    public CompletableFuture<GenerationJobDtos.JobDetail> awaitAsset(Long jobId, Long assetId) {
+        return waiters.computeIfAbsent(assetId, id -> new Waiter(jobId, new CompletableFuture<>())).future();
+    }
+
+    public boolean handleWebhook(String requestId, boolean succeeded, JsonObject payload, String error) {
+        GenerationJobService.PendingProviderRequest request = jobService.findPendingProviderRequest(requestId).orElse(null);
+        if (request == null) {
+            boolean known = jobService.isKnownProviderRequest(requestId);
+            log.debug("Ignoring fal webhook for {} request {}", known ? "settled" : "unknown", requestId);
+            return known;
+        }
+        if (!succeeded) {
+            fail(request, error == null || error.isBlank() ? "Generation failed." : error);
+            return true;
+        }
+        FalQueuedModel model = models.get(request.modelId());
+        if (model == null) {
+            failUnknownModel(request);
+        } else if (payload == null) {
+            collect(request, model);
+        } else {
+            settle(request, model, payload);
+        }
+        return true;
+    }
+
+    public void cancel(List<Long> assetIds, List<GenerationJobService.PendingProviderRequest> requests) {
+        for (GenerationJobService.PendingProviderRequest request : requests) {
+            try {
+                falQueue.cancel(request.modelId(), request.requestId());
+            } catch (RuntimeException ex) {
+                log.warn("Cancelling fal request {} ({}) failed", request.requestId(), request.modelId(), ex);
+            }
+        }
+        assetIds.forEach(this::release);
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.ai.fal.poll-interval:2s}")
+    public void poll() throws InterruptedException {
+        // Taken before the query, so a watched asset missing from the result has already settled.
+        Set<Long> watched = new HashSet<>(waiters.keySet());
+        List<GenerationJobService.PendingProviderRequest> pending = jobService.findPendingProviderRequests();
+        Instant sweepBefore = falQueue.webhooksEnabled() ? Instant.now().minus(webhookSweepAfter) : null;
+        List<Callable<Void>> checks = pending.stream()
+            .filter(request -> request.assetIds().stream().anyMatch(watched::contains))
+            .filter(request -> sweepBefore == null || request.submittedAt().isBefore(sweepBefore))
+            .map(request -> (Callable<Void>) () -> {
+                check(request);
+                return null;
+            })
+            .toList();
+        if (!checks.isEmpty()) {
+            pollExecutor.invokeAll(checks);
+        }
+        pending.forEach(request -> watched.removeAll(request.assetIds()));
+        watched.forEach(this::release);
+    }
+
+    private void check(GenerationJobService.PendingProviderRequest request) {
+        FalQueuedModel model = models.get(request.modelId());
+        if (model == null) {
+            failUnknownModel(request);
+            return;
+        }
+        FalRequestStatus status;
+        try {
+            status = falQueue.status(request.modelId(), request.requestId());
+        } catch (RuntimeException ex) {
+            log.warn("Status check failed for fal request {} ({}); retrying on the next poll",
+                request.requestId(), request.modelId(), ex);
+            return;
+        }
+        if (status == FalRequestStatus.COMPLETED) {
+            collect(request, model);
+        }
+    }
+
+    private void collect(GenerationJobService.PendingProviderRequest request, FalQueuedModel model) {
+        JsonObject result;
+        try {
+            result = falQueue.result(request.modelId(), request.requestId());
+        } catch (ProviderCallException ex) {
+            if (ex.isRetryable()) {
+                log.warn("Collecting fal request {} ({}) failed; retrying on the next poll",
+                    request.requestId(), request.modelId(), ex);
+                return;
+            }
+            log.warn("Collecting fal request {} ({}) failed", request.requestId(), request.modelId(), ex);
+            fail(request, ex.getMessage());
+            return;
+        } catch (RuntimeException ex) {
+            log.warn("Collecting fal request {} ({}) failed", request.requestId(), request.modelId(), ex);
+            fail(request, ex.getMessage() == null ? "Generation failed." : ex.getMessage());
+            return;
+        }
+        settle(request, model, result);
+    }
+
+    private void settle(GenerationJobService.PendingProviderRequest request, FalQueuedModel model, JsonObject result) {
+        List<String> urls = model.mediaUrls(result);
+        if (urls.isEmpty()) {
+            fail(request, "Provider returned no asset.");
+            return;
+        }
+        providerMetrics.recordRender(request.modelId(), "completed", Duration.between(request.submittedAt(), Instant.now()));
+        Map<RenditionKind, String> renditionUrls = new EnumMap<>(RenditionKind.class);
+        model.posterUrl(result).ifPresent(url -> renditionUrls.put(RenditionKind.POSTER, url));
+        model.spritesheetUrl(result).ifPresent(url -> renditionUrls.put(RenditionKind.SPRITESHEET, url));
+        for (Long assetId : request.assetIds()) {
+            jobService.completePendingAsset(assetId, urls, renditionUrls);
+            release(assetId);
+        }
+    }
+
+    private void failUnknownModel(GenerationJobService.PendingProviderRequest request) {
+        fail(request, "Unknown fal model " + request.modelId() + ".");
+    }
+
+    private void fail(GenerationJobService.PendingProviderRequest request, String errorMessage) {
+        providerMetrics.recordRender(request.modelId(), "failed", Duration.between(request.submittedAt(), Instant.now()));
+        for (Long assetId : request.assetIds()) {
+            jobService.failPendingAsset(assetId, errorMessage);
+            release(assetId);
+        }
+    }
+
+    private void release(Long assetId) {
+        Waiter waiter = waiters.remove(assetId);
+        if (waiter == null) {
+            return;
+        }
+        try {
+            waiter.future().complete(jobService.describeJob(waiter.jobId()));
+        } catch (RuntimeException ex) {
+            waiter.future().completeExceptionally(ex);
+        }
+    }
+
+    private record Waiter(Long jobId, CompletableFuture<GenerationJobDtos.JobDetail> future) {
+    }
+}
@@ -4,6 +4,7 @@ import com.gosu.firsttake.api.dto.GalleryDtos;
 import com.gosu.firsttake.domain.AppUser;
 import com.gosu.firsttake.domain.AssetType;
 import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
 import com.gosu.firsttake.domain.Project;
 import com.gosu.firsttake.repository.GeneratedAssetRepository;
 import com.gosu.firsttake.repository.ProjectRepository;
@@ -24,17 +25,20 @@ public class GalleryService {
     private final CurrentUserService currentUserService;
     private final ProjectRepository projectRepository;
     private final GeneratedAssetRepository generatedAssetRepository;
+    private final AssetRenditionService renditionService;
 
     public GalleryService(
         DefaultUserService defaultUserService,
         CurrentUserService currentUserService,
         ProjectRepository projectRepository,
-        GeneratedAssetRepository generatedAssetRepository
+        GeneratedAssetRepository generatedAssetRepository,
+        AssetRenditionService renditionService
     ) {
         this.defaultUserService = defaultUserService;
         this.currentUserService = currentUserService;
         this.projectRepository = projectRepository;
         this.generatedAssetRepository = generatedAssetRepository;
+        this.renditionService = renditionService;
     }
 
     @Transactional(readOnly = true)
@@ -46,19 +50,27 @@ public class GalleryService {
         }
         Collection<Long> projectIds = projects.stream().map(Project::getId).toList();
         Map<Long, Long> assetCounts = new HashMap<>();
-        for (Object[] row : generatedAssetRepository.countByProjectIds(projectIds)) {
+        for (Object[] row : generatedAssetRepository.countByProjectIds(projectIds, GeneratedAssetStatus.READY)) {
             if (row[0] instanceof Long projectId && row[1] instanceof Long count) {
                 assetCounts.put(projectId, count);
             }
         }
+        Map<Long, GeneratedAsset> previews = new HashMap<>();
+        for (Project project : projects) {
+            findLatestReady(project.getId(), AssetType.IMAGE)
+                .or(() -> findLatestReady(project.getId(), AssetType.VIDEO))
+                .ifPresent(asset -> previews.put(project.getId(), asset));
+        }
+        Map<Long, AssetRenditionUrls> renditions =
+            renditionService.renditionUrls(previews.values().stream().map(GeneratedAsset::getId).toList());
         List<GalleryDtos.GalleryProject> results = new ArrayList<>();
         for (Project project : projects) {
-            Optional<GeneratedAsset> preview = generatedAssetRepository
-                .findTop1ByProjectIdAndAssetTypeOrderByCreatedAtDesc(project.getId(), AssetType.IMAGE)
-                .or(() -> generatedAssetRepository
-                    .findTop1ByProjectIdAndAssetTypeOrderByCreatedAtDesc(project.getId(), AssetType.VIDEO));
+            Optional<GeneratedAsset> preview = Optional.ofNullable(previews.get(project.getId()));
             String previewUrl = preview.map(GeneratedAsset::getUrl).orElse(null);
             String previewAssetType = preview.map(asset -> asset.getAssetType().name()).orElse(null);
+            String previewThumbnailUrl = preview
+                .map(asset -> renditions.getOrDefault(asset.getId(), AssetRenditionUrls.NONE).thumbnailUrl())
+                .orElse(null);
             results.add(new GalleryDtos.GalleryProject(
                 project.getId(),
                 project.getName(),
@@ -67,7 +79,8 @@ public class GalleryService {
                 project.getUpdatedAt(),
                 assetCounts.getOrDefault(project.getId(), 0L),
                 previewUrl,
-                previewAssetType
+                previewAssetType,
+                previewThumbnailUrl
             ));
         }
         return results;
@@ -83,27 +96,21 @@ public class GalleryService {
         List<GeneratedAsset> assets;
         if (type.isPresent() && !type.get().isBlank()) {
             AssetType assetType = AssetType.valueOf(type.get().trim().toUpperCase(Locale.US));
-            assets = generatedAssetRepository.findByProjectIdAndAssetTypeOrderByCreatedAtDesc(project.getId(), assetType);
+            assets = generatedAssetRepository.findByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+                project.getId(),
+                assetType,
+                GeneratedAssetStatus.READY
+            );
         } else {
-            assets = generatedAssetRepository.findByProjectIdOrderByCreatedAtDesc(project.getId());
+            assets = generatedAssetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(project.getId(), GeneratedAssetStatus.READY);
         }
         if (sort.isPresent() && "asc".equalsIgnoreCase(sort.get())) {
             assets = assets.stream().sorted(Comparator.comparing(GeneratedAsset::getCreatedAt)).toList();
         }
+        Map<Long, AssetRenditionUrls> renditions =
+            renditionService.renditionUrls(assets.stream().map(GeneratedAsset::getId).toList());
         return assets.stream()
-            .map(asset -> new GalleryDtos.GalleryAsset(
-                asset.getId(),
-                asset.getProject() != null ? asset.getProject().getId() : null,
-                asset.getBeat() != null ? asset.getBeat().getId() : null,
-                asset.getBeat() != null ? asset.getBeat().getOrderIndex() : null,
-                asset.getAssetType().name(),
-                asset.getUrl(),
-                asset.getProvider(),
-                asset.getMimeType(),
-                asset.getDurationSeconds(),
-                asset.getOriginalPrompt(),
-                asset.getCreatedAt()
-            ))
+            .map(asset -> toGalleryAsset(asset, renditions.getOrDefault(asset.getId(), AssetRenditionUrls.NONE)))
             .toList();
     }
 
@@ -115,6 +122,33 @@ public class GalleryService {
         generatedAssetRepository.delete(asset);
     }
 
+    private static GalleryDtos.GalleryAsset toGalleryAsset(GeneratedAsset asset, AssetRenditionUrls renditions) {
+        return new GalleryDtos.GalleryAsset(
+            asset.getId(),
+            asset.getProject() != null ? asset.getProject().getId() : null,
+            asset.getBeat() != null ? asset.getBeat().getId() : null,
+            asset.getBeat() != null ? asset.getBeat().getOrderIndex() : null,
+            asset.getAssetType().name(),
+            asset.getUrl(),
+            asset.getProvider(),
+            asset.getMimeType(),
+            asset.getDurationSeconds(),
+            asset.getOriginalPrompt(),
+            renditions.posterUrl(),
+            renditions.spritesheetUrl(),
+            renditions.thumbnailUrl(),
+            asset.getCreatedAt()
+        );
+    }
+
+    private Optional<GeneratedAsset> findLatestReady(Long projectId, AssetType assetType) {
+        return generatedAssetRepository.findTop1ByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+            projectId,
+            assetType,
+            GeneratedAssetStatus.READY
+        );
+    }
+
     private Project getProjectForCurrentUser(Long projectId) {
         AppUser user = resolveCurrentUser();
         return projectRepository.findByIdAndUserId(projectId, user.getId())
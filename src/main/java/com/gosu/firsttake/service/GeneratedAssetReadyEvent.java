@@ -0,0 +1,6 @@
+package com.gosu.firsttake.service;
+
+import java.util.List;
+
+public record GeneratedAssetReadyEvent(List<Long> assetIds) {
+}
@@ -0,0 +1,152 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+public class GenerationCache {
+    private static final List<GeneratedAssetStatus> REUSABLE_STATUSES =
+        List.of(GeneratedAssetStatus.READY, GeneratedAssetStatus.PENDING);
+
+    private final GeneratedAssetRepository assetRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Map<String, CompletableFuture<GeneratedAsset>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong joins = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public GenerationCache(GeneratedAssetRepository assetRepository, AiProviderProperties properties) {
+        this.assetRepository = assetRepository;
+        this.enabled = properties.getCache().isEnabled();
+        this.ttl = properties.getCache().getTtl();
+    }
+
+    public static String key(AiProvider provider, String model, Map<String, ?> params) {
+        StringBuilder canonical = new StringBuilder()
+            .append(provider.id()).append('\n')
+            .append(model).append('\n');
+        new TreeMap<>(params).forEach((name, value) -> {
+            if (value != null) {
+                canonical.append(name).append('=').append(normalize(value)).append('\n');
+            }
+        });
+        return Fingerprints.sha256(canonical.toString());
+    }
+
+    public GeneratedAsset fetch(Long userId, String cacheKey, boolean useCache, Supplier<GeneratedAsset> generate) {
+        if (!enabled || !useCache || userId == null || cacheKey == null) {
+            bypassed.incrementAndGet();
+            return generate.get();
+        }
+        Optional<GeneratedAsset> cached = lookup(userId, cacheKey);
+        if (cached.isPresent()) {
+            hits.incrementAndGet();
+            return cached.get();
+        }
+        CompletableFuture<GeneratedAsset> flight = new CompletableFuture<>();
+        String flightKey = userId + ":" + cacheKey;
+        CompletableFuture<GeneratedAsset> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            joins.incrementAndGet();
+            try {
+                GeneratedAsset asset = leader.join();
+                return asset == null ? null : copy(asset);
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        misses.incrementAndGet();
+        try {
+            GeneratedAsset asset = generate.get();
+            flight.complete(asset);
+            return asset;
+        } catch (RuntimeException ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${firsttake.ai.cache.eviction-interval:1h}")
+    public void evictExpired() {
+        int cleared = assetRepository.clearCacheKeysCreatedBefore(Instant.now().minus(ttl));
+        if (cleared > 0) {
+            evicted.addAndGet(cleared);
+            log.info("Evicted {} generation cache entries older than {}", cleared, ttl);
+        }
+    }
+
+    public GenerationCacheStats stats() {
+        return new GenerationCacheStats(
+            enabled,
+            ttl.toSeconds(),
+            hits.get(),
+            joins.get(),
+            misses.get(),
+            bypassed.get(),
+            evicted.get(),
+            inFlight.size()
+        );
+    }
+
+    private Optional<GeneratedAsset> lookup(Long userId, String cacheKey) {
+        return assetRepository
+            .findTop1ByCreatedByUserIdAndCacheKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+                userId,
+                cacheKey,
+                REUSABLE_STATUSES,
+                Instant.now().minus(ttl)
+            )
+            .map(GenerationCache::copy);
+    }
+
+    private static GeneratedAsset copy(GeneratedAsset source) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setAssetType(source.getAssetType());
+        asset.setStatus(source.getStatus());
+        asset.setUrl(source.getStorageKey() == null ? source.getUrl() : null);
+        asset.setStorageKey(source.getStorageKey());
+        asset.setSizeBytes(source.getSizeBytes());
+        asset.setContentSha256(source.getContentSha256());
+        asset.setRemoteUrl(source.getRemoteUrl());
+        asset.setProvider(source.getProvider());
+        asset.setProviderModel(source.getProviderModel());
+        asset.setProviderRequestId(source.getProviderRequestId());
+        asset.setCacheKey(source.getCacheKey());
+        asset.setMimeType(source.getMimeType());
+        asset.setDurationSeconds(source.getDurationSeconds());
+        asset.setOriginalPrompt(source.getOriginalPrompt());
+        return asset;
+    }
+
+    private static String normalize(Object value) {
+        if (value instanceof String text) {
+            return text.strip().replaceAll("\\s+", " ");
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,13 @@
+package com.gosu.firsttake.service;
+
+public record GenerationCacheStats(
+    boolean enabled,
+    long ttlSeconds,
+    long hits,
+    long inFlightJoins,
+    long misses,
+    long bypassed,
+    long evicted,
+    int inFlight
+) {
+}
@@ -0,0 +1,73 @@
+package com.gosu.firsttake.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public final class GenerationGraph {
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    public GenerationGraph stage(String id, Function<Map<String, Object>, Object> action) {
+        return stage(id, List.of(), action);
+    }
+
+    public GenerationGraph stage(String id, Collection<String> dependsOn, Function<Map<String, Object>, Object> action) {
+        if (stages.containsKey(id)) {
+            throw new IllegalArgumentException("Duplicate generation stage '" + id + "'.");
+        }
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Stage '" + id + "' depends on unknown stage '" + dependency + "'.");
+            }
+        }
+        stages.put(id, new Stage(List.copyOf(dependsOn), action));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return stages.isEmpty();
+    }
+
+    public Map<String, CompletableFuture<Object>> start(Executor executor) {
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        stages.forEach((id, stage) -> {
+            CompletableFuture<?>[] inputs = stage.dependsOn().stream()
+                .map(futures::get)
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture<Object> future = CompletableFuture.allOf(inputs)
+                .thenApplyAsync(ignored -> stage.action().apply(collectInputs(stage, futures)), executor)
+                .thenCompose(GenerationGraph::settle);
+            futures.put(id, future);
+        });
+        return futures;
+    }
+
+    public CompletableFuture<Void> run(Executor executor) {
+        Map<String, CompletableFuture<Object>> futures = start(executor);
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+            .handle((ignored, ex) -> null);
+    }
+
+    private static CompletableFuture<Object> settle(Object result) {
+        if (result instanceof CompletionStage<?> pending) {
+            return pending.toCompletableFuture().thenApply(value -> (Object) value);
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private Map<String, Object> collectInputs(Stage stage, Map<String, CompletableFuture<Object>> futures) {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        for (String dependency : stage.dependsOn()) {
+            inputs.put(dependency, futures.get(dependency).join());
+        }
+        return inputs;
+    }
+
+    private record Stage(List<String> dependsOn, Function<Map<String, Object>, Object> action) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.gosu.firsttake.service;
+
+import java.util.List;
+
+public record GenerationJobCancelledEvent(
+    Long jobId,
+    List<Long> cancelledAssetIds,
+    List<GenerationJobService.PendingProviderRequest> upstreamRequests
+) {
+}
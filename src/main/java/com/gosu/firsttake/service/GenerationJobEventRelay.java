@@ -0,0 +1,57 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class GenerationJobEventRelay {
+    private static final String SUCCEEDED = GenerationTaskStatus.SUCCEEDED.name();
+
+    private final GenerationJobEvents jobEvents;
+    private final GenerationJobService jobService;
+    private final ProjectService projectService;
+
+    public GenerationJobEventRelay(
+        GenerationJobEvents jobEvents,
+        GenerationJobService jobService,
+        ProjectService projectService
+    ) {
+        this.jobEvents = jobEvents;
+        this.jobService = jobService;
+        this.projectService = projectService;
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.ai.worker.event-relay-interval:1s}")
+    public void relay() {
+        for (Long jobId : jobEvents.subscribedJobIds()) {
+            try {
+                relay(jobId);
+            } catch (IllegalArgumentException ex) {
+                log.debug("Not relaying events for generation job {}", jobId, ex);
+            }
+        }
+    }
+
+    private void relay(Long jobId) {
+        GenerationJobDtos.JobDetail job = jobService.describeJob(jobId);
+        GenerationJobDtos.JobDetail last = jobEvents.lastPublished(jobId).orElse(null);
+        if (job.equals(last)) {
+            return;
+        }
+        Set<Long> announced = last == null ? Set.of() : last.tasks().stream()
+            .filter(task -> SUCCEEDED.equals(task.status()))
+            .map(GenerationJobDtos.TaskDetail::id)
+            .collect(Collectors.toSet());
+        job.tasks().stream()
+            .filter(task -> SUCCEEDED.equals(task.status()) && task.beatId() != null && !announced.contains(task.id()))
+            .forEach(task -> projectService.findBeatDetail(task.beatId())
+                .ifPresent(beat -> jobEvents.publishBeat(jobId, beat)));
+        jobEvents.publish(job);
+    }
+}
@@ -0,0 +1,112 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.api.dto.ProjectDtos;
+import com.gosu.firsttake.domain.GenerationJobStatus;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Component
+public class GenerationJobEvents {
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, GenerationJobDtos.JobDetail> lastPublished = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long jobId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.computeIfAbsent(jobId, key -> new CopyOnWriteArraySet<>()).add(emitter);
+        emitter.onCompletion(() -> remove(jobId, emitter));
+        emitter.onTimeout(() -> remove(jobId, emitter));
+        emitter.onError(ex -> remove(jobId, emitter));
+        return emitter;
+    }
+
+    public void sendSnapshot(SseEmitter emitter, GenerationJobDtos.JobDetail job) {
+        lastPublished.putIfAbsent(job.id(), job);
+        if (send(emitter, job) && isTerminal(job)) {
+            emitter.complete();
+        }
+    }
+
+    public void publish(GenerationJobDtos.JobDetail job) {
+        Set<SseEmitter> subscribers = emitters.get(job.id());
+        if (subscribers == null) {
+            return;
+        }
+        boolean terminal = isTerminal(job);
+        lastPublished.put(job.id(), job);
+        for (SseEmitter emitter : subscribers) {
+            if (send(emitter, job) && terminal) {
+                emitter.complete();
+            }
+        }
+        if (terminal) {
+            emitters.remove(job.id());
+            lastPublished.remove(job.id());
+        }
+    }
+
+    Set<Long> subscribedJobIds() {
+        return Set.copyOf(emitters.keySet());
+    }
+
+    Optional<GenerationJobDtos.JobDetail> lastPublished(Long jobId) {
+        return Optional.ofNullable(lastPublished.get(jobId));
+    }
+
+    public void publishBeat(Long jobId, ProjectDtos.BeatDetail beat) {
+        Set<SseEmitter> subscribers = emitters.get(jobId);
+        if (subscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name("beat")
+                    .data(beat, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Dropping generation job subscriber for job {}", jobId, ex);
+                remove(jobId, emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, GenerationJobDtos.JobDetail job) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name("job")
+                .id(job.id() + "-" + job.completedTasks() + "-" + job.failedTasks() + "-" + job.timedOutTasks())
+                .data(job, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping generation job subscriber for job {}", job.id(), ex);
+            remove(job.id(), emitter);
+            return false;
+        }
+    }
+
+    private void remove(Long jobId, SseEmitter emitter) {
+        emitters.computeIfPresent(jobId, (key, subscribers) -> {
+            subscribers.remove(emitter);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (!emitters.containsKey(jobId)) {
+            lastPublished.remove(jobId);
+        }
+    }
+
+    private boolean isTerminal(GenerationJobDtos.JobDetail job) {
+        return GenerationJobStatus.valueOf(job.status()).isTerminal();
+    }
+}
@@ -0,0 +1,346 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderTimeoutException;
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import com.gosu.firsttake.domain.GenerationTaskType;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+public class GenerationJobRunner {
+    static final String NARRATION_STAGE = "narration";
+    static final String NARRATION_DURATION_STAGE = "narration-duration";
+
+    private final GenerationJobService jobService;
+    private final AssetGenerationService assetGenerationService;
+    private final ProjectService projectService;
+    private final GenerationJobEvents jobEvents;
+    private final FalQueuePoller falQueuePoller;
+    private final GenerationCache generationCache;
+    private final ExecutorService aiExecutor;
+    private final Map<Long, Set<Thread>> providerThreads = new HashMap<>();
+    private final Set<Long> cancelledJobs = new HashSet<>();
+    private final Set<Long> abandonedJobs = ConcurrentHashMap.newKeySet();
+
+    public GenerationJobRunner(
+        GenerationJobService jobService,
+        AssetGenerationService assetGenerationService,
+        ProjectService projectService,
+        GenerationJobEvents jobEvents,
+        FalQueuePoller falQueuePoller,
+        GenerationCache generationCache,
+        @Qualifier("aiExecutor") ExecutorService aiExecutor
+    ) {
+        this.jobService = jobService;
+        this.assetGenerationService = assetGenerationService;
+        this.projectService = projectService;
+        this.jobEvents = jobEvents;
+        this.falQueuePoller = falQueuePoller;
+        this.generationCache = generationCache;
+        this.aiExecutor = aiExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobCancelled(GenerationJobCancelledEvent event) {
+        interrupt(event.jobId());
+        falQueuePoller.cancel(event.cancelledAssetIds(), event.upstreamRequests());
+        jobEvents.publish(jobService.describeJob(event.jobId()));
+    }
+
+    void interrupt(Long jobId) {
+        synchronized (providerThreads) {
+            Set<Thread> threads = providerThreads.get(jobId);
+            if (threads != null) {
+                cancelledJobs.add(jobId);
+                threads.forEach(Thread::interrupt);
+            }
+        }
+    }
+
+    void abandon(Long jobId) {
+        abandonedJobs.add(jobId);
+        interrupt(jobId);
+    }
+
+    CompletableFuture<Void> submit(Long jobId) {
+        return CompletableFuture.supplyAsync(() -> run(jobId), aiExecutor)
+            .thenCompose(completion -> completion)
+            .exceptionally(ex -> {
+                log.error("Generation job {} stopped unexpectedly", jobId, ex);
+                return null;
+            });
+    }
+
+    CompletableFuture<Void> run(Long jobId) {
+        Optional<GenerationJobService.JobPlan> started = jobService.startJob(jobId);
+        if (started.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        GenerationJobService.JobPlan plan = started.get();
+        synchronized (providerThreads) {
+            providerThreads.put(jobId, new HashSet<>());
+        }
+        return buildGraph(plan).run(aiExecutor)
+            .whenComplete((ignored, ex) -> {
+                synchronized (providerThreads) {
+                    providerThreads.remove(jobId);
+                    cancelledJobs.remove(jobId);
+                }
+            })
+            .thenRun(() -> {
+                if (!abandonedJobs.remove(jobId)) {
+                    jobEvents.publish(jobService.finishJob(jobId));
+                }
+            });
+    }
+
+    GenerationGraph buildGraph(GenerationJobService.JobPlan plan) {
+        GenerationGraph graph = new GenerationGraph();
+        List<GenerationJobService.TaskPlan> narrationTasks = plan.tasks().stream()
+            .filter(task -> task.taskType() == GenerationTaskType.NARRATION)
+            .toList();
+        for (GenerationJobService.TaskPlan task : narrationTasks) {
+            graph.stage(NARRATION_STAGE, inputs -> runNarration(plan, task));
+            graph.stage(NARRATION_DURATION_STAGE, List.of(NARRATION_STAGE),
+                inputs -> recordNarrationDuration((GeneratedAsset) inputs.get(NARRATION_STAGE)));
+        }
+        plan.tasks().stream()
+            .filter(task -> task.taskType() == GenerationTaskType.SCENE)
+            .forEach(task -> graph.stage("scene-" + task.id(), inputs -> runScene(plan, task)));
+        return graph;
+    }
+
+    private GeneratedAsset runNarration(GenerationJobService.JobPlan plan, GenerationJobService.TaskPlan task) {
+        requireLease(plan.jobId());
+        requireBudget(plan, task);
+        jobEvents.publish(jobService.markTaskRunning(task.id()));
+        String cacheKey = assetGenerationService.narrationCacheKey(task.prompt(), plan.narratorVoice());
+        GeneratedAsset asset;
+        try {
+            asset = generationCache.fetch(plan.tenant().userId(), cacheKey, plan.useCache(), () -> {
+                GeneratedAsset generated = interruptibly(plan.jobId(), () -> assetGenerationService.generateNarration(
+                    task.prompt(),
+                    plan.narratorVoice(),
+                    plan.tenant(),
+                    plan.deadline()
+                ));
+                if (generated != null) {
+                    generated.setCacheKey(cacheKey);
+                    requireLease(plan.jobId());
+                    jobEvents.publish(jobService.completeTask(task.id(), generated));
+                }
+                return generated;
+            });
+        } catch (RuntimeException ex) {
+            throw failTask(plan, task, ex);
+        }
+        requireLease(plan.jobId());
+        if (asset == null) {
+            jobEvents.publish(jobService.completeTask(task.id(), null));
+            throw new IllegalStateException("Provider returned no asset for task " + task.id() + ".");
+        }
+        if (asset.getId() == null) {
+            jobEvents.publish(jobService.completeTask(task.id(), asset));
+        }
+        publishBeat(plan, task);
+        return asset;
+    }
+
+    private CompletableFuture<Long> runScene(GenerationJobService.JobPlan plan, GenerationJobService.TaskPlan task) {
+        Long assetId = task.pendingAssetId();
+        if (assetId == null) {
+            requireLease(plan.jobId());
+            requireBudget(plan, task);
+            jobEvents.publish(jobService.markTaskRunning(task.id()));
+            // Variant sets get no cache key: a reused row would come back without its siblings.
+            String cacheKey = task.variants() == 1
+                ? assetGenerationService.sceneCacheKey(
+                    task.prompt(),
+                    task.assetType(),
+                    task.videoModel(),
+                    task.generateAudio(),
+                    plan.aspectRatio()
+                )
+                : null;
+            GeneratedAsset asset;
+            try {
+                asset = generationCache.fetch(plan.tenant().userId(), cacheKey, plan.useCache(), () -> {
+                    GeneratedAsset pending = interruptibly(plan.jobId(), () -> assetGenerationService.submitScene(
+                        task.prompt(),
+                        task.assetType(),
+                        task.videoModel(),
+                        task.generateAudio(),
+                        plan.aspectRatio(),
+                        task.variants(),
+                        plan.tenant(),
+                        plan.deadline()
+                    ));
+                    if (pending != null) {
+                        pending.setCacheKey(cacheKey);
+                        requireLease(plan.jobId());
+                        if (jobService.recordPendingAsset(task.id(), pending) == null) {
+                            throw cancelledDuringSubmit(task, pending);
+                        }
+                    }
+                    return pending;
+                });
+            } catch (RuntimeException ex) {
+                throw failTask(plan, task, ex);
+            }
+            requireLease(plan.jobId());
+            if (asset == null) {
+                jobEvents.publish(jobService.completeTask(task.id(), null));
+                throw new IllegalStateException("Provider returned no asset for task " + task.id() + ".");
+            }
+            if (asset.getId() == null && asset.getStatus() == GeneratedAssetStatus.READY) {
+                jobEvents.publish(jobService.completeTask(task.id(), asset));
+                publishBeat(plan, task);
+                return CompletableFuture.completedFuture(asset.getId());
+            }
+            assetId = asset.getId() != null ? asset.getId() : jobService.recordPendingAsset(task.id(), asset);
+            if (assetId == null) {
+                throw new CancellationException("Task " + task.id() + " was cancelled.");
+            }
+        }
+        Long queuedAssetId = assetId;
+        Deadline renderDeadline = plan.deadline().min(assetGenerationService.renderTimeout(task.assetType(), task.videoModel()));
+        return falQueuePoller.awaitAsset(plan.jobId(), queuedAssetId)
+            .copy()
+            .orTimeout(renderDeadline.remaining().toMillis(), TimeUnit.MILLISECONDS)
+            .handleAsync((job, ex) -> {
+                if (ex != null) {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        throw renderTimedOut(plan, task, queuedAssetId);
+                    }
+                    throw ex instanceof CompletionException completion ? completion : new CompletionException(cause);
+                }
+                jobEvents.publish(job);
+                GenerationJobDtos.TaskDetail detail = job.tasks().stream()
+                    .filter(candidate -> candidate.id().equals(task.id()))
+                    .findFirst()
+                    .orElse(null);
+                if (detail == null || !GenerationTaskStatus.SUCCEEDED.name().equals(detail.status())) {
+                    String reason = detail != null && detail.errorMessage() != null ? detail.errorMessage() : "Generation failed.";
+                    throw new IllegalStateException(reason);
+                }
+                publishBeat(plan, task);
+                return queuedAssetId;
+            }, aiExecutor);
+    }
+
+    private <T> T interruptibly(Long jobId, Supplier<T> call) {
+        Thread thread = Thread.currentThread();
+        synchronized (providerThreads) {
+            if (cancelledJobs.contains(jobId)) {
+                throw new CancellationException("Job " + jobId + " was cancelled.");
+            }
+            providerThreads.computeIfAbsent(jobId, id -> new HashSet<>()).add(thread);
+        }
+        try {
+            return call.get();
+        } finally {
+            synchronized (providerThreads) {
+                Set<Thread> threads = providerThreads.get(jobId);
+                if (threads != null) {
+                    threads.remove(thread);
+                }
+            }
+            Thread.interrupted();
+        }
+    }
+
+    private CancellationException cancelledDuringSubmit(GenerationJobService.TaskPlan task, GeneratedAsset pending) {
+        falQueuePoller.cancel(List.of(), List.of(new GenerationJobService.PendingProviderRequest(
+            List.of(pending.getId()),
+            pending.getProviderModel(),
+            pending.getProviderRequestId(),
+            pending.getCreatedAt()
+        )));
+        return new CancellationException("Task " + task.id() + " was cancelled.");
+    }
+
+    private void requireLease(Long jobId) {
+        if (abandonedJobs.contains(jobId)) {
+            throw new CancellationException("Job " + jobId + " was taken over by another worker.");
+        }
+    }
+
+    private void requireBudget(GenerationJobService.JobPlan plan, GenerationJobService.TaskPlan task) {
+        if (plan.deadline().isExpired()) {
+            jobEvents.publish(jobService.timeOutTask(task.id(), "Job time budget ran out before the task started."));
+            throw new ProviderTimeoutException("Job " + plan.jobId() + " ran out of time before task " + task.id() + ".");
+        }
+    }
+
+    private ProviderTimeoutException renderTimedOut(
+        GenerationJobService.JobPlan plan,
+        GenerationJobService.TaskPlan task,
+        Long assetId
+    ) {
+        if (!abandonedJobs.contains(plan.jobId())) {
+            log.warn("Render for task {} of job {} missed its deadline; giving up on asset {}",
+                task.id(), plan.jobId(), assetId);
+            List<GenerationJobService.PendingProviderRequest> upstream =
+                jobService.timeOutPendingAsset(assetId, "Render did not finish before its deadline.");
+            falQueuePoller.cancel(List.of(assetId), upstream);
+            jobEvents.publish(jobService.describeJob(plan.jobId()));
+        }
+        return new ProviderTimeoutException("Render for task " + task.id() + " timed out.");
+    }
+
+    private RuntimeException failTask(
+        GenerationJobService.JobPlan plan,
+        GenerationJobService.TaskPlan task,
+        RuntimeException ex
+    ) {
+        if (abandonedJobs.contains(plan.jobId())) {
+            return ex;
+        }
+        if (ex instanceof ProviderTimeoutException) {
+            log.warn("Asset generation timed out for task {} of job {} ({}): {}", task.id(), plan.jobId(), task.assetType(), ex.getMessage());
+            jobEvents.publish(jobService.timeOutTask(task.id(), ex.getMessage()));
+            return ex;
+        }
+        log.warn("Asset generation failed for task {} of job {} ({})", task.id(), plan.jobId(), task.assetType(), ex);
+        jobEvents.publish(jobService.failTask(task.id(), ex.getMessage() == null ? "Generation failed." : ex.getMessage()));
+        return ex;
+    }
+
+    private void publishBeat(GenerationJobService.JobPlan plan, GenerationJobService.TaskPlan task) {
+        if (task.beatId() != null) {
+            projectService.findBeatDetail(task.beatId())
+                .ifPresent(beat -> jobEvents.publishBeat(plan.jobId(), beat));
+        }
+    }
+
+    private Double recordNarrationDuration(GeneratedAsset narration) {
+        Double seconds = assetGenerationService.measureNarrationSeconds(narration).orElse(null);
+        if (seconds != null && narration.getId() != null) {
+            jobService.recordAssetDuration(narration.getId(), seconds);
+        }
+        return seconds;
+    }
+}
@@ -0,0 +1,719 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTenant;
+import com.gosu.firsttake.api.dto.ProjectRequests;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetRendition;
+import com.gosu.firsttake.domain.AssetGenerationMode;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.GenerationJob;
+import com.gosu.firsttake.domain.GenerationJobStatus;
+import com.gosu.firsttake.domain.GenerationTask;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import com.gosu.firsttake.domain.GenerationTaskType;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.QualityTier;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.domain.SceneType;
+import com.gosu.firsttake.domain.TimelineBeat;
+import com.gosu.firsttake.repository.AssetRenditionRepository;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.GenerationJobRepository;
+import com.gosu.firsttake.repository.GenerationTaskRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import com.gosu.firsttake.repository.TimelineBeatRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class GenerationJobService {
+    private static final List<GenerationJobStatus> ACTIVE_STATUSES =
+        List.of(GenerationJobStatus.QUEUED, GenerationJobStatus.RUNNING);
+
+    private final DefaultUserService defaultUserService;
+    private final CurrentUserService currentUserService;
+    private final ProjectRepository projectRepository;
+    private final TimelineBeatRepository beatRepository;
+    private final GeneratedAssetRepository assetRepository;
+    private final AssetRenditionRepository renditionRepository;
+    private final GenerationJobRepository jobRepository;
+    private final GenerationTaskRepository taskRepository;
+    private final ProviderTenants providerTenants;
+    private final ProviderDeadlines providerDeadlines;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GenerationJobService(
+        DefaultUserService defaultUserService,
+        CurrentUserService currentUserService,
+        ProjectRepository projectRepository,
+        TimelineBeatRepository beatRepository,
+        GeneratedAssetRepository assetRepository,
+        AssetRenditionRepository renditionRepository,
+        GenerationJobRepository jobRepository,
+        GenerationTaskRepository taskRepository,
+        ProviderTenants providerTenants,
+        ProviderDeadlines providerDeadlines,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.defaultUserService = defaultUserService;
+        this.currentUserService = currentUserService;
+        this.projectRepository = projectRepository;
+        this.beatRepository = beatRepository;
+        this.assetRepository = assetRepository;
+        this.renditionRepository = renditionRepository;
+        this.jobRepository = jobRepository;
+        this.taskRepository = taskRepository;
+        this.providerTenants = providerTenants;
+        this.providerDeadlines = providerDeadlines;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail createAssetJob(Long projectId, ProjectRequests.GenerateAssets request) {
+        Project project = getProjectForCurrentUser(projectId);
+        AppUser user = resolveCurrentUser();
+        List<TimelineBeat> beats = beatRepository.findByProjectIdOrderByOrderIndexAsc(projectId);
+        boolean generateNarration = request == null || request.generateNarration() == null || request.generateNarration();
+        AssetGenerationMode mode = AssetGenerationMode.fromId(request != null ? request.mode() : null);
+        QualityTier quality = QualityTier.fromId(request != null ? request.quality() : null);
+        String aspectRatio = request != null ? request.aspectRatio() : null;
+        boolean useCache = request == null || request.useCache() == null || request.useCache();
+        GenerationJob job = newJob(project, user, aspectRatio, useCache, quality);
+
+        boolean changedOnly = mode == AssetGenerationMode.CHANGED_ONLY;
+        Map<Long, List<GeneratedAsset>> sceneAssets = changedOnly ? loadReadySceneAssets(beats) : Map.of();
+        List<GenerationTask> tasks = new ArrayList<>();
+        if (generateNarration) {
+            buildNarrationTask(job, beats)
+                .filter(task -> !changedOnly || isChanged(task, findLatestNarration(projectId)))
+                .ifPresent(tasks::add);
+        }
+        for (TimelineBeat beat : beats) {
+            if (!beat.isSelectedForGeneration() || beat.getScenePrompt() == null || beat.getScenePrompt().isBlank()) {
+                continue;
+            }
+            GenerationTask task = buildSceneTask(job, beat, project, aspectRatio);
+            beat.setInputFingerprint(task.getInputFingerprint());
+            if (!changedOnly || isChanged(task, sceneAssets.getOrDefault(beat.getId(), List.of()))) {
+                tasks.add(task);
+            }
+        }
+        beatRepository.saveAll(beats);
+        return submit(job, tasks);
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail createSceneJob(
+        Project project,
+        AppUser user,
+        List<TimelineBeat> beats,
+        String aspectRatio,
+        boolean useCache,
+        QualityTier quality
+    ) {
+        GenerationJob job = newJob(project, user, aspectRatio, useCache, quality);
+        List<GenerationTask> tasks = new ArrayList<>();
+        for (TimelineBeat beat : beats) {
+            GenerationTask task = buildSceneTask(job, beat, project, aspectRatio);
+            beat.setInputFingerprint(task.getInputFingerprint());
+            tasks.add(task);
+        }
+        beatRepository.saveAll(beats);
+        return submit(job, tasks);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<GenerationJobDtos.JobDetail> getJob(Long jobId) {
+        AppUser user = resolveCurrentUser();
+        return jobRepository.findByIdAndUserId(jobId, user.getId())
+            .map(job -> toJobDetail(job, taskRepository.findByJobIdOrderByIdAsc(jobId)));
+    }
+
+    @Transactional
+    public Optional<GenerationJobDtos.JobDetail> cancelJob(Long jobId) {
+        AppUser user = resolveCurrentUser();
+        return jobRepository.findByIdAndUserId(jobId, user.getId()).map(this::cancel);
+    }
+
+    @Transactional
+    public List<GenerationJobDtos.JobDetail> cancelProjectJobs(Long projectId) {
+        Project project = getProjectForCurrentUser(projectId);
+        return jobRepository.findByProjectIdAndStatusInOrderByIdAsc(project.getId(), ACTIVE_STATUSES).stream()
+            .map(this::cancel)
+            .toList();
+    }
+
+    @Transactional
+    public Optional<JobPlan> startJob(Long jobId) {
+        GenerationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != GenerationJobStatus.QUEUED) {
+            return Optional.empty();
+        }
+        job.setStatus(GenerationJobStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(Instant.now());
+        }
+        jobRepository.save(job);
+        List<TaskPlan> tasks = taskRepository.findByJobIdOrderByIdAsc(jobId).stream()
+            .filter(task -> task.getStatus() == GenerationTaskStatus.PENDING || isAwaitingProvider(task))
+            .map(task -> new TaskPlan(
+                task.getId(),
+                task.getBeat() != null ? task.getBeat().getId() : null,
+                task.getTaskType(),
+                task.getAssetType(),
+                task.getPrompt(),
+                task.getVideoModel(),
+                task.isGenerateAudio(),
+                task.getVariants(),
+                isAwaitingProvider(task) ? task.getAsset().getId() : null
+            ))
+            .toList();
+        return Optional.of(new JobPlan(
+            job.getId(),
+            providerTenants.forProject(job.getUser(), job.getProject()),
+            new Deadline(job.getStartedAt().plus(providerDeadlines.jobBudget())),
+            job.getAspectRatio(),
+            job.getNarratorVoice(),
+            job.isUseCache(),
+            tasks
+        ));
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail markTaskRunning(Long taskId) {
+        GenerationTask task = requireTask(taskId);
+        if (task.getStatus().isTerminal()) {
+            throw new CancellationException("Task " + taskId + " was cancelled before it started.");
+        }
+        task.setStatus(GenerationTaskStatus.RUNNING);
+        task.setStartedAt(Instant.now());
+        taskRepository.save(task);
+        return loadJobDetail(task.getJob());
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail completeTask(Long taskId, GeneratedAsset asset) {
+        if (asset == null) {
+            return failTask(taskId, "Provider returned no asset.");
+        }
+        GenerationTask task = requireTask(taskId);
+        GenerationJob job = task.getJob();
+        if (task.getStatus() == GenerationTaskStatus.CANCELLED) {
+            return loadJobDetail(job);
+        }
+        attach(asset, task, job);
+        assetRepository.save(asset);
+        if (asset.getStorageKey() != null && asset.getUrl() == null) {
+            asset.setUrl(AssetContentService.contentUrl(asset.getId()));
+        }
+        eventPublisher.publishEvent(new GeneratedAssetReadyEvent(List.of(asset.getId())));
+
+        task.setAsset(asset);
+        task.setStatus(GenerationTaskStatus.SUCCEEDED);
+        task.setFinishedAt(Instant.now());
+        taskRepository.save(task);
+        return loadJobDetail(job);
+    }
+
+    @Transactional
+    public Long recordPendingAsset(Long taskId, GeneratedAsset asset) {
+        GenerationTask task = requireTask(taskId);
+        GenerationJob job = task.getJob();
+        boolean cancelled = task.getStatus() == GenerationTaskStatus.CANCELLED;
+        attach(asset, task, job);
+        if (cancelled) {
+            asset.setStatus(GeneratedAssetStatus.CANCELLED);
+        }
+        assetRepository.save(asset);
+        task.setAsset(asset);
+        taskRepository.save(task);
+        return cancelled ? null : asset.getId();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PendingProviderRequest> findPendingProviderRequests() {
+        return toPendingProviderRequests(
+            assetRepository.findByStatusAndProviderRequestIdIsNotNullOrderByIdAsc(GeneratedAssetStatus.PENDING)
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PendingProviderRequest> findPendingProviderRequest(String requestId) {
+        return toPendingProviderRequests(
+            assetRepository.findByProviderRequestIdAndStatusOrderByIdAsc(requestId, GeneratedAssetStatus.PENDING)
+        ).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isKnownProviderRequest(String requestId) {
+        return assetRepository.existsByProviderRequestId(requestId);
+    }
+
+    @Transactional
+    public void completePendingAsset(Long assetId, List<String> urls, Map<RenditionKind, String> renditionUrls) {
+        GeneratedAsset asset = assetRepository.findById(assetId).orElse(null);
+        if (asset == null || asset.getStatus() != GeneratedAssetStatus.PENDING) {
+            return;
+        }
+        asset.setUrl(urls.getFirst());
+        asset.setStatus(GeneratedAssetStatus.READY);
+        assetRepository.save(asset);
+        renditionUrls.forEach((kind, url) -> {
+            AssetRendition rendition = new AssetRendition();
+            rendition.setAsset(asset);
+            rendition.setKind(kind);
+            rendition.setRemoteUrl(url);
+            renditionRepository.save(rendition);
+        });
+        List<Long> readyIds = new ArrayList<>(List.of(asset.getId()));
+        if (asset.getVariantSetId() != null) {
+            for (int i = 1; i < urls.size(); i++) {
+                readyIds.add(assetRepository.save(variantOf(asset, i, urls.get(i))).getId());
+            }
+        }
+        eventPublisher.publishEvent(new GeneratedAssetReadyEvent(readyIds));
+        taskRepository.findByAssetId(assetId)
+            .filter(task -> !task.getStatus().isTerminal())
+            .ifPresent(task -> {
+                task.setStatus(GenerationTaskStatus.SUCCEEDED);
+                task.setFinishedAt(Instant.now());
+                taskRepository.save(task);
+            });
+    }
+
+    private static GeneratedAsset variantOf(GeneratedAsset first, int index, String url) {
+        GeneratedAsset variant = new GeneratedAsset();
+        variant.setBeat(first.getBeat());
+        variant.setProject(first.getProject());
+        variant.setCreatedByUser(first.getCreatedByUser());
+        variant.setAssetType(first.getAssetType());
+        variant.setStatus(GeneratedAssetStatus.READY);
+        variant.setUrl(url);
+        variant.setProvider(first.getProvider());
+        variant.setProviderModel(first.getProviderModel());
+        variant.setProviderRequestId(first.getProviderRequestId());
+        variant.setMimeType(first.getMimeType());
+        variant.setOriginalPrompt(first.getOriginalPrompt());
+        variant.setInputFingerprint(first.getInputFingerprint());
+        variant.setVariantSetId(first.getVariantSetId());
+        variant.setVariantIndex(index);
+        variant.setSelected(false);
+        variant.setQuality(first.getQuality());
+        variant.setDraftAsset(first.getDraftAsset());
+        return variant;
+    }
+
+    @Transactional
+    public void failPendingAsset(Long assetId, String errorMessage) {
+        GeneratedAsset asset = assetRepository.findById(assetId).orElse(null);
+        if (asset == null || asset.getStatus() != GeneratedAssetStatus.PENDING) {
+            return;
+        }
+        asset.setStatus(GeneratedAssetStatus.FAILED);
+        assetRepository.save(asset);
+        taskRepository.findByAssetId(assetId)
+            .filter(task -> !task.getStatus().isTerminal())
+            .ifPresent(task -> {
+                task.setStatus(GenerationTaskStatus.FAILED);
+                task.setErrorMessage(errorMessage);
+                task.setFinishedAt(Instant.now());
+                taskRepository.save(task);
+            });
+    }
+
+    @Transactional(readOnly = true)
+    public GenerationJobDtos.JobDetail describeJob(Long jobId) {
+        GenerationJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job not found."));
+        return loadJobDetail(job);
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail failTask(Long taskId, String errorMessage) {
+        GenerationTask task = requireTask(taskId);
+        if (task.getStatus().isTerminal()) {
+            return loadJobDetail(task.getJob());
+        }
+        task.setStatus(GenerationTaskStatus.FAILED);
+        task.setErrorMessage(errorMessage);
+        task.setFinishedAt(Instant.now());
+        taskRepository.save(task);
+        return loadJobDetail(task.getJob());
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail timeOutTask(Long taskId, String errorMessage) {
+        GenerationTask task = requireTask(taskId);
+        if (!task.getStatus().isTerminal()) {
+            markTimedOut(task, errorMessage);
+            taskRepository.save(task);
+        }
+        return loadJobDetail(task.getJob());
+    }
+
+    @Transactional
+    public List<PendingProviderRequest> timeOutPendingAsset(Long assetId, String errorMessage) {
+        GeneratedAsset asset = assetRepository.findById(assetId).orElse(null);
+        if (asset == null || asset.getStatus() != GeneratedAssetStatus.PENDING) {
+            return List.of();
+        }
+        asset.setStatus(GeneratedAssetStatus.FAILED);
+        assetRepository.save(asset);
+        taskRepository.findByAssetId(assetId)
+            .filter(task -> !task.getStatus().isTerminal())
+            .ifPresent(task -> {
+                markTimedOut(task, errorMessage);
+                taskRepository.save(task);
+            });
+        return upstreamRequests(List.of(asset));
+    }
+
+    @Transactional
+    public void recordAssetDuration(Long assetId, double durationSeconds) {
+        assetRepository.findById(assetId).ifPresent(asset -> {
+            asset.setDurationSeconds(durationSeconds);
+            assetRepository.save(asset);
+        });
+    }
+
+    @Transactional
+    public GenerationJobDtos.JobDetail finishJob(Long jobId) {
+        GenerationJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job not found."));
+        List<GenerationTask> tasks = taskRepository.findByJobIdOrderByIdAsc(jobId);
+        if (job.getStatus() == GenerationJobStatus.CANCELLED) {
+            tasks.stream().filter(task -> !task.getStatus().isTerminal()).forEach(this::markCancelled);
+            taskRepository.saveAll(tasks);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            jobRepository.save(job);
+            return toJobDetail(job, tasks);
+        }
+        for (GenerationTask task : tasks) {
+            if (!task.getStatus().isTerminal()) {
+                task.setStatus(GenerationTaskStatus.FAILED);
+                task.setErrorMessage("Job stopped before the task finished.");
+                task.setFinishedAt(Instant.now());
+            }
+        }
+        boolean allFailed = !tasks.isEmpty() && tasks.stream()
+            .allMatch(task -> task.getStatus() == GenerationTaskStatus.FAILED
+                || task.getStatus() == GenerationTaskStatus.TIMED_OUT);
+        job.setStatus(allFailed ? GenerationJobStatus.FAILED : GenerationJobStatus.COMPLETED);
+        if (allFailed) {
+            boolean anyTimedOut = tasks.stream().anyMatch(task -> task.getStatus() == GenerationTaskStatus.TIMED_OUT);
+            job.setErrorMessage(anyTimedOut ? "All generation tasks failed or timed out." : "All generation tasks failed.");
+        }
+        job.setFinishedAt(Instant.now());
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        jobRepository.save(job);
+        return toJobDetail(job, tasks);
+    }
+
+    private GenerationJobDtos.JobDetail cancel(GenerationJob job) {
+        List<GenerationTask> tasks = taskRepository.findByJobIdOrderByIdAsc(job.getId());
+        if (job.getStatus().isTerminal()) {
+            return toJobDetail(job, tasks);
+        }
+        List<GeneratedAsset> queued = new ArrayList<>();
+        for (GenerationTask task : tasks) {
+            if (task.getStatus().isTerminal()) {
+                continue;
+            }
+            if (isAwaitingProvider(task)) {
+                queued.add(task.getAsset());
+            }
+            markCancelled(task);
+        }
+        taskRepository.saveAll(tasks);
+        job.setStatus(GenerationJobStatus.CANCELLED);
+        job.setErrorMessage("Cancelled by the user.");
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+
+        List<Long> queuedIds = queued.stream().map(GeneratedAsset::getId).toList();
+        eventPublisher.publishEvent(new GenerationJobCancelledEvent(job.getId(), queuedIds, upstreamRequests(queued)));
+        return toJobDetail(job, tasks);
+    }
+
+    private List<PendingProviderRequest> upstreamRequests(List<GeneratedAsset> assets) {
+        List<Long> assetIds = assets.stream().map(GeneratedAsset::getId).toList();
+        return toPendingProviderRequests(assets).stream()
+            .filter(request -> !assetRepository.existsByProviderRequestIdAndStatusAndIdNotIn(
+                request.requestId(),
+                GeneratedAssetStatus.PENDING,
+                assetIds
+            ))
+            .toList();
+    }
+
+    private void markTimedOut(GenerationTask task, String errorMessage) {
+        task.setStatus(GenerationTaskStatus.TIMED_OUT);
+        task.setErrorMessage(errorMessage);
+        task.setFinishedAt(Instant.now());
+    }
+
+    private void markCancelled(GenerationTask task) {
+        if (task.getAsset() != null && task.getAsset().getStatus() == GeneratedAssetStatus.PENDING) {
+            task.getAsset().setStatus(GeneratedAssetStatus.CANCELLED);
+        }
+        task.setStatus(GenerationTaskStatus.CANCELLED);
+        task.setErrorMessage("Cancelled.");
+        task.setFinishedAt(Instant.now());
+    }
+
+    private Optional<GenerationTask> buildNarrationTask(GenerationJob job, List<TimelineBeat> beats) {
+        List<TimelineBeat> ordered = beats.stream()
+            .filter(beat -> beat.getScriptSentence() != null && !beat.getScriptSentence().isBlank())
+            .sorted(Comparator.comparingInt(TimelineBeat::getOrderIndex))
+            .toList();
+        if (ordered.isEmpty()) {
+            return Optional.empty();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (TimelineBeat beat : ordered) {
+            if (builder.length() > 0) {
+                builder.append("\n");
+            }
+            builder.append(beat.getScriptSentence().trim());
+        }
+        GenerationTask task = new GenerationTask();
+        task.setJob(job);
+        task.setBeat(ordered.getFirst());
+        task.setTaskType(GenerationTaskType.NARRATION);
+        task.setAssetType(AssetType.AUDIO);
+        task.setPrompt(builder.toString());
+        task.setInputFingerprint(Fingerprints.of(task.getTaskType(), task.getPrompt(), job.getNarratorVoice()));
+        return Optional.of(task);
+    }
+
+    private GenerationTask buildSceneTask(GenerationJob job, TimelineBeat beat, Project project, String aspectRatio) {
+        GenerationTask task = new GenerationTask();
+        task.setJob(job);
+        task.setBeat(beat);
+        task.setTaskType(GenerationTaskType.SCENE);
+        task.setPrompt(buildVisualPrompt(beat, project));
+        if (job.getQuality() == QualityTier.DRAFT) {
+            task.setAssetType(AssetType.IMAGE);
+        } else {
+            task.setAssetType(beat.getSceneType() == SceneType.VIDEO ? AssetType.VIDEO : AssetType.IMAGE);
+            task.setVideoModel(beat.getVideoModel());
+            task.setGenerateAudio(beat.isVideoGenerateAudio());
+            task.setVariants(task.getAssetType() == AssetType.IMAGE ? beat.getImageVariants() : 1);
+        }
+        String fingerprint = Fingerprints.of(
+            task.getTaskType(),
+            task.getAssetType(),
+            task.getPrompt(),
+            task.getAssetType() == AssetType.VIDEO ? task.getVideoModel() : null,
+            task.getAssetType() == AssetType.VIDEO && task.isGenerateAudio(),
+            aspectRatio
+        );
+        if (task.getVariants() > 1) {
+            fingerprint = Fingerprints.of(fingerprint, task.getVariants());
+        }
+        if (job.getQuality() == QualityTier.DRAFT) {
+            fingerprint = Fingerprints.of(fingerprint, QualityTier.DRAFT.id());
+        }
+        task.setInputFingerprint(fingerprint);
+        return task;
+    }
+
+    private GenerationJob newJob(Project project, AppUser user, String aspectRatio, boolean useCache, QualityTier quality) {
+        GenerationJob job = new GenerationJob();
+        job.setProject(project);
+        job.setUser(user);
+        job.setStatus(GenerationJobStatus.QUEUED);
+        job.setAspectRatio(aspectRatio);
+        job.setNarratorVoice(project.getNarratorVoice());
+        job.setUseCache(useCache);
+        job.setQuality(quality);
+        return jobRepository.save(job);
+    }
+
+    private GenerationJobDtos.JobDetail submit(GenerationJob job, List<GenerationTask> tasks) {
+        taskRepository.saveAll(tasks);
+        eventPublisher.publishEvent(new GenerationJobSubmittedEvent(job.getId()));
+        return toJobDetail(job, tasks);
+    }
+
+    private void attach(GeneratedAsset asset, GenerationTask task, GenerationJob job) {
+        asset.setBeat(task.getBeat());
+        asset.setProject(job.getProject());
+        asset.setCreatedByUser(job.getUser());
+        asset.setInputFingerprint(task.getInputFingerprint());
+        if (task.getTaskType() != GenerationTaskType.SCENE) {
+            return;
+        }
+        asset.setQuality(job.getQuality());
+        if (job.getQuality() == QualityTier.FINAL && task.getBeat() != null) {
+            assetRepository.findTop1ByBeatIdAndQualityAndStatusOrderByCreatedAtDesc(
+                task.getBeat().getId(),
+                QualityTier.DRAFT,
+                GeneratedAssetStatus.READY
+            ).ifPresent(asset::setDraftAsset);
+        }
+    }
+
+    private Map<Long, List<GeneratedAsset>> loadReadySceneAssets(List<TimelineBeat> beats) {
+        if (beats.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> beatIds = beats.stream().map(TimelineBeat::getId).toList();
+        Map<Long, List<GeneratedAsset>> assets = new HashMap<>();
+        for (GeneratedAsset asset : assetRepository.findByBeatIdInAndStatus(beatIds, GeneratedAssetStatus.READY)) {
+            if (asset.getAssetType() != AssetType.AUDIO) {
+                assets.computeIfAbsent(asset.getBeat().getId(), id -> new ArrayList<>()).add(asset);
+            }
+        }
+        return assets;
+    }
+
+    private List<GeneratedAsset> findLatestNarration(Long projectId) {
+        return assetRepository.findTop1ByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+            projectId,
+            AssetType.AUDIO,
+            GeneratedAssetStatus.READY
+        ).stream().toList();
+    }
+
+    private boolean isChanged(GenerationTask task, List<GeneratedAsset> readyAssets) {
+        return readyAssets.stream()
+            .filter(asset -> asset.getAssetType() == task.getAssetType())
+            .max(Comparator.comparing(GeneratedAsset::getCreatedAt))
+            .map(asset -> !task.getInputFingerprint().equals(asset.getInputFingerprint()))
+            .orElse(true);
+    }
+
+    private String buildVisualPrompt(TimelineBeat beat, Project project) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(beat.getScenePrompt().trim());
+        if (project.getTone() != null && !project.getTone().isBlank()) {
+            builder.append("\nOverall tone: ").append(project.getTone().trim());
+        }
+        if (project.getVisualStylePrompt() != null && !project.getVisualStylePrompt().isBlank()) {
+            builder.append("\nVisual style: ").append(project.getVisualStylePrompt().trim());
+        }
+        builder.append("\nDo not include labels or on-screen text unless explicitly requested in the main prompt.");
+        builder.append("\nKeep visual continuity across beats with consistent setting, palette, and lighting.");
+        return builder.toString();
+    }
+
+    private List<PendingProviderRequest> toPendingProviderRequests(List<GeneratedAsset> assets) {
+        Map<String, List<GeneratedAsset>> byRequestId = assets.stream()
+            .collect(Collectors.groupingBy(GeneratedAsset::getProviderRequestId, LinkedHashMap::new, Collectors.toList()));
+        return byRequestId.values().stream()
+            .map(group -> new PendingProviderRequest(
+                group.stream().map(GeneratedAsset::getId).toList(),
+                group.getFirst().getProviderModel(),
+                group.getFirst().getProviderRequestId(),
+                group.getFirst().getCreatedAt()
+            ))
+            .toList();
+    }
+
+    static boolean isAwaitingProvider(GenerationTask task) {
+        GeneratedAsset asset = task.getAsset();
+        return task.getStatus() == GenerationTaskStatus.RUNNING
+            && asset != null
+            && asset.getStatus() == GeneratedAssetStatus.PENDING
+            && asset.getProviderRequestId() != null;
+    }
+
+    private GenerationTask requireTask(Long taskId) {
+        return taskRepository.findById(taskId)
+            .orElseThrow(() -> new IllegalArgumentException("Task not found."));
+    }
+
+    private GenerationJobDtos.JobDetail loadJobDetail(GenerationJob job) {
+        return toJobDetail(job, taskRepository.findByJobIdOrderByIdAsc(job.getId()));
+    }
+
+    private GenerationJobDtos.JobDetail toJobDetail(GenerationJob job, List<GenerationTask> tasks) {
+        int completed = (int) tasks.stream().filter(task -> task.getStatus() == GenerationTaskStatus.SUCCEEDED).count();
+        int failed = (int) tasks.stream().filter(task -> task.getStatus() == GenerationTaskStatus.FAILED).count();
+        int timedOut = (int) tasks.stream().filter(task -> task.getStatus() == GenerationTaskStatus.TIMED_OUT).count();
+        return new GenerationJobDtos.JobDetail(
+            job.getId(),
+            job.getProject().getId(),
+            job.getStatus().name(),
+            tasks.size(),
+            completed,
+            failed,
+            timedOut,
+            job.getErrorMessage(),
+            job.getCreatedAt(),
+            job.getStartedAt(),
+            job.getFinishedAt(),
+            tasks.stream().map(this::toTaskDetail).toList()
+        );
+    }
+
+    private GenerationJobDtos.TaskDetail toTaskDetail(GenerationTask task) {
+        return new GenerationJobDtos.TaskDetail(
+            task.getId(),
+            task.getBeat() != null ? task.getBeat().getId() : null,
+            task.getTaskType().name(),
+            task.getAssetType().name(),
+            task.getStatus().name(),
+            task.getAsset() != null ? task.getAsset().getId() : null,
+            task.getErrorMessage(),
+            task.getStartedAt(),
+            task.getFinishedAt()
+        );
+    }
+
+    private Project getProjectForCurrentUser(Long projectId) {
+        AppUser user = resolveCurrentUser();
+        return projectRepository.findByIdAndUserId(projectId, user.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Project not found."));
+    }
+
+    private AppUser resolveCurrentUser() {
+        return currentUserService.getCurrentUser().orElseGet(defaultUserService::getOrCreateDefaultUser);
+    }
+
+    record JobPlan(
+        Long jobId,
+        ProviderTenant tenant,
+        Deadline deadline,
+        String aspectRatio,
+        String narratorVoice,
+        boolean useCache,
+        List<TaskPlan> tasks
+    ) {
+    }
+
+    record TaskPlan(
+        Long id,
+        Long beatId,
+        GenerationTaskType taskType,
+        AssetType assetType,
+        String prompt,
+        String videoModel,
+        boolean generateAudio,
+        int variants,
+        Long pendingAssetId
+    ) {
+    }
+
+    record PendingProviderRequest(List<Long> assetIds, String modelId, String requestId, Instant submittedAt) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.gosu.firsttake.service;
+
+public record GenerationJobSubmittedEvent(Long jobId) {
+}
@@ -0,0 +1,71 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.domain.GenerationJob;
+import com.gosu.firsttake.domain.GenerationJobStatus;
+import com.gosu.firsttake.domain.GenerationTask;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import com.gosu.firsttake.repository.GenerationJobRepository;
+import com.gosu.firsttake.repository.GenerationTaskRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class GenerationLeaseService {
+    private static final List<GenerationJobStatus> ACTIVE_STATUSES =
+        List.of(GenerationJobStatus.QUEUED, GenerationJobStatus.RUNNING);
+
+    private final GenerationJobRepository jobRepository;
+    private final GenerationTaskRepository taskRepository;
+
+    public GenerationLeaseService(GenerationJobRepository jobRepository, GenerationTaskRepository taskRepository) {
+        this.jobRepository = jobRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Transactional
+    public List<Long> claimJobs(String owner, int limit, Duration lease) {
+        Instant now = Instant.now();
+        List<GenerationJob> jobs = jobRepository.lockClaimable(now, limit);
+        for (GenerationJob job : jobs) {
+            if (job.getStatus() == GenerationJobStatus.RUNNING) {
+                requeue(job);
+            }
+            job.setLeaseOwner(owner);
+            job.setLeaseExpiresAt(now.plus(lease));
+        }
+        jobRepository.saveAll(jobs);
+        return jobs.stream().map(GenerationJob::getId).toList();
+    }
+
+    @Transactional
+    public List<LostLease> renewLeases(String owner, Collection<Long> jobIds, Duration lease) {
+        jobRepository.renewLeases(owner, jobIds, ACTIVE_STATUSES, Instant.now().plus(lease));
+        return jobRepository.findAllById(jobIds).stream()
+            .filter(job -> !ACTIVE_STATUSES.contains(job.getStatus()) || !owner.equals(job.getLeaseOwner()))
+            .map(job -> new LostLease(job.getId(), ACTIVE_STATUSES.contains(job.getStatus())))
+            .toList();
+    }
+
+    @Transactional
+    public int expireLeases(String owner) {
+        return jobRepository.expireLeases(owner, ACTIVE_STATUSES, Instant.now());
+    }
+
+    private void requeue(GenerationJob job) {
+        for (GenerationTask task : taskRepository.findByJobIdOrderByIdAsc(job.getId())) {
+            if (task.getStatus() == GenerationTaskStatus.RUNNING && !GenerationJobService.isAwaitingProvider(task)) {
+                task.setStatus(GenerationTaskStatus.FAILED);
+                task.setErrorMessage("Interrupted by a worker restart before the provider call returned.");
+                task.setFinishedAt(Instant.now());
+            }
+        }
+        job.setStatus(GenerationJobStatus.QUEUED);
+    }
+
+    record LostLease(Long jobId, boolean takenOver) {
+    }
+}
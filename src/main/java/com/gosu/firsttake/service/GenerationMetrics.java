@@ -0,0 +1,116 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.ai.AiProviderPools;
+import com.gosu.firsttake.ai.CircuitState;
+import com.gosu.firsttake.ai.ProviderCallRetriedEvent;
+import com.gosu.firsttake.ai.ProviderCircuitStateChangedEvent;
+import com.gosu.firsttake.ai.ProviderPoolStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GenerationMetrics {
+    private final AiProviderPools providerPools;
+    private final GenerationCache generationCache;
+    private final MeterRegistry registry;
+
+    public GenerationMetrics(AiProviderPools providerPools, GenerationCache generationCache, MeterRegistry registry) {
+        this.providerPools = providerPools;
+        this.generationCache = generationCache;
+        this.registry = registry;
+        for (AiProvider provider : AiProvider.values()) {
+            poolGauge(provider, "firsttake.ai.provider.active", "Calls holding a pool slot",
+                ProviderPoolStats::active);
+            poolGauge(provider, "firsttake.ai.provider.queued", "Calls waiting for a pool slot",
+                ProviderPoolStats::queued);
+            poolGauge(provider, "firsttake.ai.provider.max.concurrency", "Pool slots",
+                ProviderPoolStats::maxConcurrency);
+            poolGauge(provider, "firsttake.ai.provider.slot.wait.max", "Longest wait for a pool slot in milliseconds",
+                ProviderPoolStats::maxWaitMillis);
+            poolGauge(provider, "firsttake.ai.provider.circuit.open", "1 while the circuit is open",
+                stats -> CircuitState.OPEN.name().equals(stats.circuitState()) ? 1 : 0);
+            poolCounter(provider, "firsttake.ai.provider.failures", "Calls that failed with a provider outage",
+                ProviderPoolStats::failures);
+            poolCounter(provider, "firsttake.ai.provider.rejected", "Calls failed fast by an open circuit",
+                ProviderPoolStats::rejected);
+            poolCounter(provider, "firsttake.ai.provider.timeouts", "Calls that ran out of time, waiting or running",
+                ProviderPoolStats::timedOut);
+            FunctionTimer.builder("firsttake.ai.provider.slot.wait", providerPools,
+                    pools -> pools.stats(provider).acquired(),
+                    pools -> pools.stats(provider).averageWaitMillis() * pools.stats(provider).acquired(),
+                    TimeUnit.MILLISECONDS)
+                .description("Time spent waiting for a pool slot")
+                .tag("provider", provider.id())
+                .register(registry);
+        }
+        cacheCounter("hit", GenerationCacheStats::hits);
+        cacheCounter("join", GenerationCacheStats::inFlightJoins);
+        cacheCounter("miss", GenerationCacheStats::misses);
+        cacheCounter("bypass", GenerationCacheStats::bypassed);
+        FunctionCounter.builder("firsttake.generation.cache.evicted", generationCache, cache -> cache.stats().evicted())
+            .description("Cache entries dropped after their time to live")
+            .register(registry);
+        Gauge.builder("firsttake.generation.cache.in.flight", generationCache, cache -> cache.stats().inFlight())
+            .description("Distinct requests currently being generated for the cache")
+            .register(registry);
+    }
+
+    @EventListener
+    public void onRetry(ProviderCallRetriedEvent event) {
+        Counter.builder("firsttake.ai.provider.retries")
+            .description("Provider calls retried after a failed attempt")
+            .tag("provider", event.provider().id())
+            .register(registry)
+            .increment();
+    }
+
+    @EventListener
+    public void onCircuitStateChanged(ProviderCircuitStateChangedEvent event) {
+        Counter.builder("firsttake.ai.provider.circuit.transitions")
+            .description("Circuit breaker state changes")
+            .tag("provider", event.provider().id())
+            .tag("to", event.to().name())
+            .register(registry)
+            .increment();
+    }
+
+    private void poolGauge(
+        AiProvider provider,
+        String name,
+        String description,
+        ToDoubleFunction<ProviderPoolStats> value
+    ) {
+        Gauge.builder(name, providerPools, pools -> value.applyAsDouble(pools.stats(provider)))
+            .description(description)
+            .tag("provider", provider.id())
+            .register(registry);
+    }
+
+    private void poolCounter(
+        AiProvider provider,
+        String name,
+        String description,
+        ToDoubleFunction<ProviderPoolStats> value
+    ) {
+        FunctionCounter.builder(name, providerPools, pools -> value.applyAsDouble(pools.stats(provider)))
+            .description(description)
+            .tag("provider", provider.id())
+            .register(registry);
+    }
+
+    private void cacheCounter(String result, ToDoubleFunction<GenerationCacheStats> value) {
+        FunctionCounter.builder("firsttake.generation.cache.requests", generationCache,
+                cache -> value.applyAsDouble(cache.stats()))
+            .description("Generation cache lookups by result")
+            .tag("result", result)
+            .register(registry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.config.AiProviderProperties;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "firsttake.ai.worker", name = "enabled", matchIfMissing = true)
+public class GenerationWorker {
+    private final GenerationLeaseService leaseService;
+    private final GenerationJobRunner jobRunner;
+    private final ExecutorService aiExecutor;
+    private final String nodeId;
+    private final int maxJobs;
+    private final Duration leaseDuration;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public GenerationWorker(
+        GenerationLeaseService leaseService,
+        GenerationJobRunner jobRunner,
+        AiProviderProperties properties,
+        @Qualifier("aiExecutor") ExecutorService aiExecutor
+    ) {
+        this.leaseService = leaseService;
+        this.jobRunner = jobRunner;
+        this.aiExecutor = aiExecutor;
+        String configuredId = properties.getWorker().getNodeId();
+        this.nodeId = configuredId == null || configuredId.isBlank() ? defaultNodeId() : configuredId;
+        this.maxJobs = properties.getWorker().getMaxJobs();
+        this.leaseDuration = properties.getWorker().getLeaseDuration();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int reclaimed = leaseService.expireLeases(nodeId);
+        if (reclaimed > 0) {
+            log.info("Resuming {} generation job(s) interrupted by the last shutdown of {}", reclaimed, nodeId);
+        }
+        started.set(true);
+        claim();
+    }
+
+    // Claims on the executor: a transactional claim would otherwise join the submitting transaction that just ended.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobSubmitted(GenerationJobSubmittedEvent event) {
+        aiExecutor.execute(this::claim);
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.ai.worker.claim-interval:2s}")
+    public synchronized void claim() {
+        int capacity = maxJobs - runningJobs.size();
+        if (!started.get() || capacity <= 0) {
+            return;
+        }
+        for (Long jobId : leaseService.claimJobs(nodeId, capacity, leaseDuration)) {
+            runningJobs.add(jobId);
+            jobRunner.submit(jobId).whenComplete((ignored, ex) -> runningJobs.remove(jobId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.ai.worker.heartbeat-interval:15s}")
+    public void heartbeat() {
+        if (runningJobs.isEmpty()) {
+            return;
+        }
+        List<GenerationLeaseService.LostLease> lost =
+            leaseService.renewLeases(nodeId, Set.copyOf(runningJobs), leaseDuration);
+        for (GenerationLeaseService.LostLease lease : lost) {
+            if (!runningJobs.contains(lease.jobId())) {
+                continue;
+            }
+            if (lease.takenOver()) {
+                log.warn("Generation job {} was taken over by another worker after {} missed its heartbeat",
+                    lease.jobId(), nodeId);
+                jobRunner.abandon(lease.jobId());
+            } else {
+                jobRunner.interrupt(lease.jobId());
+            }
+        }
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "worker-" + UUID.randomUUID();
+        }
+    }
+}
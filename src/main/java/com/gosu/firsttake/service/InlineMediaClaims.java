@@ -0,0 +1,27 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class InlineMediaClaims {
+    private final GeneratedAssetRepository assetRepository;
+
+    public InlineMediaClaims(GeneratedAssetRepository assetRepository) {
+        this.assetRepository = assetRepository;
+    }
+
+    @Transactional
+    public List<GeneratedAsset> claim(Instant now, Instant claimableBefore, int limit) {
+        List<Long> ids = assetRepository.lockInlineDataIds(claimableBefore, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        assetRepository.claimInlineData(ids, now);
+        return assetRepository.findAllById(ids);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class InlineMediaMigration {
+    private final InlineMediaClaims claims;
+    private final GeneratedAssetRepository assetRepository;
+    private final AssetStorage assetStorage;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration claimTimeout;
+
+    public InlineMediaMigration(
+        InlineMediaClaims claims,
+        GeneratedAssetRepository assetRepository,
+        AssetStorage assetStorage,
+        StorageProperties properties
+    ) {
+        this.claims = claims;
+        this.assetRepository = assetRepository;
+        this.assetStorage = assetStorage;
+        this.enabled = properties.getMigration().isEnabled();
+        this.batchSize = properties.getMigration().getBatchSize();
+        this.claimTimeout = properties.getMigration().getClaimTimeout();
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.storage.migration.interval:30s}")
+    public void migrateBatch() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<GeneratedAsset> assets = claims.claim(now, now.minus(claimTimeout), batchSize);
+        int moved = 0;
+        long bytes = 0;
+        for (GeneratedAsset asset : assets) {
+            String url = asset.getUrl();
+            int comma = url.indexOf(',');
+            if (comma < 0 || !url.substring(0, comma).endsWith(";base64")) {
+                log.warn("Skipping asset {}: its data URL is not base64-encoded", asset.getId());
+                assetRepository.markInlineMigrationFailed(asset.getId(), now);
+                continue;
+            }
+            String mimeType = asset.getMimeType() != null
+                ? asset.getMimeType()
+                : url.substring("data:".length(), comma - ";base64".length());
+            InputStream decoded = Base64.getDecoder().wrap(
+                new ByteArrayInputStream(url.substring(comma + 1).getBytes(StandardCharsets.US_ASCII)));
+            AssetStorage.StoredFile stored;
+            try {
+                stored = assetStorage.store(
+                    AssetContentService.folder(mimeType), AssetContentService.extension(mimeType), decoded);
+            } catch (IOException | IllegalArgumentException ex) {
+                log.warn("Could not move asset {} out of its data URL; retrying once its claim lapses", asset.getId(), ex);
+                continue;
+            }
+            int updated = assetRepository.completeInlineMigration(
+                asset.getId(),
+                stored.key(),
+                stored.sizeBytes(),
+                stored.sha256(),
+                mimeType,
+                AssetContentService.contentUrl(asset.getId())
+            );
+            if (updated > 0) {
+                moved++;
+                bytes += stored.sizeBytes();
+            }
+        }
+        if (moved > 0) {
+            log.info("Moved {} inline asset(s), {} bytes, to asset storage", moved, bytes);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class OrphanAssets {
+    private final GeneratedAssetRepository assetRepository;
+
+    public OrphanAssets(GeneratedAssetRepository assetRepository) {
+        this.assetRepository = assetRepository;
+    }
+
+    @Transactional
+    public int mark(Instant now, int limit) {
+        return assetRepository.markOrphans(now, limit);
+    }
+
+    @Transactional
+    public int delete(Instant orphanedBefore, int limit) {
+        List<Long> ids = assetRepository.findOrphanIdsBefore(orphanedBefore, limit);
+        return ids.isEmpty() ? 0 : assetRepository.deleteOrphans(ids);
+    }
+}
@@ -1,29 +1,18 @@
 package com.gosu.firsttake.service;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.gosu.firsttake.ai.nanobanana.NanoBananaForm;
-import com.gosu.firsttake.ai.nanobanana.NanoBananaResult;
-import com.gosu.firsttake.ai.nanobanana.NanoBananaService;
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.ai.AiProviderPools;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTenant;
 import com.gosu.firsttake.ai.openrouter.OpenRouterRequest;
 import com.gosu.firsttake.ai.openrouter.OpenRouterResult;
 import com.gosu.firsttake.ai.openrouter.OpenRouterService;
-import com.gosu.firsttake.ai.sora.SoraRequest;
-import com.gosu.firsttake.ai.sora.SoraResult;
-import com.gosu.firsttake.ai.sora.SoraService;
-import com.gosu.firsttake.ai.tts.TtsRequest;
-import com.gosu.firsttake.ai.tts.TtsResult;
-import com.gosu.firsttake.ai.tts.TtsService;
-import com.gosu.firsttake.ai.veo3fast.Veo3FastRequest;
-import com.gosu.firsttake.ai.veo3fast.Veo3FastResult;
-import com.gosu.firsttake.ai.veo3fast.Veo3FastService;
 import com.gosu.firsttake.api.dto.ProjectDtos;
 import com.gosu.firsttake.api.dto.ProjectRequests;
 import com.gosu.firsttake.domain.AppUser;
-import com.gosu.firsttake.domain.AssetType;
 import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
 import com.gosu.firsttake.domain.Project;
 import com.gosu.firsttake.domain.ProjectStatus;
 import com.gosu.firsttake.domain.SceneType;
@@ -36,31 +25,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ProjectService {
+    // fal's nano-banana returns at most four images per request.
+    private static final int MAX_IMAGE_VARIANTS = 4;
+
     private final DefaultUserService defaultUserService;
     private final CurrentUserService currentUserService;
     private final ProjectRepository projectRepository;
     private final TimelineBeatRepository beatRepository;
     private final GeneratedAssetRepository assetRepository;
     private final OpenRouterService openRouterService;
-    private final TtsService ttsService;
-    private final NanoBananaService nanoBananaService;
-    private final Veo3FastService veo3FastService;
-    private final SoraService soraService;
-    private final ExecutorService aiExecutor;
+    private final AiProviderPools providerPools;
+    private final ProviderTenants providerTenants;
+    private final ProviderDeadlines providerDeadlines;
+    private final AssetRenditionService renditionService;
 
     public ProjectService(
             DefaultUserService defaultUserService,
@@ -69,11 +57,10 @@ public class ProjectService {
             TimelineBeatRepository beatRepository,
             GeneratedAssetRepository assetRepository,
             OpenRouterService openRouterService,
-            TtsService ttsService,
-            NanoBananaService nanoBananaService,
-            Veo3FastService veo3FastService,
-            SoraService soraService,
-            ExecutorService aiExecutor
+            AiProviderPools providerPools,
+            ProviderTenants providerTenants,
+            ProviderDeadlines providerDeadlines,
+            AssetRenditionService renditionService
     ) {
         this.defaultUserService = defaultUserService;
         this.currentUserService = currentUserService;
@@ -81,11 +68,10 @@ public class ProjectService {
         this.beatRepository = beatRepository;
         this.assetRepository = assetRepository;
         this.openRouterService = openRouterService;
-        this.ttsService = ttsService;
-        this.nanoBananaService = nanoBananaService;
-        this.veo3FastService = veo3FastService;
-        this.soraService = soraService;
-        this.aiExecutor = aiExecutor;
+        this.providerPools = providerPools;
+        this.providerTenants = providerTenants;
+        this.providerDeadlines = providerDeadlines;
+        this.renditionService = renditionService;
     }
 
     @Transactional(readOnly = true)
@@ -111,6 +97,12 @@ public class ProjectService {
         return mapBeatsWithAssets(beats);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<ProjectDtos.BeatDetail> findBeatDetail(Long beatId) {
+        return beatRepository.findById(beatId)
+                .map(beat -> mapBeatsWithAssets(List.of(beat)).getFirst());
+    }
+
     @Transactional
     public ProjectDtos.ProjectSummary createProject(ProjectRequests.ProjectCreate request) {
         AppUser user = resolveCurrentUser();
@@ -201,10 +193,30 @@ public class ProjectService {
         if (request.videoModel() != null && !request.videoModel().isBlank()) {
             beat.setVideoModel(request.videoModel());
         }
+        if (request.imageVariants() != null) {
+            beat.setImageVariants(validateImageVariants(request.imageVariants()));
+        }
         beatRepository.save(beat);
         return toBeatDetail(beat, List.of());
     }
 
+    @Transactional
+    public ProjectDtos.BeatDetail selectVariant(Long assetId) {
+        AppUser user = resolveCurrentUser();
+        GeneratedAsset selected = assetRepository.findByIdAndProjectUserId(assetId, user.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Asset not found."));
+        if (selected.getVariantSetId() == null || selected.getBeat() == null) {
+            throw new IllegalArgumentException("Asset is not part of a variant set.");
+        }
+        if (selected.getStatus() != GeneratedAssetStatus.READY) {
+            throw new IllegalArgumentException("Only a finished variant can be selected.");
+        }
+        List<GeneratedAsset> variants = assetRepository.findByVariantSetIdOrderByVariantIndexAsc(selected.getVariantSetId());
+        variants.forEach(variant -> variant.setSelected(variant.getId().equals(assetId)));
+        assetRepository.saveAll(variants);
+        return findBeatDetail(selected.getBeat().getId()).orElseThrow();
+    }
+
     @Transactional
     public ProjectDtos.BeatDetail updateBeat(Long beatId, ProjectRequests.BeatUpdate request) {
         TimelineBeat beat = beatRepository.findById(beatId)
@@ -230,12 +242,11 @@ public class ProjectService {
         if (request.videoModel() != null && !request.videoModel().isBlank()) {
             beat.setVideoModel(request.videoModel());
         }
+        if (request.imageVariants() != null) {
+            beat.setImageVariants(validateImageVariants(request.imageVariants()));
+        }
         beatRepository.save(beat);
-        List<ProjectDtos.AssetDetail> assets = assetRepository.findByBeatIdIn(List.of(beatId)).stream()
-                .sorted(Comparator.comparing(GeneratedAsset::getCreatedAt))
-                .map(this::toAssetDetail)
-                .toList();
-        return toBeatDetail(beat, assets);
+        return mapBeatsWithAssets(List.of(beat)).getFirst();
     }
 
     @Transactional
@@ -245,6 +256,20 @@ public class ProjectService {
 
     @Transactional
     public List<ProjectDtos.BeatDetail> generateScript(Long projectId, ProjectRequests.GenerateScript request) {
+        ScriptPlan plan = prepareScript(projectId, request);
+        Deadline deadline = Deadline.in(providerDeadlines.forCall(AiProvider.OPENROUTER, null));
+        OpenRouterResult result = providerPools.call(
+                AiProvider.OPENROUTER,
+                plan.request().getModel(),
+                plan.tenant(),
+                deadline,
+                () -> openRouterService.generate(plan.request(), deadline)
+        );
+        return replaceScript(plan.projectId(), ScriptBeats.parse(result.output()));
+    }
+
+    @Transactional
+    public ScriptPlan prepareScript(Long projectId, ProjectRequests.GenerateScript request) {
         Project project = getProjectForCurrentUser(projectId);
         if (request.generalPrompt() != null) {
             project.setGeneralPrompt(request.generalPrompt());
@@ -263,203 +288,49 @@ public class ProjectService {
         }
         projectRepository.save(project);
 
-        String prompt = buildScriptPrompt(project, request.beatCount(), request.durationSeconds());
         OpenRouterRequest openRouterRequest = new OpenRouterRequest();
-        openRouterRequest.setPrompt(prompt);
+        openRouterRequest.setPrompt(buildScriptPrompt(project, request.beatCount(), request.durationSeconds()));
         openRouterRequest.setTemperature(0.7);
-        OpenRouterResult result = openRouterService.generate(openRouterRequest);
-        List<ScriptBeat> beats = parseScript(result.output());
+        return new ScriptPlan(project.getId(), providerTenants.forProject(project.getUser(), project), openRouterRequest);
+    }
 
-        List<TimelineBeat> existingBeats = beatRepository.findByProjectIdOrderByOrderIndexAsc(projectId);
+    @Transactional
+    public List<ProjectDtos.BeatDetail> replaceScript(Long projectId, List<ScriptBeat> beats) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found."));
         beatRepository.deleteByProjectId(projectId);
 
         List<TimelineBeat> saved = new ArrayList<>();
         int index = 0;
         for (ScriptBeat scriptBeat : beats) {
-            TimelineBeat beat = new TimelineBeat();
-            beat.setProject(project);
-            beat.setOrderIndex(index++);
-            beat.setScriptSentence(scriptBeat.sentence());
-            beat.setScenePrompt(scriptBeat.scenePrompt());
-            beat.setSceneType(SceneType.IMAGE);
-            beat.setSelectedForGeneration(true);
-            beat.setVideoGenerateAudio(false);
-            beat.setVideoModel("VEO3_FAST");
-            saved.add(beat);
+            saved.add(newScriptBeat(project, index++, scriptBeat));
         }
         beatRepository.saveAll(saved);
         return mapBeatsWithAssets(saved);
     }
 
     @Transactional
-    public List<ProjectDtos.BeatDetail> generateAssets(Long projectId, ProjectRequests.GenerateAssets request) {
-        Project project = getProjectForCurrentUser(projectId);
-        AppUser user = resolveCurrentUser();
-        List<TimelineBeat> beats = beatRepository.findByProjectIdOrderByOrderIndexAsc(projectId);
-        List<BeatSnapshot> snapshots = beats.stream()
-                .map(beat -> new BeatSnapshot(
-                        beat.getId(),
-                        beat.getOrderIndex(),
-                        beat.getScriptSentence(),
-                        beat.getScenePrompt(),
-                        beat.getSceneType(),
-                        beat.isSelectedForGeneration(),
-                        beat.isVideoGenerateAudio(),
-                        beat.getVideoModel()
-                ))
-                .toList();
-        String aspectRatio = request != null ? request.aspectRatio() : null;
-        boolean generateNarration = request == null || request.generateNarration() == null || request.generateNarration();
-
-        List<CompletableFuture<GeneratedAssetResult>> futures = new ArrayList<>();
-        GeneratedAssetResult audioResult = generateNarration ? generateCombinedAudio(project, snapshots) : null;
-        for (BeatSnapshot beat : snapshots) {
-            if (!beat.selectedForGeneration()) {
-                continue;
-            }
-            if (beat.scenePrompt() != null && !beat.scenePrompt().isBlank()) {
-                futures.add(CompletableFuture.supplyAsync(
-                        () -> toResult(beat.id(), generateSceneAsset(beat, aspectRatio, project)),
-                        aiExecutor
-                ).handle((result, ex) -> handleAssetFailure(result, ex, beat.id(), beat.sceneType() == SceneType.IMAGE ? AssetType.IMAGE : AssetType.VIDEO)));
-            }
-        }
-
-        Map<Long, TimelineBeat> beatMap = beats.stream()
-                .collect(Collectors.toMap(TimelineBeat::getId, beat -> beat));
-        List<GeneratedAssetResult> results = futures.stream()
-                .map(CompletableFuture::join)
-                .filter(result -> result != null && result.asset() != null)
-                .collect(Collectors.toCollection(ArrayList::new));
-        if (audioResult != null && audioResult.asset() != null) {
-            results.add(audioResult);
-        }
-        List<GeneratedAsset> newAssets = results.stream()
-            .map(result -> {
-                GeneratedAsset asset = result.asset();
-                asset.setBeat(beatMap.get(result.beatId()));
-                asset.setProject(project);
-                asset.setCreatedByUser(user);
-                return asset;
-            })
-            .toList();
-        if (!newAssets.isEmpty()) {
-            assetRepository.saveAll(newAssets);
-        }
-
-        return mapBeatsWithAssets(beats);
-    }
-
-    private GeneratedAsset generateAudioAsset(Project project, String input) {
-        if (input == null || input.isBlank()) {
-            return null;
-        }
-        TtsRequest ttsRequest = new TtsRequest();
-        ttsRequest.setInput(input);
-        if (project.getNarratorVoice() != null && !project.getNarratorVoice().isBlank()) {
-            ttsRequest.setVoice(project.getNarratorVoice());
-        }
-        TtsResult ttsResult = ttsService.generate(ttsRequest);
-        String responseFormat = ttsResult.getResponseFormat();
-        String mimeType = resolveAudioMimeType(responseFormat);
-        String dataUrl = toDataUrl(mimeType, ttsResult.getAudio());
-
-        GeneratedAsset asset = new GeneratedAsset();
-        asset.setAssetType(AssetType.AUDIO);
-        asset.setUrl(dataUrl);
-        asset.setProvider("openai");
-        asset.setMimeType(mimeType);
-        asset.setOriginalPrompt(input);
-        return asset;
-    }
-
-    private GeneratedAssetResult generateCombinedAudio(Project project, List<BeatSnapshot> snapshots) {
-        List<BeatSnapshot> ordered = snapshots.stream()
-                .filter(beat -> beat.scriptSentence() != null && !beat.scriptSentence().isBlank())
-                .sorted(Comparator.comparingInt(BeatSnapshot::orderIndex))
-                .toList();
-        if (ordered.isEmpty()) {
-            return null;
+    public ProjectDtos.BeatDetail appendScriptBeat(Long projectId, int orderIndex, ScriptBeat scriptBeat) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found."));
+        if (orderIndex == 0) {
+            beatRepository.deleteByProjectId(projectId);
         }
-        StringBuilder builder = new StringBuilder();
-        for (BeatSnapshot beat : ordered) {
-            if (builder.length() > 0) {
-                builder.append("\n");
-            }
-            builder.append(beat.scriptSentence().trim());
-        }
-        GeneratedAsset asset = generateAudioAsset(project, builder.toString());
-        if (asset == null) {
-            return null;
-        }
-        BeatSnapshot first = ordered.getFirst();
-        return new GeneratedAssetResult(first.id(), asset);
+        TimelineBeat beat = beatRepository.save(newScriptBeat(project, orderIndex, scriptBeat));
+        return toBeatDetail(beat, List.of());
     }
 
-    private GeneratedAsset generateSceneAsset(BeatSnapshot beat, String aspectRatio, Project project) {
-        if (beat.scenePrompt() == null || beat.scenePrompt().isBlank()) {
-            return null;
-        }
-        String combinedPrompt = buildVisualPrompt(beat, project);
-        if (beat.sceneType() == SceneType.VIDEO) {
-            String videoModel = beat.videoModel() == null || beat.videoModel().isBlank()
-                ? "VEO3_FAST"
-                : beat.videoModel();
-            if ("SORA".equalsIgnoreCase(videoModel)) {
-                SoraRequest request = new SoraRequest();
-                request.setPrompt(combinedPrompt);
-                request.setDuration(8);
-                if (aspectRatio != null && !aspectRatio.isBlank()) {
-                    request.setAspectRatio(aspectRatio);
-                }
-                SoraResult result = soraService.generate(request);
-                if (result.videoUrl() == null || result.videoUrl().isBlank()) {
-                    return null;
-                }
-                GeneratedAsset asset = new GeneratedAsset();
-                asset.setAssetType(AssetType.VIDEO);
-                asset.setUrl(result.videoUrl());
-                asset.setProvider("fal");
-                asset.setMimeType("video/mp4");
-                asset.setOriginalPrompt(combinedPrompt);
-                return asset;
-            }
-            Veo3FastRequest request = new Veo3FastRequest();
-            request.setPrompt(combinedPrompt);
-            request.setGenerateAudio(beat.videoGenerateAudio());
-            if (aspectRatio != null && !aspectRatio.isBlank()) {
-                request.setAspectRatio(aspectRatio);
-            }
-            Veo3FastResult result = veo3FastService.generate(request);
-            if (result.videoUrl() == null || result.videoUrl().isBlank()) {
-                return null;
-            }
-            GeneratedAsset asset = new GeneratedAsset();
-            asset.setAssetType(AssetType.VIDEO);
-            asset.setUrl(result.videoUrl());
-            asset.setProvider("fal");
-            asset.setMimeType("video/mp4");
-            asset.setOriginalPrompt(combinedPrompt);
-            return asset;
-        }
-
-        NanoBananaForm form = new NanoBananaForm();
-        form.setPrompt(combinedPrompt);
-        if (aspectRatio != null && !aspectRatio.isBlank()) {
-            form.setAspectRatio(aspectRatio);
-        }
-        NanoBananaResult result = nanoBananaService.generate(form);
-        String url = result.imageUrls().stream().findFirst().orElse(null);
-        if (url == null || url.isBlank()) {
-            return null;
-        }
-        GeneratedAsset asset = new GeneratedAsset();
-        asset.setAssetType(AssetType.IMAGE);
-        asset.setUrl(url);
-        asset.setProvider("fal");
-        asset.setMimeType("image/png");
-        asset.setOriginalPrompt(combinedPrompt);
-        return asset;
+    private TimelineBeat newScriptBeat(Project project, int orderIndex, ScriptBeat scriptBeat) {
+        TimelineBeat beat = new TimelineBeat();
+        beat.setProject(project);
+        beat.setOrderIndex(orderIndex);
+        beat.setScriptSentence(scriptBeat.sentence());
+        beat.setScenePrompt(scriptBeat.scenePrompt());
+        beat.setSceneType(SceneType.IMAGE);
+        beat.setSelectedForGeneration(true);
+        beat.setVideoGenerateAudio(false);
+        beat.setVideoModel("VEO3_FAST");
+        return beat;
     }
 
     private Project getProjectForCurrentUser(Long projectId) {
@@ -509,12 +380,17 @@ public class ProjectService {
         List<Long> beatIds = beats.stream().map(TimelineBeat::getId).toList();
         Map<Long, List<ProjectDtos.AssetDetail>> assetMap = new HashMap<>();
         if (!beatIds.isEmpty()) {
-            List<GeneratedAsset> assets = assetRepository.findByBeatIdIn(beatIds);
+            List<GeneratedAsset> assets = assetRepository.findByBeatIdInAndStatus(beatIds, GeneratedAssetStatus.READY);
+            Map<Long, AssetRenditionUrls> renditions =
+                    renditionService.renditionUrls(assets.stream().map(GeneratedAsset::getId).toList());
             assetMap = assets.stream()
                     .sorted(Comparator.comparing(GeneratedAsset::getCreatedAt))
                     .collect(Collectors.groupingBy(
                             asset -> asset.getBeat().getId(),
-                            Collectors.mapping(this::toAssetDetail, Collectors.toList())
+                            Collectors.mapping(
+                                    asset -> toAssetDetail(asset, renditions.getOrDefault(asset.getId(), AssetRenditionUrls.NONE)),
+                                    Collectors.toList()
+                            )
                     ));
         }
         Map<Long, List<ProjectDtos.AssetDetail>> finalAssetMap = assetMap;
@@ -534,13 +410,14 @@ public class ProjectService {
                 beat.isSelectedForGeneration(),
                 beat.isVideoGenerateAudio(),
                 beat.getVideoModel(),
+                beat.getImageVariants(),
                 beat.getCreatedAt(),
                 beat.getUpdatedAt(),
                 assets
         );
     }
 
-    private ProjectDtos.AssetDetail toAssetDetail(GeneratedAsset asset) {
+    private ProjectDtos.AssetDetail toAssetDetail(GeneratedAsset asset, AssetRenditionUrls renditions) {
         return new ProjectDtos.AssetDetail(
                 asset.getId(),
                 asset.getAssetType().name(),
@@ -548,10 +425,25 @@ public class ProjectService {
                 asset.getProvider(),
                 asset.getMimeType(),
                 asset.getDurationSeconds(),
+                asset.getVariantSetId(),
+                asset.getVariantIndex(),
+                asset.isSelected(),
+                asset.getQuality().name(),
+                asset.getDraftAsset() != null ? asset.getDraftAsset().getId() : null,
+                renditions.posterUrl(),
+                renditions.spritesheetUrl(),
+                renditions.thumbnailUrl(),
                 asset.getCreatedAt()
         );
     }
 
+    private int validateImageVariants(int imageVariants) {
+        if (imageVariants < 1 || imageVariants > MAX_IMAGE_VARIANTS) {
+            throw new IllegalArgumentException("Image variants must be between 1 and " + MAX_IMAGE_VARIANTS + ".");
+        }
+        return imageVariants;
+    }
+
     private SceneType parseSceneType(String value) {
         if (value == null || value.isBlank()) {
             return SceneType.IMAGE;
@@ -595,148 +487,6 @@ public class ProjectService {
         return builder.toString();
     }
 
-    private List<ScriptBeat> parseScript(String output) {
-        if (output == null || output.isBlank()) {
-            return List.of();
-        }
-        String trimmed = output.trim();
-        String jsonCandidate = extractJsonArray(trimmed).orElse(trimmed);
-        try {
-            JsonElement element = JsonParser.parseString(jsonCandidate);
-            if (element.isJsonArray()) {
-                return parseJsonArray(element.getAsJsonArray());
-            }
-        } catch (Exception ex) {
-            log.warn("Failed to parse OpenRouter output as JSON array, falling back to text parse.");
-        }
-        return fallbackParse(trimmed);
-    }
-
-    private Optional<String> extractJsonArray(String output) {
-        int start = output.indexOf('[');
-        int end = output.lastIndexOf(']');
-        if (start >= 0 && end > start) {
-            return Optional.of(output.substring(start, end + 1));
-        }
-        return Optional.empty();
-    }
-
-    private List<ScriptBeat> parseJsonArray(JsonArray array) {
-        List<ScriptBeat> beats = new ArrayList<>();
-        for (JsonElement element : array) {
-            if (!element.isJsonObject()) {
-                continue;
-            }
-            JsonObject obj = element.getAsJsonObject();
-            String sentence = getString(obj, "sentence");
-            if (sentence == null) {
-                sentence = getString(obj, "scriptSentence");
-            }
-            String prompt = getString(obj, "scenePrompt");
-            if (prompt == null) {
-                prompt = getString(obj, "prompt");
-            }
-            if (sentence == null || sentence.isBlank()) {
-                continue;
-            }
-            beats.add(new ScriptBeat(sentence, prompt == null ? "" : prompt));
-        }
-        return beats;
-    }
-
-    private String getString(JsonObject obj, String field) {
-        if (obj.has(field) && obj.get(field).isJsonPrimitive()) {
-            return obj.get(field).getAsString();
-        }
-        return null;
-    }
-
-    private List<ScriptBeat> fallbackParse(String output) {
-        List<ScriptBeat> beats = new ArrayList<>();
-        String[] lines = output.split("\\r?\\n");
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isBlank()) {
-                continue;
-            }
-            beats.add(new ScriptBeat(trimmed, ""));
-        }
-        if (!beats.isEmpty()) {
-            return beats;
-        }
-        String[] sentences = output.split("\\. ");
-        for (String sentence : sentences) {
-            String trimmed = sentence.trim();
-            if (!trimmed.isBlank()) {
-                beats.add(new ScriptBeat(trimmed.endsWith(".") ? trimmed : trimmed + ".", ""));
-            }
-        }
-        return beats;
-    }
-
-    private String resolveAudioMimeType(String responseFormat) {
-        if (responseFormat == null || responseFormat.isBlank()) {
-            return "audio/mpeg";
-        }
-        String format = responseFormat.toLowerCase(Locale.US);
-        return switch (format) {
-            case "wav" -> "audio/wav";
-            case "mp3" -> "audio/mpeg";
-            case "aac" -> "audio/aac";
-            case "opus" -> "audio/ogg";
-            default -> "audio/mpeg";
-        };
-    }
-
-    private String toDataUrl(String mimeType, byte[] data) {
-        String encoded = Base64.getEncoder().encodeToString(data);
-        return "data:" + mimeType + ";base64," + encoded;
-    }
-
-    private String buildVisualPrompt(BeatSnapshot beat, Project project) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(beat.scenePrompt().trim());
-        if (project.getTone() != null && !project.getTone().isBlank()) {
-            builder.append("\nOverall tone: ").append(project.getTone().trim());
-        }
-        if (project.getVisualStylePrompt() != null && !project.getVisualStylePrompt().isBlank()) {
-            builder.append("\nVisual style: ").append(project.getVisualStylePrompt().trim());
-        }
-        builder.append("\nDo not include labels or on-screen text unless explicitly requested in the main prompt.");
-        builder.append("\nKeep visual continuity across beats with consistent setting, palette, and lighting.");
-        return builder.toString();
-    }
-
-    private record ScriptBeat(String sentence, String scenePrompt) {
-    }
-
-    private GeneratedAssetResult toResult(Long beatId, GeneratedAsset asset) {
-        if (asset == null) {
-            return null;
-        }
-        return new GeneratedAssetResult(beatId, asset);
-    }
-
-    private GeneratedAssetResult handleAssetFailure(GeneratedAssetResult result, Throwable ex, Long beatId, AssetType assetType) {
-        if (ex != null) {
-            log.warn("Asset generation failed for beat {} ({})", beatId, assetType, ex);
-            return null;
-        }
-        return result;
-    }
-
-    private record GeneratedAssetResult(Long beatId, GeneratedAsset asset) {
-    }
-
-    private record BeatSnapshot(
-            Long id,
-            int orderIndex,
-            String scriptSentence,
-            String scenePrompt,
-            SceneType sceneType,
-            boolean selectedForGeneration,
-            boolean videoGenerateAudio,
-            String videoModel
-    ) {
+    record ScriptPlan(Long projectId, ProviderTenant tenant, OpenRouterRequest request) {
     }
 }
@@ -0,0 +1,40 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.ProviderTenant;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.SubscriptionStatus;
+import com.gosu.firsttake.repository.SubscriptionRepository;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProviderTenants {
+    private static final List<SubscriptionStatus> ENTITLED_STATUSES = List.of(SubscriptionStatus.ACTIVE, SubscriptionStatus.TRIAL);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final AiProviderProperties.Scheduler properties;
+
+    public ProviderTenants(SubscriptionRepository subscriptionRepository, AiProviderProperties properties) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.properties = properties.getScheduler();
+    }
+
+    public ProviderTenant forProject(AppUser user, Project project) {
+        Long userId = user != null ? user.getId() : null;
+        return new ProviderTenant(userId, project.getId(), resolveWeight(userId));
+    }
+
+    private int resolveWeight(Long userId) {
+        int defaultWeight = Math.max(1, properties.getDefaultWeight());
+        if (userId == null || properties.getPlanWeights().isEmpty()) {
+            return defaultWeight;
+        }
+        return subscriptionRepository.findFirstByUserIdAndStatusInOrderByCreatedAtDesc(userId, ENTITLED_STATUSES)
+            .map(subscription -> properties.getPlanWeights().get(subscription.getPlan().toLowerCase(Locale.US)))
+            .filter(weight -> weight != null && weight >= 1)
+            .orElse(defaultWeight);
+    }
+}
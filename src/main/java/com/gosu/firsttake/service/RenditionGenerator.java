@@ -0,0 +1,141 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class RenditionGenerator {
+    private static final String JPEG = "image/jpeg";
+
+    private final AssetRenditionService renditionService;
+    private final AssetStorage assetStorage;
+    private final boolean enabled;
+    private final String ffmpegPath;
+    private final int thumbnailWidth;
+    private final int spritesheetFrames;
+    private final int spritesheetFrameWidth;
+    private final Duration timeout;
+    private final AtomicBoolean ffmpegMissing = new AtomicBoolean();
+
+    public RenditionGenerator(
+        AssetRenditionService renditionService,
+        AssetStorage assetStorage,
+        StorageProperties properties
+    ) {
+        this.renditionService = renditionService;
+        this.assetStorage = assetStorage;
+        StorageProperties.Renditions renditions = properties.getRenditions();
+        this.enabled = renditions.isEnabled();
+        this.ffmpegPath = renditions.getFfmpegPath();
+        this.thumbnailWidth = renditions.getThumbnailWidth();
+        this.spritesheetFrames = renditions.getSpritesheetFrames();
+        this.spritesheetFrameWidth = renditions.getSpritesheetFrameWidth();
+        this.timeout = renditions.getTimeout();
+    }
+
+    public void deriveMissing(Long assetId) throws IOException, InterruptedException {
+        if (!enabled || ffmpegMissing.get()) {
+            return;
+        }
+        AssetRenditionService.RenditionSource source = renditionService.findRenditionSource(assetId).orElse(null);
+        if (source == null) {
+            return;
+        }
+        try (AssetStorage.LocalCopy original = assetStorage.localCopy(source.storageKey())) {
+            String posterKey = source.storedKeys().get(RenditionKind.POSTER);
+            if (source.assetType() == AssetType.VIDEO) {
+                if (posterKey == null) {
+                    // A second in, past the fade from black most renders open with.
+                    posterKey = derive(assetId, RenditionKind.POSTER, original.path(), List.of("-ss", "1"),
+                        List.of("-q:v", "3"));
+                }
+                if (!source.storedKeys().containsKey(RenditionKind.SPRITESHEET)) {
+                    String filter = "fps=1,scale=" + spritesheetFrameWidth + ":-2,tile=" + spritesheetFrames + "x1";
+                    derive(assetId, RenditionKind.SPRITESHEET, original.path(), List.of(),
+                        List.of("-vf", filter, "-q:v", "5"));
+                }
+            }
+            if (!source.storedKeys().containsKey(RenditionKind.THUMBNAIL)) {
+                String filter = "scale='min(" + thumbnailWidth + ",iw)':-2";
+                if (source.assetType() == AssetType.VIDEO && posterKey != null) {
+                    try (AssetStorage.LocalCopy poster = assetStorage.localCopy(posterKey)) {
+                        derive(assetId, RenditionKind.THUMBNAIL, poster.path(), List.of(),
+                            List.of("-vf", filter, "-q:v", "4"));
+                    }
+                } else {
+                    derive(assetId, RenditionKind.THUMBNAIL, original.path(), List.of(),
+                        List.of("-vf", filter, "-q:v", "4"));
+                }
+            }
+        }
+    }
+
+    private String derive(
+        Long assetId,
+        RenditionKind kind,
+        Path input,
+        List<String> inputOptions,
+        List<String> outputOptions
+    ) throws IOException, InterruptedException {
+        if (ffmpegMissing.get()) {
+            return null;
+        }
+        Path output = Files.createTempFile("rendition-", ".jpg");
+        Path transcript = Files.createTempFile("rendition-", ".log");
+        try {
+            List<String> command = new ArrayList<>(List.of(ffmpegPath, "-v", "error", "-y"));
+            command.addAll(inputOptions);
+            command.addAll(List.of("-i", input.toString()));
+            command.addAll(outputOptions);
+            command.addAll(List.of("-frames:v", "1", output.toString()));
+            Process process;
+            try {
+                process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(transcript.toFile()).start();
+            } catch (IOException ex) {
+                if (ffmpegMissing.compareAndSet(false, true)) {
+                    log.warn("ffmpeg is not available at '{}'; posters, spritesheets and thumbnails are not derived",
+                        ffmpegPath, ex);
+                }
+                return null;
+            }
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("ffmpeg timed out deriving the " + describe(kind) + " of asset " + assetId + ".");
+            }
+            if (process.exitValue() != 0 || Files.size(output) == 0) {
+                String detail = Files.readString(transcript, StandardCharsets.UTF_8).strip();
+                throw new IOException("ffmpeg could not derive the " + describe(kind) + " of asset " + assetId + ": "
+                    + (detail.length() > 500 ? detail.substring(0, 500) : detail));
+            }
+            AssetStorage.StoredFile stored;
+            try (InputStream content = Files.newInputStream(output)) {
+                stored = assetStorage.store(describe(kind), "jpg", content);
+            }
+            renditionService.recordRendition(assetId, kind, JPEG, stored);
+            return stored.key();
+        } finally {
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(transcript);
+        }
+    }
+
+    private static String describe(RenditionKind kind) {
+        return kind.name().toLowerCase(Locale.US);
+    }
+}
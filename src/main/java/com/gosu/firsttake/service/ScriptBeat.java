@@ -0,0 +1,4 @@
+package com.gosu.firsttake.service;
+
+record ScriptBeat(String sentence, String scenePrompt) {
+}
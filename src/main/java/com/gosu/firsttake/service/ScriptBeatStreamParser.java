@@ -0,0 +1,65 @@
+package com.gosu.firsttake.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ScriptBeatStreamParser {
+    private final StringBuilder element = new StringBuilder();
+    private boolean inArray;
+    private boolean closed;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    List<ScriptBeat> feed(String chunk) {
+        List<ScriptBeat> beats = new ArrayList<>();
+        for (int i = 0; i < chunk.length() && !closed; i++) {
+            char c = chunk.charAt(i);
+            if (!inArray) {
+                inArray = c == '[';
+                continue;
+            }
+            if (depth == 0) {
+                if (c == '{') {
+                    depth = 1;
+                    element.append(c);
+                } else if (c == ']') {
+                    closed = true;
+                }
+                continue;
+            }
+            element.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                parse(element.toString(), beats);
+                element.setLength(0);
+            }
+        }
+        return beats;
+    }
+
+    private static void parse(String json, List<ScriptBeat> beats) {
+        try {
+            JsonElement parsed = JsonParser.parseString(json);
+            if (parsed.isJsonObject()) {
+                ScriptBeats.fromJson(parsed.getAsJsonObject()).ifPresent(beats::add);
+            }
+        } catch (JsonParseException ex) {
+            // A malformed element is dropped like the buffered parser drops non-object entries.
+        }
+    }
+}
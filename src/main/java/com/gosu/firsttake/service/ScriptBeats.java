@@ -0,0 +1,97 @@
+package com.gosu.firsttake.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+final class ScriptBeats {
+    private ScriptBeats() {
+    }
+
+    static List<ScriptBeat> parse(String output) {
+        if (output == null || output.isBlank()) {
+            return List.of();
+        }
+        String trimmed = output.trim();
+        String jsonCandidate = extractJsonArray(trimmed).orElse(trimmed);
+        try {
+            JsonElement element = JsonParser.parseString(jsonCandidate);
+            if (element.isJsonArray()) {
+                return parseJsonArray(element.getAsJsonArray());
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to parse OpenRouter output as JSON array, falling back to text parse.");
+        }
+        return fallbackParse(trimmed);
+    }
+
+    static Optional<ScriptBeat> fromJson(JsonObject obj) {
+        String sentence = getString(obj, "sentence");
+        if (sentence == null) {
+            sentence = getString(obj, "scriptSentence");
+        }
+        String prompt = getString(obj, "scenePrompt");
+        if (prompt == null) {
+            prompt = getString(obj, "prompt");
+        }
+        if (sentence == null || sentence.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ScriptBeat(sentence, prompt == null ? "" : prompt));
+    }
+
+    private static Optional<String> extractJsonArray(String output) {
+        int start = output.indexOf('[');
+        int end = output.lastIndexOf(']');
+        if (start >= 0 && end > start) {
+            return Optional.of(output.substring(start, end + 1));
+        }
+        return Optional.empty();
+    }
+
+    private static List<ScriptBeat> parseJsonArray(JsonArray array) {
+        List<ScriptBeat> beats = new ArrayList<>();
+        for (JsonElement element : array) {
+            if (element.isJsonObject()) {
+                fromJson(element.getAsJsonObject()).ifPresent(beats::add);
+            }
+        }
+        return beats;
+    }
+
+    private static String getString(JsonObject obj, String field) {
+        if (obj.has(field) && obj.get(field).isJsonPrimitive()) {
+            return obj.get(field).getAsString();
+        }
+        return null;
+    }
+
+    private static List<ScriptBeat> fallbackParse(String output) {
+        List<ScriptBeat> beats = new ArrayList<>();
+        String[] lines = output.split("\\r?\\n");
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isBlank()) {
+                continue;
+            }
+            beats.add(new ScriptBeat(trimmed, ""));
+        }
+        if (!beats.isEmpty()) {
+            return beats;
+        }
+        String[] sentences = output.split("\\. ");
+        for (String sentence : sentences) {
+            String trimmed = sentence.trim();
+            if (!trimmed.isBlank()) {
+                beats.add(new ScriptBeat(trimmed.endsWith(".") ? trimmed : trimmed + ".", ""));
+            }
+        }
+        return beats;
+    }
+}
@@ -0,0 +1,92 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.ai.AiProviderPools;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.openrouter.OpenRouterResult;
+import com.gosu.firsttake.ai.openrouter.OpenRouterService;
+import com.gosu.firsttake.api.dto.ProjectDtos;
+import com.gosu.firsttake.api.dto.ProjectRequests;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Service
+public class ScriptStreamer {
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(5).toMillis();
+
+    private final ProjectService projectService;
+    private final OpenRouterService openRouterService;
+    private final AiProviderPools providerPools;
+    private final ProviderDeadlines providerDeadlines;
+    private final ExecutorService aiExecutor;
+
+    public ScriptStreamer(
+        ProjectService projectService,
+        OpenRouterService openRouterService,
+        AiProviderPools providerPools,
+        ProviderDeadlines providerDeadlines,
+        @Qualifier("aiExecutor") ExecutorService aiExecutor
+    ) {
+        this.projectService = projectService;
+        this.openRouterService = openRouterService;
+        this.providerPools = providerPools;
+        this.providerDeadlines = providerDeadlines;
+        this.aiExecutor = aiExecutor;
+    }
+
+    public SseEmitter stream(Long projectId, ProjectRequests.GenerateScript request) {
+        ProjectService.ScriptPlan plan = projectService.prepareScript(projectId, request);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        aiExecutor.execute(() -> run(plan, emitter));
+        return emitter;
+    }
+
+    private void run(ProjectService.ScriptPlan plan, SseEmitter emitter) {
+        Deadline deadline = Deadline.in(providerDeadlines.forCall(AiProvider.OPENROUTER, null));
+        List<ProjectDtos.BeatDetail> streamed = new ArrayList<>();
+        try {
+            OpenRouterResult result = providerPools.call(AiProvider.OPENROUTER, plan.request().getModel(), plan.tenant(), deadline, () -> {
+                if (!streamed.isEmpty()) {
+                    streamed.clear();
+                    send(emitter, "reset", "");
+                }
+                ScriptBeatStreamParser parser = new ScriptBeatStreamParser();
+                return openRouterService.stream(plan.request(), deadline, text -> {
+                    for (ScriptBeat beat : parser.feed(text)) {
+                        ProjectDtos.BeatDetail saved = projectService.appendScriptBeat(plan.projectId(), streamed.size(), beat);
+                        streamed.add(saved);
+                        send(emitter, "beat", saved);
+                    }
+                });
+            });
+            List<ProjectDtos.BeatDetail> beats = streamed.isEmpty()
+                ? projectService.replaceScript(plan.projectId(), ScriptBeats.parse(result.output()))
+                : streamed;
+            send(emitter, "done", beats);
+        } catch (RuntimeException ex) {
+            log.warn("Streaming script for project {} failed after {} beats", plan.projectId(), streamed.size(), ex);
+            String message = ex.getMessage() == null ? "Failed to generate script." : ex.getMessage();
+            send(emitter, "error", Map.of("message", message));
+        }
+        emitter.complete();
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Script stream subscriber went away", ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.gosu.firsttake.service;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.StoredBlob;
+import com.gosu.firsttake.storage.AssetStorage;
+import com.gosu.firsttake.storage.BlobRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class StorageSweeper {
+    private final OrphanAssets orphanAssets;
+    private final BlobRegistry blobRegistry;
+    private final AssetStorage assetStorage;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int batchesPerRun;
+    private final Duration orphanGrace;
+    private final Duration blobGrace;
+    private final Counter deletedAssets;
+    private final Counter deletedBlobs;
+    private final Counter reclaimedBytes;
+
+    public StorageSweeper(
+        OrphanAssets orphanAssets,
+        BlobRegistry blobRegistry,
+        AssetStorage assetStorage,
+        StorageProperties properties,
+        MeterRegistry registry
+    ) {
+        this.orphanAssets = orphanAssets;
+        this.blobRegistry = blobRegistry;
+        this.assetStorage = assetStorage;
+        StorageProperties.Gc gc = properties.getGc();
+        this.enabled = gc.isEnabled();
+        this.batchSize = gc.getBatchSize();
+        this.batchesPerRun = gc.getBatchesPerRun();
+        this.orphanGrace = gc.getOrphanGrace();
+        this.blobGrace = gc.getBlobGrace();
+        this.deletedAssets = Counter.builder("firsttake.storage.gc.deleted")
+            .description("Orphaned assets and unreferenced blobs deleted by the storage sweep")
+            .tag("kind", "asset")
+            .register(registry);
+        this.deletedBlobs = Counter.builder("firsttake.storage.gc.deleted")
+            .description("Orphaned assets and unreferenced blobs deleted by the storage sweep")
+            .tag("kind", "blob")
+            .register(registry);
+        this.reclaimedBytes = Counter.builder("firsttake.storage.gc.reclaimed")
+            .description("Bytes of stored media freed by the storage sweep")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${firsttake.storage.gc.interval:10m}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        int assets = sweepAssets(now);
+        BlobSweep blobs = sweepBlobs(now.minus(blobGrace));
+        try {
+            assetStorage.purgeStaging(now.minus(blobGrace));
+        } catch (IOException ex) {
+            log.warn("Could not purge abandoned staging files", ex);
+        }
+        deletedAssets.increment(assets);
+        deletedBlobs.increment(blobs.deleted());
+        reclaimedBytes.increment(blobs.bytes());
+        if (assets > 0 || blobs.deleted() > 0) {
+            log.info("Storage sweep deleted {} orphaned asset(s) and {} blob(s), reclaiming {} bytes",
+                assets, blobs.deleted(), blobs.bytes());
+        }
+    }
+
+    private int sweepAssets(Instant now) {
+        int deleted = 0;
+        for (int batch = 0; batch < batchesPerRun; batch++) {
+            int marked = orphanAssets.mark(now, batchSize);
+            int removed = orphanAssets.delete(now.minus(orphanGrace), batchSize);
+            deleted += removed;
+            if (marked < batchSize && removed < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private BlobSweep sweepBlobs(Instant storedBefore) {
+        int deleted = 0;
+        long bytes = 0;
+        for (int batch = 0; batch < batchesPerRun; batch++) {
+            List<StoredBlob> candidates = blobRegistry.findUnreferenced(storedBefore, batchSize);
+            for (StoredBlob blob : candidates) {
+                try {
+                    if (blobRegistry.reclaim(blob.getStorageKey(), storedBefore)) {
+                        deleted++;
+                        bytes += blob.getSizeBytes();
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Could not reclaim blob {}; a later sweep retries it", blob.getStorageKey(), ex);
+                }
+            }
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+        return new BlobSweep(deleted, bytes);
+    }
+
+    private record BlobSweep(int deleted, long bytes) {
+    }
+}
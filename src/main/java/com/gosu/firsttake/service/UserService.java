@@ -8,6 +8,7 @@ import com.gosu.firsttake.domain.AssetType;
 import com.gosu.firsttake.domain.CoinTransaction;
 import com.gosu.firsttake.domain.CoinTransactionType;
 import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
 import com.gosu.firsttake.repository.CoinTransactionRepository;
 import com.gosu.firsttake.repository.GeneratedAssetRepository;
 import java.time.Instant;
@@ -69,18 +70,23 @@ public class UserService {
         if (projectId.isPresent()) {
             if (type.isPresent()) {
                 AssetType assetType = AssetType.valueOf(type.get());
-                assets = generatedAssetRepository.findByProjectIdAndAssetTypeOrderByCreatedAtDesc(
+                assets = generatedAssetRepository.findByProjectIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
                     projectId.get(),
-                    assetType
+                    assetType,
+                    GeneratedAssetStatus.READY
                 );
             } else {
-                assets = generatedAssetRepository.findByProjectIdOrderByCreatedAtDesc(projectId.get());
+                assets = generatedAssetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(projectId.get(), GeneratedAssetStatus.READY);
             }
         } else if (type.isPresent()) {
             AssetType assetType = AssetType.valueOf(type.get());
-            assets = generatedAssetRepository.findByCreatedByUserIdAndAssetTypeOrderByCreatedAtDesc(user.getId(), assetType);
+            assets = generatedAssetRepository.findByCreatedByUserIdAndAssetTypeAndStatusOrderByCreatedAtDesc(
+                user.getId(),
+                assetType,
+                GeneratedAssetStatus.READY
+            );
         } else {
-            assets = generatedAssetRepository.findByCreatedByUserIdOrderByCreatedAtDesc(user.getId());
+            assets = generatedAssetRepository.findByCreatedByUserIdAndStatusOrderByCreatedAtDesc(user.getId(), GeneratedAssetStatus.READY);
         }
 
         return assets.stream().map(asset -> new UserDtos.GalleryAsset(
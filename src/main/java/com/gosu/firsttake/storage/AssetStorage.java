@@ -0,0 +1,134 @@
+package com.gosu.firsttake.storage;
+
+import com.gosu.firsttake.config.StorageProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AssetStorage {
+    static final String STAGING = ".staging";
+
+    private final BlobStore blobStore;
+    private final BlobRegistry blobRegistry;
+    private final Path staging;
+    private final Duration presignTtl;
+
+    public AssetStorage(BlobStore blobStore, BlobRegistry blobRegistry, StorageProperties properties) {
+        this.blobStore = blobStore;
+        this.blobRegistry = blobRegistry;
+        this.staging = Path.of(properties.getRoot()).toAbsolutePath().normalize().resolve(STAGING);
+        this.presignTtl = properties.getS3().getPresignTtl();
+    }
+
+    public StoredFile store(String folder, String extension, InputStream content) throws IOException {
+        Path partial = stagingFile(".part");
+        try {
+            DigestInputStream hashing = new DigestInputStream(content, sha256());
+            long size = Files.copy(hashing, partial, StandardCopyOption.REPLACE_EXISTING);
+            String sha256 = HexFormat.of().formatHex(hashing.getMessageDigest().digest());
+            String key = folder + "/" + sha256.substring(0, 2) + "/" + sha256 + "." + extension;
+            blobRegistry.register(key, size);
+            if (!blobStore.exists(key)) {
+                blobStore.putFile(key, partial);
+            }
+            return new StoredFile(key, size, sha256);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    public InputStream open(String key) throws IOException {
+        return blobStore.get(key);
+    }
+
+    public boolean exists(String key) throws IOException {
+        return blobStore.exists(key);
+    }
+
+    public void delete(String key) throws IOException {
+        blobStore.delete(key);
+    }
+
+    public Optional<Path> localPath(String key) {
+        return blobStore.localPath(key);
+    }
+
+    public Optional<URI> presignedGet(String key, String contentType) {
+        return blobStore.presignedGet(key, contentType, presignTtl);
+    }
+
+    public LocalCopy localCopy(String key) throws IOException {
+        Optional<Path> local = blobStore.localPath(key);
+        if (local.isPresent()) {
+            return new LocalCopy(local.get(), false);
+        }
+        int dot = key.lastIndexOf('.');
+        Path copy = stagingFile(dot > key.lastIndexOf('/') ? key.substring(dot) : ".bin");
+        try (InputStream content = blobStore.get(key)) {
+            Files.copy(content, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(copy);
+            throw ex;
+        }
+        return new LocalCopy(copy, true);
+    }
+
+    public int purgeStaging(Instant modifiedBefore) throws IOException {
+        if (!Files.isDirectory(staging)) {
+            return 0;
+        }
+        int purged = 0;
+        try (Stream<Path> files = Files.list(staging)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore) && Files.deleteIfExists(file)) {
+                        purged++;
+                    }
+                } catch (NoSuchFileException ex) {
+                    // Finished and removed by its writer in the meantime.
+                }
+            }
+        }
+        return purged;
+    }
+
+    private Path stagingFile(String suffix) throws IOException {
+        Files.createDirectories(staging);
+        return Files.createTempFile(staging, UUID.randomUUID().toString(), suffix);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    public record StoredFile(String key, long sizeBytes, String sha256) {
+    }
+
+    public record LocalCopy(Path path, boolean temporary) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            if (temporary) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
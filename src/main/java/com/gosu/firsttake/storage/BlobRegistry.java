@@ -0,0 +1,52 @@
+package com.gosu.firsttake.storage;
+
+import com.gosu.firsttake.domain.StoredBlob;
+import com.gosu.firsttake.repository.StoredBlobRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class BlobRegistry {
+    private final StoredBlobRepository repository;
+    private final BlobStore blobStore;
+
+    public BlobRegistry(StoredBlobRepository repository, BlobStore blobStore) {
+        this.repository = repository;
+        this.blobStore = blobStore;
+    }
+
+    public void register(String storageKey, long sizeBytes) {
+        Instant now = Instant.now();
+        if (repository.touch(storageKey, now) > 0) {
+            return;
+        }
+        try {
+            repository.insert(storageKey, sizeBytes, now);
+        } catch (DataIntegrityViolationException ex) {
+            // Another writer registered the same content a moment ago, which is just as fresh.
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StoredBlob> findUnreferenced(Instant storedBefore, int limit) {
+        return repository.findUnreferencedStoredBefore(storedBefore, limit);
+    }
+
+    @Transactional
+    public boolean reclaim(String storageKey, Instant storedBefore) {
+        if (repository.deleteIfUnreferenced(storageKey, storedBefore) == 0) {
+            return false;
+        }
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete blob " + storageKey + ".", ex);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gosu.firsttake.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface BlobStore {
+    void put(String key, InputStream content, long length) throws IOException;
+
+    default void putFile(String key, Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            put(key, content, Files.size(file));
+        }
+    }
+
+    InputStream get(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    default Optional<URI> presignedGet(String key, String contentType, Duration ttl) {
+        return Optional.empty();
+    }
+}
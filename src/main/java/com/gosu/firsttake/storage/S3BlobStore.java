@@ -0,0 +1,216 @@
+package com.gosu.firsttake.storage;
+
+import com.gosu.firsttake.config.StorageProperties;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "firsttake.storage", name = "backend", havingValue = "s3")
+public class S3BlobStore implements BlobStore, AutoCloseable {
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final int partSize;
+
+    public S3BlobStore(StorageProperties properties) {
+        StorageProperties.S3 s3 = properties.getS3();
+        if (s3.getBucket() == null || s3.getBucket().isBlank()) {
+            throw new IllegalStateException("firsttake.storage.s3.bucket is required for the s3 storage backend.");
+        }
+        this.bucket = s3.getBucket();
+        this.multipartThreshold = s3.getMultipartThreshold().toBytes();
+        this.partSize = Math.toIntExact(s3.getPartSize().toBytes());
+
+        AwsCredentialsProvider credentials = s3.getAccessKey().isBlank()
+            ? DefaultCredentialsProvider.create()
+            : StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+        S3Configuration configuration = S3Configuration.builder()
+            .pathStyleAccessEnabled(s3.isPathStyleAccess())
+            .build();
+        S3ClientBuilder clientBuilder = S3Client.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration)
+            // Many S3-compatible stores reject the flexible checksums newer SDKs add to every upload by default.
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration);
+        if (!s3.getEndpoint().isBlank()) {
+            clientBuilder.endpointOverride(URI.create(s3.getEndpoint()));
+            presignerBuilder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+        this.client = clientBuilder.build();
+        this.presigner = presignerBuilder.build();
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) throws IOException {
+        try {
+            if (length >= 0 && length <= multipartThreshold) {
+                client.putObject(putRequest(key), RequestBody.fromInputStream(content, length));
+                return;
+            }
+            byte[] buffer = new byte[partSize];
+            int filled = content.readNBytes(buffer, 0, partSize);
+            if (filled < partSize) {
+                client.putObject(putRequest(key), RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+                return;
+            }
+            putMultipart(key, content, buffer, filled);
+        } catch (SdkException ex) {
+            throw new IOException("Could not store " + key + " in bucket " + bucket + ".", ex);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file) throws IOException {
+        if (Files.size(file) > multipartThreshold) {
+            BlobStore.super.putFile(key, file);
+            return;
+        }
+        try {
+            client.putObject(putRequest(key), RequestBody.fromFile(file));
+        } catch (SdkException ex) {
+            throw new IOException("Could not store " + key + " in bucket " + bucket + ".", ex);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("Could not read " + key + " from bucket " + bucket + ".", ex);
+        } catch (SdkException ex) {
+            throw new IOException("Could not read " + key + " from bucket " + bucket + ".", ex);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Could not look up " + key + " in bucket " + bucket + ".", ex);
+        } catch (SdkException ex) {
+            throw new IOException("Could not look up " + key + " in bucket " + bucket + ".", ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (SdkException ex) {
+            throw new IOException("Could not delete " + key + " from bucket " + bucket + ".", ex);
+        }
+    }
+
+    @Override
+    public Optional<URI> presignedGet(String key, String contentType, Duration ttl) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (contentType != null) {
+            request.responseContentType(contentType);
+        }
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+            .signatureDuration(ttl)
+            .getObjectRequest(request.build())
+            .build();
+        return Optional.of(URI.create(presigner.presignGetObject(presignRequest).url().toString()));
+    }
+
+    @Override
+    public void close() {
+        presigner.close();
+        client.close();
+    }
+
+    private void putMultipart(String key, InputStream content, byte[] buffer, int filled) throws IOException {
+        String uploadId = client.createMultipartUpload(
+            CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            while (filled > 0) {
+                int partNumber = parts.size() + 1;
+                UploadPartRequest request = UploadPartRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) filled)
+                    .build();
+                String etag = client.uploadPart(
+                    request, RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                filled = content.readNBytes(buffer, 0, partSize);
+            }
+            client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+        } catch (IOException | RuntimeException ex) {
+            try {
+                client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+            } catch (SdkException abortFailure) {
+                log.warn("Could not abort the multipart upload of {}", key, abortFailure);
+            }
+            throw ex;
+        }
+    }
+
+    private PutObjectRequest putRequest(String key) {
+        return PutObjectRequest.builder().bucket(bucket).key(key).build();
+    }
+}
@@ -144,3 +144,121 @@ ALTER TABLE generated_asset ALTER COLUMN beat_id DROP NOT NULL;
 ALTER TABLE generated_asset
     ADD CONSTRAINT generated_asset_beat_id_fkey
     FOREIGN KEY (beat_id) REFERENCES timeline_beat(id) ON DELETE SET NULL;
+
+--changeset firsttake:15
+CREATE TABLE generation_job (
+    id BIGSERIAL PRIMARY KEY,
+    project_id BIGINT NOT NULL REFERENCES project(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+    status VARCHAR(32) NOT NULL,
+    aspect_ratio VARCHAR(32),
+    narrator_voice VARCHAR(255),
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+CREATE INDEX idx_generation_job_project_id ON generation_job(project_id);
+
+--changeset firsttake:16
+CREATE TABLE generation_task (
+    id BIGSERIAL PRIMARY KEY,
+    job_id BIGINT NOT NULL REFERENCES generation_job(id) ON DELETE CASCADE,
+    beat_id BIGINT REFERENCES timeline_beat(id) ON DELETE SET NULL,
+    asset_id BIGINT REFERENCES generated_asset(id) ON DELETE SET NULL,
+    task_type VARCHAR(32) NOT NULL,
+    asset_type VARCHAR(32) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    prompt TEXT,
+    video_model VARCHAR(64),
+    generate_audio BOOLEAN NOT NULL DEFAULT FALSE,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+CREATE INDEX idx_generation_task_job_id ON generation_task(job_id);
+
+--changeset firsttake:17
+ALTER TABLE generated_asset ADD COLUMN status VARCHAR(32) NOT NULL DEFAULT 'READY';
+ALTER TABLE generated_asset ADD COLUMN provider_model VARCHAR(255);
+ALTER TABLE generated_asset ADD COLUMN provider_request_id VARCHAR(255);
+ALTER TABLE generated_asset ALTER COLUMN url DROP NOT NULL;
+CREATE INDEX idx_generated_asset_pending ON generated_asset(id) WHERE status = 'PENDING';
+
+--changeset firsttake:18
+ALTER TABLE generated_asset ADD COLUMN cache_key VARCHAR(64);
+CREATE INDEX idx_generated_asset_cache_key ON generated_asset(created_by_user_id, cache_key) WHERE cache_key IS NOT NULL;
+ALTER TABLE generation_job ADD COLUMN use_cache BOOLEAN NOT NULL DEFAULT TRUE;
+
+--changeset firsttake:19
+ALTER TABLE timeline_beat ADD COLUMN input_fingerprint VARCHAR(64);
+ALTER TABLE generation_task ADD COLUMN input_fingerprint VARCHAR(64);
+ALTER TABLE generated_asset ADD COLUMN input_fingerprint VARCHAR(64);
+
+--changeset firsttake:20
+ALTER TABLE timeline_beat ADD COLUMN image_variants INT NOT NULL DEFAULT 1;
+ALTER TABLE generation_task ADD COLUMN variants INT NOT NULL DEFAULT 1;
+ALTER TABLE generated_asset ADD COLUMN variant_set_id VARCHAR(36);
+ALTER TABLE generated_asset ADD COLUMN variant_index INT;
+ALTER TABLE generated_asset ADD COLUMN selected BOOLEAN NOT NULL DEFAULT TRUE;
+CREATE INDEX idx_generated_asset_variant_set ON generated_asset(variant_set_id) WHERE variant_set_id IS NOT NULL;
+
+--changeset firsttake:21
+ALTER TABLE generation_job ADD COLUMN quality VARCHAR(16) NOT NULL DEFAULT 'FINAL';
+ALTER TABLE generated_asset ADD COLUMN quality VARCHAR(16) NOT NULL DEFAULT 'FINAL';
+ALTER TABLE generated_asset ADD COLUMN draft_asset_id BIGINT REFERENCES generated_asset(id) ON DELETE SET NULL;
+CREATE INDEX idx_generated_asset_draft_asset_id ON generated_asset(draft_asset_id) WHERE draft_asset_id IS NOT NULL;
+
+--changeset firsttake:22
+ALTER TABLE generation_job ADD COLUMN lease_owner VARCHAR(128);
+ALTER TABLE generation_job ADD COLUMN lease_expires_at TIMESTAMP;
+CREATE INDEX idx_generation_job_claimable ON generation_job(id) WHERE status IN ('QUEUED', 'RUNNING');
+
+--changeset firsttake:23
+ALTER TABLE generated_asset ADD COLUMN storage_key VARCHAR(255);
+ALTER TABLE generated_asset ADD COLUMN size_bytes BIGINT;
+ALTER TABLE generated_asset ADD COLUMN migration_claimed_at TIMESTAMP;
+ALTER TABLE generated_asset ADD COLUMN migration_failed_at TIMESTAMP;
+CREATE INDEX idx_generated_asset_inline_data ON generated_asset(id) WHERE url LIKE 'data:%' AND migration_failed_at IS NULL;
+
+--changeset firsttake:24
+ALTER TABLE generated_asset ADD COLUMN content_sha256 VARCHAR(64);
+ALTER TABLE generated_asset ADD COLUMN remote_url TEXT;
+CREATE INDEX idx_generated_asset_content_sha256 ON generated_asset(content_sha256) WHERE content_sha256 IS NOT NULL;
+CREATE INDEX idx_generated_asset_unmirrored ON generated_asset(id) WHERE storage_key IS NULL AND remote_url IS NULL AND status = 'READY' AND url LIKE 'http%';
+
+--changeset firsttake:25
+CREATE TABLE asset_rendition (
+    id BIGSERIAL PRIMARY KEY,
+    asset_id BIGINT NOT NULL REFERENCES generated_asset(id) ON DELETE CASCADE,
+    kind VARCHAR(16) NOT NULL,
+    remote_url TEXT,
+    storage_key VARCHAR(255),
+    mime_type VARCHAR(255),
+    size_bytes BIGINT,
+    content_sha256 VARCHAR(64),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (asset_id, kind)
+);
+
+--changeset firsttake:26
+ALTER TABLE generated_asset ADD COLUMN orphaned_at TIMESTAMP;
+CREATE INDEX idx_generated_asset_unattached ON generated_asset(id) WHERE beat_id IS NULL;
+CREATE INDEX idx_generated_asset_storage_key ON generated_asset(storage_key) WHERE storage_key IS NOT NULL;
+CREATE INDEX idx_asset_rendition_storage_key ON asset_rendition(storage_key) WHERE storage_key IS NOT NULL;
+CREATE TABLE stored_blob (
+    storage_key VARCHAR(255) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    stored_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+INSERT INTO stored_blob (storage_key, size_bytes)
+SELECT storage_key, MAX(COALESCE(size_bytes, 0))
+FROM (
+    SELECT storage_key, size_bytes FROM generated_asset WHERE storage_key IS NOT NULL
+    UNION ALL
+    SELECT storage_key, size_bytes FROM asset_rendition WHERE storage_key IS NOT NULL
+) stored
+GROUP BY storage_key;
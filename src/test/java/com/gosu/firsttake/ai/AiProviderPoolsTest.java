@@ -0,0 +1,146 @@
+package com.gosu.firsttake.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gosu.firsttake.config.AiProviderProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class AiProviderPoolsTest {
+    private final List<Duration> sleeps = new ArrayList<>();
+    private final List<Object> events = new ArrayList<>();
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void retriesThrottledCallsHonouringRetryAfter() {
+        AiProviderPools pools = pools(new AiProviderProperties());
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = pools.call(AiProvider.NANO_BANANA, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw ProviderCallException.forStatus("slow down", 429, Optional.of("7"));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        assertEquals(List.of(Duration.ofSeconds(7)), sleeps);
+        assertTrue(events.getFirst() instanceof ProviderCallRetriedEvent);
+        assertEquals(1, stats(pools, AiProvider.NANO_BANANA).retries());
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        AiProviderPools pools = pools(new AiProviderProperties());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ProviderCallException.class, () -> pools.call(AiProvider.SORA, () -> {
+            calls.incrementAndGet();
+            throw ProviderCallException.forStatus("bad prompt", 422, Optional.empty());
+        }));
+
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void backoffStaysUnderTheExponentialCeiling() {
+        AiProviderProperties properties = new AiProviderProperties();
+        properties.getRetry().setMaxAttempts(4);
+        AiProviderPools pools = pools(properties);
+
+        assertThrows(ProviderCallException.class, () -> pools.call(AiProvider.VEO3_FAST, () -> {
+            throw ProviderCallException.forStatus("unavailable", 503, Optional.empty());
+        }));
+
+        assertEquals(3, sleeps.size());
+        for (int i = 0; i < sleeps.size(); i++) {
+            assertTrue(sleeps.get(i).compareTo(Duration.ofSeconds(1L << i)) <= 0, "attempt " + (i + 1) + " slept " + sleeps.get(i));
+        }
+    }
+
+    @Test
+    void openCircuitFailsFastUntilATrialCallSucceeds() {
+        AiProviderProperties properties = new AiProviderProperties();
+        properties.getRetry().setMaxAttempts(1);
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        AiProviderPools pools = pools(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ProviderCallException.class, () -> pools.call(AiProvider.OPENAI_TTS, () -> {
+                calls.incrementAndGet();
+                throw ProviderCallException.forStatus("down", 502, Optional.empty());
+            }));
+        }
+        assertThrows(ProviderCircuitOpenException.class, () -> pools.call(AiProvider.OPENAI_TTS, calls::incrementAndGet));
+        assertEquals(2, calls.get());
+        assertEquals("OPEN", stats(pools, AiProvider.OPENAI_TTS).circuitState());
+        assertEquals(1, stats(pools, AiProvider.OPENAI_TTS).rejected());
+
+        now.set(now.get().plus(Duration.ofSeconds(31)));
+        int trialCalls = pools.call(AiProvider.OPENAI_TTS, calls::incrementAndGet);
+        assertEquals(3, trialCalls);
+        assertEquals("CLOSED", stats(pools, AiProvider.OPENAI_TTS).circuitState());
+        List<CircuitState> transitions = events.stream()
+            .filter(ProviderCircuitStateChangedEvent.class::isInstance)
+            .map(event -> ((ProviderCircuitStateChangedEvent) event).to())
+            .toList();
+        assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED), transitions);
+    }
+
+    @Test
+    void attemptsAreTimedPerModelAndOutcome() {
+        AiProviderPools pools = pools(new AiProviderProperties());
+        AtomicInteger calls = new AtomicInteger();
+
+        pools.call(AiProvider.SORA, "fal-ai/sora-2/text-to-video", ProviderTenant.SYSTEM, Deadline.none(), () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw ProviderCallException.forStatus("unavailable", 503, Optional.empty());
+            }
+            return "ok";
+        });
+
+        assertEquals(1, callTimer("fal-ai/sora-2/text-to-video", "failure").count());
+        assertEquals(1, callTimer("fal-ai/sora-2/text-to-video", "success").count());
+    }
+
+    @Test
+    void retryAfterDatesAreParsed() {
+        assertEquals(Duration.ofSeconds(120), ProviderCallException.parseRetryAfter("120"));
+        assertEquals(Duration.ZERO, ProviderCallException.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    private AiProviderPools pools(AiProviderProperties properties) {
+        InstantSource clock = now::get;
+        return new AiProviderPools(properties, events::add, new ProviderMetrics(registry), sleeps::add, clock);
+    }
+
+    private Timer callTimer(String model, String outcome) {
+        return registry.get(ProviderMetrics.CALLS)
+            .tag("provider", AiProvider.SORA.id())
+            .tag("model", model)
+            .tag("outcome", outcome)
+            .timer();
+    }
+
+    private static ProviderPoolStats stats(AiProviderPools pools, AiProvider provider) {
+        return pools.stats().stream()
+            .filter(stats -> stats.provider().equals(provider.id()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,123 @@
+package com.gosu.firsttake.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class FairShareQueueTest {
+    private static final int SLOTS = 4;
+    private static final long CALL_MS = 20;
+    private static final int HEAVY_CALLS = 200;
+    private static final int SMALL_JOBS = 10;
+    private static final int SMALL_JOB_CALLS = 3;
+
+    @Test
+    void slotsAreSharedInProportionToWeight() throws Exception {
+        FairShareQueue queue = new FairShareQueue(1, 1);
+        FairShareQueue.Grant blocker = queue.acquire(new ProviderTenant(99L, 99L, 1));
+        List<Long> grantedTo = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 40; i++) {
+                for (ProviderTenant tenant : List.of(new ProviderTenant(1L, 1L, 1), new ProviderTenant(2L, 2L, 3))) {
+                    executor.submit(() -> {
+                        FairShareQueue.Grant grant = queue.acquire(tenant);
+                        grantedTo.add(tenant.userId());
+                        queue.release(grant);
+                        return null;
+                    });
+                }
+            }
+            while (queue.waiting() < 80) {
+                Thread.sleep(5);
+            }
+            queue.release(blocker);
+        }
+
+        List<Long> first = grantedTo.subList(0, 40);
+        long light = first.stream().filter(userId -> userId == 1L).count();
+        assertEquals(10, light, "grant order " + first);
+    }
+
+    @Test
+    void smallJobsStayFastBehindAHeavyProject() throws Exception {
+        FairShareQueue queue = new FairShareQueue(SLOTS, 3);
+        List<Long> fairLatencies = simulate(tenant -> {
+            FairShareQueue.Grant grant = queue.acquire(tenant);
+            try {
+                Thread.sleep(CALL_MS);
+            } finally {
+                queue.release(grant);
+            }
+        });
+
+        Semaphore fifo = new Semaphore(SLOTS, true);
+        List<Long> fifoLatencies = simulate(tenant -> {
+            fifo.acquire();
+            try {
+                Thread.sleep(CALL_MS);
+            } finally {
+                fifo.release();
+            }
+        });
+
+        long fairP99 = percentile(fairLatencies, 0.99);
+        long fifoP50 = percentile(fifoLatencies, 0.50);
+        assertTrue(fairP99 < 10 * CALL_MS, "fair-share small job p99 was " + fairP99 + "ms");
+        assertTrue(fifoP50 > fairP99 * 3, "FIFO small job p50 " + fifoP50 + "ms vs fair p99 " + fairP99 + "ms");
+    }
+
+    private static List<Long> simulate(ProviderCall call) throws Exception {
+        List<Future<Long>> smallJobs = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ProviderTenant heavy = new ProviderTenant(1L, 1L, 1);
+            for (int i = 0; i < HEAVY_CALLS; i++) {
+                executor.submit(() -> {
+                    call.run(heavy);
+                    return null;
+                });
+            }
+            Thread.sleep(5 * CALL_MS);
+            for (int job = 0; job < SMALL_JOBS; job++) {
+                ProviderTenant small = new ProviderTenant(100L + job, 100L + job, 1);
+                smallJobs.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try (ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor()) {
+                        for (int i = 0; i < SMALL_JOB_CALLS; i++) {
+                            calls.submit(() -> {
+                                call.run(small);
+                                return null;
+                            });
+                        }
+                    }
+                    return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                }));
+                Thread.sleep(2 * CALL_MS);
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> smallJob : smallJobs) {
+                latencies.add(smallJob.get(10, TimeUnit.SECONDS));
+            }
+            return latencies;
+        }
+    }
+
+    private static long percentile(List<Long> values, double percentile) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1));
+    }
+
+    @FunctionalInterface
+    private interface ProviderCall {
+        void run(ProviderTenant tenant) throws InterruptedException;
+    }
+}
@@ -0,0 +1,234 @@
+package com.gosu.firsttake.ai.fal;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class FalQueueStub implements AutoCloseable {
+    public static final String API_KEY = "stub-key";
+    public static final String MEDIA_URL_PREFIX = "https://media.fal.stub/";
+    public static final String USER_ID = "stub-user";
+
+    private static final int WEBHOOK_ATTEMPTS = 10;
+    private static final long WEBHOOK_RETRY_MS = 200;
+
+    private final HttpServer server;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService webhookExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final AtomicInteger statusChecks = new AtomicInteger();
+    private final AtomicInteger webhookDeliveries = new AtomicInteger();
+    private final Map<String, String> submittedModels = new ConcurrentHashMap<>();
+    private final KeyPair signingKey = generateSigningKey();
+    private volatile boolean deliverWebhooks = true;
+
+    public FalQueueStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String jwksUrl() {
+        return baseUrl() + "/.well-known/jwks.json";
+    }
+
+    public Map<String, String> signatureHeaders(String requestId, String body, Instant sentAt) {
+        String timestamp = Long.toString(sentAt.getEpochSecond());
+        try {
+            String bodyHash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(signingKey.getPrivate());
+            signature.update(String.join("\n", requestId, USER_ID, timestamp, bodyHash).getBytes(StandardCharsets.UTF_8));
+            return Map.of(
+                "X-Fal-Webhook-Request-Id", requestId,
+                "X-Fal-Webhook-User-Id", USER_ID,
+                "X-Fal-Webhook-Timestamp", timestamp,
+                "X-Fal-Webhook-Signature", HexFormat.of().formatHex(signature.sign())
+            );
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public void deliverWebhooks(boolean deliverWebhooks) {
+        this.deliverWebhooks = deliverWebhooks;
+    }
+
+    public int statusChecks() {
+        return statusChecks.get();
+    }
+
+    public int webhookDeliveries() {
+        return webhookDeliveries.get();
+    }
+
+    public void reset() {
+        statusChecks.set(0);
+        webhookDeliveries.set(0);
+        deliverWebhooks = true;
+    }
+
+    @Override
+    public void close() {
+        webhookExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if ("/.well-known/jwks.json".equals(exchange.getRequestURI().getPath())) {
+            respond(exchange, 200, jwks().toString());
+            return;
+        }
+        if (!("Key " + API_KEY).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 401, "{\"detail\":\"Unauthorized\"}");
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        int requestsAt = path.indexOf("/requests/");
+        if ("POST".equals(exchange.getRequestMethod()) && requestsAt < 0) {
+            exchange.getRequestBody().readAllBytes();
+            String requestId = "req-" + requestIds.incrementAndGet();
+            submittedModels.put(requestId, path.substring(1));
+            JsonObject response = new JsonObject();
+            response.addProperty("request_id", requestId);
+            respond(exchange, 200, response.toString());
+            String webhook = queryParam(exchange.getRequestURI(), "fal_webhook");
+            if (deliverWebhooks && webhook != null) {
+                scheduleWebhook(webhook, requestId, 1);
+            }
+            return;
+        }
+        if ("GET".equals(exchange.getRequestMethod()) && requestsAt >= 0) {
+            String rest = path.substring(requestsAt + "/requests/".length());
+            if (rest.endsWith("/status")) {
+                statusChecks.incrementAndGet();
+                respond(exchange, 200, "{\"status\":\"COMPLETED\"}");
+                return;
+            }
+            if (submittedModels.containsKey(rest)) {
+                respond(exchange, 200, result(rest).toString());
+                return;
+            }
+        }
+        respond(exchange, 404, "{\"detail\":\"Not found\"}");
+    }
+
+    private void scheduleWebhook(String webhook, String requestId, int attempt) {
+        webhookExecutor.schedule(() -> {
+            JsonObject body = new JsonObject();
+            body.addProperty("request_id", requestId);
+            body.addProperty("gateway_request_id", requestId);
+            body.addProperty("status", "OK");
+            body.add("payload", result(requestId));
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(webhook))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+            signatureHeaders(requestId, body.toString(), Instant.now()).forEach(request::header);
+            try {
+                HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                    webhookDeliveries.incrementAndGet();
+                    return;
+                }
+            } catch (IOException ex) {
+                // fall through to the retry below
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (attempt < WEBHOOK_ATTEMPTS) {
+                scheduleWebhook(webhook, requestId, attempt + 1);
+            }
+        }, WEBHOOK_RETRY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private JsonObject result(String requestId) {
+        JsonObject image = new JsonObject();
+        image.addProperty("url", MEDIA_URL_PREFIX + requestId + ".png");
+        JsonArray images = new JsonArray();
+        images.add(image);
+        JsonObject video = new JsonObject();
+        video.addProperty("url", MEDIA_URL_PREFIX + requestId + ".mp4");
+        JsonObject result = new JsonObject();
+        result.add("images", images);
+        result.add("video", video);
+        result.addProperty("description", "");
+        return result;
+    }
+
+    private JsonObject jwks() {
+        byte[] encoded = signingKey.getPublic().getEncoded();
+        JsonObject key = new JsonObject();
+        key.addProperty("kty", "OKP");
+        key.addProperty("crv", "Ed25519");
+        key.addProperty("use", "sig");
+        key.addProperty("x", Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        JsonArray keys = new JsonArray();
+        keys.add(key);
+        JsonObject jwks = new JsonObject();
+        jwks.add("keys", keys);
+        return jwks;
+    }
+
+    private static KeyPair generateSigningKey() {
+        try {
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
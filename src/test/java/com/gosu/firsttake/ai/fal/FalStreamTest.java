@@ -0,0 +1,83 @@
+package com.gosu.firsttake.ai.fal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderTimeoutException;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FalStreamTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private FalStream falStream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::sendOneEventThenStall);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        AiProviderProperties properties = new AiProviderProperties();
+        properties.getFal().setApiKey("stub-key");
+        properties.getFal().setRunUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        falStream = new FalStream(properties, new ProviderDeadlines(properties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void stalledStreamFailsAtItsDeadline() {
+        List<JsonObject> events = new CopyOnWriteArrayList<>();
+        long started = System.nanoTime();
+
+        assertThrows(ProviderTimeoutException.class, () -> falStream.stream(
+            "openrouter/router",
+            Map.of("prompt", "hello"),
+            Deadline.in(Duration.ofMillis(500)),
+            events::add
+        ));
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertEquals(1, events.size());
+        assertEquals("Once", events.get(0).get("output").getAsString());
+        assertTrue(elapsedMillis < 5_000, "stream gave up after " + elapsedMillis + "ms");
+    }
+
+    private void sendOneEventThenStall(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("data: {\"output\":\"Once\"}\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gosu.firsttake.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+    private static final int PORT = freePort();
+    private static final String SCRAPE_PASSWORD = "scrape-secret";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void metricsProperties(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT);
+        registry.add("firsttake.security.metrics.password", () -> SCRAPE_PASSWORD);
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @Test
+    void healthStaysPublic() throws Exception {
+        assertEquals(200, get("/actuator/health", null).statusCode());
+    }
+
+    @Test
+    void prometheusRequiresTheScrapeUser() throws Exception {
+        assertEquals(401, get("/actuator/prometheus", null).statusCode());
+        assertEquals(401, get("/actuator/prometheus", basic("prometheus", "wrong")).statusCode());
+
+        HttpResponse<String> scraped = get("/actuator/prometheus", basic("prometheus", SCRAPE_PASSWORD));
+
+        assertEquals(200, scraped.statusCode());
+        assertTrue(scraped.body().contains("jvm_"));
+        assertTrue(scraped.body().contains("firsttake_ai_provider_queued{"));
+        assertTrue(scraped.body().contains("firsttake_ai_provider_slot_wait_max{"));
+        assertTrue(scraped.body().contains("firsttake_generation_cache_requests_total{"));
+    }
+
+    private HttpResponse<String> get(String path, String authorization) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + PORT + path)).GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String basic(String username, String password) {
+        String credentials = username + ":" + password;
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
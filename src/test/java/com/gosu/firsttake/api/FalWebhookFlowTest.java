@@ -0,0 +1,179 @@
+package com.gosu.firsttake.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.ai.fal.FalQueueStub;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@ActiveProfiles("test")
+class FalWebhookFlowTest {
+    private static final String WEBHOOK_BODY = "{\"request_id\":\"req-0\",\"status\":\"OK\",\"payload\":{}}";
+    private static final int PORT = freePort();
+    private static final FalQueueStub FAL = startStub();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void falProperties(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT);
+        registry.add("firsttake.ai.fal.queue-url", FAL::baseUrl);
+        registry.add("firsttake.ai.fal.api-key", () -> FalQueueStub.API_KEY);
+        registry.add("firsttake.ai.fal.webhook-base-url", () -> "http://127.0.0.1:" + PORT);
+        registry.add("firsttake.ai.fal.webhook-jwks-url", FAL::jwksUrl);
+        registry.add("firsttake.ai.fal.webhook-sweep-after", () -> "3s");
+        registry.add("firsttake.ai.fal.poll-interval", () -> "200ms");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        FAL.close();
+    }
+
+    @BeforeEach
+    void resetStub() {
+        FAL.reset();
+    }
+
+    @Test
+    void webhookCompletesSceneWithoutStatusPolling() throws Exception {
+        JsonObject job = generateOneImageScene();
+
+        assertEquals("COMPLETED", job.get("status").getAsString());
+        assertEquals(0, FAL.statusChecks());
+        assertTrue(firstAssetUrl(job.get("projectId").getAsLong()).startsWith(FalQueueStub.MEDIA_URL_PREFIX));
+    }
+
+    @Test
+    void sweepCollectsSceneWhenWebhookIsLost() throws Exception {
+        FAL.deliverWebhooks(false);
+
+        JsonObject job = generateOneImageScene();
+
+        assertEquals("COMPLETED", job.get("status").getAsString());
+        assertEquals(0, FAL.webhookDeliveries());
+        assertTrue(FAL.statusChecks() > 0);
+        assertTrue(firstAssetUrl(job.get("projectId").getAsLong()).startsWith(FalQueueStub.MEDIA_URL_PREFIX));
+    }
+
+    @Test
+    void rejectsUnsignedWebhook() throws Exception {
+        assertEquals(401, sendWebhook(WEBHOOK_BODY, Map.of()).statusCode());
+    }
+
+    @Test
+    void rejectsWebhookWhoseBodyWasChangedAfterSigning() throws Exception {
+        Map<String, String> headers = FAL.signatureHeaders("req-0", WEBHOOK_BODY, Instant.now());
+
+        assertEquals(401, sendWebhook(WEBHOOK_BODY.replace("OK", "ERROR"), headers).statusCode());
+    }
+
+    @Test
+    void rejectsReplayedWebhook() throws Exception {
+        Map<String, String> headers = FAL.signatureHeaders("req-0", WEBHOOK_BODY, Instant.now().minus(Duration.ofMinutes(10)));
+
+        assertEquals(401, sendWebhook(WEBHOOK_BODY, headers).statusCode());
+    }
+
+    @Test
+    void rejectsMalformedWebhookBody() throws Exception {
+        String body = "{\"request_id\":";
+
+        assertEquals(400, sendWebhook(body, FAL.signatureHeaders("req-0", body, Instant.now())).statusCode());
+        String array = "[]";
+        assertEquals(400, sendWebhook(array, FAL.signatureHeaders("req-0", array, Instant.now())).statusCode());
+    }
+
+    private JsonObject generateOneImageScene() throws Exception {
+        long projectId = json(send("POST", "/api/projects", "{\"name\":\"Webhook flow\"}")).get("id").getAsLong();
+        send("POST", "/api/projects/" + projectId + "/beats", """
+            {"orderIndex":0,"scriptSentence":"A quiet harbor.","scenePrompt":"A quiet harbor at dawn",
+             "sceneType":"IMAGE","selectedForGeneration":true,"videoGenerateAudio":false,"videoModel":"VEO3_FAST"}
+            """);
+        long jobId = json(send("POST", "/api/projects/" + projectId + "/generate-assets",
+            "{\"aspectRatio\":\"16:9\",\"generateNarration\":false}")).get("id").getAsLong();
+
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(15));
+        while (Instant.now().isBefore(deadline)) {
+            JsonObject job = json(send("GET", "/api/jobs/" + jobId, null));
+            String status = job.get("status").getAsString();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish in time.");
+    }
+
+    private String firstAssetUrl(long projectId) throws Exception {
+        JsonArray beats = json(send("GET", "/api/projects/" + projectId, null)).getAsJsonArray("beats");
+        for (JsonElement beat : beats) {
+            JsonArray assets = beat.getAsJsonObject().getAsJsonArray("assets");
+            if (!assets.isEmpty()) {
+                return assets.get(0).getAsJsonObject().get("url").getAsString();
+            }
+        }
+        throw new AssertionError("Project " + projectId + " has no assets.");
+    }
+
+    private HttpResponse<String> sendWebhook(String body, Map<String, String> headers) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + PORT + "/api/webhooks/fal"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        headers.forEach(builder::header);
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + PORT + path))
+            .header("Content-Type", "application/json")
+            .method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonObject json(HttpResponse<String> response) {
+        assertTrue(response.statusCode() >= 200 && response.statusCode() < 300,
+            "Unexpected " + response.statusCode() + ": " + response.body());
+        return JsonParser.parseString(response.body()).getAsJsonObject();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static FalQueueStub startStub() {
+        try {
+            return new FalQueueStub();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.gosu.firsttake.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.GenerationJob;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.repository.AppUserRepository;
+import com.gosu.firsttake.repository.GenerationJobRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@ActiveProfiles("test")
+class GenerationJobControllerTest {
+    private static final int PORT = freePort();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Autowired
+    private AppUserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private GenerationJobRepository jobRepository;
+
+    @DynamicPropertySource
+    static void jobApiProperties(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT);
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:job-api;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("firsttake.ai.worker.enabled", () -> "false");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @Test
+    void createdJobCanBeReadBack() throws Exception {
+        long projectId = json(send("POST", "/api/projects", "{\"name\":\"Job API\"}")).get("id").getAsLong();
+        send("POST", "/api/projects/" + projectId + "/beats", """
+            {"orderIndex":0,"scriptSentence":"A quiet harbor.","scenePrompt":"A quiet harbor at dawn",
+             "sceneType":"IMAGE","selectedForGeneration":true,"videoGenerateAudio":false,"videoModel":"VEO3_FAST"}
+            """);
+        JsonObject created = json(send("POST", "/api/projects/" + projectId + "/generate-assets",
+            "{\"aspectRatio\":\"16:9\",\"generateNarration\":false}"));
+
+        JsonObject job = json(send("GET", "/api/jobs/" + created.get("id").getAsLong(), null));
+
+        assertEquals(created.get("id").getAsLong(), job.get("id").getAsLong());
+        assertEquals(projectId, job.get("projectId").getAsLong());
+        assertEquals("QUEUED", job.get("status").getAsString());
+        assertEquals(1, job.get("totalTasks").getAsInt());
+        assertEquals(1, job.getAsJsonArray("tasks").size());
+    }
+
+    @Test
+    void anotherUsersJobIsNotFound() throws Exception {
+        AppUser owner = new AppUser();
+        owner.setEmail("someone-else@firsttake.test");
+        owner = userRepository.save(owner);
+        Project project = new Project();
+        project.setUser(owner);
+        project.setName("Not yours");
+        GenerationJob job = new GenerationJob();
+        job.setProject(projectRepository.save(project));
+        job.setUser(owner);
+        long jobId = jobRepository.save(job).getId();
+
+        assertEquals(404, send("GET", "/api/jobs/" + jobId, null).statusCode());
+        assertEquals(404, send("POST", "/api/jobs/" + jobId + "/cancel", null).statusCode());
+        assertEquals(404, send("GET", "/api/jobs/" + jobId + "/events", null).statusCode());
+        assertEquals("QUEUED", jobRepository.findById(jobId).orElseThrow().getStatus().name());
+    }
+
+    @Test
+    void missingJobIsNotFound() throws Exception {
+        assertEquals(404, send("GET", "/api/jobs/999999", null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + PORT + path))
+            .header("Content-Type", "application/json")
+            .method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonObject json(HttpResponse<String> response) {
+        assertTrue(response.statusCode() >= 200 && response.statusCode() < 300,
+            "Unexpected " + response.statusCode() + ": " + response.body());
+        return JsonParser.parseString(response.body()).getAsJsonObject();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
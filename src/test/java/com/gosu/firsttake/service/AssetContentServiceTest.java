@@ -0,0 +1,36 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class AssetContentServiceTest {
+    @Test
+    void parsesSingleByteRanges() {
+        assertEquals(new AssetContentService.ByteRange(0, 99, true), AssetContentService.ByteRange.parse("bytes=0-", 100));
+        assertEquals(new AssetContentService.ByteRange(10, 19, true), AssetContentService.ByteRange.parse("bytes=10-19", 100));
+        assertEquals(new AssetContentService.ByteRange(90, 99, true), AssetContentService.ByteRange.parse("bytes=90-500", 100));
+        assertEquals(new AssetContentService.ByteRange(80, 99, true), AssetContentService.ByteRange.parse("bytes=-20", 100));
+        assertEquals(new AssetContentService.ByteRange(0, 99, true), AssetContentService.ByteRange.parse("bytes=-500", 100));
+    }
+
+    @Test
+    void servesWholeFileForAbsentMalformedOrMultipleRanges() {
+        AssetContentService.ByteRange full = AssetContentService.ByteRange.full(100);
+
+        assertEquals(full, AssetContentService.ByteRange.parse(null, 100));
+        assertEquals(full, AssetContentService.ByteRange.parse("items=0-5", 100));
+        assertEquals(full, AssetContentService.ByteRange.parse("bytes=abc-", 100));
+        assertEquals(full, AssetContentService.ByteRange.parse("bytes=20-10", 100));
+        assertEquals(full, AssetContentService.ByteRange.parse("bytes=0-1,5-6", 100));
+        assertEquals(100, full.length());
+    }
+
+    @Test
+    void rejectsRangesPastTheEnd() {
+        assertNull(AssetContentService.ByteRange.parse("bytes=100-", 100));
+        assertNull(AssetContentService.ByteRange.parse("bytes=-0", 100));
+        assertNull(AssetContentService.ByteRange.parse("bytes=-5", 0));
+    }
+}
@@ -0,0 +1,134 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.ai.fal.FalQueue;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.storage.AssetStorage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AssetMirrorTest {
+    private static final int ASSETS = 12;
+    private static final int CONCURRENCY = 3;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AssetMirrorRecords mirrorRecords = mock(AssetMirrorRecords.class);
+    private final AssetStorage assetStorage = mock(AssetStorage.class);
+    private final RenditionGenerator renditionGenerator = mock(RenditionGenerator.class);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serveSlowly);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void capsConcurrentDownloads() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= ASSETS; id++) {
+            ids.add(id);
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/asset-" + id;
+            when(mirrorRecords.findMirrorSource(id))
+                .thenReturn(Optional.of(new AssetMirrorRecords.MirrorSource(id, url, "video/mp4")));
+        }
+        when(assetStorage.store(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            byte[] content = invocation.<InputStream>getArgument(2).readAllBytes();
+            return new AssetStorage.StoredFile("video/stored.mp4", content.length, "sha");
+        });
+        when(mirrorRecords.recordMirror(anyLong(), anyString(), anyString(), any())).thenReturn(Optional.empty());
+
+        mirror().onAssetsReady(new GeneratedAssetReadyEvent(ids));
+
+        verify(mirrorRecords, timeout(10_000).times(ASSETS)).recordMirror(anyLong(), anyString(), anyString(), any());
+        assertTrue(peak.get() <= CONCURRENCY, "peak of " + peak.get() + " concurrent downloads");
+        assertTrue(peak.get() > 1, "downloads did not overlap");
+    }
+
+    @Test
+    void renditionFailureLeavesTheMirroredAssetInPlace() throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/asset-1";
+        when(mirrorRecords.findMirrorSource(1L))
+            .thenReturn(Optional.of(new AssetMirrorRecords.MirrorSource(1L, url, "video/mp4")));
+        when(assetStorage.store(anyString(), anyString(), any()))
+            .thenReturn(new AssetStorage.StoredFile("video/stored.mp4", 6, "sha"));
+        when(mirrorRecords.recordMirror(anyLong(), anyString(), anyString(), any())).thenReturn(Optional.empty());
+        doThrow(new IOException("ffmpeg could not derive the poster of asset 1")).when(renditionGenerator).deriveMissing(1L);
+
+        mirror().onAssetsReady(new GeneratedAssetReadyEvent(List.of(1L)));
+
+        verify(renditionGenerator, timeout(10_000)).deriveMissing(1L);
+        verify(mirrorRecords).recordMirror(eq(1L), eq(url), eq("video/mp4"), any());
+        verify(mirrorRecords, never()).markMirrorUnavailable(anyLong(), anyString());
+    }
+
+    private AssetMirror mirror() {
+        StorageProperties properties = new StorageProperties();
+        properties.getMirror().setConcurrency(CONCURRENCY);
+        return new AssetMirror(
+            mirrorRecords,
+            mock(AssetRenditionService.class),
+            renditionGenerator,
+            assetStorage,
+            mock(FalQueue.class),
+            new ProviderMetrics(new SimpleMeterRegistry()),
+            new ProviderDeadlines(new AiProviderProperties()),
+            properties,
+            executor
+        );
+    }
+
+    private void serveSlowly(HttpExchange exchange) throws IOException {
+        int now = active.incrementAndGet();
+        peak.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(100);
+            byte[] body = "frames".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExportPrefetcherTest {
+    private static final int ASSETS = 8;
+    private static final long DOWNLOAD_DELAY_MILLIS = 250;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serveSlowly);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void overlapsSlowDownloadsAndKeepsManifestOrder() throws Exception {
+        List<String> sequentialOrder = new ArrayList<>();
+        long sequential = export(1, sequentialOrder);
+        List<String> parallelOrder = new ArrayList<>();
+        long parallel = export(ASSETS, parallelOrder);
+
+        List<String> expected = new ArrayList<>();
+        for (int index = 0; index < ASSETS; index++) {
+            expected.add("asset-" + index);
+        }
+        assertEquals(expected, sequentialOrder);
+        assertEquals(expected, parallelOrder);
+        assertTrue(sequential >= ASSETS * DOWNLOAD_DELAY_MILLIS, "sequential export took " + sequential + "ms");
+        assertTrue(parallel < sequential / 3, "parallel export took " + parallel + "ms against " + sequential + "ms");
+    }
+
+    @Test
+    void spillsToDiskOnceTheMemoryBudgetIsUsed() throws Exception {
+        byte[] large = new byte[200 * 1024];
+        large[large.length - 1] = 7;
+        ExportSpool.MemoryBudget budget = new ExportSpool.MemoryBudget(256 * 1024);
+        ExportSpool first = ExportSpool.fill(new ByteArrayInputStream(large), budget);
+        ExportSpool second = ExportSpool.fill(new ByteArrayInputStream(large), budget);
+        Path spillFile = second.spillFile();
+        assertNull(first.spillFile());
+        assertNotNull(spillFile);
+        assertTrue(Files.exists(spillFile));
+
+        for (ExportSpool spool : List.of(first, second)) {
+            assertEquals(large.length, spool.size());
+            try (InputStream content = spool.stream()) {
+                assertArrayEquals(large, content.readAllBytes());
+            }
+        }
+
+        assertFalse(Files.exists(spillFile));
+        assertEquals(256 * 1024, budget.remaining());
+    }
+
+    @Test
+    void writerStreamsEntriesThatWereNotPrefetched() throws Exception {
+        List<Thread> openedOn = new ArrayList<>();
+        List<ExportPrefetcher.ContentSource> sources = List.of(
+            () -> {
+                openedOn.add(Thread.currentThread());
+                return content("live");
+            },
+            () -> content("next")
+        );
+
+        try (ExportPrefetcher prefetcher = new ExportPrefetcher(sources, 1, budget(), executor)) {
+            assertEquals("live", text(prefetcher.take(0)));
+            assertEquals("next", text(prefetcher.take(1)));
+        }
+        assertEquals(List.of(Thread.currentThread()), openedOn);
+    }
+
+    @Test
+    void oneFailedDownloadDoesNotAffectTheOthers() throws Exception {
+        List<ExportPrefetcher.ContentSource> sources = List.of(
+            () -> content("first"),
+            () -> {
+                throw new IOException("Remote asset download failed with status 502");
+            },
+            () -> null,
+            () -> content("last")
+        );
+
+        try (ExportPrefetcher prefetcher = new ExportPrefetcher(sources, 4, budget(), executor)) {
+            assertEquals("first", text(prefetcher.take(0)));
+            IOException failure = assertThrows(IOException.class, () -> prefetcher.take(1));
+            assertEquals("Remote asset download failed with status 502", failure.getMessage());
+            assertNull(prefetcher.take(2));
+            assertEquals("last", text(prefetcher.take(3)));
+        }
+    }
+
+    private long export(int concurrency, List<String> order) throws Exception {
+        List<ExportPrefetcher.ContentSource> sources = new ArrayList<>();
+        for (int index = 0; index < ASSETS; index++) {
+            URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/asset-" + index);
+            sources.add(() -> httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream()).body());
+        }
+        long started = System.nanoTime();
+        try (ExportPrefetcher prefetcher = new ExportPrefetcher(sources, concurrency, budget(), executor)) {
+            for (int index = 0; index < ASSETS; index++) {
+                prefetcher.advance(index);
+                order.add(text(prefetcher.take(index)));
+            }
+        }
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private void serveSlowly(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(DOWNLOAD_DELAY_MILLIS);
+            byte[] body = exchange.getRequestURI().getPath().substring(1).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ExportSpool.MemoryBudget budget() {
+        return new ExportSpool.MemoryBudget(1024 * 1024);
+    }
+
+    private static String text(InputStream content) throws IOException {
+        try (content) {
+            return new String(content.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.ai.ProviderDeadlines;
+import com.gosu.firsttake.ai.ProviderMetrics;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.QualityTier;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import com.gosu.firsttake.repository.TimelineBeatRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class ExportServiceTest {
+    private static final long PROJECT_ID = 1L;
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final GeneratedAssetRepository assetRepository = mock(GeneratedAssetRepository.class);
+    private final byte[] pattern = new byte[64 * 1024];
+    private HttpServer server;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new Random(7).nextBytes(pattern);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serve);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        AppUser user = new AppUser();
+        user.setId(1L);
+        Project project = new Project();
+        project.setId(PROJECT_ID);
+        project.setName("Launch teaser");
+        CurrentUserService currentUserService = mock(CurrentUserService.class);
+        when(currentUserService.getCurrentUser()).thenReturn(Optional.of(user));
+        ProjectRepository projectRepository = mock(ProjectRepository.class);
+        when(projectRepository.findByIdAndUserId(PROJECT_ID, 1L)).thenReturn(Optional.of(project));
+        TimelineBeatRepository beatRepository = mock(TimelineBeatRepository.class);
+        when(beatRepository.findByProjectIdOrderByOrderIndexAsc(PROJECT_ID)).thenReturn(List.of());
+
+        StorageProperties properties = new StorageProperties();
+        properties.getExport().setPrefetchConcurrency(3);
+        properties.getExport().setPrefetchMemory(DataSize.ofMegabytes(1));
+        exportService = new ExportService(
+            mock(DefaultUserService.class),
+            currentUserService,
+            projectRepository,
+            beatRepository,
+            assetRepository,
+            new ProviderDeadlines(new AiProviderProperties()),
+            new ProviderMetrics(new SimpleMeterRegistry()),
+            mock(AssetStorage.class),
+            properties,
+            executor
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void heapStaysFlatWhileLargeAssetsStream() throws IOException {
+        List<GeneratedAsset> assets = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            assets.add(asset(id, remoteUrl(32 * MEGABYTE)));
+        }
+        when(assetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(PROJECT_ID, GeneratedAssetStatus.READY))
+            .thenReturn(assets);
+        long baseline = usedHeap();
+        HeapSamplingOutput output = new HeapSamplingOutput(null);
+
+        exportService.exportProject(PROJECT_ID, response(output));
+
+        assertTrue(output.written > 4L * 32 * MEGABYTE, "archive held " + output.written + " bytes");
+        long growth = output.peakHeap - baseline;
+        assertTrue(growth < 16L * MEGABYTE, "heap grew by " + growth / MEGABYTE + "MB while streaming 128MB");
+    }
+
+    @Test
+    void archiveKeepsOrderDecodesDataUrlsAndReportsFailures() throws IOException {
+        byte[] pixels = "pixels".getBytes(StandardCharsets.UTF_8);
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(pixels);
+        GeneratedAsset failing = asset(3L, "http://127.0.0.1:" + server.getAddress().getPort() + "/missing");
+        when(assetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(PROJECT_ID, GeneratedAssetStatus.READY))
+            .thenReturn(List.of(asset(1L, remoteUrl(200_000)), image(2L, dataUrl), failing));
+        HeapSamplingOutput output = new HeapSamplingOutput(new ByteArrayOutputStream());
+
+        exportService.exportProject(PROJECT_ID, response(output));
+
+        Map<String, byte[]> entries = unzip(output.copy.toByteArray());
+        assertEquals(
+            List.of("unassigned/video-1.mp4", "unassigned/image-2.png", "unassigned/asset-3-error.txt", "manifest.json"),
+            List.copyOf(entries.keySet())
+        );
+        assertEquals(200_000, entries.get("unassigned/video-1.mp4").length);
+        assertArrayEquals(pixels, entries.get("unassigned/image-2.png"));
+        assertTrue(new String(entries.get("unassigned/asset-3-error.txt"), StandardCharsets.UTF_8).contains("status 404"));
+        JsonObject manifest = JsonParser.parseString(new String(entries.get("manifest.json"), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        assertEquals("Launch teaser", manifest.get("projectName").getAsString());
+        JsonArray manifestAssets = manifest.getAsJsonArray("assets");
+        assertEquals(3, manifestAssets.size());
+        assertEquals("unassigned/image-2.png", manifestAssets.get(1).getAsJsonObject().get("filename").getAsString());
+        assertTrue(manifestAssets.get(0).getAsJsonObject().get("beatId").isJsonNull());
+    }
+
+    @Test
+    void promotedDraftIsLeftOutOnceItsFinalExists() throws IOException {
+        GeneratedAsset draft = image(1L, remoteUrl(1_000));
+        draft.setQuality(QualityTier.DRAFT);
+        GeneratedAsset unpromoted = image(2L, remoteUrl(2_000));
+        unpromoted.setQuality(QualityTier.DRAFT);
+        GeneratedAsset finalRender = asset(3L, remoteUrl(3_000));
+        finalRender.setDraftAsset(draft);
+        when(assetRepository.findByProjectIdAndStatusOrderByCreatedAtDesc(PROJECT_ID, GeneratedAssetStatus.READY))
+            .thenReturn(List.of(finalRender, unpromoted, draft));
+        HeapSamplingOutput output = new HeapSamplingOutput(new ByteArrayOutputStream());
+
+        exportService.exportProject(PROJECT_ID, response(output));
+
+        Map<String, byte[]> entries = unzip(output.copy.toByteArray());
+        assertEquals(
+            List.of("unassigned/image-2.png", "unassigned/video-3.mp4", "manifest.json"),
+            List.copyOf(entries.keySet())
+        );
+        JsonObject manifest = JsonParser.parseString(new String(entries.get("manifest.json"), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        JsonObject promoted = manifest.getAsJsonArray("assets").get(1).getAsJsonObject();
+        assertEquals("FINAL", promoted.get("quality").getAsString());
+        assertEquals(1L, promoted.get("draftAssetId").getAsLong());
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (!path.startsWith("/bytes-")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            long length = Long.parseLong(path.substring("/bytes-".length()));
+            exchange.sendResponseHeaders(200, length);
+            OutputStream body = exchange.getResponseBody();
+            for (long sent = 0; sent < length; sent += pattern.length) {
+                body.write(pattern, 0, (int) Math.min(pattern.length, length - sent));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String remoteUrl(long length) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/bytes-" + length;
+    }
+
+    private static GeneratedAsset asset(long id, String url) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setId(id);
+        asset.setAssetType(AssetType.VIDEO);
+        asset.setStatus(GeneratedAssetStatus.READY);
+        asset.setMimeType("video/mp4");
+        asset.setUrl(url);
+        asset.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(id));
+        return asset;
+    }
+
+    private static GeneratedAsset image(long id, String url) {
+        GeneratedAsset asset = asset(id, url);
+        asset.setAssetType(AssetType.IMAGE);
+        asset.setMimeType("image/png");
+        return asset;
+    }
+
+    private static HttpServletResponse response(ServletOutputStream output) throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(output);
+        return response;
+    }
+
+    private static Map<String, byte[]> unzip(byte[] archive) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class HeapSamplingOutput extends ServletOutputStream {
+        private static final long SAMPLE_EVERY = 4L * MEGABYTE;
+
+        private final ByteArrayOutputStream copy;
+        private long written;
+        private long nextSample = SAMPLE_EVERY;
+        private long peakHeap;
+
+        HeapSamplingOutput(ByteArrayOutputStream copy) {
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int value) {
+            write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            if (copy != null) {
+                copy.write(buffer, offset, length);
+            }
+            written += length;
+            if (written >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peakHeap = Math.max(peakHeap, usedHeap());
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
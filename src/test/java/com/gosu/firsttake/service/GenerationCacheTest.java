@@ -0,0 +1,128 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.ai.AiProvider;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class GenerationCacheTest {
+    private final GeneratedAssetRepository assetRepository = mock(GeneratedAssetRepository.class);
+    private final GenerationCache cache = new GenerationCache(assetRepository, new AiProviderProperties());
+
+    @Test
+    void keyIgnoresWhitespaceAndAbsentParameters() {
+        Map<String, Object> spaced = new HashMap<>();
+        spaced.put("prompt", "  A beach\n at   dusk ");
+        spaced.put("seed", null);
+        String key = GenerationCache.key(AiProvider.SORA, "fal-ai/sora-2/text-to-video", spaced);
+
+        assertEquals(key, GenerationCache.key(AiProvider.SORA, "fal-ai/sora-2/text-to-video", Map.of("prompt", "A beach at dusk")));
+        assertNotEquals(key, GenerationCache.key(AiProvider.VEO3_FAST, "fal-ai/veo3/fast", Map.of("prompt", "A beach at dusk")));
+        assertNotEquals(key, GenerationCache.key(AiProvider.SORA, "fal-ai/sora-2/text-to-video",
+            Map.of("prompt", "A beach at dusk", "seed", 7)));
+    }
+
+    @Test
+    void identicalConcurrentRequestsShareOneProviderCall() throws Exception {
+        AtomicInteger providerCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<GeneratedAsset>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> cache.fetch(1L, "key", true, () -> {
+                    providerCalls.incrementAndGet();
+                    await(release);
+                    GeneratedAsset asset = asset(GeneratedAssetStatus.PENDING);
+                    asset.setId(10L);
+                    return asset;
+                })));
+            }
+            while (cache.stats().inFlightJoins() < 4) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            int fresh = 0;
+            for (Future<GeneratedAsset> result : results) {
+                GeneratedAsset asset = result.get(5, TimeUnit.SECONDS);
+                assertEquals("req-1", asset.getProviderRequestId());
+                fresh += asset.getId() != null ? 1 : 0;
+            }
+            assertEquals(1, fresh);
+        }
+
+        assertEquals(1, providerCalls.get());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(0, cache.stats().inFlight());
+    }
+
+    @Test
+    void storedAssetIsReturnedAsAnUnsavedCopy() {
+        GeneratedAsset stored = asset(GeneratedAssetStatus.READY);
+        stored.setId(10L);
+        when(assetRepository.findTop1ByCreatedByUserIdAndCacheKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+            eq(1L), eq("key"), any(), any()
+        )).thenReturn(Optional.of(stored));
+
+        GeneratedAsset asset = cache.fetch(1L, "key", true, () -> {
+            throw new AssertionError("provider should not be called");
+        });
+
+        assertNull(asset.getId());
+        assertEquals(stored.getUrl(), asset.getUrl());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void optOutSkipsTheLookup() {
+        GeneratedAsset asset = cache.fetch(1L, "key", false, () -> asset(GeneratedAssetStatus.READY));
+
+        assertEquals(GeneratedAssetStatus.READY, asset.getStatus());
+        assertEquals(1, cache.stats().bypassed());
+        verify(assetRepository, never())
+            .findTop1ByCreatedByUserIdAndCacheKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(anyLong(), any(), any(), any());
+    }
+
+    private static GeneratedAsset asset(GeneratedAssetStatus status) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setAssetType(AssetType.VIDEO);
+        asset.setStatus(status);
+        asset.setUrl(status == GeneratedAssetStatus.READY ? "https://example.test/asset" : null);
+        asset.setProviderRequestId("req-1");
+        asset.setCacheKey("key");
+        return asset;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderTenant;
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.GenerationTaskType;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GenerationJobRunnerTest {
+    private static final long NARRATION_LATENCY_MS = 400;
+    private static final long SCENE_LATENCY_MS = 300;
+    private static final ProviderTenant TENANT = new ProviderTenant(7L, 1L, 1);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void narrationRunsAlongsideScenesSoTheJobTakesTheSlowestStage() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        FalQueuePoller falQueuePoller = mock(FalQueuePoller.class);
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, Deadline.none(), "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(10L, 1L, GenerationTaskType.NARRATION, AssetType.AUDIO, "Line one.\nLine two.", null, false, 1, null),
+            new GenerationJobService.TaskPlan(11L, 1L, GenerationTaskType.SCENE, AssetType.IMAGE, "A beach", null, false, 1, null),
+            new GenerationJobService.TaskPlan(12L, 2L, GenerationTaskType.SCENE, AssetType.VIDEO, "A wave", "VEO3_FAST", false, 1, null),
+            new GenerationJobService.TaskPlan(13L, 3L, GenerationTaskType.SCENE, AssetType.VIDEO, "A sunset", "SORA", false, 1, null)
+        ))));
+        when(jobService.markTaskRunning(anyLong())).thenReturn(job("RUNNING"));
+        when(jobService.completeTask(anyLong(), any())).thenReturn(job("RUNNING"));
+        when(jobService.recordPendingAsset(anyLong(), any())).thenAnswer(invocation -> {
+            GeneratedAsset asset = invocation.getArgument(1);
+            asset.setId(100L + (Long) invocation.getArgument(0));
+            return asset.getId();
+        });
+        when(jobService.finishJob(1L)).thenReturn(job("COMPLETED"));
+        when(assetGenerationService.generateNarration(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(NARRATION_LATENCY_MS);
+            return stubAsset(99L, AssetType.AUDIO);
+        });
+        when(assetGenerationService.submitScene(any(), any(), any(), anyBoolean(), any(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            GeneratedAsset asset = stubAsset(null, invocation.getArgument(1));
+            asset.setStatus(GeneratedAssetStatus.PENDING);
+            return asset;
+        });
+        when(assetGenerationService.narrationCacheKey(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(assetGenerationService.sceneCacheKey(any(), any(), any(), anyBoolean(), any()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(assetGenerationService.measureNarrationSeconds(any())).thenReturn(Optional.of(4.2));
+        when(assetGenerationService.renderTimeout(any(), any())).thenReturn(Duration.ofMinutes(5));
+        when(falQueuePoller.awaitAsset(eq(1L), anyLong())).thenAnswer(invocation -> CompletableFuture.supplyAsync(
+            () -> job("RUNNING", 11L, 12L, 13L),
+            CompletableFuture.delayedExecutor(SCENE_LATENCY_MS, TimeUnit.MILLISECONDS)
+        ));
+        ProjectService projectService = mock(ProjectService.class);
+        when(projectService.findBeatDetail(anyLong())).thenReturn(Optional.empty());
+
+        GenerationJobRunner runner = runner(jobService, assetGenerationService, projectService, falQueuePoller);
+        long start = System.nanoTime();
+        runner.run(1L).get(5, TimeUnit.SECONDS);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMs >= NARRATION_LATENCY_MS, "job finished before its slowest stage: " + elapsedMs + "ms");
+        assertTrue(elapsedMs < NARRATION_LATENCY_MS + SCENE_LATENCY_MS,
+            "narration and scenes ran back to back: " + elapsedMs + "ms");
+        verify(jobService).completeTask(eq(10L), any());
+        verify(jobService, times(3)).recordPendingAsset(anyLong(), any());
+        verify(falQueuePoller).awaitAsset(1L, 111L);
+        verify(jobService).recordAssetDuration(99L, 4.2);
+        verify(projectService, times(4)).findBeatDetail(anyLong());
+        verify(jobService).finishJob(1L);
+    }
+
+    @Test
+    void resumedSceneWaitsForItsQueuedRequestInsteadOfResubmitting() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        FalQueuePoller falQueuePoller = mock(FalQueuePoller.class);
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, Deadline.none(), "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(11L, 1L, GenerationTaskType.SCENE, AssetType.VIDEO, "A wave", "SORA", false, 1, 42L)
+        ))));
+        when(jobService.finishJob(1L)).thenReturn(job("COMPLETED"));
+        when(falQueuePoller.awaitAsset(1L, 42L)).thenReturn(CompletableFuture.completedFuture(job("RUNNING", 11L)));
+        when(assetGenerationService.renderTimeout(any(), any())).thenReturn(Duration.ofMinutes(5));
+        ProjectService projectService = mock(ProjectService.class);
+        when(projectService.findBeatDetail(anyLong())).thenReturn(Optional.empty());
+
+        runner(jobService, assetGenerationService, projectService, falQueuePoller).run(1L).get(5, TimeUnit.SECONDS);
+
+        verify(assetGenerationService, never()).submitScene(any(), any(), any(), anyBoolean(), any(), anyInt(), any(), any());
+        verify(jobService, never()).markTaskRunning(anyLong());
+        verify(projectService).findBeatDetail(1L);
+        verify(jobService).finishJob(1L);
+    }
+
+    @Test
+    void imageVariantsAreRequestedInASingleSubmission() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        FalQueuePoller falQueuePoller = mock(FalQueuePoller.class);
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, Deadline.none(), "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(11L, 1L, GenerationTaskType.SCENE, AssetType.IMAGE, "A beach", null, false, 3, null)
+        ))));
+        when(jobService.markTaskRunning(anyLong())).thenReturn(job("RUNNING"));
+        when(jobService.recordPendingAsset(anyLong(), any())).thenReturn(111L);
+        when(jobService.finishJob(1L)).thenReturn(job("COMPLETED"));
+        when(assetGenerationService.submitScene(any(), any(), any(), anyBoolean(), any(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            GeneratedAsset asset = stubAsset(111L, AssetType.IMAGE);
+            asset.setStatus(GeneratedAssetStatus.PENDING);
+            return asset;
+        });
+        when(assetGenerationService.sceneCacheKey(any(), any(), any(), anyBoolean(), any())).thenReturn("scene-key");
+        when(assetGenerationService.renderTimeout(any(), any())).thenReturn(Duration.ofMinutes(5));
+        when(falQueuePoller.awaitAsset(1L, 111L)).thenReturn(CompletableFuture.completedFuture(job("RUNNING", 11L)));
+        ProjectService projectService = mock(ProjectService.class);
+        when(projectService.findBeatDetail(anyLong())).thenReturn(Optional.empty());
+
+        runner(jobService, assetGenerationService, projectService, falQueuePoller).run(1L).get(5, TimeUnit.SECONDS);
+
+        verify(assetGenerationService).submitScene(eq("A beach"), eq(AssetType.IMAGE), any(), anyBoolean(), eq("16:9"), eq(3), eq(TENANT), any());
+        verify(jobService).recordPendingAsset(eq(11L), argThat(asset -> asset.getCacheKey() == null));
+        verify(jobService).finishJob(1L);
+    }
+
+    @Test
+    void renderThatMissesItsDeadlineIsTimedOutAndCancelledUpstream() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        FalQueuePoller falQueuePoller = mock(FalQueuePoller.class);
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, Deadline.none(), "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(11L, 1L, GenerationTaskType.SCENE, AssetType.VIDEO, "A wave", "SORA", false, 1, 42L)
+        ))));
+        List<GenerationJobService.PendingProviderRequest> upstream = List.of(
+            new GenerationJobService.PendingProviderRequest(List.of(42L), "fal-ai/sora-2/text-to-video", "req-42", null)
+        );
+        when(assetGenerationService.renderTimeout(AssetType.VIDEO, "SORA")).thenReturn(Duration.ofMillis(100));
+        when(falQueuePoller.awaitAsset(1L, 42L)).thenReturn(new CompletableFuture<>());
+        when(jobService.timeOutPendingAsset(eq(42L), any())).thenReturn(upstream);
+        when(jobService.describeJob(1L)).thenReturn(job("RUNNING"));
+        when(jobService.finishJob(1L)).thenReturn(job("FAILED"));
+
+        runner(jobService, assetGenerationService, mock(ProjectService.class), falQueuePoller).run(1L).get(5, TimeUnit.SECONDS);
+
+        verify(falQueuePoller).cancel(List.of(42L), upstream);
+        verify(jobService, never()).failTask(anyLong(), any());
+        verify(jobService).finishJob(1L);
+    }
+
+    @Test
+    void exhaustedJobBudgetTimesOutTasksWithoutCallingProviders() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        Deadline spent = new Deadline(Instant.now().minusSeconds(1));
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, spent, "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(10L, null, GenerationTaskType.NARRATION, AssetType.AUDIO, "Line one.", null, false, 1, null),
+            new GenerationJobService.TaskPlan(11L, 1L, GenerationTaskType.SCENE, AssetType.IMAGE, "A beach", null, false, 1, null)
+        ))));
+        when(jobService.timeOutTask(anyLong(), any())).thenReturn(job("RUNNING"));
+        when(jobService.finishJob(1L)).thenReturn(job("FAILED"));
+
+        runner(jobService, assetGenerationService, mock(ProjectService.class), mock(FalQueuePoller.class))
+            .run(1L).get(5, TimeUnit.SECONDS);
+
+        verify(jobService).timeOutTask(eq(10L), any());
+        verify(jobService).timeOutTask(eq(11L), any());
+        verify(jobService, never()).markTaskRunning(anyLong());
+        verify(assetGenerationService, never()).generateNarration(any(), any(), any(), any());
+        verify(assetGenerationService, never()).submitScene(any(), any(), any(), anyBoolean(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void cancellingAJobInterruptsItsInFlightProviderCall() throws Exception {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+        FalQueuePoller falQueuePoller = mock(FalQueuePoller.class);
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(1L, TENANT, Deadline.none(), "16:9", "alloy", true, List.of(
+            new GenerationJobService.TaskPlan(10L, null, GenerationTaskType.NARRATION, AssetType.AUDIO, "Line one.", null, false, 1, null)
+        ))));
+        when(jobService.markTaskRunning(anyLong())).thenReturn(job("RUNNING"));
+        when(jobService.failTask(anyLong(), any())).thenReturn(job("CANCELLED"));
+        when(jobService.describeJob(1L)).thenReturn(job("CANCELLED"));
+        when(jobService.finishJob(1L)).thenReturn(job("CANCELLED"));
+        when(assetGenerationService.narrationCacheKey(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        CountDownLatch calling = new CountDownLatch(1);
+        when(assetGenerationService.generateNarration(any(), any(), any(), any())).thenAnswer(invocation -> {
+            calling.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException("TTS request interrupted.", ex);
+            }
+            return stubAsset(99L, AssetType.AUDIO);
+        });
+
+        GenerationJobRunner runner = runner(jobService, assetGenerationService, mock(ProjectService.class), falQueuePoller);
+        CompletableFuture<Void> run = runner.run(1L);
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+        runner.onJobCancelled(new GenerationJobCancelledEvent(1L, List.of(), List.of()));
+        run.get(5, TimeUnit.SECONDS);
+
+        verify(jobService, never()).completeTask(anyLong(), any());
+        verify(falQueuePoller).cancel(List.of(), List.of());
+        verify(jobService).finishJob(1L);
+    }
+
+    @Test
+    void dependentStageWaitsOnlyForItsOwnInputs() throws Exception {
+        Map<String, Long> started = new ConcurrentHashMap<>();
+        Map<String, Long> finished = new ConcurrentHashMap<>();
+        GenerationGraph graph = new GenerationGraph()
+            .stage("slow-scene", inputs -> timed("slow-scene", 500, started, finished))
+            .stage("narration", inputs -> timed("narration", 100, started, finished))
+            .stage("narration-duration", List.of("narration"), inputs -> {
+                assertEquals("narration", inputs.get("narration"));
+                return timed("narration-duration", 50, started, finished);
+            });
+
+        graph.run(executor).get(5, TimeUnit.SECONDS);
+
+        assertTrue(started.get("narration-duration") >= finished.get("narration"));
+        assertTrue(started.get("narration-duration") < finished.get("slow-scene"),
+            "dependent stage waited for an unrelated stage");
+    }
+
+    @Test
+    void failedStageSkipsItsDependentsButNotTheRestOfTheGraph() throws Exception {
+        Map<String, Long> started = new ConcurrentHashMap<>();
+        Map<String, Long> finished = new ConcurrentHashMap<>();
+        GenerationGraph graph = new GenerationGraph()
+            .stage("narration", inputs -> {
+                throw new IllegalStateException("TTS down");
+            })
+            .stage("narration-duration", List.of("narration"), inputs -> timed("narration-duration", 0, started, finished))
+            .stage("scene", inputs -> timed("scene", 50, started, finished));
+
+        graph.run(executor).get(5, TimeUnit.SECONDS);
+
+        assertTrue(finished.containsKey("scene"));
+        assertTrue(!started.containsKey("narration-duration"));
+    }
+
+    private GenerationJobRunner runner(
+        GenerationJobService jobService,
+        AssetGenerationService assetGenerationService,
+        ProjectService projectService,
+        FalQueuePoller falQueuePoller
+    ) {
+        return new GenerationJobRunner(
+            jobService,
+            assetGenerationService,
+            projectService,
+            new GenerationJobEvents(),
+            falQueuePoller,
+            new GenerationCache(mock(GeneratedAssetRepository.class), new AiProviderProperties()),
+            executor
+        );
+    }
+
+    private static GenerationJobDtos.JobDetail job(String status, Long... succeededTaskIds) {
+        List<GenerationJobDtos.TaskDetail> tasks = Arrays.stream(succeededTaskIds)
+            .map(id -> new GenerationJobDtos.TaskDetail(id, null, "SCENE", "VIDEO", "SUCCEEDED", 100L + id, null, null, null))
+            .toList();
+        return new GenerationJobDtos.JobDetail(1L, 1L, status, 4, tasks.size(), 0, 0, null, null, null, null, tasks);
+    }
+
+    private static Object timed(String id, long latencyMs, Map<String, Long> started, Map<String, Long> finished) {
+        started.put(id, System.nanoTime());
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        finished.put(id, System.nanoTime());
+        return id;
+    }
+
+    private static GeneratedAsset stubAsset(Long id, AssetType assetType) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setId(id);
+        asset.setAssetType(assetType);
+        asset.setUrl("https://example.test/asset");
+        return asset;
+    }
+}
@@ -0,0 +1,286 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.api.dto.ProjectRequests;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.GenerationTask;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.QualityTier;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.domain.SceneType;
+import com.gosu.firsttake.domain.TimelineBeat;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.GenerationJobRepository;
+import com.gosu.firsttake.repository.GenerationTaskRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import com.gosu.firsttake.repository.TimelineBeatRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GenerationJobServiceTest {
+    private static final Instant EARLIER = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private GenerationJobService jobService;
+    @Autowired
+    private DraftPromotionService draftPromotionService;
+    @Autowired
+    private AssetRenditionService renditionService;
+    @Autowired
+    private DefaultUserService defaultUserService;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TimelineBeatRepository beatRepository;
+    @Autowired
+    private GeneratedAssetRepository assetRepository;
+    @Autowired
+    private GenerationJobRepository jobRepository;
+    @Autowired
+    private GenerationTaskRepository taskRepository;
+
+    private Project project;
+
+    @DynamicPropertySource
+    static void jobProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:jobs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("firsttake.ai.worker.enabled", () -> "false");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setUser(defaultUserService.getOrCreateDefaultUser());
+        project.setName("Jobs");
+        project = projectRepository.save(project);
+    }
+
+    @Test
+    void draftJobRendersEveryBeatAsASingleImage() {
+        TimelineBeat video = beat(0, "A drone shot over the harbour.");
+        video.setSceneType(SceneType.VIDEO);
+        video.setVideoGenerateAudio(true);
+        TimelineBeat variants = beat(1, "A close-up of the product.");
+        variants.setImageVariants(4);
+        beatRepository.saveAll(List.of(video, variants));
+
+        GenerationJobDtos.JobDetail job = jobService.createAssetJob(project.getId(), generate("draft", "all"));
+
+        assertEquals(2, job.totalTasks());
+        for (GenerationJobDtos.TaskDetail detail : job.tasks()) {
+            GenerationTask task = taskRepository.findById(detail.id()).orElseThrow();
+            assertEquals(AssetType.IMAGE, task.getAssetType());
+            assertEquals(1, task.getVariants());
+            assertNull(task.getVideoModel());
+        }
+        assertEquals(QualityTier.DRAFT, jobRepository.findById(job.id()).orElseThrow().getQuality());
+    }
+
+    @Test
+    void promoteCreatesAFinalJobForDraftedBeatsOnly() {
+        TimelineBeat drafted = beatRepository.save(beat(0, "Opening shot."));
+        TimelineBeat finished = beatRepository.save(beat(1, "Product reveal."));
+        beatRepository.save(beat(2, "Closing card."));
+        TimelineBeat redrafted = beatRepository.save(beat(3, "Call to action."));
+        asset(drafted, QualityTier.DRAFT, EARLIER);
+        asset(finished, QualityTier.FINAL, EARLIER);
+        asset(redrafted, QualityTier.FINAL, EARLIER);
+        asset(redrafted, QualityTier.DRAFT, EARLIER.plusSeconds(60));
+
+        GenerationJobDtos.JobDetail job = draftPromotionService.promoteDrafts(project.getId(), null);
+
+        assertEquals(QualityTier.FINAL, jobRepository.findById(job.id()).orElseThrow().getQuality());
+        assertEquals(
+            List.of(drafted.getId(), redrafted.getId()),
+            beatIds(job)
+        );
+    }
+
+    @Test
+    void promoteSkipsRequestedBeatsThatHaveNoDraft() {
+        TimelineBeat drafted = beatRepository.save(beat(0, "Opening shot."));
+        TimelineBeat finished = beatRepository.save(beat(1, "Product reveal."));
+        asset(drafted, QualityTier.DRAFT, EARLIER);
+        asset(finished, QualityTier.FINAL, EARLIER);
+
+        GenerationJobDtos.JobDetail job = draftPromotionService.promoteDrafts(
+            project.getId(),
+            new ProjectRequests.PromoteDrafts(List.of(drafted.getId(), finished.getId()), null, true)
+        );
+
+        assertEquals(List.of(drafted.getId()), beatIds(job));
+    }
+
+    @Test
+    void finalSceneIsLinkedToTheDraftItReplaces() {
+        TimelineBeat beat = beatRepository.save(beat(0, "Opening shot."));
+        GeneratedAsset draft = asset(beat, QualityTier.DRAFT, EARLIER);
+        GenerationJobDtos.JobDetail job = draftPromotionService.promoteDrafts(project.getId(), null);
+
+        GeneratedAsset rendered = new GeneratedAsset();
+        rendered.setAssetType(AssetType.IMAGE);
+        rendered.setUrl("https://cdn.example.test/final.png");
+        jobService.completeTask(job.tasks().getFirst().id(), rendered);
+
+        GeneratedAsset stored = assetRepository.findById(rendered.getId()).orElseThrow();
+        assertEquals(QualityTier.FINAL, stored.getQuality());
+        assertEquals(draft.getId(), stored.getDraftAsset().getId());
+        assertEquals(beat.getId(), stored.getBeat().getId());
+    }
+
+    @Test
+    void changedOnlySkipsBeatsWhoseInputsAreUnchanged() {
+        beatRepository.save(beat(0, "Opening shot."));
+        videoBeat(1);
+        render(generate(null, "all"));
+
+        GenerationJobDtos.JobDetail job = jobService.createAssetJob(project.getId(), generate(null, "changed-only"));
+
+        assertEquals(List.of(), job.tasks());
+    }
+
+    @Test
+    void changedOnlyRendersBeatsWhosePromptModelOrAudioChanged() {
+        TimelineBeat prompt = beatRepository.save(beat(0, "Opening shot."));
+        TimelineBeat model = videoBeat(1);
+        TimelineBeat audio = videoBeat(2);
+        TimelineBeat unchanged = videoBeat(3);
+        render(generate(null, "all"));
+        prompt.setScenePrompt("Opening shot at dusk.");
+        model.setVideoModel("SORA");
+        audio.setVideoGenerateAudio(true);
+        beatRepository.saveAll(List.of(prompt, model, audio, unchanged));
+
+        GenerationJobDtos.JobDetail job = jobService.createAssetJob(project.getId(), generate(null, "changed-only"));
+
+        assertEquals(List.of(prompt.getId(), model.getId(), audio.getId()), beatIds(job));
+    }
+
+    @Test
+    void changedOnlyRendersEveryBeatWhenTheAspectRatioChanges() {
+        TimelineBeat first = beatRepository.save(beat(0, "Opening shot."));
+        TimelineBeat second = videoBeat(1);
+        render(new ProjectRequests.GenerateAssets("16:9", false, true, "all", null));
+
+        GenerationJobDtos.JobDetail job = jobService.createAssetJob(
+            project.getId(),
+            new ProjectRequests.GenerateAssets("9:16", false, true, "changed-only", null)
+        );
+
+        assertEquals(List.of(first.getId(), second.getId()), beatIds(job));
+    }
+
+    @Test
+    void changedOnlyRendersBeatsWhoseLastAssetFailedOrIsMissing() {
+        TimelineBeat failed = beatRepository.save(beat(0, "Opening shot."));
+        TimelineBeat missing = beatRepository.save(beat(1, "Product reveal."));
+        TimelineBeat rendered = beatRepository.save(beat(2, "Closing card."));
+        GenerationJobDtos.JobDetail first = jobService.createAssetJob(project.getId(), generate(null, "all"));
+        for (GenerationJobDtos.TaskDetail detail : first.tasks()) {
+            if (detail.beatId().equals(failed.getId())) {
+                record(detail, GeneratedAssetStatus.FAILED);
+            } else if (detail.beatId().equals(rendered.getId())) {
+                record(detail, GeneratedAssetStatus.READY);
+            }
+        }
+
+        GenerationJobDtos.JobDetail job = jobService.createAssetJob(project.getId(), generate(null, "changed-only"));
+
+        assertEquals(List.of(failed.getId(), missing.getId()), beatIds(job));
+    }
+
+    @Test
+    void providerRenditionsAreKeptWhenAPendingRenderCompletes() {
+        videoBeat(0);
+        GenerationJobDtos.TaskDetail detail = jobService.createAssetJob(project.getId(), generate(null, "all")).tasks()
+            .getFirst();
+        GeneratedAsset pending = new GeneratedAsset();
+        pending.setAssetType(AssetType.VIDEO);
+        pending.setStatus(GeneratedAssetStatus.PENDING);
+        pending.setProviderRequestId("req-1");
+        Long assetId = jobService.recordPendingAsset(detail.id(), pending);
+
+        jobService.completePendingAsset(assetId, List.of("https://cdn.example.test/video.mp4"), Map.of(
+            RenditionKind.POSTER, "https://cdn.example.test/poster.jpg",
+            RenditionKind.THUMBNAIL, "https://cdn.example.test/thumbnail.jpg"
+        ));
+
+        assertEquals(GeneratedAssetStatus.READY, assetRepository.findById(assetId).orElseThrow().getStatus());
+        assertEquals(GenerationTaskStatus.SUCCEEDED, taskRepository.findById(detail.id()).orElseThrow().getStatus());
+        assertEquals(
+            new AssetRenditionUrls("https://cdn.example.test/poster.jpg", null, "https://cdn.example.test/thumbnail.jpg"),
+            renditionService.renditionUrls(List.of(assetId)).get(assetId)
+        );
+    }
+
+    private TimelineBeat beat(int orderIndex, String scenePrompt) {
+        TimelineBeat beat = new TimelineBeat();
+        beat.setProject(project);
+        beat.setOrderIndex(orderIndex);
+        beat.setScriptSentence("Line " + orderIndex + ".");
+        beat.setScenePrompt(scenePrompt);
+        return beat;
+    }
+
+    private TimelineBeat videoBeat(int orderIndex) {
+        TimelineBeat beat = beat(orderIndex, "Shot " + orderIndex + ".");
+        beat.setSceneType(SceneType.VIDEO);
+        return beatRepository.save(beat);
+    }
+
+    private void render(ProjectRequests.GenerateAssets request) {
+        for (GenerationJobDtos.TaskDetail detail : jobService.createAssetJob(project.getId(), request).tasks()) {
+            record(detail, GeneratedAssetStatus.READY);
+        }
+    }
+
+    private void record(GenerationJobDtos.TaskDetail detail, GeneratedAssetStatus status) {
+        GenerationTask task = taskRepository.findById(detail.id()).orElseThrow();
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setBeat(beatRepository.findById(detail.beatId()).orElseThrow());
+        asset.setProject(project);
+        asset.setAssetType(task.getAssetType());
+        asset.setStatus(status);
+        asset.setUrl("https://cdn.example.test/task-" + task.getId());
+        asset.setInputFingerprint(task.getInputFingerprint());
+        assetRepository.save(asset);
+    }
+
+    private static List<Long> beatIds(GenerationJobDtos.JobDetail job) {
+        return job.tasks().stream().map(GenerationJobDtos.TaskDetail::beatId).toList();
+    }
+
+    private GeneratedAsset asset(TimelineBeat beat, QualityTier quality, Instant createdAt) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setBeat(beat);
+        asset.setProject(project);
+        asset.setAssetType(AssetType.IMAGE);
+        asset.setStatus(GeneratedAssetStatus.READY);
+        asset.setUrl("https://cdn.example.test/" + beat.getOrderIndex() + ".png");
+        asset.setQuality(quality);
+        asset.setCreatedAt(createdAt);
+        return assetRepository.save(asset);
+    }
+
+    private static ProjectRequests.GenerateAssets generate(String quality, String mode) {
+        return new ProjectRequests.GenerateAssets(null, false, true, mode, quality);
+    }
+}
@@ -0,0 +1,186 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GenerationJob;
+import com.gosu.firsttake.domain.GenerationJobStatus;
+import com.gosu.firsttake.domain.GenerationTask;
+import com.gosu.firsttake.domain.GenerationTaskStatus;
+import com.gosu.firsttake.domain.GenerationTaskType;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.repository.AppUserRepository;
+import com.gosu.firsttake.repository.GenerationJobRepository;
+import com.gosu.firsttake.repository.GenerationTaskRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GenerationLeaseServiceTest {
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private GenerationLeaseService leaseService;
+    @Autowired
+    private GenerationJobRepository jobRepository;
+    @Autowired
+    private GenerationTaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private AppUserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void leaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:leases;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("firsttake.ai.worker.enabled", () -> "false");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @BeforeEach
+    void clearJobs() {
+        taskRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void leasedJobIsNotHandedToASecondWorker() {
+        Long jobId = queuedJob().getId();
+
+        assertEquals(List.of(jobId), leaseService.claimJobs("node-a", 5, LEASE));
+        assertEquals(List.of(), leaseService.claimJobs("node-b", 5, LEASE));
+        assertEquals("node-a", jobRepository.findById(jobId).orElseThrow().getLeaseOwner());
+    }
+
+    @Test
+    void concurrentClaimsSkipRowsTheOtherWorkerHasLocked() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            queuedJob();
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> claimed = leaseService.claimJobs("node-a", 2, LEASE);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return claimed;
+        }));
+        List<Long> second;
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            second = CompletableFuture.supplyAsync(() -> leaseService.claimJobs("node-b", 4, LEASE))
+                .get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+        List<Long> firstClaimed = first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, firstClaimed.size());
+        assertEquals(2, second.size());
+        Set<Long> all = new HashSet<>(firstClaimed);
+        all.addAll(second);
+        assertEquals(4, all.size());
+    }
+
+    @Test
+    void leaseThatStopsRenewingIsReclaimedAndItsJobRequeued() {
+        GenerationJob job = queuedJob();
+        assertEquals(List.of(job.getId()), leaseService.claimJobs("node-a", 1, LEASE));
+        assertEquals(List.of(), leaseService.renewLeases("node-a", List.of(job.getId()), LEASE));
+
+        GenerationTask midCall = task(job, GenerationTaskStatus.RUNNING);
+        GenerationTask notStarted = task(job, GenerationTaskStatus.PENDING);
+        GenerationJob running = jobRepository.findById(job.getId()).orElseThrow();
+        running.setStatus(GenerationJobStatus.RUNNING);
+        running.setLeaseExpiresAt(Instant.now().minusSeconds(1));
+        jobRepository.save(running);
+
+        assertEquals(List.of(job.getId()), leaseService.claimJobs("node-b", 1, LEASE));
+
+        GenerationJob reclaimed = jobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(GenerationJobStatus.QUEUED, reclaimed.getStatus());
+        assertEquals("node-b", reclaimed.getLeaseOwner());
+        assertTrue(reclaimed.getLeaseExpiresAt().isAfter(Instant.now()));
+        assertEquals(GenerationTaskStatus.FAILED, taskRepository.findById(midCall.getId()).orElseThrow().getStatus());
+        assertEquals(GenerationTaskStatus.PENDING, taskRepository.findById(notStarted.getId()).orElseThrow().getStatus());
+        assertEquals(
+            List.of(new GenerationLeaseService.LostLease(job.getId(), true)),
+            leaseService.renewLeases("node-a", List.of(job.getId()), LEASE)
+        );
+        assertEquals(List.of(), leaseService.renewLeases("node-b", List.of(job.getId()), LEASE));
+    }
+
+    @Test
+    void finishedJobIsReportedLostWithoutATakeover() {
+        GenerationJob job = queuedJob();
+        leaseService.claimJobs("node-a", 1, LEASE);
+        GenerationJob cancelled = jobRepository.findById(job.getId()).orElseThrow();
+        cancelled.setStatus(GenerationJobStatus.CANCELLED);
+        jobRepository.save(cancelled);
+
+        assertEquals(
+            List.of(new GenerationLeaseService.LostLease(job.getId(), false)),
+            leaseService.renewLeases("node-a", List.of(job.getId()), LEASE)
+        );
+    }
+
+    @Test
+    void restartedWorkerTakesItsOwnJobsBackAtOnce() {
+        Long jobId = queuedJob().getId();
+        leaseService.claimJobs("node-a", 1, LEASE);
+        assertEquals(List.of(), leaseService.claimJobs("node-a", 1, LEASE));
+
+        assertEquals(1, leaseService.expireLeases("node-a"));
+
+        assertEquals(List.of(jobId), leaseService.claimJobs("node-a", 1, LEASE));
+    }
+
+    private GenerationJob queuedJob() {
+        AppUser user = new AppUser();
+        user.setEmail(UUID.randomUUID() + "@firsttake.test");
+        user = userRepository.save(user);
+        Project project = new Project();
+        project.setUser(user);
+        project.setName("Leases");
+        project = projectRepository.save(project);
+        GenerationJob job = new GenerationJob();
+        job.setProject(project);
+        job.setUser(user);
+        return jobRepository.save(job);
+    }
+
+    private GenerationTask task(GenerationJob job, GenerationTaskStatus status) {
+        GenerationTask task = new GenerationTask();
+        task.setJob(job);
+        task.setTaskType(GenerationTaskType.SCENE);
+        task.setAssetType(AssetType.IMAGE);
+        task.setStatus(status);
+        return taskRepository.save(task);
+    }
+}
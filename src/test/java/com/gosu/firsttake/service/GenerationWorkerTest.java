@@ -0,0 +1,137 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.ai.Deadline;
+import com.gosu.firsttake.ai.ProviderTenant;
+import com.gosu.firsttake.api.dto.GenerationJobDtos;
+import com.gosu.firsttake.config.AiProviderProperties;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GenerationTaskType;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GenerationWorkerTest {
+    private static final String NODE = "node-a";
+    private static final Duration LEASE = Duration.ofSeconds(60);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final GenerationLeaseService leaseService = mock(GenerationLeaseService.class);
+    private final GenerationJobService jobService = mock(GenerationJobService.class);
+    private final AssetGenerationService assetGenerationService = mock(AssetGenerationService.class);
+    private final CountDownLatch calling = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        when(leaseService.claimJobs(NODE, 8, LEASE)).thenReturn(List.of(1L)).thenReturn(List.of());
+        when(jobService.startJob(1L)).thenReturn(Optional.of(new GenerationJobService.JobPlan(
+            1L, new ProviderTenant(7L, 1L, 1), Deadline.none(), "16:9", "alloy", true, List.of(
+                new GenerationJobService.TaskPlan(10L, null, GenerationTaskType.NARRATION, AssetType.AUDIO, "Line one.", null, false, 1, null)
+            ))));
+        when(jobService.markTaskRunning(anyLong())).thenReturn(job("RUNNING"));
+        when(jobService.failTask(anyLong(), any())).thenReturn(job("RUNNING"));
+        when(jobService.finishJob(1L)).thenReturn(job("CANCELLED"));
+        when(assetGenerationService.narrationCacheKey(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(assetGenerationService.generateNarration(any(), any(), any(), any())).thenAnswer(invocation -> {
+            calling.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw new IllegalStateException("TTS request interrupted.", ex);
+            }
+            GeneratedAsset asset = new GeneratedAsset();
+            asset.setAssetType(AssetType.AUDIO);
+            return asset;
+        });
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void heartbeatRenewsTheLeasesOfRunningJobsOnly() throws Exception {
+        when(leaseService.renewLeases(NODE, Set.of(1L), LEASE)).thenReturn(List.of());
+        GenerationWorker worker = worker();
+
+        worker.start();
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+        worker.heartbeat();
+
+        verify(leaseService).expireLeases(NODE);
+        verify(leaseService).renewLeases(NODE, Set.of(1L), LEASE);
+        assertTrue(interrupted.getCount() > 0, "a renewed job was interrupted");
+    }
+
+    @Test
+    void jobTakenOverByAnotherWorkerIsAbandonedWithoutWritingResults() throws Exception {
+        when(leaseService.renewLeases(NODE, Set.of(1L), LEASE))
+            .thenReturn(List.of(new GenerationLeaseService.LostLease(1L, true)));
+        GenerationWorker worker = worker();
+
+        worker.start();
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+        worker.heartbeat();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        verify(jobService, after(500).never()).failTask(anyLong(), any());
+        verify(jobService, never()).timeOutTask(anyLong(), any());
+        verify(jobService, never()).completeTask(anyLong(), any());
+        verify(jobService, never()).finishJob(1L);
+    }
+
+    @Test
+    void jobCancelledOnAnotherNodeIsInterruptedAndFinishedHere() throws Exception {
+        when(leaseService.renewLeases(NODE, Set.of(1L), LEASE))
+            .thenReturn(List.of(new GenerationLeaseService.LostLease(1L, false)));
+        GenerationWorker worker = worker();
+
+        worker.start();
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+        worker.heartbeat();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        verify(jobService, timeout(5_000)).finishJob(1L);
+    }
+
+    private GenerationWorker worker() {
+        AiProviderProperties properties = new AiProviderProperties();
+        properties.getWorker().setNodeId(NODE);
+        GenerationJobRunner runner = new GenerationJobRunner(
+            jobService,
+            assetGenerationService,
+            mock(ProjectService.class),
+            new GenerationJobEvents(),
+            mock(FalQueuePoller.class),
+            new GenerationCache(mock(GeneratedAssetRepository.class), new AiProviderProperties()),
+            executor
+        );
+        return new GenerationWorker(leaseService, runner, properties, executor);
+    }
+
+    private static GenerationJobDtos.JobDetail job(String status) {
+        return new GenerationJobDtos.JobDetail(1L, 1L, status, 1, 0, 0, 0, null, null, null, null, List.of());
+    }
+}
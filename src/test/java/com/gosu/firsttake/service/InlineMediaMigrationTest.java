@@ -0,0 +1,80 @@
+package com.gosu.firsttake.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InlineMediaMigrationTest {
+    private final InlineMediaClaims claims = mock(InlineMediaClaims.class);
+    private final GeneratedAssetRepository assetRepository = mock(GeneratedAssetRepository.class);
+    private final AssetStorage assetStorage = mock(AssetStorage.class);
+
+    @Test
+    void marksUnmigratableRowsSoTheyStopFillingBatches() throws IOException {
+        when(claims.claim(any(), any(), eq(20))).thenReturn(List.of(
+            asset(1L, "data:text/plain,hello"),
+            asset(2L, "data:image/png;base64,cGl4ZWxz")
+        ));
+        when(assetStorage.store(eq("image"), eq("png"), any()))
+            .thenReturn(new AssetStorage.StoredFile("image/abc.png", 6, "abc"));
+
+        migration().migrateBatch();
+
+        verify(assetRepository).markInlineMigrationFailed(eq(1L), any());
+        verify(assetRepository).completeInlineMigration(
+            2L, "image/abc.png", 6, "abc", "image/png", AssetContentService.contentUrl(2L));
+    }
+
+    @Test
+    void failedUploadLeavesTheRowToItsClaimTimeout() throws IOException {
+        when(claims.claim(any(), any(), eq(20))).thenReturn(List.of(asset(3L, "data:image/png;base64,cGl4ZWxz")));
+        when(assetStorage.store(any(), any(), any())).thenThrow(new IOException("bucket unavailable"));
+
+        migration().migrateBatch();
+
+        verify(assetRepository, never()).completeInlineMigration(
+            any(), anyString(), anyLong(), anyString(), anyString(), anyString());
+        verify(assetRepository, never()).markInlineMigrationFailed(any(), any());
+    }
+
+    @Test
+    void claimsOnlyRowsWhoseClaimHasLapsed() {
+        when(claims.claim(any(), any(), eq(20))).thenReturn(List.of());
+
+        Instant before = Instant.now();
+        migration().migrateBatch();
+
+        verify(claims).claim(
+            argThat(now -> !now.isBefore(before)),
+            argThat(cutoff -> !cutoff.isAfter(Instant.now().minus(Duration.ofMinutes(10)))),
+            eq(20)
+        );
+    }
+
+    private InlineMediaMigration migration() {
+        return new InlineMediaMigration(claims, assetRepository, assetStorage, new StorageProperties());
+    }
+
+    private static GeneratedAsset asset(long id, String url) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setId(id);
+        asset.setUrl(url);
+        return asset;
+    }
+}
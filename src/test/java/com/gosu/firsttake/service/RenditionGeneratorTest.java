@@ -0,0 +1,121 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.storage.AssetStorage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisabledOnOs(OS.WINDOWS)
+class RenditionGeneratorTest {
+    private final AssetRenditionService renditionService = mock(AssetRenditionService.class);
+    private final AssetStorage assetStorage = mock(AssetStorage.class);
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path original = Files.writeString(dir.resolve("original.bin"), "frames");
+        when(assetStorage.localCopy(anyString())).thenReturn(new AssetStorage.LocalCopy(original, false));
+        when(assetStorage.store(anyString(), eq("jpg"), any())).thenAnswer(invocation -> {
+            byte[] content = invocation.<InputStream>getArgument(2).readAllBytes();
+            return new AssetStorage.StoredFile(invocation.getArgument(0) + "/derived.jpg", content.length, "sha");
+        });
+    }
+
+    @Test
+    void videoGetsAPosterSpritesheetAndThumbnail() throws Exception {
+        source(AssetType.VIDEO, Map.of());
+
+        generator(ffmpeg("printf jpeg > \"$last\"")).deriveMissing(1L);
+
+        verify(renditionService).recordRendition(eq(1L), eq(RenditionKind.POSTER), eq("image/jpeg"), any());
+        verify(renditionService).recordRendition(eq(1L), eq(RenditionKind.SPRITESHEET), eq("image/jpeg"), any());
+        verify(renditionService).recordRendition(eq(1L), eq(RenditionKind.THUMBNAIL), eq("image/jpeg"), any());
+        verify(assetStorage).localCopy("poster/derived.jpg");
+    }
+
+    @Test
+    void imageGetsAThumbnailOnly() throws Exception {
+        source(AssetType.IMAGE, Map.of());
+
+        generator(ffmpeg("printf jpeg > \"$last\"")).deriveMissing(1L);
+
+        verify(renditionService).recordRendition(eq(1L), eq(RenditionKind.THUMBNAIL), eq("image/jpeg"), any());
+        verify(renditionService, never()).recordRendition(anyLong(), eq(RenditionKind.POSTER), any(), any());
+        verify(renditionService, never()).recordRendition(anyLong(), eq(RenditionKind.SPRITESHEET), any(), any());
+    }
+
+    @Test
+    void renditionsTheProviderReturnedAreKept() throws Exception {
+        source(AssetType.VIDEO, Map.of(RenditionKind.THUMBNAIL, "image/sora-thumbnail.jpg"));
+
+        generator(ffmpeg("printf jpeg > \"$last\"")).deriveMissing(1L);
+
+        verify(renditionService, never()).recordRendition(anyLong(), eq(RenditionKind.THUMBNAIL), any(), any());
+        verify(renditionService).recordRendition(eq(1L), eq(RenditionKind.POSTER), eq("image/jpeg"), any());
+    }
+
+    @Test
+    void ffmpegFailureIsReportedWithoutRecordingARendition() throws Exception {
+        source(AssetType.IMAGE, Map.of());
+
+        IOException failure = assertThrows(IOException.class,
+            () -> generator(ffmpeg("echo 'Invalid data found when processing input'; exit 1")).deriveMissing(1L));
+
+        assertTrue(failure.getMessage().contains("Invalid data found"), failure.getMessage());
+        verify(renditionService, never()).recordRendition(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void missingFfmpegIsSkippedQuietly() throws Exception {
+        source(AssetType.VIDEO, Map.of());
+
+        generator(dir.resolve("no-ffmpeg").toString()).deriveMissing(1L);
+
+        verify(renditionService, never()).recordRendition(anyLong(), any(), any(), any());
+    }
+
+    private void source(AssetType assetType, Map<RenditionKind, String> storedKeys) {
+        when(renditionService.findRenditionSource(1L)).thenReturn(Optional.of(
+            new AssetRenditionService.RenditionSource(assetType, "video/original.bin", storedKeys)
+        ));
+    }
+
+    // A stand-in for ffmpeg that runs the given shell body with the output path, always the last argument, in $last.
+    private String ffmpeg(String body) throws IOException {
+        Path script = dir.resolve("ffmpeg");
+        Files.writeString(script, "#!/bin/sh\nfor last; do :; done\n" + body + "\n");
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return script.toString();
+    }
+
+    private RenditionGenerator generator(String ffmpegPath) {
+        StorageProperties properties = new StorageProperties();
+        properties.getRenditions().setFfmpegPath(ffmpegPath);
+        return new RenditionGenerator(renditionService, assetStorage, properties);
+    }
+}
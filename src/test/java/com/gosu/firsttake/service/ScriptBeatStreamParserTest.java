@@ -0,0 +1,60 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ScriptBeatStreamParserTest {
+    private static final String OUTPUT = """
+        Here is your script:
+        ```json
+        [
+          {"sentence": "Meet the {new} lamp.", "scenePrompt": "A desk at night, a \\"warm\\" glow [close-up]."},
+          {"scriptSentence": "It follows you.", "prompt": "The lamp turns toward a reader."},
+          {"scenePrompt": "No sentence, so this one is skipped."},
+          {"sentence": "Light, finally smart.", "scenePrompt": "Logo on black."}
+        ]
+        ```
+        """;
+
+    @Test
+    void beatsAreEmittedAsSoonAsTheirObjectCloses() {
+        ScriptBeatStreamParser parser = new ScriptBeatStreamParser();
+        List<ScriptBeat> beats = new ArrayList<>();
+        int firstBeatAt = -1;
+        for (int i = 0; i < OUTPUT.length(); i++) {
+            beats.addAll(parser.feed(String.valueOf(OUTPUT.charAt(i))));
+            if (firstBeatAt < 0 && !beats.isEmpty()) {
+                firstBeatAt = i;
+            }
+        }
+
+        assertEquals(List.of(
+            new ScriptBeat("Meet the {new} lamp.", "A desk at night, a \"warm\" glow [close-up]."),
+            new ScriptBeat("It follows you.", "The lamp turns toward a reader."),
+            new ScriptBeat("Light, finally smart.", "Logo on black.")
+        ), beats);
+        assertEquals(OUTPUT.indexOf("glow [close-up].\"}") + "glow [close-up].\"}".length() - 1, firstBeatAt);
+    }
+
+    @Test
+    void streamedBeatsMatchTheBufferedParser() {
+        ScriptBeatStreamParser parser = new ScriptBeatStreamParser();
+        List<ScriptBeat> beats = new ArrayList<>();
+        for (int i = 0; i < OUTPUT.length(); i += 7) {
+            beats.addAll(parser.feed(OUTPUT.substring(i, Math.min(OUTPUT.length(), i + 7))));
+        }
+
+        assertEquals(ScriptBeats.parse(OUTPUT), beats);
+    }
+
+    @Test
+    void textWithoutAnArrayYieldsNoBeats() {
+        ScriptBeatStreamParser parser = new ScriptBeatStreamParser();
+
+        assertTrue(parser.feed("Meet the new lamp.\nIt follows you.\n").isEmpty());
+    }
+}
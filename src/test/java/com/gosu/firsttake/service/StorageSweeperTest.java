@@ -0,0 +1,167 @@
+package com.gosu.firsttake.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gosu.firsttake.config.StorageProperties;
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.GeneratedAssetStatus;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.StoredBlob;
+import com.gosu.firsttake.domain.TimelineBeat;
+import com.gosu.firsttake.repository.AppUserRepository;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import com.gosu.firsttake.repository.TimelineBeatRepository;
+import com.gosu.firsttake.storage.AssetStorage;
+import com.gosu.firsttake.storage.BlobRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StorageSweeperTest {
+    private final OrphanAssets orphanAssets = mock(OrphanAssets.class);
+    private final BlobRegistry blobRegistry = mock(BlobRegistry.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Autowired
+    private OrphanAssets storedOrphans;
+    @Autowired
+    private BlobRegistry storedBlobs;
+    @Autowired
+    private AppUserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TimelineBeatRepository beatRepository;
+    @Autowired
+    private GeneratedAssetRepository assetRepository;
+
+    @DynamicPropertySource
+    static void sweepProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:sweeper;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("firsttake.ai.worker.enabled", () -> "false");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @Test
+    void reportsBytesOfReclaimedBlobsOnly() {
+        when(blobRegistry.findUnreferenced(any(), anyInt()))
+            .thenReturn(List.of(blob("video/a.mp4", 1_000), blob("video/b.mp4", 500), blob("image/c.png", 20)));
+        when(blobRegistry.reclaim(eq("video/a.mp4"), any())).thenReturn(true);
+        when(blobRegistry.reclaim(eq("video/b.mp4"), any())).thenReturn(false);
+        when(blobRegistry.reclaim(eq("image/c.png"), any()))
+            .thenThrow(new UncheckedIOException(new IOException("bucket unavailable")));
+        when(orphanAssets.delete(any(), anyInt())).thenReturn(2);
+
+        sweeper(10).sweep();
+
+        assertEquals(1_000, registry.get("firsttake.storage.gc.reclaimed").counter().count());
+        assertEquals(1, registry.get("firsttake.storage.gc.deleted").tag("kind", "blob").counter().count());
+        assertEquals(2, registry.get("firsttake.storage.gc.deleted").tag("kind", "asset").counter().count());
+    }
+
+    @Test
+    void stopsAfterTheBatchLimitEvenWithBacklogLeft() {
+        when(orphanAssets.mark(any(), anyInt())).thenReturn(2);
+        when(orphanAssets.delete(any(), anyInt())).thenReturn(2);
+        when(blobRegistry.findUnreferenced(any(), anyInt()))
+            .thenReturn(List.of(blob("audio/a.mp3", 1), blob("audio/b.mp3", 1)));
+        when(blobRegistry.reclaim(any(), any())).thenReturn(true);
+
+        sweeper(2).sweep();
+
+        verify(orphanAssets, times(3)).delete(any(), eq(2));
+        verify(blobRegistry, times(3)).findUnreferenced(any(), eq(2));
+        assertEquals(6, registry.get("firsttake.storage.gc.deleted").tag("kind", "asset").counter().count());
+    }
+
+    @Test
+    void disabledSweepTouchesNothing() {
+        StorageProperties properties = new StorageProperties();
+        properties.getGc().setEnabled(false);
+
+        new StorageSweeper(orphanAssets, blobRegistry, mock(AssetStorage.class), properties, registry).sweep();
+
+        verify(orphanAssets, never()).mark(any(), anyInt());
+        verify(blobRegistry, never()).findUnreferenced(any(), anyInt());
+    }
+
+    @Test
+    void galleryAssetsWithoutABeatSurviveWhileFailedOnesAreDeleted() throws Exception {
+        AppUser user = new AppUser();
+        user.setEmail("sweeper@firsttake.test");
+        Project project = new Project();
+        project.setUser(userRepository.save(user));
+        project.setName("Sweeper");
+        project = projectRepository.save(project);
+        TimelineBeat beat = new TimelineBeat();
+        beat.setProject(project);
+        beat.setScenePrompt("Opening shot.");
+        beat = beatRepository.save(beat);
+        GeneratedAsset gallery = assetRepository.save(asset(project, null, GeneratedAssetStatus.READY));
+        GeneratedAsset onBeat = assetRepository.save(asset(project, beat, GeneratedAssetStatus.READY));
+        GeneratedAsset pending = assetRepository.save(asset(project, null, GeneratedAssetStatus.PENDING));
+        GeneratedAsset failed = assetRepository.save(asset(project, null, GeneratedAssetStatus.FAILED));
+        GeneratedAsset cancelled = assetRepository.save(asset(project, null, GeneratedAssetStatus.CANCELLED));
+        StorageProperties properties = new StorageProperties();
+        properties.getGc().setOrphanGrace(Duration.ZERO);
+        StorageSweeper sweeper = new StorageSweeper(storedOrphans, storedBlobs, mock(AssetStorage.class), properties, registry);
+
+        sweeper.sweep();
+        Thread.sleep(10);
+        sweeper.sweep();
+
+        assertTrue(assetRepository.existsById(gallery.getId()));
+        assertTrue(assetRepository.existsById(onBeat.getId()));
+        assertTrue(assetRepository.existsById(pending.getId()));
+        assertFalse(assetRepository.existsById(failed.getId()));
+        assertFalse(assetRepository.existsById(cancelled.getId()));
+    }
+
+    private StorageSweeper sweeper(int batchSize) {
+        StorageProperties properties = new StorageProperties();
+        properties.getGc().setBatchSize(batchSize);
+        properties.getGc().setBatchesPerRun(3);
+        return new StorageSweeper(orphanAssets, blobRegistry, mock(AssetStorage.class), properties, registry);
+    }
+
+    private static GeneratedAsset asset(Project project, TimelineBeat beat, GeneratedAssetStatus status) {
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setProject(project);
+        asset.setBeat(beat);
+        asset.setAssetType(AssetType.IMAGE);
+        asset.setStatus(status);
+        asset.setUrl("https://cdn.example.test/" + status + ".png");
+        return asset;
+    }
+
+    private static StoredBlob blob(String key, long sizeBytes) {
+        StoredBlob blob = new StoredBlob();
+        blob.setStorageKey(key);
+        blob.setSizeBytes(sizeBytes);
+        return blob;
+    }
+}
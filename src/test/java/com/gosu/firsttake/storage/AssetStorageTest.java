@@ -0,0 +1,57 @@
+package com.gosu.firsttake.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.gosu.firsttake.config.StorageProperties;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AssetStorageTest {
+    @TempDir
+    Path root;
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        AssetStorage storage = storage();
+
+        AssetStorage.StoredFile first = storage.store("video", "mp4", content("same frames"));
+        AssetStorage.StoredFile second = storage.store("video", "mp4", content("same frames"));
+        AssetStorage.StoredFile other = storage.store("video", "mp4", content("other frames"));
+
+        assertEquals(first, second);
+        assertNotEquals(first.key(), other.key());
+        assertEquals("video/" + first.sha256().substring(0, 2) + "/" + first.sha256() + ".mp4", first.key());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+        try (InputStream stored = storage.open(first.key())) {
+            assertArrayEquals("same frames".getBytes(StandardCharsets.UTF_8), stored.readAllBytes());
+        }
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() {
+        assertThrows(IllegalArgumentException.class, () -> storage().open("../secrets.txt"));
+    }
+
+    private AssetStorage storage() {
+        StorageProperties properties = new StorageProperties();
+        properties.setRoot(root.toString());
+        return new AssetStorage(new FileSystemBlobStore(properties), mock(BlobRegistry.class), properties);
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
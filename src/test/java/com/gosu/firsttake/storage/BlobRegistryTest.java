@@ -0,0 +1,85 @@
+package com.gosu.firsttake.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.gosu.firsttake.domain.AppUser;
+import com.gosu.firsttake.domain.AssetRendition;
+import com.gosu.firsttake.domain.AssetType;
+import com.gosu.firsttake.domain.GeneratedAsset;
+import com.gosu.firsttake.domain.Project;
+import com.gosu.firsttake.domain.RenditionKind;
+import com.gosu.firsttake.domain.StoredBlob;
+import com.gosu.firsttake.repository.AppUserRepository;
+import com.gosu.firsttake.repository.AssetRenditionRepository;
+import com.gosu.firsttake.repository.GeneratedAssetRepository;
+import com.gosu.firsttake.repository.ProjectRepository;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BlobRegistryTest {
+    @Autowired
+    private BlobRegistry blobRegistry;
+    @Autowired
+    private AppUserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private GeneratedAssetRepository assetRepository;
+    @Autowired
+    private AssetRenditionRepository renditionRepository;
+
+    @DynamicPropertySource
+    static void blobProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:blobs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("firsttake.ai.worker.enabled", () -> "false");
+        registry.add("firsttake.storage.mirror.enabled", () -> "false");
+        registry.add("firsttake.storage.gc.enabled", () -> "false");
+    }
+
+    @Test
+    void renditionBlobsAreNotReclaimed() {
+        blobRegistry.register("video/original.mp4", 1_000);
+        blobRegistry.register("poster/derived.jpg", 40);
+        blobRegistry.register("thumbnail/derived.jpg", 10);
+        blobRegistry.register("image/unused.png", 20);
+        AppUser user = new AppUser();
+        user.setEmail("blobs@firsttake.test");
+        Project project = new Project();
+        project.setUser(userRepository.save(user));
+        project.setName("Blobs");
+        GeneratedAsset asset = new GeneratedAsset();
+        asset.setProject(projectRepository.save(project));
+        asset.setAssetType(AssetType.VIDEO);
+        asset.setStorageKey("video/original.mp4");
+        asset = assetRepository.save(asset);
+        rendition(asset, RenditionKind.POSTER, "poster/derived.jpg");
+        rendition(asset, RenditionKind.THUMBNAIL, "thumbnail/derived.jpg");
+        Instant later = Instant.now().plusSeconds(60);
+
+        List<String> unreferenced = blobRegistry.findUnreferenced(later, 10).stream()
+            .map(StoredBlob::getStorageKey)
+            .toList();
+
+        assertEquals(List.of("image/unused.png"), unreferenced);
+        assertFalse(blobRegistry.reclaim("poster/derived.jpg", later));
+        assertFalse(blobRegistry.reclaim("thumbnail/derived.jpg", later));
+    }
+
+    private void rendition(GeneratedAsset asset, RenditionKind kind, String storageKey) {
+        AssetRendition rendition = new AssetRendition();
+        rendition.setAsset(asset);
+        rendition.setKind(kind);
+        rendition.setStorageKey(storageKey);
+        rendition.setMimeType("image/jpeg");
+        renditionRepository.save(rendition);
+    }
+}
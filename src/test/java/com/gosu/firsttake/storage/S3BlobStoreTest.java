@@ -0,0 +1,133 @@
+package com.gosu.firsttake.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.gosu.firsttake.config.StorageProperties;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class S3BlobStoreTest {
+    @TempDir
+    Path root;
+
+    private S3Stub stub;
+    private S3BlobStore blobStore;
+    private AssetStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new S3Stub();
+        StorageProperties properties = new StorageProperties();
+        properties.setRoot(root.toString());
+        properties.setBackend("s3");
+        StorageProperties.S3 s3 = properties.getS3();
+        s3.setEndpoint(stub.endpoint());
+        s3.setBucket(S3Stub.BUCKET);
+        s3.setAccessKey("stub-access");
+        s3.setSecretKey("stub-secret");
+        s3.setPathStyleAccess(true);
+        s3.setMultipartThreshold(DataSize.ofBytes(16));
+        s3.setPartSize(DataSize.ofBytes(8));
+        blobStore = new S3BlobStore(properties);
+        storage = new AssetStorage(blobStore, mock(BlobRegistry.class), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blobStore.close();
+        stub.close();
+    }
+
+    @Test
+    void storesContentOnceAndReadsItBack() throws IOException {
+        AssetStorage.StoredFile first = storage.store("image", "png", content("pixels"));
+        AssetStorage.StoredFile second = storage.store("image", "png", content("pixels"));
+
+        assertEquals(first, second);
+        assertEquals(1, stub.objectPuts());
+        assertArrayEquals(bytes("pixels"), stub.object(first.key()));
+        try (InputStream stored = storage.open(first.key())) {
+            assertArrayEquals(bytes("pixels"), stored.readAllBytes());
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void uploadsLargeContentInParts() throws IOException {
+        String frames = "0123456789abcdefghij";
+
+        AssetStorage.StoredFile stored = storage.store("video", "mp4", content(frames));
+
+        assertEquals(0, stub.objectPuts());
+        assertEquals(3, stub.partPuts());
+        assertEquals(0, stub.openUploads());
+        assertArrayEquals(bytes(frames), stub.object(stored.key()));
+    }
+
+    @Test
+    void streamsContentOfUnknownLengthInParts() throws IOException {
+        blobStore.put("video/unknown.mp4", content("0123456789abcdefghij"), -1);
+        blobStore.put("video/short.mp4", content("0123"), -1);
+
+        assertEquals(3, stub.partPuts());
+        assertEquals(1, stub.objectPuts());
+        assertArrayEquals(bytes("0123456789abcdefghij"), stub.object("video/unknown.mp4"));
+        assertArrayEquals(bytes("0123"), stub.object("video/short.mp4"));
+    }
+
+    @Test
+    void presignedUrlServesTheObject() throws Exception {
+        AssetStorage.StoredFile stored = storage.store("image", "png", content("pixels"));
+
+        URI signed = storage.presignedGet(stored.key(), "image/png").orElseThrow();
+
+        assertTrue(signed.toString().startsWith(stub.endpoint() + "/" + S3Stub.BUCKET + "/" + stored.key() + "?"));
+        assertTrue(signed.getRawQuery().contains("X-Amz-Signature="));
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+            .send(HttpRequest.newBuilder(signed).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertEquals("image/png", response.headers().firstValue("Content-Type").orElseThrow());
+        assertArrayEquals(bytes("pixels"), response.body());
+    }
+
+    @Test
+    void missingObjectsAreReportedAsMissing() throws IOException {
+        assertFalse(storage.exists("image/missing.png"));
+        assertThrows(NoSuchFileException.class, () -> storage.open("image/missing.png"));
+
+        AssetStorage.StoredFile stored = storage.store("image", "png", content("pixels"));
+        storage.delete(stored.key());
+
+        assertFalse(storage.exists(stored.key()));
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,236 @@
+package com.gosu.firsttake.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class S3Stub implements AutoCloseable {
+    public static final String BUCKET = "firsttake-test";
+
+    private final HttpServer server;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+    private final Map<String, TreeMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicInteger objectPuts = new AtomicInteger();
+    private final AtomicInteger partPuts = new AtomicInteger();
+
+    public S3Stub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public byte[] object(String key) {
+        return objects.get(key);
+    }
+
+    public int objectPuts() {
+        return objectPuts.get();
+    }
+
+    public int partPuts() {
+        return partPuts.get();
+    }
+
+    public int openUploads() {
+        return uploads.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String prefix = "/" + BUCKET + "/";
+            if (!path.startsWith(prefix)) {
+                error(exchange, 404, "NoSuchBucket");
+                return;
+            }
+            String key = path.substring(prefix.length());
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> put(exchange, key, query);
+                case "POST" -> post(exchange, key, query);
+                case "GET" -> get(exchange, key);
+                case "HEAD" -> head(exchange, key);
+                case "DELETE" -> delete(exchange, key, query);
+                default -> error(exchange, 405, "MethodNotAllowed");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void put(HttpExchange exchange, String key, Map<String, String> query) throws IOException {
+        byte[] body = body(exchange);
+        String etag = "\"" + md5(body) + "\"";
+        if (query.containsKey("uploadId")) {
+            TreeMap<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+            if (parts == null) {
+                error(exchange, 404, "NoSuchUpload");
+                return;
+            }
+            parts.put(Integer.parseInt(query.get("partNumber")), body);
+            partPuts.incrementAndGet();
+        } else {
+            objects.put(key, body);
+            etags.put(key, etag);
+            objectPuts.incrementAndGet();
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void post(HttpExchange exchange, String key, Map<String, String> query) throws IOException {
+        body(exchange);
+        if (query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new TreeMap<>());
+            xml(exchange, 200, "<InitiateMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                + "<Bucket>" + BUCKET + "</Bucket><Key>" + key + "</Key><UploadId>" + uploadId + "</UploadId>"
+                + "</InitiateMultipartUploadResult>");
+            return;
+        }
+        TreeMap<Integer, byte[]> parts = query.containsKey("uploadId") ? uploads.remove(query.get("uploadId")) : null;
+        if (parts == null) {
+            error(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        for (byte[] part : parts.values()) {
+            assembled.writeBytes(part);
+        }
+        String etag = "\"" + md5(assembled.toByteArray()) + "-" + parts.size() + "\"";
+        objects.put(key, assembled.toByteArray());
+        etags.put(key, etag);
+        xml(exchange, 200, "<CompleteMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+            + "<Location>" + endpoint() + "/" + BUCKET + "/" + key + "</Location><Bucket>" + BUCKET + "</Bucket>"
+            + "<Key>" + key + "</Key><ETag>" + etag.replace("\"", "&quot;") + "</ETag>"
+            + "</CompleteMultipartUploadResult>");
+    }
+
+    private void get(HttpExchange exchange, String key) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            error(exchange, 404, "NoSuchKey");
+            return;
+        }
+        String contentType = query(exchange.getRequestURI().getRawQuery()).get("response-content-type");
+        exchange.getResponseHeaders().set("Content-Type", contentType != null ? contentType : "binary/octet-stream");
+        exchange.getResponseHeaders().set("ETag", etags.get(key));
+        exchange.sendResponseHeaders(200, object.length == 0 ? -1 : object.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(object);
+        }
+    }
+
+    private void head(HttpExchange exchange, String key) throws IOException {
+        if (!objects.containsKey(key)) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", etags.get(key));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void delete(HttpExchange exchange, String key, Map<String, String> query) throws IOException {
+        if (query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+        } else {
+            objects.remove(key);
+            etags.remove(key);
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private static byte[] body(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream input = exchange.getRequestBody()) {
+            raw = input.readAllBytes();
+        }
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha256 == null || !contentSha256.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < raw.length) {
+            int lineEnd = indexOfCrlf(raw, position);
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt(semicolon >= 0 ? header.substring(0, semicolon) : header, 16);
+            if (size == 0) {
+                break;
+            }
+            decoded.write(raw, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Malformed aws-chunked body.");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery == null || rawQuery.isBlank()) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals >= 0 ? pair.substring(0, equals) : pair, StandardCharsets.UTF_8);
+            String value = equals >= 0 ? URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8) : "";
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private static void error(HttpExchange exchange, int status, String code) throws IOException {
+        xml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>");
+    }
+
+    private static void xml(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static String md5(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}